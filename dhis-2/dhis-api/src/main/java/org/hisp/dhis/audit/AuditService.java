@@ -35,6 +35,13 @@ import java.util.List;
 public interface AuditService {
   long addAudit(Audit audit);
 
+  /**
+   * Saves the given audits using a single batched insert.
+   *
+   * @param audits the audits to save
+   */
+  void addAudits(List<Audit> audits);
+
   int countAudits(AuditQuery query);
 
   List<Audit> getAudits(AuditQuery query);
@@ -84,8 +84,6 @@ public interface CacheProvider {
 
   <V> Cache<V> createPropertyTransformerCache();
 
-  <V> Cache<V> createProgramHasRulesCache();
-
   <V> Cache<V> createUserGroupNameCache();
 
   <V> Cache<V> createUserDisplayNameCache();
@@ -115,4 +113,8 @@ public interface CacheProvider {
   <V> Cache<V> createDataIntegrityDetailsCache();
 
   <V> Cache<V> createQueryAliasCache();
+
+  <V> Cache<V> createExpressionPlanCache();
+
+  <V> Cache<V> createProgramRuleContextCache();
 }
@@ -53,7 +53,6 @@ public enum Region {
   canDataWriteCocCache,
   analyticsSql,
   propertyTransformerCache,
-  programHasRulesCache,
   userGroupNameCache,
   userDisplayNameCache,
   pgmOrgUnitAssocCache,
@@ -66,5 +65,7 @@ public enum Region {
   securityCache,
   dataIntegritySummaryCache,
   dataIntegrityDetailsCache,
-  queryAliasCache
+  queryAliasCache,
+  expressionPlanCache,
+  programRuleContextCache
 }
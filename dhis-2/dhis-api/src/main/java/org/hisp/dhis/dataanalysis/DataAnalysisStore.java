@@ -31,6 +31,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.datavalue.DeflatedDataValue;
@@ -58,6 +59,36 @@ public interface DataAnalysisStore {
       OrganisationUnit orgUnit,
       Date from);
 
+  /**
+   * Replaces the min-max values of the given data elements for all organisation units in the
+   * subtree of the given parent. Values are generated in the database from the average and
+   * standard deviation of the data values of each organisation unit and category option combo,
+   * where the standard deviation is not zero.
+   *
+   * @param categoryOptionCombos the numeric data elements, with their category option combos.
+   * @param parent the parent organisation unit.
+   * @param from the from date for which to include data values.
+   * @param stdDevFactor the number of standard deviations from the average for the min and max.
+   * @return the number of generated min-max values.
+   */
+  int generateMinMaxValues(
+      Map<DataElement, Set<CategoryOptionCombo>> categoryOptionCombos,
+      OrganisationUnit parent,
+      Date from,
+      double stdDevFactor);
+
+  /**
+   * Returns the identifiers of those of the given data elements which have data values, deleted or
+   * not, updated since the given date for organisation units in the subtree of the given parent.
+   *
+   * @param dataElements the data elements.
+   * @param parent the parent organisation unit.
+   * @param since the date since which to look for updated data values.
+   * @return the identifiers of the data elements with updated data values.
+   */
+  Set<Long> getDataElementsWithDataChangedSince(
+      Collection<DataElement> dataElements, OrganisationUnit parent, Date since);
+
   /**
    * Generates a collection of data value violations of min-max predefined values.
    *
@@ -28,6 +28,7 @@
 package org.hisp.dhis.dataanalysis;
 
 import java.util.Collection;
+import java.util.Date;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 
@@ -41,4 +42,20 @@ public interface MinMaxDataAnalysisService extends DataAnalysisService {
    */
   void generateMinMaxValues(
       OrganisationUnit parent, Collection<DataElement> dataElements, Double stdDevFactor);
+
+  /**
+   * Generate min-max values. When a change date is given, only data elements with data values
+   * updated since that date are regenerated, and min-max values of all other data elements are
+   * left untouched.
+   *
+   * @param parent the parent organisation unit.
+   * @param dataElements the data elements.
+   * @param stdDevFactor the std dev factor.
+   * @param changedSince the date of the previous generation, or null to regenerate all.
+   */
+  void generateMinMaxValues(
+      OrganisationUnit parent,
+      Collection<DataElement> dataElements,
+      Double stdDevFactor,
+      Date changedSince);
 }
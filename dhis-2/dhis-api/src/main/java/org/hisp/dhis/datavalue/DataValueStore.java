@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.datavalue;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -178,6 +179,17 @@ public interface DataValueStore {
    */
   int getDataValueCountLastUpdatedBetween(Date startDate, Date endDate, boolean includeDeleted);
 
+  /**
+   * Gets the paths of the organisation units which have data values for any of the given data
+   * elements that were updated or deleted since the given date.
+   *
+   * @param since the date to compare against data value last updated.
+   * @param dataElementUids the data element identifiers.
+   * @return a list of distinct organisation unit paths.
+   */
+  List<String> getOrganisationUnitPathsWithDataChangedSince(
+      Date since, Collection<String> dataElementUids);
+
   /**
    * Checks if any data values exist for the provided {@link CategoryCombo}.
    *
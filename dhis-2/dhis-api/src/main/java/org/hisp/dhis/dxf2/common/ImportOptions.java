@@ -98,6 +98,14 @@ public class ImportOptions implements JobParameters {
   @JsonProperty(namespace = DxfNamespaces.DXF_2_0)
   private boolean skipExistingCheck;
 
+  /**
+   * If true, data values are looked up and written in chunks through a staging table with
+   * set-based statements, instead of statements per data value. Only applies to data value set
+   * imports.
+   */
+  @JsonProperty(namespace = DxfNamespaces.DXF_2_0)
+  private boolean bulkImport;
+
   @JsonProperty(namespace = DxfNamespaces.DXF_2_0)
   private boolean sharing;
 
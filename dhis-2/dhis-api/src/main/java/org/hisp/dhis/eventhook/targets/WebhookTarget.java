@@ -61,6 +61,15 @@ public class WebhookTarget extends Target {
 
   @JsonProperty private Auth auth;
 
+  /**
+   * Maximum number of events sent in one request. Values above 1 send the events as a JSON array,
+   * 1 sends each event on its own.
+   */
+  @JsonProperty private int batchSize = 1;
+
+  /** Maximum number of requests in flight to this target at the same time. */
+  @JsonProperty private int maxConcurrency = 5;
+
   public WebhookTarget() {
     super(TYPE);
   }
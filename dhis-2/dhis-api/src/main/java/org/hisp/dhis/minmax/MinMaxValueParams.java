@@ -29,6 +29,7 @@ package org.hisp.dhis.minmax;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import java.util.Date;
 import java.util.List;
 
 @JacksonXmlRootElement
@@ -37,6 +38,8 @@ public class MinMaxValueParams {
 
   private String organisationUnit;
 
+  private Date changedSince;
+
   public MinMaxValueParams() {}
 
   public MinMaxValueParams(List<String> dataSets, String organisationUnit) {
@@ -61,4 +64,13 @@ public class MinMaxValueParams {
   public void setOrganisationUnit(String organisationUnit) {
     this.organisationUnit = organisationUnit;
   }
+
+  @JsonProperty
+  public Date getChangedSince() {
+    return changedSince;
+  }
+
+  public void setChangedSince(Date changedSince) {
+    this.changedSince = changedSince;
+  }
 }
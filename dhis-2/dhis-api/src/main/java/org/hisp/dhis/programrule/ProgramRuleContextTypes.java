@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.programrule;
+
+import java.util.Set;
+import javax.annotation.Nonnull;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.hisp.dhis.constant.Constant;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.option.Option;
+import org.hisp.dhis.option.OptionSet;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.organisationunit.OrganisationUnitGroup;
+import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
+
+/**
+ * Types of the objects the rule engine context of a program is built from. Changes to objects of
+ * these types outdate cached contexts, also when made on another server.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ProgramRuleContextTypes {
+  private static final Set<Class<?>> TYPES =
+      Set.of(
+          ProgramRule.class,
+          ProgramRuleAction.class,
+          ProgramRuleVariable.class,
+          Constant.class,
+          OrganisationUnitGroup.class,
+          DataElement.class,
+          TrackedEntityAttribute.class,
+          OptionSet.class,
+          Option.class);
+
+  private static final String ORG_UNIT_GROUPS_ROLE = OrganisationUnit.class.getName() + ".groups";
+
+  /**
+   * @param type the type of a changed object
+   * @return true if contexts are built from objects of the given type
+   */
+  public static boolean isContextType(@Nonnull Class<?> type) {
+    return TYPES.stream().anyMatch(contextType -> contextType.isAssignableFrom(type));
+  }
+
+  /**
+   * Changes of collections do not update the owning object. Org unit group membership can be
+   * changed from either side, so changes of the org unit groups of an org unit affect contexts as
+   * well.
+   *
+   * @param ownerType the type of the object owning a changed collection
+   * @param role the role of the changed collection
+   * @return true if contexts are built from the given collection
+   */
+  public static boolean isContextCollection(@Nonnull Class<?> ownerType, String role) {
+    return OrganisationUnitGroup.class.isAssignableFrom(ownerType)
+        || (OrganisationUnit.class.isAssignableFrom(ownerType)
+            && ORG_UNIT_GROUPS_ROLE.equals(role));
+  }
+}
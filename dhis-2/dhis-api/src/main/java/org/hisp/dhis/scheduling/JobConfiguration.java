@@ -61,6 +61,7 @@ import org.hisp.dhis.scheduling.parameters.HtmlPushAnalyticsJobParameters;
 import org.hisp.dhis.scheduling.parameters.LockExceptionCleanupJobParameters;
 import org.hisp.dhis.scheduling.parameters.MetadataSyncJobParameters;
 import org.hisp.dhis.scheduling.parameters.MonitoringJobParameters;
+import org.hisp.dhis.scheduling.parameters.PotentialDuplicateDetectionJobParameters;
 import org.hisp.dhis.scheduling.parameters.PredictorJobParameters;
 import org.hisp.dhis.scheduling.parameters.PushAnalysisJobParameters;
 import org.hisp.dhis.scheduling.parameters.SmsJobParameters;
@@ -290,6 +291,9 @@ public class JobConfiguration extends BaseIdentifiableObject implements Secondar
         @JsonSubTypes.Type(
             value = TrackerTrigramIndexJobParameters.class,
             name = "TRACKER_SEARCH_OPTIMIZATION"),
+        @JsonSubTypes.Type(
+            value = PotentialDuplicateDetectionJobParameters.class,
+            name = "POTENTIAL_DUPLICATE_DETECTION"),
         @JsonSubTypes.Type(value = DataIntegrityJobParameters.class, name = "DATA_INTEGRITY"),
         @JsonSubTypes.Type(
             value = DataIntegrityDetailsJobParameters.class,
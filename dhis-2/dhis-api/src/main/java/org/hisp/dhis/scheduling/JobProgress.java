@@ -165,6 +165,16 @@ public interface JobProgress {
     return isCancelled();
   }
 
+  /**
+   * @return the executor shared between jobs used to process the items of {@link
+   *     #runStageInParallel(int, Collection, Function, Consumer)}, or null to use a pool dedicated
+   *     to the stage
+   */
+  @CheckForNull
+  default JobStageExecutor getStageExecutor() {
+    return null;
+  }
+
   /*
   Error reporting API:
   */
@@ -537,6 +547,9 @@ public interface JobProgress {
    *
    * <p>If cancellation is requested work items might be skipped entirely.
    *
+   * <p>When the progress provides a {@link #getStageExecutor()} the items are processed by the
+   * threads of that executor, otherwise a pool dedicated to the stage is used.
+   *
    * @param parallelism number of items that at maximum should be processed in parallel
    * @param items work item inputs to be processed in parallel
    * @param description function to extract a description for a work item, may return {@code null}
@@ -555,34 +568,33 @@ public interface JobProgress {
     AtomicInteger success = new AtomicInteger();
     AtomicInteger failed = new AtomicInteger();
 
-    Callable<Boolean> task =
-        () ->
-            items.parallelStream()
-                .map(
-                    item -> {
-                      if (isSkipCurrentStage()) {
-                        return false;
-                      }
-                      startingWorkItem(description.apply(item));
-                      try {
-                        work.accept(item);
-                        completedWorkItem(null);
-                        success.incrementAndGet();
-                        return true;
-                      } catch (Exception ex) {
-                        failedWorkItem(ex);
-                        failed.incrementAndGet();
-                        return false;
-                      }
-                    })
-                .reduce(Boolean::logicalAnd)
-                .orElse(false);
-
-    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    Consumer<T> runItem =
+        item -> {
+          if (isSkipCurrentStage()) {
+            return;
+          }
+          startingWorkItem(description.apply(item));
+          try {
+            work.accept(item);
+            completedWorkItem(null);
+            success.incrementAndGet();
+          } catch (Exception ex) {
+            failedWorkItem(ex);
+            failed.incrementAndGet();
+          }
+        };
+
+    JobStageExecutor executor = getStageExecutor();
+    ForkJoinPool pool = executor == null ? new ForkJoinPool(parallelism) : null;
     try {
-      // this might not be obvious but running a parallel stream
-      // as task in a FJP makes the stream use the pool
-      boolean allSuccessful = pool.submit(task).get();
+      if (executor != null) {
+        executor.execute(parallelism, items, runItem);
+      } else {
+        // this might not be obvious but running a parallel stream
+        // as task in a FJP makes the stream use the pool
+        pool.submit(() -> items.parallelStream().forEach(runItem)).get();
+      }
+      boolean allSuccessful = !items.isEmpty() && success.get() == items.size();
       if (allSuccessful) {
         completedStage(null);
       } else {
@@ -598,7 +610,9 @@ public interface JobProgress {
     } catch (Exception ex) {
       failedStage(ex);
     } finally {
-      pool.shutdown();
+      if (pool != null) {
+        pool.shutdown();
+      }
     }
   }
 
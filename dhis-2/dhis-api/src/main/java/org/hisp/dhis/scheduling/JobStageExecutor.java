@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.scheduling;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+
+/**
+ * Processes the work items of a parallel {@link JobProgress} stage for a single job run.
+ *
+ * <p>Implementations are expected to share a bounded pool of threads between all jobs so that
+ * concurrently running jobs do not each create their own threads.
+ *
+ * @since 2.42
+ */
+public interface JobStageExecutor {
+
+  /**
+   * Processes all items and returns when all of them are done.
+   *
+   * <p>Items that are not yet started when the job is cancelled are not processed. Work items that
+   * are running when the job is cancelled are interrupted.
+   *
+   * @param parallelism number of items that at maximum should be processed in parallel
+   * @param items work item inputs to process
+   * @param work function to execute the work of a single work item input, an exception thrown by
+   *     it stops processing further items and is rethrown once the running items are done
+   * @param <T> type of work item input
+   * @throws InterruptedException when the calling thread got interrupted while waiting for the
+   *     items to complete
+   */
+  <T> void execute(int parallelism, @Nonnull Collection<T> items, @Nonnull Consumer<T> work)
+      throws InterruptedException;
+}
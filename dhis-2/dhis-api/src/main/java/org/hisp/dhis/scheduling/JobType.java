@@ -52,6 +52,7 @@ import org.hisp.dhis.scheduling.parameters.LockExceptionCleanupJobParameters;
 import org.hisp.dhis.scheduling.parameters.MetadataSyncJobParameters;
 import org.hisp.dhis.scheduling.parameters.MockJobParameters;
 import org.hisp.dhis.scheduling.parameters.MonitoringJobParameters;
+import org.hisp.dhis.scheduling.parameters.PotentialDuplicateDetectionJobParameters;
 import org.hisp.dhis.scheduling.parameters.PredictorJobParameters;
 import org.hisp.dhis.scheduling.parameters.PushAnalysisJobParameters;
 import org.hisp.dhis.scheduling.parameters.SmsInboundProcessingJobParameters;
@@ -85,6 +86,7 @@ public enum JobType {
   PUSH_ANALYSIS(PushAnalysisJobParameters.class),
   HTML_PUSH_ANALYTICS(HtmlPushAnalyticsJobParameters.class),
   TRACKER_SEARCH_OPTIMIZATION(TrackerTrigramIndexJobParameters.class),
+  POTENTIAL_DUPLICATE_DETECTION(PotentialDuplicateDetectionJobParameters.class),
   PREDICTOR(PredictorJobParameters.class),
   MATERIALIZED_SQL_VIEW_UPDATE(SqlViewUpdateParameters.class),
   DISABLE_INACTIVE_USERS(DisableInactiveUsersJobParameters.class),
@@ -272,6 +274,7 @@ public enum JobType {
       case PUSH_ANALYSIS -> Map.of("pushAnalysis", "/api/pushAnalysis");
       case TRACKER_SEARCH_OPTIMIZATION ->
           Map.of("attributes", "/api/trackedEntityAttributes/indexable");
+      case POTENTIAL_DUPLICATE_DETECTION -> Map.of("attributes", "/api/trackedEntityAttributes");
       case PREDICTOR ->
           Map.of(
               "predictors", "/api/predictors",
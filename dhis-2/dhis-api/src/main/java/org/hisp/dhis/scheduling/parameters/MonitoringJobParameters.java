@@ -64,6 +64,13 @@ public class MonitoringJobParameters implements JobParameters {
 
   @JsonProperty private boolean persistResults;
 
+  /**
+   * If true, only organisation units with data changed since the previous successful run are
+   * validated again, and persisted results for them which no longer hold are removed. The first run,
+   * and any run after a failed run, validates all organisation units.
+   */
+  @JsonProperty private boolean incremental;
+
   public MonitoringJobParameters(
       int relativeStart,
       int relativeEnd,
@@ -38,6 +38,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import org.hisp.dhis.common.DxfNamespaces;
 import org.hisp.dhis.common.EmbeddedObject;
 import org.hisp.dhis.common.IdentifiableObject;
@@ -71,6 +73,12 @@ public class Property implements Ordered, Klass {
   /** Direct link to setter for this property. */
   private Method setterMethod;
 
+  /** Generated accessor for {@link #getterMethod}, see {@link #getValue(Object)}. */
+  private transient volatile Function<Object, Object> getter;
+
+  /** Generated accessor for {@link #setterMethod}, see {@link #setValue(Object, Object)}. */
+  private transient volatile BiConsumer<Object, Object> setter;
+
   /**
    * Name for this property, if this class is a collection, it is the name of the items -inside- the
    * collection and not the collection wrapper itself.
@@ -289,6 +297,7 @@ public class Property implements Ordered, Klass {
 
   public void setGetterMethod(Method getterMethod) {
     this.getterMethod = getterMethod;
+    this.getter = null;
   }
 
   public Method getSetterMethod() {
@@ -297,6 +306,77 @@ public class Property implements Ordered, Klass {
 
   public void setSetterMethod(Method setterMethod) {
     this.setterMethod = setterMethod;
+    this.setter = null;
+  }
+
+  /**
+   * Reads the value of this property from the given object using a generated accessor for the
+   * {@link #getGetterMethod()} instead of reflection.
+   *
+   * <p>Like {@code ReflectionUtils.invokeMethod} this returns null when the target is null or when
+   * there is no public getter.
+   *
+   * @param target the object to read from
+   * @return the property value
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T getValue(Object target) {
+    if (target == null) {
+      return null;
+    }
+    Function<Object, Object> accessor = getter;
+    if (accessor == null) {
+      accessor = initGetter();
+    }
+    return (T) accessor.apply(target);
+  }
+
+  /**
+   * Writes the value of this property to the given object using a generated accessor for the
+   * {@link #getSetterMethod()} instead of reflection.
+   *
+   * <p>Like {@code ReflectionUtils.invokeMethod} this does nothing when the target is null or when
+   * there is no public setter.
+   *
+   * @param target the object to write to
+   * @param value the new property value
+   */
+  public void setValue(Object target, Object value) {
+    if (target == null) {
+      return;
+    }
+    BiConsumer<Object, Object> accessor = setter;
+    if (accessor == null) {
+      accessor = initSetter();
+    }
+    accessor.accept(target, value);
+  }
+
+  /**
+   * Generates the accessors used by {@link #getValue(Object)} and {@link #setValue(Object,
+   * Object)} up front, so that the cost is paid once when the schema is registered.
+   */
+  public void initAccessors() {
+    initGetter();
+    initSetter();
+  }
+
+  private Function<Object, Object> initGetter() {
+    Function<Object, Object> accessor = PropertyAccessors.getter(getterMethod);
+    if (accessor == null) {
+      accessor = target -> null;
+    }
+    getter = accessor;
+    return accessor;
+  }
+
+  private BiConsumer<Object, Object> initSetter() {
+    BiConsumer<Object, Object> accessor = PropertyAccessors.setter(setterMethod);
+    if (accessor == null) {
+      accessor = (target, value) -> {};
+    }
+    setter = accessor;
+    return accessor;
   }
 
   @JsonProperty
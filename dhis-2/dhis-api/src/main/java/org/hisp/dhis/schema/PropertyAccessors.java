@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.schema;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generates accessor functions for the getter and setter methods of a {@link Property}.
+ *
+ * <p>Accessors are created with {@link LambdaMetafactory} so that invoking them is as cheap as a
+ * direct call once inlined. When a method cannot be bound this way (for example because its
+ * declaring class is not accessible) a reflective accessor is used instead.
+ *
+ * <p>Only public methods get an accessor, mirroring the behaviour of {@code
+ * ReflectionUtils.invokeMethod} which ignores protected and private methods.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class PropertyAccessors {
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Function.class);
+
+  private static final MethodType SETTER_TYPE = MethodType.methodType(BiConsumer.class);
+
+  @CheckForNull
+  static Function<Object, Object> getter(@CheckForNull Method method) {
+    if (!isAccessible(method, 0)) {
+      return null;
+    }
+    try {
+      MethodHandles.Lookup lookup = lookupIn(method);
+      MethodHandle handle = lookup.unreflect(method);
+      CallSite site =
+          LambdaMetafactory.metafactory(
+              lookup,
+              "apply",
+              GETTER_TYPE,
+              MethodType.methodType(Object.class, Object.class),
+              handle,
+              handle.type().wrap());
+      @SuppressWarnings("unchecked")
+      Function<Object, Object> getter = (Function<Object, Object>) site.getTarget().invoke();
+      return getter;
+    } catch (Throwable ex) {
+      log.debug("Falling back to reflective getter for {}: {}", method, ex.getMessage());
+      return target -> invoke(method, target);
+    }
+  }
+
+  @CheckForNull
+  static BiConsumer<Object, Object> setter(@CheckForNull Method method) {
+    if (!isAccessible(method, 1)) {
+      return null;
+    }
+    try {
+      MethodHandles.Lookup lookup = lookupIn(method);
+      MethodHandle handle = lookup.unreflect(method);
+      CallSite site =
+          LambdaMetafactory.metafactory(
+              lookup,
+              "accept",
+              SETTER_TYPE,
+              MethodType.methodType(void.class, Object.class, Object.class),
+              handle,
+              handle.type().wrap().changeReturnType(void.class));
+      @SuppressWarnings("unchecked")
+      BiConsumer<Object, Object> setter = (BiConsumer<Object, Object>) site.getTarget().invoke();
+      return setter;
+    } catch (Throwable ex) {
+      log.debug("Falling back to reflective setter for {}: {}", method, ex.getMessage());
+      return (target, value) -> invoke(method, target, value);
+    }
+  }
+
+  private static boolean isAccessible(@CheckForNull Method method, int parameterCount) {
+    return method != null
+        && Modifier.isPublic(method.getModifiers())
+        && !Modifier.isStatic(method.getModifiers())
+        && method.getParameterCount() == parameterCount;
+  }
+
+  private static MethodHandles.Lookup lookupIn(@Nonnull Method method)
+      throws IllegalAccessException {
+    return MethodHandles.privateLookupIn(method.getDeclaringClass(), LOOKUP);
+  }
+
+  private static Object invoke(@Nonnull Method method, Object target, Object... args) {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException | IllegalAccessException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+}
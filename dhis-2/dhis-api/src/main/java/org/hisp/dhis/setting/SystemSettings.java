@@ -667,6 +667,14 @@ public non-sealed interface SystemSettings extends Settings {
     return asEnum("keyAnalyticsCacheTtlMode", AnalyticsCacheTtlMode.FIXED);
   }
 
+  /**
+   * @return true if the analytics API cache should hold immutable grid snapshots which are shared
+   *     between cache hits, false if grids should be cloned on every cache access.
+   */
+  default boolean getAnalyticsCacheSnapshotEnabled() {
+    return asBoolean("keyAnalyticsCacheSnapshotEnabled", false);
+  }
+
   /**
    * @return The offset of years used during period generation during the analytics export process.
    */
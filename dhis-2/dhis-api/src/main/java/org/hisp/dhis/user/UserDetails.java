@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.user;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
@@ -40,6 +41,7 @@ import org.hisp.dhis.common.UidObject;
 import org.hisp.dhis.security.Authorities;
 import org.hisp.dhis.security.twofa.TwoFactorType;
 import org.hisp.dhis.user.UserDetailsImpl.UserDetailsImplBuilder;
+import org.hisp.dhis.user.sharing.UserGroupIndex;
 import org.springframework.security.core.GrantedAuthority;
 
 public interface UserDetails
@@ -218,6 +220,15 @@ public interface UserDetails
   @Nonnull
   Set<String> getUserGroupIds();
 
+  /**
+   * @return the {@link #getUserGroupIds()} as set bits of their {@link UserGroupIndex} indexes,
+   *     must not be modified
+   */
+  @Nonnull
+  default BitSet getUserGroupBits() {
+    return UserGroupIndex.toBitSet(getUserGroupIds());
+  }
+
   @Nonnull
   Set<String> getAllAuthorities();
 
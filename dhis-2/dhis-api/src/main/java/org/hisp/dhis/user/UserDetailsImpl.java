@@ -27,9 +27,12 @@
  */
 package org.hisp.dhis.user;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nonnull;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -72,6 +75,25 @@ public class UserDetailsImpl implements UserDetails {
   private final boolean isSuper;
   @Nonnull private final Set<String> userRoleIds;
 
+  /** Lazily computed {@link #getUserGroupBits()}, local to the JVM and therefore transient. */
+  @Getter(AccessLevel.NONE)
+  private final transient AtomicReference<BitSet> userGroupBits = new AtomicReference<>();
+
+  @Nonnull
+  @Override
+  public BitSet getUserGroupBits() {
+    if (userGroupBits == null) {
+      // deserialized by Java serialization which skips the initializer
+      return UserDetails.super.getUserGroupBits();
+    }
+    BitSet bits = userGroupBits.get();
+    if (bits == null) {
+      bits = UserDetails.super.getUserGroupBits();
+      userGroupBits.set(bits);
+    }
+    return bits;
+  }
+
   @Override
   public boolean canModifyUser(User other) {
     if (other == null) {
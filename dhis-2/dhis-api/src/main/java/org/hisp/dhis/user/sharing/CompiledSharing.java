@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.user.sharing;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.hisp.dhis.sharing.AccessObject;
+import org.hisp.dhis.user.UserDetails;
+
+/**
+ * A {@link Sharing} compiled to permission bitmasks per principal, with user groups interned to
+ * {@link UserGroupIndex} indexes which are tested against {@link UserDetails#getUserGroupBits()}.
+ *
+ * <p>Access strings are parsed once when compiling instead of on every check. The compiled form
+ * remembers the identity of the access strings and maps it was compiled from, so that {@link
+ * Sharing#compiled()} can detect changes made to the {@link Sharing} since and recompile.
+ */
+public final class CompiledSharing {
+
+  /** Mask bit of the metadata read permission, position 1 of the access string. */
+  public static final int READ = 1;
+
+  /** Mask bit of the metadata write permission, position 2 of the access string. */
+  public static final int WRITE = 1 << 1;
+
+  /** Mask bit of the data read permission, position 3 of the access string. */
+  public static final int DATA_READ = 1 << 2;
+
+  /** Mask bit of the data write permission, position 4 of the access string. */
+  public static final int DATA_WRITE = 1 << 3;
+
+  /** Mask bit set for all valid access strings. */
+  public static final int VALID = 1 << 4;
+
+  private static final int PERMISSIONS = READ | WRITE | DATA_READ | DATA_WRITE;
+
+  /** Mask of a null access string which grants all permissions. */
+  private static final int ALL = PERMISSIONS | VALID;
+
+  private static final String[] EMPTY = new String[0];
+
+  private final String publicAccess;
+
+  private final Map<String, UserAccess> users;
+
+  private final Map<String, UserGroupAccess> userGroups;
+
+  /** The id and access of the user accesses in iteration order at the time of compilation. */
+  private final String[] usersSnapshot;
+
+  /** The id and access of the user group accesses in iteration order at the time of compilation. */
+  private final String[] userGroupsSnapshot;
+
+  private final int publicMask;
+
+  private final String[] userIds;
+
+  private final int[] userMasks;
+
+  private final int[] userGroupIndexes;
+
+  private final int[] userGroupMasks;
+
+  private CompiledSharing(Sharing sharing) {
+    publicAccess = sharing.getPublicAccess();
+    users = sharing.getUsers();
+    userGroups = sharing.getUserGroups();
+    usersSnapshot = snapshot(users);
+    userGroupsSnapshot = snapshot(userGroups);
+    publicMask = toMask(publicAccess);
+
+    List<AccessObject> userEntries = grantingEntries(users);
+    userIds = new String[userEntries.size()];
+    userMasks = new int[userEntries.size()];
+    for (int i = 0; i < userIds.length; i++) {
+      userIds[i] = userEntries.get(i).getId();
+      userMasks[i] = toMask(userEntries.get(i).getAccess());
+    }
+
+    List<AccessObject> userGroupEntries = grantingEntries(userGroups);
+    userGroupIndexes = new int[userGroupEntries.size()];
+    userGroupMasks = new int[userGroupEntries.size()];
+    for (int i = 0; i < userGroupIndexes.length; i++) {
+      userGroupIndexes[i] = UserGroupIndex.indexOf(userGroupEntries.get(i).getId());
+      userGroupMasks[i] = toMask(userGroupEntries.get(i).getAccess());
+    }
+  }
+
+  @Nonnull
+  static CompiledSharing of(@Nonnull Sharing sharing) {
+    return new CompiledSharing(sharing);
+  }
+
+  /**
+   * Parses an access string to a bitmask of the {@link #READ}, {@link #WRITE}, {@link #DATA_READ}
+   * and {@link #DATA_WRITE} permissions it grants. Valid access strings also have the {@link
+   * #VALID} bit set. A null access string is valid and grants all permissions, an invalid access
+   * string grants none.
+   *
+   * @param access an access string like {@code rw------}, or null
+   * @return the permission bitmask
+   */
+  public static int toMask(String access) {
+    if (access == null) {
+      return ALL;
+    }
+    if (access.length() != 8 || !access.endsWith("----")) {
+      return 0;
+    }
+    int mask = VALID;
+    mask |= bit(access.charAt(0), 'r', READ);
+    mask |= bit(access.charAt(1), 'w', WRITE);
+    mask |= bit(access.charAt(2), 'r', DATA_READ);
+    mask |= bit(access.charAt(3), 'w', DATA_WRITE);
+    return mask < 0 ? 0 : mask;
+  }
+
+  private static int bit(char c, char enabled, int bit) {
+    if (c == enabled) {
+      return bit;
+    }
+    return c == '-' ? 0 : Integer.MIN_VALUE;
+  }
+
+  /**
+   * Same as checking the public access, the user group accesses of the user's groups and the user
+   * accesses of the user for the given permission, not considering the owner.
+   *
+   * @param user the user to check
+   * @param permission one or more of the permission mask bits, any of which is sufficient
+   * @return true if any of the given permissions is granted to the user
+   */
+  public boolean isEnabled(@Nonnull UserDetails user, int permission) {
+    if ((publicMask & permission) != 0) {
+      return true;
+    }
+    if (userGroupIndexes.length > 0) {
+      BitSet userGroupBits = user.getUserGroupBits();
+      for (int i = 0; i < userGroupIndexes.length; i++) {
+        if ((userGroupMasks[i] & permission) != 0 && userGroupBits.get(userGroupIndexes[i])) {
+          return true;
+        }
+      }
+    }
+    for (int i = 0; i < userIds.length; i++) {
+      if ((userMasks[i] & permission) != 0 && userIds[i].equals(user.getUid())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param sharing a sharing
+   * @return true if this was compiled from the given sharing in its current state
+   */
+  boolean isCompiledFrom(@Nonnull Sharing sharing) {
+    return sharing.getPublicAccess() == publicAccess
+        && sharing.getUsers() == users
+        && sharing.getUserGroups() == userGroups
+        && isSnapshotOf(users, usersSnapshot)
+        && isSnapshotOf(userGroups, userGroupsSnapshot);
+  }
+
+  private static String[] snapshot(Map<String, ? extends AccessObject> accesses) {
+    if (accesses == null || accesses.isEmpty()) {
+      return EMPTY;
+    }
+    String[] snapshot = new String[accesses.size() * 2];
+    int i = 0;
+    for (AccessObject access : accesses.values()) {
+      snapshot[i++] = access == null ? null : access.getId();
+      snapshot[i++] = access == null ? null : access.getAccess();
+    }
+    return snapshot;
+  }
+
+  /** Compares by identity, strings are immutable so an equal reference means equal content. */
+  private static boolean isSnapshotOf(
+      Map<String, ? extends AccessObject> accesses, String[] snapshot) {
+    if (accesses == null) {
+      return snapshot.length == 0;
+    }
+    if (accesses.size() * 2 != snapshot.length) {
+      return false;
+    }
+    int i = 0;
+    for (AccessObject access : accesses.values()) {
+      String id = access == null ? null : access.getId();
+      String accessString = access == null ? null : access.getAccess();
+      if (id != snapshot[i] || accessString != snapshot[i + 1]) {
+        return false;
+      }
+      i += 2;
+    }
+    return true;
+  }
+
+  /** Entries which have an id and grant at least one permission. */
+  private static List<AccessObject> grantingEntries(Map<String, ? extends AccessObject> accesses) {
+    List<AccessObject> entries = new ArrayList<>();
+    if (accesses != null) {
+      for (AccessObject access : accesses.values()) {
+        if (access != null
+            && access.getId() != null
+            && (toMask(access.getAccess()) & PERMISSIONS) != 0) {
+          entries.add(access);
+        }
+      }
+    }
+    return entries;
+  }
+}
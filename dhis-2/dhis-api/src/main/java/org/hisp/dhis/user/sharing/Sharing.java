@@ -38,7 +38,9 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.UnaryOperator;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -82,6 +84,12 @@ public class Sharing implements Serializable {
   @JacksonXmlProperty(namespace = DxfNamespaces.DXF_2_0)
   private Map<String, UserGroupAccess> userGroups = new HashMap<>();
 
+  /** Lazily compiled form, local to the JVM and therefore transient. */
+  @JsonIgnore
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private final transient AtomicReference<CompiledSharing> compiled = new AtomicReference<>();
+
   public void setOwner(User user) {
     this.owner = user != null ? user.getUid() : null;
   }
@@ -97,6 +105,26 @@ public class Sharing implements Serializable {
     return user;
   }
 
+  /**
+   * Returns the compiled form of this sharing used for access checks. It is cached and only
+   * recompiled when this sharing was changed since it was compiled.
+   *
+   * @return the compiled form of this sharing in its current state
+   */
+  @JsonIgnore
+  public CompiledSharing compiled() {
+    if (compiled == null) {
+      // deserialized by Java serialization which skips the initializer
+      return CompiledSharing.of(this);
+    }
+    CompiledSharing current = compiled.get();
+    if (current == null || !current.isCompiledFrom(this)) {
+      current = CompiledSharing.of(this);
+      compiled.set(current);
+    }
+    return current;
+  }
+
   public void setUserAccesses(Set<UserAccess> userAccesses) {
     this.users = clearOrInit(this.users);
     userAccesses.forEach(this::addUserAccess);
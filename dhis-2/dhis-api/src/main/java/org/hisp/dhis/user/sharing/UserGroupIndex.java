@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.user.sharing;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Interns user group UIDs to dense int indexes so that group membership can be held as a {@link
+ * BitSet} and tested without string comparisons.
+ *
+ * <p>Indexes are local to the JVM. They must not be persisted or serialized.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class UserGroupIndex {
+
+  private static final Map<String, Integer> INDEXES = new ConcurrentHashMap<>();
+
+  private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+  /**
+   * @param userGroupUid a user group UID
+   * @return the index of the given user group, assigned on first use
+   */
+  public static int indexOf(@Nonnull String userGroupUid) {
+    Integer index = INDEXES.get(userGroupUid);
+    if (index != null) {
+      return index;
+    }
+    return INDEXES.computeIfAbsent(userGroupUid, uid -> NEXT_INDEX.getAndIncrement());
+  }
+
+  /**
+   * @param userGroupUids user group UIDs
+   * @return a new set with the bits of the indexes of the given user groups set
+   */
+  @Nonnull
+  public static BitSet toBitSet(@Nonnull Collection<String> userGroupUids) {
+    BitSet bits = new BitSet();
+    for (String uid : userGroupUids) {
+      bits.set(indexOf(uid));
+    }
+    return bits;
+  }
+}
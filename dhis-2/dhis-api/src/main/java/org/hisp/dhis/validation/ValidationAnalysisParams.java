@@ -29,6 +29,7 @@ package org.hisp.dhis.validation;
 
 import com.google.common.collect.ImmutableSet;
 import java.util.Collection;
+import java.util.Date;
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.Period;
@@ -71,6 +72,8 @@ public final class ValidationAnalysisParams {
 
   private int dayInPeriod = -1;
 
+  private Date changedSince;
+
   /**
    * Gets the rules selected for analysis
    *
@@ -158,6 +161,18 @@ public final class ValidationAnalysisParams {
     return maxResults;
   }
 
+  /**
+   * Gets the date after which changed data triggers re-validation. If set, only organisation units
+   * with data values for the data elements of the rules which were updated since this date, and
+   * their ancestors, are validated. Persisted results for those organisation units which no longer
+   * hold are removed. If null, all organisation units in scope are validated.
+   *
+   * @return the date, or null if the analysis is not incremental.
+   */
+  public Date getChangedSince() {
+    return changedSince;
+  }
+
   public static class Builder {
     private ValidationAnalysisParams params;
 
@@ -171,6 +186,23 @@ public final class ValidationAnalysisParams {
       this.params.periods = ImmutableSet.copyOf(periods);
     }
 
+    /**
+     * Creates a builder with all the properties of the given params, but the given rules.
+     *
+     * @param params the params to copy.
+     * @param validationRules the rules to analyse instead.
+     */
+    public Builder(ValidationAnalysisParams params, Collection<ValidationRule> validationRules) {
+      this(validationRules, params.orgUnit, params.periods);
+      this.params.attributeOptionCombo = params.attributeOptionCombo;
+      this.params.includeOrgUnitDescendants = params.includeOrgUnitDescendants;
+      this.params.maxResults = params.maxResults;
+      this.params.sendNotifications = params.sendNotifications;
+      this.params.persistResults = params.persistResults;
+      this.params.dayInPeriod = params.dayInPeriod;
+      this.params.changedSince = params.changedSince;
+    }
+
     /**
      * Sets the attributeOptionCombo to use.
      *
@@ -241,6 +273,18 @@ public final class ValidationAnalysisParams {
       return this;
     }
 
+    /**
+     * Makes the analysis incremental by only validating organisation units with data changed since
+     * the given date.
+     *
+     * @param changedSince the date, or null to validate all organisation units.
+     * @return the updated builder object
+     */
+    public Builder withChangedSince(Date changedSince) {
+      this.params.changedSince = changedSince;
+      return this;
+    }
+
     /**
      * Returns the params object
      *
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.schema;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.period.PeriodType;
+import org.hisp.dhis.period.WeeklyPeriodType;
+import org.junit.jupiter.api.Test;
+
+class PropertyTest {
+
+  @Test
+  void testGetAndSetValue() throws Exception {
+    Property property =
+        new Property(
+            String.class,
+            DataElement.class.getMethod("getName"),
+            DataElement.class.getMethod("setName", String.class));
+    property.initAccessors();
+
+    DataElement dataElement = new DataElement("ANC");
+    assertEquals("ANC", property.getValue(dataElement));
+
+    property.setValue(dataElement, "OPD");
+    assertEquals("OPD", dataElement.getName());
+  }
+
+  @Test
+  void testGetAndSetPrimitiveValue() throws Exception {
+    Property property =
+        new Property(
+            int.class,
+            Bean.class.getMethod("getCount"),
+            Bean.class.getMethod("setCount", int.class));
+
+    Bean bean = new Bean();
+    property.setValue(bean, 42);
+
+    assertEquals(42, bean.getCount());
+    assertEquals(42, (Integer) property.getValue(bean));
+  }
+
+  @Test
+  void testGetValueInheritedMethod() throws Exception {
+    Property property = new Property(PeriodType.class, Bean.class.getMethod("getPeriodType"), null);
+    PeriodType periodType = new WeeklyPeriodType();
+
+    assertEquals(periodType, property.getValue(new SubBean(periodType)));
+  }
+
+  @Test
+  void testGetAndSetValueNullTarget() throws Exception {
+    Property property =
+        new Property(
+            int.class,
+            Bean.class.getMethod("getCount"),
+            Bean.class.getMethod("setCount", int.class));
+
+    assertNull(property.getValue(null));
+    assertDoesNotThrow(() -> property.setValue(null, 1));
+  }
+
+  @Test
+  void testGetAndSetValueWithoutAccessibleMethods() throws Exception {
+    Property property = new Property(String.class, Bean.class.getDeclaredMethod("getSecret"), null);
+    Bean bean = new Bean();
+
+    assertNull(property.getValue(bean));
+    assertDoesNotThrow(() -> property.setValue(bean, "secret"));
+  }
+
+  @Test
+  void testSetGetterMethodResetsAccessor() throws Exception {
+    Property property = new Property(String.class, DataElement.class.getMethod("getName"), null);
+    DataElement dataElement = new DataElement("ANC");
+    dataElement.setCode("ANC_CODE");
+
+    assertEquals("ANC", property.getValue(dataElement));
+
+    property.setGetterMethod(DataElement.class.getMethod("getCode"));
+    assertEquals("ANC_CODE", property.getValue(dataElement));
+  }
+
+  public static class Bean {
+    private int count;
+
+    PeriodType periodType;
+
+    public int getCount() {
+      return count;
+    }
+
+    public void setCount(int count) {
+      this.count = count;
+    }
+
+    public PeriodType getPeriodType() {
+      return periodType;
+    }
+
+    protected String getSecret() {
+      return "secret";
+    }
+  }
+
+  public static class SubBean extends Bean {
+    SubBean(PeriodType periodType) {
+      this.periodType = periodType;
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.user.sharing;
+
+import static org.hisp.dhis.user.sharing.CompiledSharing.DATA_READ;
+import static org.hisp.dhis.user.sharing.CompiledSharing.DATA_WRITE;
+import static org.hisp.dhis.user.sharing.CompiledSharing.READ;
+import static org.hisp.dhis.user.sharing.CompiledSharing.VALID;
+import static org.hisp.dhis.user.sharing.CompiledSharing.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Set;
+import org.hisp.dhis.user.UserDetails;
+import org.hisp.dhis.user.UserDetailsImpl;
+import org.junit.jupiter.api.Test;
+
+class CompiledSharingTest {
+
+  private final UserDetails user =
+      UserDetailsImpl.builder()
+          .uid("kYt56BgfED2")
+          .username("sharing")
+          .userGroupIds(Set.of("Kk12LkEWtXp", "NTC8Gjusz2n"))
+          .build();
+
+  @Test
+  void testToMask() {
+    assertEquals(READ | WRITE | DATA_READ | DATA_WRITE | VALID, CompiledSharing.toMask(null));
+    assertEquals(VALID, CompiledSharing.toMask("--------"));
+    assertEquals(READ | VALID, CompiledSharing.toMask("r-------"));
+    assertEquals(READ | WRITE | DATA_READ | VALID, CompiledSharing.toMask("rwr-----"));
+    assertEquals(WRITE | DATA_WRITE | VALID, CompiledSharing.toMask("-w-w----"));
+    assertEquals(0, CompiledSharing.toMask("rw------x"));
+    assertEquals(0, CompiledSharing.toMask("wr------"));
+    assertEquals(0, CompiledSharing.toMask("rw--r---"));
+    assertEquals(0, CompiledSharing.toMask(""));
+  }
+
+  @Test
+  void testIsEnabledPublic() {
+    Sharing sharing = Sharing.builder().publicAccess("r-------").build();
+
+    assertTrue(sharing.compiled().isEnabled(user, READ));
+    assertFalse(sharing.compiled().isEnabled(user, WRITE));
+  }
+
+  @Test
+  void testIsEnabledUserGroup() {
+    Sharing sharing =
+        Sharing.builder()
+            .publicAccess("--------")
+            .build()
+            .addUserGroupAccess(new UserGroupAccess("rw------", "NTC8Gjusz2n"))
+            .addUserGroupAccess(new UserGroupAccess("rwrw----", "qtr8GGlm4gg"));
+
+    assertTrue(sharing.compiled().isEnabled(user, READ));
+    assertTrue(sharing.compiled().isEnabled(user, WRITE));
+    assertFalse(sharing.compiled().isEnabled(user, DATA_READ));
+  }
+
+  @Test
+  void testIsEnabledUser() {
+    Sharing sharing =
+        Sharing.builder()
+            .publicAccess("--------")
+            .build()
+            .addUserAccess(new UserAccess("--r-----", "kYt56BgfED2"))
+            .addUserAccess(new UserAccess("rwrw----", "xE7jOejl9FI"));
+
+    assertTrue(sharing.compiled().isEnabled(user, DATA_READ));
+    assertFalse(sharing.compiled().isEnabled(user, READ));
+    assertTrue(sharing.compiled().isEnabled(user, READ | DATA_READ));
+  }
+
+  @Test
+  void testCompiledIsCached() {
+    Sharing sharing =
+        Sharing.builder()
+            .publicAccess("--------")
+            .build()
+            .addUserGroupAccess(new UserGroupAccess("r-------", "Kk12LkEWtXp"));
+
+    assertSame(sharing.compiled(), sharing.compiled());
+  }
+
+  @Test
+  void testCompiledIsRecompiledWhenChanged() {
+    Sharing sharing =
+        Sharing.builder()
+            .publicAccess("--------")
+            .build()
+            .addUserGroupAccess(new UserGroupAccess("r-------", "qtr8GGlm4gg"));
+    CompiledSharing compiled = sharing.compiled();
+    assertFalse(compiled.isEnabled(user, READ));
+
+    // changed in place
+    sharing.getUserGroups().get("qtr8GGlm4gg").setId("Kk12LkEWtXp");
+    assertNotSame(compiled, sharing.compiled());
+    assertTrue(sharing.compiled().isEnabled(user, READ));
+
+    sharing.getUserGroups().get("qtr8GGlm4gg").setAccess("--------");
+    assertFalse(sharing.compiled().isEnabled(user, READ));
+
+    // changed through the maps
+    sharing.getUsers().put("kYt56BgfED2", new UserAccess("rw------", "kYt56BgfED2"));
+    assertTrue(sharing.compiled().isEnabled(user, WRITE));
+
+    sharing.setUsers(new HashMap<>());
+    assertFalse(sharing.compiled().isEnabled(user, WRITE));
+
+    sharing.setPublicAccess("rw------");
+    assertTrue(sharing.compiled().isEnabled(user, WRITE));
+  }
+}
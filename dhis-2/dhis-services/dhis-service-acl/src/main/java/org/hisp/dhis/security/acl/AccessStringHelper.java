@@ -28,7 +28,7 @@
 package org.hisp.dhis.security.acl;
 
 import org.hisp.dhis.common.BaseIdentifiableObject;
-import org.springframework.util.Assert;
+import org.hisp.dhis.user.sharing.CompiledSharing;
 
 /**
  * Currently only the two first positions in the access string are used - rw.
@@ -37,18 +37,21 @@ import org.springframework.util.Assert;
  */
 public class AccessStringHelper {
   public enum Permission {
-    READ('r', 0),
-    WRITE('w', 1),
-    DATA_READ('r', 2),
-    DATA_WRITE('w', 3);
+    READ('r', 0, CompiledSharing.READ),
+    WRITE('w', 1, CompiledSharing.WRITE),
+    DATA_READ('r', 2, CompiledSharing.DATA_READ),
+    DATA_WRITE('w', 3, CompiledSharing.DATA_WRITE);
 
     private char value;
 
     private int position;
 
-    Permission(char value, int position) {
+    private int mask;
+
+    Permission(char value, int position, int mask) {
       this.value = value;
       this.position = position;
+      this.mask = mask;
     }
 
     public char getValue() {
@@ -58,6 +61,13 @@ public class AccessStringHelper {
     public int getPosition() {
       return position;
     }
+
+    /**
+     * @return the bit of this permission in a {@link CompiledSharing#toMask(String)} bitmask
+     */
+    public int getMask() {
+      return mask;
+    }
   }
 
   private char[] access = DEFAULT.toCharArray();
@@ -171,28 +181,11 @@ public class AccessStringHelper {
   }
 
   public static boolean isEnabled(String access, Permission permission) {
-    return access == null
-        || (validateAccessString(access)
-            && access.charAt(permission.getPosition()) == permission.getValue());
+    return (CompiledSharing.toMask(access) & permission.getMask()) != 0;
   }
 
   public static boolean isValid(String access) {
-    return access == null || validateAccessString(access);
-  }
-
-  private static boolean validateAccessString(String access) {
-    Assert.notNull(access, "access can not be null");
-
-    if (access.length() != 8 || !access.endsWith("----")) {
-      return false;
-    }
-
-    byte[] bytes = access.getBytes();
-
-    return (bytes[0] == '-' || bytes[0] == 'r')
-        && (bytes[1] == '-' || bytes[1] == 'w')
-        && (bytes[2] == '-' || bytes[2] == 'r')
-        && (bytes[3] == '-' || bytes[3] == 'w');
+    return (CompiledSharing.toMask(access) & CompiledSharing.VALID) != 0;
   }
 
   public static boolean hasDataSharing(String access) {
@@ -40,7 +40,6 @@ import org.hisp.dhis.cache.CacheProvider;
 import org.hisp.dhis.category.CategoryOption;
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.common.IdentifiableObject;
-import org.hisp.dhis.common.collection.CollectionUtils;
 import org.hisp.dhis.feedback.ErrorCode;
 import org.hisp.dhis.feedback.ErrorReport;
 import org.hisp.dhis.hibernate.HibernateProxyUtils;
@@ -765,7 +764,8 @@ public class DefaultAclService implements AclService {
   }
 
   /**
-   * If the given user allowed to access the given object using the permissions given.
+   * If the given user allowed to access the given object using the permissions given. Uses the
+   * {@link Sharing#compiled()} form of the sharing which is cached with the sharing.
    *
    * @param userDetails to check against
    * @param object Object to check against
@@ -774,37 +774,7 @@ public class DefaultAclService implements AclService {
    */
   private boolean checkSharingPermission(
       @Nonnull UserDetails userDetails, IdentifiableObject object, Permission permission) {
-
-    Sharing sharing = object.getSharing();
-    if (AccessStringHelper.isEnabled(sharing.getPublicAccess(), permission)) {
-      return true;
-    }
-
-    if (sharing.getUserGroups() != null
-        && !CollectionUtils.isEmpty(userDetails.getUserGroupIds())) {
-      for (UserGroupAccess userGroupAccess : sharing.getUserGroups().values()) {
-        // Check if user is allowed to read this object through group
-        // access
-        if (AccessStringHelper.isEnabled(userGroupAccess.getAccess(), permission)
-            && hasUserGroupAccess(userDetails.getUserGroupIds(), userGroupAccess.getId())) {
-          return true;
-        }
-      }
-    }
-
-    if (sharing.getUsers() != null) {
-      for (UserAccess userAccess : sharing.getUsers().values()) {
-        // Check if user is allowed to read to this object through user
-        // access
-
-        if (AccessStringHelper.isEnabled(userAccess.getAccess(), permission)
-            && userDetails.getUid().equals(userAccess.getId())) {
-          return true;
-        }
-      }
-    }
-
-    return false;
+    return object.getSharing().compiled().isEnabled(userDetails, permission.getMask());
   }
 
   private boolean checkOptionComboSharingPermission(
@@ -843,14 +813,4 @@ public class DefaultAclService implements AclService {
     return checkSharingAccess(userDetails, object, objType)
         && (checkMetadataSharingPermission(userDetails, object, Permission.WRITE));
   }
-
-  private boolean hasUserGroupAccess(Set<String> userGroups, String userGroupUid) {
-    for (String groupUid : userGroups) {
-      if (groupUid.equals(userGroupUid)) {
-        return true;
-      }
-    }
-
-    return false;
-  }
 }
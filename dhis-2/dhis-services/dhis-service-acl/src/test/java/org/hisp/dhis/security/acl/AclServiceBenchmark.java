@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.security.acl;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.common.CodeGenerator;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.schema.Schema;
+import org.hisp.dhis.schema.SchemaService;
+import org.hisp.dhis.security.acl.AccessStringHelper.Permission;
+import org.hisp.dhis.user.UserDetails;
+import org.hisp.dhis.user.UserDetailsImpl;
+import org.hisp.dhis.user.sharing.Sharing;
+import org.hisp.dhis.user.sharing.UserAccess;
+import org.hisp.dhis.user.sharing.UserGroupAccess;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures {@link AclService#canRead(UserDetails, org.hisp.dhis.common.IdentifiableObject)} over
+ * large collections of shared objects, as done when listing metadata, compared with evaluating the
+ * access strings of the sharing on every check. Not run as part of the test suite, run the main
+ * method to execute it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AclServiceBenchmark {
+
+  private static final int USER_GROUPS = 20;
+
+  private static final int GROUP_ACCESSES = 5;
+
+  @Param({"1000", "50000"})
+  private int objects;
+
+  private AclService aclService;
+
+  private UserDetails user;
+
+  private List<DataElement> dataElements;
+
+  @Setup
+  public void setUp() {
+    Schema schema = new Schema(DataElement.class, "dataElement", "dataElements");
+    schema.setShareable(true);
+
+    SchemaService schemaService = mock(SchemaService.class);
+    when(schemaService.getSchema(DataElement.class)).thenReturn(schema);
+
+    aclService = new DefaultAclService(schemaService, mock(CacheProvider.class));
+
+    List<String> userGroups = new ArrayList<>();
+    for (int i = 0; i < USER_GROUPS * 10; i++) {
+      userGroups.add(CodeGenerator.generateUid());
+    }
+
+    Set<String> userGroupIds = new HashSet<>(userGroups.subList(0, USER_GROUPS));
+    user =
+        UserDetailsImpl.builder()
+            .uid(CodeGenerator.generateUid())
+            .username("benchmark")
+            .userGroupIds(userGroupIds)
+            .allAuthorities(Set.of())
+            .build();
+
+    dataElements = new ArrayList<>(objects);
+    for (int i = 0; i < objects; i++) {
+      Sharing sharing =
+          Sharing.builder()
+              .owner(CodeGenerator.generateUid())
+              .publicAccess(AccessStringHelper.DEFAULT)
+              .build();
+      sharing.addUserAccess(new UserAccess(AccessStringHelper.READ, CodeGenerator.generateUid()));
+      for (int j = 0; j < GROUP_ACCESSES; j++) {
+        // every other object is readable through the last group access
+        String group = userGroups.get(j == GROUP_ACCESSES - 1 && i % 2 == 0 ? j : USER_GROUPS + j);
+        sharing.addUserGroupAccess(new UserGroupAccess(AccessStringHelper.READ, group));
+      }
+
+      DataElement dataElement = new DataElement("DataElement" + i);
+      dataElement.setSharing(sharing);
+      dataElements.add(dataElement);
+    }
+  }
+
+  @Benchmark
+  public int canRead() {
+    int readable = 0;
+    for (DataElement dataElement : dataElements) {
+      if (aclService.canRead(user, dataElement)) {
+        readable++;
+      }
+    }
+    return readable;
+  }
+
+  /** Evaluates the access strings and the user group memberships on every check. */
+  @Benchmark
+  public int canReadUncompiled() {
+    int readable = 0;
+    for (DataElement dataElement : dataElements) {
+      if (isReadableUncompiled(dataElement.getSharing())) {
+        readable++;
+      }
+    }
+    return readable;
+  }
+
+  private boolean isReadableUncompiled(Sharing sharing) {
+    if (AccessStringHelper.isEnabled(sharing.getPublicAccess(), Permission.READ)) {
+      return true;
+    }
+    for (UserGroupAccess access : sharing.getUserGroups().values()) {
+      if (AccessStringHelper.isEnabled(access.getAccess(), Permission.READ)
+          && user.getUserGroupIds().contains(access.getId())) {
+        return true;
+      }
+    }
+    for (UserAccess access : sharing.getUsers().values()) {
+      if (AccessStringHelper.isEnabled(access.getAccess(), Permission.READ)
+          && user.getUid().equals(access.getId())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(AclServiceBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+        .run();
+  }
+}
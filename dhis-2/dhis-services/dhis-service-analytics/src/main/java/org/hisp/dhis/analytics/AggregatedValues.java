@@ -0,0 +1,506 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics;
+
+import static org.hisp.dhis.common.DimensionalObject.DIMENSION_SEP;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact container for aggregated analytics values. Each row holds one item identifier per
+ * dimension and a value. Item identifiers are interned per dimension to int ordinals, and numeric
+ * values are stored in a primitive double array, so that a row costs a few ints and a double
+ * instead of a concatenated key string and a boxed value.
+ *
+ * <p>Rows are unique by their item identifiers. Putting a row with the same items as an existing
+ * row replaces the value of the existing row, like {@link Map#put(Object, Object)} does for the
+ * concatenated key representation returned by {@link #toMap()}.
+ *
+ * <p>Instances are not thread-safe.
+ */
+public final class AggregatedValues {
+  private static final int INITIAL_CAPACITY = 16;
+
+  /** Number of dimensions of each row. */
+  private int dimensionCount;
+
+  /** Dictionary of item identifiers per dimension. */
+  private ItemDictionary[] dictionaries;
+
+  /** Item ordinals of all rows, {@code dimensionCount} ints per row. */
+  private int[] ordinals;
+
+  /** Numeric values by row. */
+  private double[] numericValues;
+
+  /** Text values by row, allocated when the first text value is put. */
+  private String[] textValues;
+
+  /** Rows holding a text value. */
+  private final BitSet textRows = new BitSet();
+
+  /** Open addressing hash table of row index plus one, 0 indicates a free slot. */
+  private int[] index;
+
+  /** Number of rows. */
+  private int size;
+
+  /**
+   * @param dimensionCount the number of dimensions of each row.
+   */
+  public AggregatedValues(int dimensionCount) {
+    init(dimensionCount);
+  }
+
+  /**
+   * Creates an instance from a mapping between item identifiers concatenated with {@link
+   * org.hisp.dhis.common.DimensionalObject#DIMENSION_SEP} and values, see {@link #toMap()}.
+   *
+   * @param map the mapping.
+   * @return an {@link AggregatedValues}.
+   */
+  public static AggregatedValues fromMap(Map<String, Object> map) {
+    AggregatedValues values = null;
+
+    for (Map.Entry<String, Object> entry : map.entrySet()) {
+      String[] items = entry.getKey().split(DIMENSION_SEP);
+
+      if (values == null) {
+        values = new AggregatedValues(items.length);
+      }
+
+      values.put(items, entry.getValue());
+    }
+
+    return values != null ? values : new AggregatedValues(0);
+  }
+
+  // -------------------------------------------------------------------------
+  // Write
+  // -------------------------------------------------------------------------
+
+  /**
+   * Puts a numeric value for the given item identifiers.
+   *
+   * @param items the item identifier of each dimension.
+   * @param value the value.
+   */
+  public void put(String[] items, double value) {
+    int row = getOrAddRow(internAll(items));
+
+    numericValues[row] = value;
+    textRows.clear(row);
+
+    if (textValues != null) {
+      textValues[row] = null;
+    }
+  }
+
+  /**
+   * Puts a text value for the given item identifiers.
+   *
+   * @param items the item identifier of each dimension.
+   * @param value the value, may be null.
+   */
+  public void put(String[] items, String value) {
+    putText(getOrAddRow(internAll(items)), value);
+  }
+
+  /**
+   * Puts a value for the given item identifiers. Numbers are stored as numeric values, any other
+   * value as text.
+   *
+   * @param items the item identifier of each dimension.
+   * @param value the value, may be null.
+   */
+  public void put(String[] items, Object value) {
+    if (value instanceof Number number) {
+      put(items, number.doubleValue());
+    } else {
+      put(items, value != null ? String.valueOf(value) : null);
+    }
+  }
+
+  /**
+   * Puts all rows of the given instance into this instance, replacing the values of rows with the
+   * same item identifiers.
+   *
+   * @param other the {@link AggregatedValues}.
+   * @throws IllegalArgumentException if the number of dimensions differ.
+   */
+  public void putAll(AggregatedValues other) {
+    if (other.size == 0) {
+      return;
+    }
+
+    if (size == 0 && dimensionCount != other.dimensionCount) {
+      init(other.dimensionCount);
+    }
+
+    if (dimensionCount != other.dimensionCount) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Dimension count differs, this: %d, other: %d",
+              dimensionCount, other.dimensionCount));
+    }
+
+    int[][] translations = new int[dimensionCount][];
+
+    for (int d = 0; d < dimensionCount; d++) {
+      translations[d] = dictionaries[d].internAll(other.dictionaries[d]);
+    }
+
+    int[] rowOrdinals = new int[dimensionCount];
+
+    for (int otherRow = 0; otherRow < other.size; otherRow++) {
+      for (int d = 0; d < dimensionCount; d++) {
+        rowOrdinals[d] = translations[d][other.ordinals[otherRow * other.dimensionCount + d]];
+      }
+
+      int row = getOrAddRow(rowOrdinals);
+
+      if (other.isText(otherRow)) {
+        putText(row, other.textValues[otherRow]);
+      } else {
+        numericValues[row] = other.numericValues[otherRow];
+        textRows.clear(row);
+      }
+    }
+  }
+
+  // -------------------------------------------------------------------------
+  // Read
+  // -------------------------------------------------------------------------
+
+  /** Returns the number of rows. */
+  public int size() {
+    return size;
+  }
+
+  /** Returns true if there are no rows. */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Returns the number of dimensions of each row. */
+  public int getDimensionCount() {
+    return dimensionCount;
+  }
+
+  /**
+   * Returns the item identifier of the given row and dimension.
+   *
+   * @param row the row index.
+   * @param dimension the dimension index.
+   * @return the item identifier.
+   */
+  public String getItem(int row, int dimension) {
+    return dictionaries[dimension].get(ordinals[row * dimensionCount + dimension]);
+  }
+
+  /**
+   * Returns the item identifiers of the given row, ordered by dimension.
+   *
+   * @param row the row index.
+   * @return the item identifiers.
+   */
+  public String[] getItems(int row) {
+    String[] items = new String[dimensionCount];
+
+    for (int d = 0; d < dimensionCount; d++) {
+      items[d] = getItem(row, d);
+    }
+
+    return items;
+  }
+
+  /**
+   * Returns the index of the row with the given item identifiers.
+   *
+   * @param items the item identifier of each dimension.
+   * @return the row index, or -1 if there is no row with the given items.
+   */
+  public int indexOf(String[] items) {
+    if (items.length != dimensionCount || size == 0) {
+      return -1;
+    }
+
+    int[] rowOrdinals = new int[dimensionCount];
+
+    for (int d = 0; d < dimensionCount; d++) {
+      rowOrdinals[d] = dictionaries[d].indexOf(items[d]);
+
+      if (rowOrdinals[d] == -1) {
+        return -1;
+      }
+    }
+
+    return findRow(rowOrdinals);
+  }
+
+  /** Returns true if the value of the given row is a text value. */
+  public boolean isText(int row) {
+    return textRows.get(row);
+  }
+
+  /** Returns the numeric value of the given row, or NaN if the row holds a text value. */
+  public double getDoubleValue(int row) {
+    return isText(row) ? Double.NaN : numericValues[row];
+  }
+
+  /**
+   * Returns the value of the given row, a {@link Double} for numeric values or a {@link String} for
+   * text values.
+   *
+   * @param row the row index.
+   * @return the value.
+   */
+  public Object getValue(int row) {
+    return isText(row) ? textValues[row] : Double.valueOf(numericValues[row]);
+  }
+
+  /**
+   * Returns the key of the given row, made of the item identifiers concatenated with {@link
+   * org.hisp.dhis.common.DimensionalObject#DIMENSION_SEP}.
+   *
+   * @param row the row index.
+   * @return the key.
+   */
+  public String getKey(int row) {
+    return String.join(DIMENSION_SEP, getItems(row));
+  }
+
+  /**
+   * Returns a mapping between the key of each row, see {@link #getKey(int)}, and the value of the
+   * row.
+   *
+   * @return a mapping between keys and values.
+   */
+  public Map<String, Object> toMap() {
+    Map<String, Object> map = new HashMap<>((int) (size / 0.75f) + 1);
+
+    for (int row = 0; row < size; row++) {
+      map.put(getKey(row), getValue(row));
+    }
+
+    return map;
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  private void init(int dimensionCount) {
+    this.dimensionCount = dimensionCount;
+    this.dictionaries = new ItemDictionary[dimensionCount];
+    this.ordinals = new int[INITIAL_CAPACITY * dimensionCount];
+    this.numericValues = new double[INITIAL_CAPACITY];
+    this.textValues = null;
+    this.textRows.clear();
+    this.index = new int[INITIAL_CAPACITY * 2];
+    this.size = 0;
+
+    for (int d = 0; d < dimensionCount; d++) {
+      dictionaries[d] = new ItemDictionary();
+    }
+  }
+
+  private int[] internAll(String[] items) {
+    if (items.length != dimensionCount) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Expected %d items but got %d: %s",
+              dimensionCount, items.length, Arrays.toString(items)));
+    }
+
+    int[] rowOrdinals = new int[dimensionCount];
+
+    for (int d = 0; d < dimensionCount; d++) {
+      rowOrdinals[d] = dictionaries[d].intern(items[d]);
+    }
+
+    return rowOrdinals;
+  }
+
+  private void putText(int row, String value) {
+    if (textValues == null) {
+      textValues = new String[numericValues.length];
+    }
+
+    textValues[row] = value;
+    numericValues[row] = 0d;
+    textRows.set(row);
+  }
+
+  /** Returns the index of the row with the given ordinals, or -1 if not present. */
+  private int findRow(int[] rowOrdinals) {
+    int mask = index.length - 1;
+    int slot = hash(rowOrdinals) & mask;
+
+    while (index[slot] != 0) {
+      int row = index[slot] - 1;
+
+      if (equalsRow(row, rowOrdinals)) {
+        return row;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+
+    return -1;
+  }
+
+  /** Returns the index of the row with the given ordinals, adding the row if not present. */
+  private int getOrAddRow(int[] rowOrdinals) {
+    int mask = index.length - 1;
+    int slot = hash(rowOrdinals) & mask;
+
+    while (index[slot] != 0) {
+      int row = index[slot] - 1;
+
+      if (equalsRow(row, rowOrdinals)) {
+        return row;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+
+    int row = size++;
+
+    ensureCapacity(size);
+
+    System.arraycopy(rowOrdinals, 0, ordinals, row * dimensionCount, dimensionCount);
+
+    if (size * 2 > index.length) {
+      rehash(index.length * 2);
+    } else {
+      index[slot] = row + 1;
+    }
+
+    return row;
+  }
+
+  private boolean equalsRow(int row, int[] rowOrdinals) {
+    int offset = row * dimensionCount;
+
+    for (int d = 0; d < dimensionCount; d++) {
+      if (ordinals[offset + d] != rowOrdinals[d]) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private void ensureCapacity(int rows) {
+    if (rows > numericValues.length) {
+      int capacity = Math.max(rows, numericValues.length * 2);
+
+      ordinals = Arrays.copyOf(ordinals, capacity * dimensionCount);
+      numericValues = Arrays.copyOf(numericValues, capacity);
+
+      if (textValues != null) {
+        textValues = Arrays.copyOf(textValues, capacity);
+      }
+    }
+  }
+
+  private void rehash(int capacity) {
+    index = new int[capacity];
+
+    int mask = capacity - 1;
+    int[] rowOrdinals = new int[dimensionCount];
+
+    for (int row = 0; row < size; row++) {
+      System.arraycopy(ordinals, row * dimensionCount, rowOrdinals, 0, dimensionCount);
+
+      int slot = hash(rowOrdinals) & mask;
+
+      while (index[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+
+      index[slot] = row + 1;
+    }
+  }
+
+  private static int hash(int[] rowOrdinals) {
+    int hash = 1;
+
+    for (int ordinal : rowOrdinals) {
+      hash = 31 * hash + ordinal;
+    }
+
+    return hash ^ (hash >>> 16);
+  }
+
+  /** Interns the item identifiers of a single dimension to int ordinals. */
+  private static final class ItemDictionary {
+    private final Map<String, Integer> ordinals = new HashMap<>();
+
+    private final List<String> items = new ArrayList<>();
+
+    int intern(String item) {
+      Integer ordinal = ordinals.get(item);
+
+      if (ordinal == null) {
+        ordinal = items.size();
+        ordinals.put(item, ordinal);
+        items.add(item);
+      }
+
+      return ordinal;
+    }
+
+    int indexOf(String item) {
+      Integer ordinal = ordinals.get(item);
+
+      return ordinal != null ? ordinal : -1;
+    }
+
+    /** Interns all items of the given dictionary, returns the ordinals indexed by its ordinals. */
+    int[] internAll(ItemDictionary other) {
+      int[] translation = new int[other.items.size()];
+
+      for (int i = 0; i < translation.length; i++) {
+        translation[i] = intern(other.items.get(i));
+      }
+
+      return translation;
+    }
+
+    String get(int ordinal) {
+      return items.get(ordinal);
+    }
+  }
+}
@@ -40,18 +40,17 @@ import org.hisp.dhis.common.ListMap;
  */
 public interface AnalyticsManager {
   /**
-   * Retrieves aggregated data values for the given query. The data is returned as a mapping where
-   * the key is concatenated from the dimension options for all dimensions separated by "-", and the
-   * value is the data value. This method is invoked asynchronously. The value class can be Double
-   * or String.
+   * Retrieves aggregated data values for the given query. The data is returned as {@link
+   * AggregatedValues} where each row holds the dimension options for all dimensions and the data
+   * value. This method is invoked asynchronously. The value class can be Double or String.
    *
    * @param params the {@link DataQueryParams} to retrieve aggregated data for.
    * @param tableType the {@link AnalyticsTableType}.
    * @param maxLimit the max number of records to retrieve.
-   * @return a map.
+   * @return the {@link AggregatedValues}.
    * @throws IllegalQueryException if query result set exceeds the max limit.
    */
-  Future<Map<String, Object>> getAggregatedDataValues(
+  Future<AggregatedValues> getAggregatedDataValues(
       DataQueryParams params, AnalyticsTableType tableType, int maxLimit);
 
   /**
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import org.hisp.dhis.common.AnalyticalObject;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridRowHandler;
 import org.hisp.dhis.dxf2.datavalueset.DataValueSet;
 
 /**
@@ -127,6 +128,17 @@ public interface AnalyticsService {
    */
   Grid getRawDataValues(DataQueryParams params);
 
+  /**
+   * Streams raw data values for the given query to the given handler. The headers are handled
+   * first, followed by each row as it is read from the database through a cursor. Unlike {@link
+   * #getRawDataValues(DataQueryParams)}, the full result is never held in memory and no meta data
+   * is included.
+   *
+   * @param params the data query parameters.
+   * @param handler the {@link GridRowHandler}.
+   */
+  void streamRawDataValues(DataQueryParams params, GridRowHandler handler);
+
   /**
    * Generates a data value set for the given query. The query must contain a data, period and
    * organisation unit dimension.
@@ -27,6 +27,8 @@
  */
 package org.hisp.dhis.analytics;
 
+import java.util.List;
+import java.util.function.Consumer;
 import org.hisp.dhis.common.Grid;
 
 /**
@@ -43,4 +45,13 @@ public interface RawAnalyticsManager {
    * @return a grid with data.
    */
   Grid getRawDataValues(DataQueryParams params, Grid grid);
+
+  /**
+   * Reads raw analytics data based on the given query through a database cursor and passes each row
+   * to the given consumer as it is read, without holding the full result in memory.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @param rowConsumer the consumer of rows.
+   */
+  void streamRawDataValues(DataQueryParams params, Consumer<List<Object>> rowConsumer);
 }
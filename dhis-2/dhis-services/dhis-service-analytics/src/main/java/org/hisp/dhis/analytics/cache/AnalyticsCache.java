@@ -37,40 +37,53 @@ import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.cache.Cache;
 import org.hisp.dhis.cache.CacheProvider;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.system.grid.GridSnapshot;
 import org.springframework.stereotype.Component;
 
 /**
  * This is a wrapper class responsible for keeping and isolating all cache definitions related to
  * the analytics.
+ *
+ * <p>Grids are either cloned on every cache access, or, when snapshot caching is enabled through
+ * {@link AnalyticsCacheSettings#isSnapshotCachingEnabled()}, stored once as an immutable {@link
+ * GridSnapshot} from which cheap copy-on-write views are handed out on cache hits.
  */
 @Slf4j
 @Component
 public class AnalyticsCache {
   private final AnalyticsCacheSettings analyticsCacheSettings;
 
-  private Cache<Grid> queryCache;
+  private final QueryCoalescer queryCoalescer;
+
+  private Cache<Object> queryCache;
 
   /**
    * Default constructor. Note that a default expiration time is set, as as the TTL will always be
    * overwritten during cache put operations.
    */
   public AnalyticsCache(
-      CacheProvider cacheProvider, AnalyticsCacheSettings analyticsCacheSettings) {
+      CacheProvider cacheProvider,
+      AnalyticsCacheSettings analyticsCacheSettings,
+      QueryCoalescer queryCoalescer) {
     checkNotNull(cacheProvider);
     checkNotNull(analyticsCacheSettings);
+    checkNotNull(queryCoalescer);
 
     this.analyticsCacheSettings = analyticsCacheSettings;
+    this.queryCoalescer = queryCoalescer;
     this.queryCache = cacheProvider.createAnalyticsCache();
   }
 
   public Optional<Grid> get(String key) {
-    return getGridClone(queryCache.get(key));
+    return queryCache.get(key).map(this::getGrid);
   }
 
   /**
    * This method tries to retrieve, from the cache, the Grid related to the given DataQueryParams.
    * If the Grid is not found in the cache, the Grid will be fetched by the function provided. In
    * this case, the fetched Grid will be cached, so the next consumers can hit the cache only.
+   * Concurrent consumers missing the cache for the same key wait for a single fetch, see {@link
+   * QueryCoalescer}.
    *
    * <p>f The TTL of the cached object will be set accordingly to the cache settings available at
    * {@link org.hisp.dhis.analytics.cache.AnalyticsCacheSettings}.
@@ -83,13 +96,17 @@ public class AnalyticsCache {
     Optional<Grid> cachedGrid = get(params.getKey());
 
     if (cachedGrid.isPresent()) {
-      return getGridClone(cachedGrid.get());
+      return cachedGrid.get();
     } else {
-      Grid grid = function.apply(params);
+      return queryCoalescer.getOrFetch(
+          params.getKey(),
+          () -> {
+            Grid grid = function.apply(params);
 
-      put(params, grid);
+            put(params, grid);
 
-      return getGridClone(grid);
+            return grid;
+          });
     }
   }
 
@@ -124,7 +141,7 @@ public class AnalyticsCache {
    * @param ttlInSeconds the time to live (expiration time) in seconds.
    */
   public void put(String key, Grid grid, long ttlInSeconds) {
-    queryCache.put(key, getGridClone(grid), ttlInSeconds);
+    queryCache.put(key, toCacheValue(grid), ttlInSeconds);
   }
 
   /** Clears the current cache by removing all existing entries. */
@@ -138,15 +155,36 @@ public class AnalyticsCache {
     return analyticsCacheSettings.isCachingEnabled();
   }
 
-  private Grid getGridClone(Grid grid) {
-    if (grid != null) {
-      return SerializationUtils.clone(grid);
+  /**
+   * Returns the value to cache for the given grid. This is either an immutable {@link
+   * GridSnapshot} or a clone of the grid, so that later changes to the given grid are not
+   * reflected in the cache.
+   *
+   * @param grid the {@link Grid}.
+   * @return the value to cache.
+   */
+  private Object toCacheValue(Grid grid) {
+    if (grid != null
+        && analyticsCacheSettings.isSnapshotCachingEnabled()
+        && GridSnapshot.isSupported(grid)) {
+      return GridSnapshot.of(grid);
     }
 
-    return null;
+    return SerializationUtils.clone(grid);
   }
 
-  private Optional<Grid> getGridClone(Optional<Grid> grid) {
-    return grid.map(SerializationUtils::clone);
+  /**
+   * Returns a grid for the given cached value which can be modified freely by the caller. Values
+   * of both representations are handled, as the caching mode can change while entries exist.
+   *
+   * @param value the cached value.
+   * @return a {@link Grid}.
+   */
+  private Grid getGrid(Object value) {
+    if (value instanceof GridSnapshot snapshot) {
+      return snapshot.toGrid();
+    }
+
+    return SerializationUtils.clone((Grid) value);
   }
 }
@@ -109,6 +109,16 @@ public class AnalyticsCacheSettings {
     return isFixedCachingEnabled() || isProgressiveCachingEnabled();
   }
 
+  /**
+   * Returns true if cached grids should be stored as immutable snapshots which are shared between
+   * cache hits, instead of being cloned on every cache access.
+   *
+   * @return true if snapshot caching is enabled, false otherwise.
+   */
+  public boolean isSnapshotCachingEnabled() {
+    return settingsProvider.getCurrentSettings().getAnalyticsCacheSnapshotEnabled();
+  }
+
   /**
    * Returns the TTL factor set in system settings or 1 (when the factor is set to ZERO or
    * negative).
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.SerializationUtils;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.system.grid.GridSnapshot;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces concurrent, identical analytics queries. The first caller for a given query key
+ * executes the query, while callers arriving with the same key before the query completes wait for
+ * its result instead of sending the same query to the database. Each waiting caller receives its
+ * own copy of the resulting grid, which like cached grids is a view of a {@link GridSnapshot} if
+ * {@link AnalyticsCacheSettings#isSnapshotCachingEnabled()} and a deep copy otherwise. Coalescing
+ * only applies to queries which are in flight, and is independent of whether the {@link
+ * AnalyticsCache} is enabled.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryCoalescer implements MeterBinder {
+  private final AnalyticsCacheSettings analyticsCacheSettings;
+
+  /** Queries in flight, mapped by query key. */
+  private final Map<String, InFlightQuery> inFlight = new ConcurrentHashMap<>();
+
+  private final LongAdder executed = new LongAdder();
+
+  private final LongAdder coalesced = new LongAdder();
+
+  /**
+   * Returns the grid for the given query key. If a query with the same key is in flight, waits for
+   * it and returns a copy of its result, otherwise fetches the grid with the given supplier.
+   *
+   * @param key the query key, see {@link org.hisp.dhis.analytics.DataQueryParams#getKey()}.
+   * @param fetcher the supplier which executes the query.
+   * @return a {@link Grid} which is not shared with other callers.
+   */
+  public Grid getOrFetch(@Nonnull String key, @Nonnull Supplier<Grid> fetcher) {
+    InFlightQuery query = new InFlightQuery();
+
+    while (true) {
+      InFlightQuery existing = inFlight.putIfAbsent(key, query);
+
+      if (existing == null) {
+        return fetch(key, query, fetcher);
+      }
+
+      if (existing.addWaiter()) {
+        coalesced.increment();
+
+        log.debug("Waiting for in-flight analytics query with key: '{}'", key);
+
+        return toGrid(join(existing.result));
+      }
+
+      // The existing query completed without waiters, remove it and retry
+
+      inFlight.remove(key, existing);
+    }
+  }
+
+  /** Returns the number of queries which were executed. */
+  public long getExecutedCount() {
+    return executed.sum();
+  }
+
+  /** Returns the number of queries which were answered by waiting for an in-flight query. */
+  public long getCoalescedCount() {
+    return coalesced.sum();
+  }
+
+  /** Returns the number of distinct queries currently in flight. */
+  public int getInFlightCount() {
+    return inFlight.size();
+  }
+
+  @Override
+  public void bindTo(@Nonnull MeterRegistry registry) {
+    FunctionCounter.builder("analytics.queries.executed", this, QueryCoalescer::getExecutedCount)
+        .description("Number of analytics queries sent to the database")
+        .register(registry);
+    FunctionCounter.builder("analytics.queries.coalesced", this, QueryCoalescer::getCoalescedCount)
+        .description("Number of analytics queries answered by an identical in-flight query")
+        .register(registry);
+    Gauge.builder("analytics.queries.inflight", this, QueryCoalescer::getInFlightCount)
+        .description("Number of distinct analytics queries in flight")
+        .register(registry);
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  /**
+   * Executes the given query. A shareable copy of the result is only created if other callers
+   * started waiting for the query while it was executing.
+   */
+  private Grid fetch(String key, InFlightQuery query, Supplier<Grid> fetcher) {
+    executed.increment();
+
+    try {
+      Grid grid;
+
+      try {
+        grid = fetcher.get();
+      } catch (RuntimeException | Error ex) {
+        query.close();
+        query.result.completeExceptionally(ex);
+
+        throw ex;
+      }
+
+      if (query.close()) {
+        share(query, grid);
+      }
+
+      return grid;
+    } finally {
+      inFlight.remove(key, query);
+    }
+  }
+
+  /**
+   * Completes the given query with a shareable copy of the given grid. Failing to copy the grid
+   * fails the waiting callers only.
+   */
+  private void share(InFlightQuery query, Grid grid) {
+    try {
+      query.result.complete(toSharedValue(grid));
+    } catch (RuntimeException ex) {
+      query.result.completeExceptionally(ex);
+    }
+  }
+
+  /**
+   * Returns an immutable representation of the given grid which can be copied by any number of
+   * waiting callers, also while the executing caller modifies its own grid. The grid is only stored
+   * as a {@link GridSnapshot} if snapshot caching is enabled, and is cloned otherwise.
+   */
+  private Object toSharedValue(Grid grid) {
+    if (grid != null
+        && analyticsCacheSettings.isSnapshotCachingEnabled()
+        && GridSnapshot.isSupported(grid)) {
+      return GridSnapshot.of(grid);
+    }
+
+    return SerializationUtils.clone(grid);
+  }
+
+  private Grid toGrid(Object value) {
+    if (value instanceof GridSnapshot snapshot) {
+      return snapshot.toGrid();
+    }
+
+    return SerializationUtils.clone((Grid) value);
+  }
+
+  /** Waits for the given future, rethrowing the exception of the executing caller if any. */
+  private Object join(CompletableFuture<Object> future) {
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+
+      if (ex.getCause() instanceof Error cause) {
+        throw cause;
+      }
+
+      throw ex;
+    }
+  }
+
+  /** A query in flight and the callers waiting for its result. */
+  private static final class InFlightQuery {
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+    private int waiters;
+
+    private boolean closed;
+
+    /** Registers a waiting caller. Returns false if the query no longer accepts waiters. */
+    synchronized boolean addWaiter() {
+      if (closed) {
+        return false;
+      }
+
+      waiters++;
+
+      return true;
+    }
+
+    /** Stops accepting waiters. Returns true if any callers are waiting for the result. */
+    synchronized boolean close() {
+      closed = true;
+
+      return waiters > 0;
+    }
+  }
+}
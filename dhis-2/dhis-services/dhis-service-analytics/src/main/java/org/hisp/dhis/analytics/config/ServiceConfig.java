@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.analytics.config;
 
+import java.util.concurrent.ExecutorService;
 import org.hisp.dhis.analytics.AnalyticsTableHookService;
 import org.hisp.dhis.analytics.AnalyticsTableManager;
 import org.hisp.dhis.analytics.AnalyticsTableService;
@@ -42,10 +43,13 @@ import org.hisp.dhis.db.AnalyticsSqlBuilderProvider;
 import org.hisp.dhis.db.SqlBuilderProvider;
 import org.hisp.dhis.db.sql.AnalyticsSqlBuilder;
 import org.hisp.dhis.db.sql.SqlBuilder;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
 import org.hisp.dhis.period.PeriodDataProvider;
 import org.hisp.dhis.resourcetable.ResourceTableService;
 import org.hisp.dhis.setting.SystemSettingsProvider;
+import org.hisp.dhis.system.executor.BoundedExecutorFactory;
 import org.hisp.dhis.trackedentity.TrackedEntityTypeService;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
@@ -67,6 +71,14 @@ public class ServiceConfig {
     return provider.getAnalyticsSqlBuilder();
   }
 
+  /** Generates resource tables. */
+  @Bean("resourceTableExecutor")
+  public ExecutorService resourceTableExecutor(
+      DhisConfigurationProvider config, BoundedExecutorFactory executorFactory) {
+    return executorFactory.create(
+        "RESOURCE-TABLE", config.getIntProperty(ConfigurationKey.RESOURCE_TABLE_THREADS));
+  }
+
   @Bean("org.hisp.dhis.analytics.TrackedEntityEventsAnalyticsTableManager")
   public AnalyticsTableManager jdbcTrackedEntityEventsAnalyticsTableManager(
       IdentifiableObjectManager idObjectManager,
@@ -52,12 +52,14 @@ import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.analytics.DataQueryService;
 import org.hisp.dhis.analytics.QueryValidator;
 import org.hisp.dhis.analytics.cache.AnalyticsCache;
+import org.hisp.dhis.analytics.cache.QueryCoalescer;
 import org.hisp.dhis.analytics.data.handler.DataAggregator;
 import org.hisp.dhis.analytics.util.AnalyticsUtils;
 import org.hisp.dhis.common.AnalyticalObject;
 import org.hisp.dhis.common.CombinationGenerator;
 import org.hisp.dhis.common.DimensionalItemObject;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridRowHandler;
 import org.hisp.dhis.common.IdentifiableObjectUtils;
 import org.hisp.dhis.common.IllegalQueryException;
 import org.hisp.dhis.dxf2.datavalueset.DataValueSet;
@@ -81,6 +83,8 @@ public class DefaultAnalyticsService implements AnalyticsService {
 
   private final AnalyticsCache analyticsCache;
 
+  private final QueryCoalescer queryCoalescer;
+
   private final DataAggregator dataAggregator;
 
   // -------------------------------------------------------------------------
@@ -101,7 +105,15 @@ public class DefaultAnalyticsService implements AnalyticsService {
           params, p -> dataAggregator.getAggregatedDataValueGrid(immutableParams));
     }
 
-    return dataAggregator.getAggregatedDataValueGrid(params);
+    if (params.analyzeOnly()) {
+      return dataAggregator.getAggregatedDataValueGrid(params);
+    }
+
+    DataQueryParams immutableParams = newBuilder(params).build();
+
+    return queryCoalescer.getOrFetch(
+        "aggregate:" + params.getKey(),
+        () -> dataAggregator.getAggregatedDataValueGrid(immutableParams));
   }
 
   @Override
@@ -131,6 +143,16 @@ public class DefaultAnalyticsService implements AnalyticsService {
     return dataAggregator.getRawDataGrid(params);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public void streamRawDataValues(DataQueryParams params, GridRowHandler handler) {
+    params = checkSecurityConstraints(params);
+
+    queryValidator.validate(params);
+
+    dataAggregator.streamRawData(params, handler);
+  }
+
   @Override
   @Transactional(readOnly = true)
   public DataValueSet getAggregatedDataValueSet(DataQueryParams params) {
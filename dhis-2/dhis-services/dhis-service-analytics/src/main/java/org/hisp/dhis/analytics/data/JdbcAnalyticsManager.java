@@ -51,7 +51,6 @@ import static org.hisp.dhis.util.SqlExceptionUtils.ERR_MSG_SILENT_FALLBACK;
 import static org.hisp.dhis.util.SqlExceptionUtils.relationDoesNotExist;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
@@ -64,6 +63,7 @@ import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.analytics.AggregatedValues;
 import org.hisp.dhis.analytics.AggregationType;
 import org.hisp.dhis.analytics.AnalyticsAggregationType;
 import org.hisp.dhis.analytics.AnalyticsManager;
@@ -163,7 +163,7 @@ public class JdbcAnalyticsManager implements AnalyticsManager {
 
   @Override
   @Async
-  public Future<Map<String, Object>> getAggregatedDataValues(
+  public Future<AggregatedValues> getAggregatedDataValues(
       DataQueryParams params, AnalyticsTableType tableType, int maxLimit) {
     assertQuery(params);
 
@@ -191,26 +191,27 @@ public class JdbcAnalyticsManager implements AnalyticsManager {
       if (params.analyzeOnly()) {
         withExceptionHandling(
             () -> executionPlanStore.addExecutionPlan(immutableParams.getExplainOrderId(), sql));
-        return CompletableFuture.completedFuture(Maps.newHashMap());
+        return CompletableFuture.completedFuture(newAggregatedValues(params));
       }
 
-      Map<String, Object> map;
+      AggregatedValues values;
 
       try {
-        map =
-            withExceptionHandling(() -> getKeyValueMap(immutableParams, sql, maxLimit))
-                .orElse(Map.of());
+        values =
+            withExceptionHandling(() -> getAggregatedValues(immutableParams, sql, maxLimit))
+                .orElseGet(() -> newAggregatedValues(immutableParams));
       } catch (BadSqlGrammarException ex) {
         if (relationDoesNotExist(ex.getSQLException())) {
           throw ex;
         }
         log.warn(ERR_MSG_SILENT_FALLBACK, ex);
-        return CompletableFuture.completedFuture(Maps.newHashMap());
+        return CompletableFuture.completedFuture(newAggregatedValues(params));
       }
 
-      replaceDataPeriodsWithAggregationPeriods(map, params, dataPeriodAggregationPeriodMap);
+      values =
+          replaceDataPeriodsWithAggregationPeriods(values, params, dataPeriodAggregationPeriodMap);
 
-      return CompletableFuture.completedFuture(map);
+      return CompletableFuture.completedFuture(values);
     } catch (DataAccessResourceFailureException ex) {
       throw new QueryRuntimeException(ErrorCode.E7131);
     } catch (RuntimeException ex) {
@@ -921,15 +922,22 @@ public class JdbcAnalyticsManager implements AnalyticsManager {
   }
 
   /**
-   * Retrieves data from the database based on the given query and SQL and puts into a value key and
-   * value mapping.
+   * Retrieves data from the database based on the given query and SQL and puts into aggregated
+   * values, with one row per result row holding the dimension items and the value.
    *
    * @param params the {@link DataQueryParams}.
    * @param sql the SQL query.
    * @param maxLimit the max limit of records to return, 0 indicates unlimited.
    */
-  private Map<String, Object> getKeyValueMap(DataQueryParams params, String sql, int maxLimit) {
-    Map<String, Object> map = new HashMap<>();
+  private AggregatedValues getAggregatedValues(DataQueryParams params, String sql, int maxLimit) {
+    List<DimensionalObject> dimensions = params.getDimensions();
+    String[] queryModsIds = new String[dimensions.size()];
+
+    for (int i = 0; i < dimensions.size(); i++) {
+      queryModsIds[i] = params.getQueryModsId(dimensions.get(i));
+    }
+
+    AggregatedValues values = new AggregatedValues(dimensions.size());
 
     log.debug("Analytics query SQL: '{}'", sql);
 
@@ -944,28 +952,90 @@ public class JdbcAnalyticsManager implements AnalyticsManager {
         throwIllegalQueryEx(ErrorCode.E7128, maxLimit);
       }
 
-      StringBuilder key = new StringBuilder();
+      String[] items = new String[dimensions.size()];
 
-      for (DimensionalObject dim : params.getDimensions()) {
+      for (int i = 0; i < items.length; i++) {
+        DimensionalObject dim = dimensions.get(i);
         String value =
             dim.isFixed() ? dim.getDimensionName() : rowSet.getString(dim.getDimensionName());
-        String queryModsId = params.getQueryModsId(dim);
-        key.append(value).append(queryModsId).append(DIMENSION_SEP);
+        items[i] = queryModsIds[i].isEmpty() ? String.valueOf(value) : value + queryModsIds[i];
       }
 
-      key.deleteCharAt(key.length() - 1);
-
       if (params.isDataType(TEXT)) {
-        String value = rowSet.getString(VALUE_ID);
-        map.put(key.toString(), value);
+        values.put(items, rowSet.getString(VALUE_ID));
       } else // NUMERIC
       {
-        Double value = rowSet.getDouble(VALUE_ID);
-        map.put(key.toString(), value);
+        values.put(items, rowSet.getDouble(VALUE_ID));
+      }
+    }
+
+    return values;
+  }
+
+  /**
+   * Replaces data periods with aggregation periods in the given values, like {@link
+   * #replaceDataPeriodsWithAggregationPeriods(Map, DataQueryParams, ListMap)} does for keyed maps.
+   * Returns the given values if there is nothing to replace.
+   */
+  private AggregatedValues replaceDataPeriodsWithAggregationPeriods(
+      AggregatedValues values,
+      DataQueryParams params,
+      ListMap<DimensionalItemObject, DimensionalItemObject> dataPeriodAggregationPeriodMap) {
+    int periodIndex = params.getPeriodDimensionIndex();
+
+    if (!params.isDisaggregation() || periodIndex == -1 || values.isEmpty()) {
+      return values;
+    }
+
+    AggregatedValues replaced = new AggregatedValues(values.getDimensionCount());
+
+    Map<String, List<DimensionalItemObject>> periodCache = new HashMap<>();
+
+    for (int row = 0; row < values.size(); row++) {
+      String[] items = values.getItems(row);
+
+      String periodKey = items[periodIndex];
+
+      Assert.notNull(
+          periodKey, String.format("Period key cannot be null, key: '%s'", values.getKey(row)));
+
+      List<DimensionalItemObject> periods =
+          periodCache.computeIfAbsent(
+              periodKey,
+              key -> dataPeriodAggregationPeriodMap.get(PeriodType.getPeriodFromIsoString(key)));
+
+      Assert.notNull(
+          periods,
+          String.format(
+              "Period list cannot be null, key: '%s', map: '%s'",
+              values.getKey(row), dataPeriodAggregationPeriodMap));
+
+      Object value = values.getValue(row);
+
+      for (DimensionalItemObject period : periods) {
+        items[periodIndex] = ((Period) period).getIsoDate();
+
+        int existing = replaced.indexOf(items);
+
+        if (existing != -1 && ((Period) period).getPeriodType().spansMultipleCalendarYears()) {
+          replaced.put(
+              items,
+              AnalyticsUtils.calculateYearlyWeightedAverage(
+                  (Double) replaced.getValue(existing),
+                  (Double) value,
+                  AnalyticsUtils.getBaseMonth(((Period) period).getPeriodType())));
+        } else {
+          replaced.put(items, value);
+        }
       }
     }
 
-    return map;
+    return replaced;
+  }
+
+  /** Returns empty aggregated values with the dimensions of the given query. */
+  private AggregatedValues newAggregatedValues(DataQueryParams params) {
+    return new AggregatedValues(params.getDimensions().size());
   }
 
   /**
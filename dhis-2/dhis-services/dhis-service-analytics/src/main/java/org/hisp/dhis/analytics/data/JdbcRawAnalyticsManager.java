@@ -27,6 +27,8 @@
  */
 package org.hisp.dhis.analytics.data;
 
+import static java.sql.ResultSet.CONCUR_READ_ONLY;
+import static java.sql.ResultSet.TYPE_FORWARD_ONLY;
 import static org.hisp.dhis.analytics.AnalyticsConstants.ANALYTICS_TBL_ALIAS;
 import static org.hisp.dhis.analytics.DataQueryParams.PERIOD_END_DATE_ID;
 import static org.hisp.dhis.analytics.DataQueryParams.PERIOD_END_DATE_NAME;
@@ -35,8 +37,11 @@ import static org.hisp.dhis.analytics.DataQueryParams.PERIOD_START_DATE_NAME;
 import static org.hisp.dhis.common.IdentifiableObjectUtils.getUids;
 import static org.hisp.dhis.util.DateUtils.toMediumDate;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -56,8 +61,8 @@ import org.hisp.dhis.db.sql.SqlBuilder;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.util.ObjectUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
@@ -72,6 +77,9 @@ import org.springframework.util.Assert;
 public class JdbcRawAnalyticsManager implements RawAnalyticsManager {
   private static final String DIM_NAME_OU = "ou.path";
 
+  /** Number of rows to fetch from the database cursor per round trip. */
+  private static final int FETCH_SIZE = 1000;
+
   private final SqlBuilder sqlBuilder;
 
   @Qualifier("analyticsReadOnlyJdbcTemplate")
@@ -83,6 +91,13 @@ public class JdbcRawAnalyticsManager implements RawAnalyticsManager {
 
   @Override
   public Grid getRawDataValues(DataQueryParams params, Grid grid) {
+    streamRawDataValues(params, row -> grid.addRow().addValuesAsList(row));
+
+    return grid;
+  }
+
+  @Override
+  public void streamRawDataValues(DataQueryParams params, Consumer<List<Object>> rowConsumer) {
     Assert.isTrue(params.hasStartEndDate(), "Start and end dates must be specified");
 
     List<DimensionalObject> dimensions = new ArrayList<>();
@@ -105,19 +120,42 @@ public class JdbcRawAnalyticsManager implements RawAnalyticsManager {
 
     log.debug("Analytics raw data query SQL: '{}'", sql);
 
-    SqlRowSet rowSet = jdbcTemplate.queryForRowSet(sql);
+    jdbcTemplate.execute(
+        (ConnectionCallback<Void>)
+            connection -> {
+              // PostgreSQL only honours the fetch size outside of auto-commit mode
+              boolean autoCommit = connection.getAutoCommit();
 
-    while (rowSet.next()) {
-      grid.addRow();
+              if (autoCommit) {
+                connection.setAutoCommit(false);
+              }
 
-      for (DimensionalObject dim : dimensions) {
-        grid.addValue(rowSet.getString(dim.getDimensionName()));
-      }
+              try (PreparedStatement statement =
+                  connection.prepareStatement(sql, TYPE_FORWARD_ONLY, CONCUR_READ_ONLY)) {
+                statement.setFetchSize(FETCH_SIZE);
 
-      grid.addValue(rowSet.getDouble("value"));
-    }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                  while (resultSet.next()) {
+                    List<Object> row = new ArrayList<>(dimensions.size() + 1);
 
-    return grid;
+                    for (DimensionalObject dim : dimensions) {
+                      row.add(resultSet.getString(dim.getDimensionName()));
+                    }
+
+                    row.add(resultSet.getDouble("value"));
+
+                    rowConsumer.accept(row);
+                  }
+                }
+              } finally {
+                if (autoCommit) {
+                  connection.rollback();
+                  connection.setAutoCommit(true);
+                }
+              }
+
+              return null;
+            });
   }
 
   // -------------------------------------------------------------------------
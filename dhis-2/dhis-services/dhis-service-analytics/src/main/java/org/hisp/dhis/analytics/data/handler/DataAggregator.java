@@ -35,11 +35,14 @@ import static org.hisp.dhis.analytics.ProcessingHint.SINGLE_PROGRAM_INDICATOR_RE
 import static org.hisp.dhis.analytics.SortOrder.ASC;
 import static org.hisp.dhis.common.DimensionalObject.DATA_X_DIM_ID;
 
+import java.util.List;
+import java.util.Map;
 import javax.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.common.DimensionalObject;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridRowHandler;
 import org.hisp.dhis.system.grid.ListGrid;
 import org.springframework.stereotype.Component;
 
@@ -134,6 +137,49 @@ public class DataAggregator {
     return grid;
   }
 
+  /**
+   * Streams headers and raw data to the given handler. The headers are handled first, followed by
+   * each row as it is read from the database, so that the full result is never held in memory.
+   * Custom identifier schemes are applied to the headers and to each row before it is handled.
+   * Meta data is not included, as it cannot be emitted ahead of the rows.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @param handler the {@link GridRowHandler}.
+   */
+  public void streamRawData(DataQueryParams params, GridRowHandler handler) {
+    params = dataHandler.prepareForRawDataQuery(params);
+
+    Grid headerGrid = new ListGrid();
+
+    headerHandler.addHeaders(params, headerGrid);
+
+    Map<String, String> idSchemeMap = metaDataHandler.getIdSchemeMap(params);
+
+    if (idSchemeMap != null) {
+      headerGrid.substituteMetaData(idSchemeMap);
+    }
+
+    handler.handleHeaders(headerGrid.getHeaders());
+
+    List<Integer> metaColumns = headerGrid.getMetaColumnIndexes();
+
+    dataHandler.streamRawData(
+        params,
+        row -> {
+          if (idSchemeMap != null) {
+            for (int col : metaColumns) {
+              String value = idSchemeMap.get(row.get(col));
+
+              if (value != null) {
+                row.set(col, value);
+              }
+            }
+          }
+
+          handler.handleRow(row);
+        });
+  }
+
   /**
    * Performs pre-handling of the given query and returns the immutable, handled query. If the query
    * has a single indicator as item for the data filter, the filter is set as a dimension and
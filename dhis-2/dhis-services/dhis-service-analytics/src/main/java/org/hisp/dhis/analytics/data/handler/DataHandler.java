@@ -103,7 +103,6 @@ import static org.hisp.dhis.period.PeriodType.getPeriodTypeFromIsoString;
 import static org.hisp.dhis.system.grid.GridUtils.getGridIndexByDimensionItem;
 import static org.hisp.dhis.system.util.MathUtils.getWithin;
 import static org.hisp.dhis.system.util.MathUtils.isZero;
-import static org.hisp.dhis.util.ObjectUtils.firstNonNull;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -112,12 +111,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.MultiValuedMap;
 import org.apache.commons.collections4.multimap.ArrayListValuedHashMap;
+import org.hisp.dhis.analytics.AggregatedValues;
 import org.hisp.dhis.analytics.AnalyticsManager;
 import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.DataQueryGroups;
@@ -268,13 +269,13 @@ public class DataHandler {
                 .withIncludeNumDen(false)
                 .build();
 
-        Map<String, Object> aggregatedDataMap =
-            getAggregatedDataValueMapObjectTyped(dataSourceParams);
+        AggregatedValues aggregatedValues =
+            getAggregatedValues(dataSourceParams, DATA_VALUE, newArrayList());
 
-        for (Map.Entry<String, Object> entry : aggregatedDataMap.entrySet()) {
-          Object value = getRoundedValueObject(params, entry.getValue());
+        for (int row = 0; row < aggregatedValues.size(); row++) {
+          Object value = getRoundedValueObject(params, aggregatedValues.getValue(row));
 
-          grid.addRow().addValues(entry.getKey().split(DIMENSION_SEP)).addValue(value);
+          grid.addRow().addValues(aggregatedValues.getItems(row)).addValue(value);
         }
       }
     }
@@ -392,13 +393,13 @@ public class DataHandler {
       DataQueryParams dataSourceParams =
           newBuilder(params).retainDataDimension(DATA_ELEMENT).withIncludeNumDen(false).build();
 
-      Map<String, Object> aggregatedDataMap =
-          getAggregatedDataValueMapObjectTyped(dataSourceParams);
+      AggregatedValues aggregatedValues =
+          getAggregatedValues(dataSourceParams, DATA_VALUE, newArrayList());
 
-      for (Map.Entry<String, Object> entry : aggregatedDataMap.entrySet()) {
-        Object value = getRoundedValueObject(params, entry.getValue());
+      for (int row = 0; row < aggregatedValues.size(); row++) {
+        Object value = getRoundedValueObject(params, aggregatedValues.getValue(row));
 
-        grid.addRow().addValues(entry.getKey().split(DIMENSION_SEP)).addValue(value);
+        grid.addRow().addValues(aggregatedValues.getItems(row)).addValue(value);
 
         if (params.isIncludeNumDen()) {
           grid.addNullValues(NUMERATOR_DENOMINATOR_PROPERTIES_COUNT);
@@ -504,10 +505,11 @@ public class DataHandler {
   @Transactional(readOnly = true)
   public void addDynamicDimensionValues(DataQueryParams params, Grid grid) {
     if (params.getDataDimensionAndFilterOptions().isEmpty() && !params.isSkipData()) {
-      Map<String, Double> aggregatedDataMap =
-          getAggregatedDataValueMap(newBuilder(params).withIncludeNumDen(false).build());
+      AggregatedValues aggregatedValues =
+          getAggregatedValues(
+              newBuilder(params).withIncludeNumDen(false).build(), DATA_VALUE, newArrayList());
 
-      fillGridWithAggregatedDataMap(params, grid, aggregatedDataMap);
+      fillGridWithAggregatedValues(params, grid, aggregatedValues);
     }
   }
 
@@ -527,10 +529,10 @@ public class DataHandler {
               .withIncludeNumDen(false)
               .build();
 
-      Map<String, Double> aggregatedDataMap =
-          getAggregatedValidationResultMapObjectTyped(dataSourceParams);
+      AggregatedValues aggregatedValues =
+          getAggregatedValues(dataSourceParams, VALIDATION_RESULT, newArrayList());
 
-      fillGridWithAggregatedDataMap(params, grid, aggregatedDataMap);
+      fillGridWithAggregatedValues(params, grid, aggregatedValues);
     }
   }
 
@@ -553,6 +555,26 @@ public class DataHandler {
     }
   }
 
+  /**
+   * Streams raw data for the given data query parameters to the given consumer, one row at a time.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @param rowConsumer the consumer of rows.
+   */
+  @Transactional(readOnly = true)
+  public void streamRawData(DataQueryParams params, Consumer<List<Object>> rowConsumer) {
+    if (!params.isSkipData()) {
+      QueryPlannerParams plannerParams =
+          QueryPlannerParams.newBuilder().withTableType(DATA_VALUE).build();
+
+      params = queryPlanner.withTableNameAndPartitions(params, plannerParams);
+
+      final DataQueryParams immutableParams = DataQueryParams.newBuilder(params).build();
+      withExceptionHandling(
+          () -> rawAnalyticsManager.streamRawDataValues(immutableParams, rowConsumer));
+    }
+  }
+
   /**
    * Prepares the given data query parameters.
    *
@@ -574,31 +596,25 @@ public class DataHandler {
   }
 
   /**
-   * Generates a mapping between the count of a validation result.
-   *
-   * @param params the {@link DataQueryParams}.
-   * @return a mapping between validation results and counts of them
-   */
-  private Map<String, Double> getAggregatedValidationResultMapObjectTyped(DataQueryParams params) {
-    return getDoubleMap(getAggregatedValueMap(params, VALIDATION_RESULT, newArrayList()));
-  }
-
-  /**
-   * Fill grid with aggregated data map with key and value
+   * Fill grid with the numeric rows of the given aggregated values.
    *
    * @param params the {@link DataQueryParams}.
    * @param grid the grid
-   * @param aggregatedDataMap the aggregated data map
+   * @param aggregatedValues the aggregated values
    */
-  private void fillGridWithAggregatedDataMap(
-      DataQueryParams params, Grid grid, Map<String, Double> aggregatedDataMap) {
-    for (Map.Entry<String, Double> entry : aggregatedDataMap.entrySet()) {
+  private void fillGridWithAggregatedValues(
+      DataQueryParams params, Grid grid, AggregatedValues aggregatedValues) {
+    for (int row = 0; row < aggregatedValues.size(); row++) {
+      if (aggregatedValues.isText(row)) {
+        continue;
+      }
+
+      Double rowValue = aggregatedValues.getDoubleValue(row);
+
       Number value =
-          params.isSkipRounding()
-              ? entry.getValue()
-              : (Number) getRoundedValueObject(params, entry.getValue());
+          params.isSkipRounding() ? rowValue : (Number) getRoundedValueObject(params, rowValue);
 
-      grid.addRow().addValues(entry.getKey().split(DIMENSION_SEP)).addValue(value);
+      grid.addRow().addValues(aggregatedValues.getItems(row)).addValue(value);
 
       if (params.isIncludeNumDen()) {
         grid.addNullValues(NUMERATOR_DENOMINATOR_PROPERTIES_COUNT);
@@ -629,10 +645,12 @@ public class DataHandler {
               .withAggregationType(SUM)
               .build();
 
-      Map<String, Double> targetMap = getAggregatedCompletenessTargetMap(targetParams);
+      AggregatedValues targetValues = getAggregatedCompletenessTargetValues(targetParams);
 
-      Map<String, Double> dataMap =
-          metric != EXPECTED_REPORTS ? getAggregatedCompletenessValueMap(params) : new HashMap<>();
+      AggregatedValues dataValues =
+          metric != EXPECTED_REPORTS
+              ? getAggregatedValues(params, COMPLETENESS, newArrayList())
+              : new AggregatedValues(targetValues.getDimensionCount());
 
       Integer periodIndex = params.getPeriodDimensionIndex();
       Integer dataSetIndex = DX_INDEX;
@@ -641,35 +659,42 @@ public class DataHandler {
 
       int timeUnits = getTimeUnits(params);
 
-      for (Map.Entry<String, Double> entry : targetMap.entrySet()) {
-        List<String> dataRow = newArrayList(entry.getKey().split(DIMENSION_SEP));
-
-        Double target = entry.getValue();
-        Double actual = firstNonNull(dataMap.get(entry.getKey()), 0d);
-
-        if (target != null) {
-          // ---------------------------------------------------------
-          // Multiply target value by number of periods in time span
-          // ---------------------------------------------------------
-
-          PeriodType queryPt =
-              filterPeriodType != null
-                  ? filterPeriodType
-                  : getPeriodTypeFromIsoString(dataRow.get(periodIndex));
-          PeriodType dataSetPt = dsPtMap.get(dataRow.get(dataSetIndex));
-
-          target =
-              getCalculatedTarget(
-                  periodIndex,
-                  timeUnits,
-                  dataRow,
-                  target,
-                  queryPt,
-                  dataSetPt,
-                  params.getFilterPeriods());
-
-          addReportRateToGrid(params, grid, metric, dataRow, target, actual);
+      for (int row = 0; row < targetValues.size(); row++) {
+        if (targetValues.isText(row)) {
+          continue;
         }
+
+        String[] items = targetValues.getItems(row);
+        List<String> dataRow = newArrayList(items);
+
+        Double target = targetValues.getDoubleValue(row);
+        int dataRowIndex = dataValues.indexOf(items);
+        Double actual =
+            dataRowIndex != -1 && !dataValues.isText(dataRowIndex)
+                ? dataValues.getDoubleValue(dataRowIndex)
+                : 0d;
+
+        // ---------------------------------------------------------
+        // Multiply target value by number of periods in time span
+        // ---------------------------------------------------------
+
+        PeriodType queryPt =
+            filterPeriodType != null
+                ? filterPeriodType
+                : getPeriodTypeFromIsoString(dataRow.get(periodIndex));
+        PeriodType dataSetPt = dsPtMap.get(dataRow.get(dataSetIndex));
+
+        target =
+            getCalculatedTarget(
+                periodIndex,
+                timeUnits,
+                dataRow,
+                target,
+                queryPt,
+                dataSetPt,
+                params.getFilterPeriods());
+
+        addReportRateToGrid(params, grid, metric, dataRow, target, actual);
       }
     }
   }
@@ -691,11 +716,10 @@ public class DataHandler {
    * @param params the {@link DataQueryParams}.
    * @param grid the {@link Grid} to be manipulated.
    * @param metric the object to assist with the report rate calculation.
-   * @param dataRow the current dataRow, based on the key map built by
-   *        {@link #getAggregatedCompletenessTargetMap(DataQueryParams)).
+   * @param dataRow the current dataRow, based on the values built by
+   *        {@link #getAggregatedCompletenessTargetValues(DataQueryParams)).
    * @param target the current value of the respective key ("dataRow"). See
-   * @param actual the current actual value from
-   *        {@link #getAggregatedCompletenessValueMap(DataQueryParams)} or
+   * @param actual the current actual value of the completeness query or
    *        zero (default).
    */
   private void addReportRateToGrid(
@@ -761,30 +785,17 @@ public class DataHandler {
   }
 
   /**
-   * Generates aggregated values for the given query. Creates a mapping between a dimension key and
-   * the aggregated value. The dimension key is a concatenation of the identifiers of the dimension
-   * items separated by "-".
-   *
-   * @param params the {@link DataQueryParams}.
-   * @return a mapping between a dimension key and the aggregated value.
-   */
-  private Map<String, Double> getAggregatedCompletenessValueMap(DataQueryParams params) {
-    return getDoubleMap(getAggregatedValueMap(params, COMPLETENESS, newArrayList()));
-  }
-
-  /**
-   * Generates a mapping between the data set dimension key and the count of expected data sets to
-   * report.
+   * Generates the aggregated values holding the count of expected data sets to report for each
+   * combination of dimension items.
    *
    * @param params the {@link DataQueryParams}.
-   * @return a mapping between the data set dimension key and the count of expected data sets to
-   *     report.
+   * @return the {@link AggregatedValues} of expected data sets to report.
    */
-  private Map<String, Double> getAggregatedCompletenessTargetMap(DataQueryParams params) {
+  private AggregatedValues getAggregatedCompletenessTargetValues(DataQueryParams params) {
     List<Function<DataQueryParams, List<DataQueryParams>>> queryGroupers = newArrayList();
     queryGroupers.add(queryPlanner::groupByStartEndDateRestriction);
 
-    return getDoubleMap(getAggregatedValueMap(params, COMPLETENESS_TARGET, queryGroupers));
+    return getAggregatedValues(params, COMPLETENESS_TARGET, queryGroupers);
   }
 
   /**
@@ -807,14 +818,15 @@ public class DataHandler {
 
     DataQueryParams operandParams = getOperandDataQueryParams(params, operands, totalType);
 
-    Map<String, Object> aggregatedDataMap = getAggregatedDataValueMapObjectTyped(operandParams);
-
-    aggregatedDataMap = convertDxToOperand(aggregatedDataMap, totalType);
+    AggregatedValues aggregatedValues =
+        getAggregatedValues(operandParams, DATA_VALUE, newArrayList());
 
-    for (Map.Entry<String, Object> entry : aggregatedDataMap.entrySet()) {
-      Object value = getRoundedValueObject(operandParams, entry.getValue());
+    for (int row = 0; row < aggregatedValues.size(); row++) {
+      Object value = getRoundedValueObject(operandParams, aggregatedValues.getValue(row));
 
-      grid.addRow().addValues(entry.getKey().split(DIMENSION_SEP)).addValue(value);
+      grid.addRow()
+          .addValues(convertDxToOperand(aggregatedValues.getItems(row), totalType))
+          .addValue(value);
 
       if (params.isIncludeNumDen()) {
         grid.addNullValues(NUMERATOR_DENOMINATOR_PROPERTIES_COUNT);
@@ -1063,18 +1075,6 @@ public class DataHandler {
     return false;
   }
 
-  /**
-   * Generates aggregated values for the given query. Creates a mapping between a dimension key and
-   * the aggregated value. The dimension key is a concatenation of the identifiers of the dimension
-   * items separated by "-".
-   *
-   * @param params the {@link DataQueryParams}.
-   * @return a mapping between a dimension key and the aggregated value.
-   */
-  private Map<String, Object> getAggregatedDataValueMapObjectTyped(DataQueryParams params) {
-    return getAggregatedValueMap(params, DATA_VALUE, newArrayList());
-  }
-
   /**
    * Returns a mapping of permutation keys and mappings of data element operands and values based on
    * the given query.
@@ -1437,6 +1437,23 @@ public class DataHandler {
       DataQueryParams params,
       AnalyticsTableType tableType,
       List<Function<DataQueryParams, List<DataQueryParams>>> queryGroupers) {
+    return getAggregatedValues(params, tableType, queryGroupers).toMap();
+  }
+
+  /**
+   * Generates the aggregated values for the given query, with one row per combination of dimension
+   * items holding the identifiers of the dimension items and the aggregated value.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @param tableType the {@link AnalyticsTableType}.
+   * @param queryGroupers the list of additional query groupers to use for query planning, use empty
+   *     list for none.
+   * @return the {@link AggregatedValues}.
+   */
+  private AggregatedValues getAggregatedValues(
+      DataQueryParams params,
+      AnalyticsTableType tableType,
+      List<Function<DataQueryParams, List<DataQueryParams>>> queryGroupers) {
     int optimalQueries = getWithin(getProcessNo(), 1, MAX_QUERIES);
 
     int maxLimit =
@@ -1458,15 +1475,15 @@ public class DataHandler {
         queryGroups.getLargestGroupSize(),
         optimalQueries);
 
-    Map<String, Object> map = new HashMap<>();
+    AggregatedValues values = new AggregatedValues(params.getDimensions().size());
 
     for (List<DataQueryParams> queries : queryGroups.getSequentialQueries()) {
-      executeQueries(tableType, maxLimit, map, queries);
+      executeQueries(tableType, maxLimit, values, queries);
     }
 
     timer.getTime("Got analytics values");
 
-    return map;
+    return values;
   }
 
   /**
@@ -1474,26 +1491,26 @@ public class DataHandler {
    *
    * @param tableType the {@link AnalyticsTableType}.
    * @param maxLimit the max limit of records to retrieve.
-   * @param map the map of metadata identifiers to data values.
+   * @param values the aggregated values to put the values of each query into.
    * @param queries the list of {@link DataQueryParams} to execute.
    */
   private void executeQueries(
       AnalyticsTableType tableType,
       int maxLimit,
-      Map<String, Object> map,
+      AggregatedValues values,
       List<DataQueryParams> queries) {
-    List<Future<Map<String, Object>>> futures = new ArrayList<>();
+    List<Future<AggregatedValues>> futures = new ArrayList<>();
 
     for (DataQueryParams query : queries) {
       futures.add(analyticsManager.getAggregatedDataValues(query, tableType, maxLimit));
     }
 
-    for (Future<Map<String, Object>> future : futures) {
+    for (Future<AggregatedValues> future : futures) {
       try {
-        Map<String, Object> taskValues = future.get();
+        AggregatedValues taskValues = future.get();
 
         if (taskValues != null) {
-          map.putAll(taskValues);
+          values.putAll(taskValues);
         }
       } catch (Exception ex) {
         log.error(getStackTrace(ex));
@@ -1520,18 +1537,6 @@ public class DataHandler {
     return cores == 0 ? getCpuCores() : cores;
   }
 
-  /**
-   * Generates aggregated values for the given query. Creates a mapping between a dimension key and
-   * the aggregated value. The dimension key is a concatenation of the identifiers of the dimension
-   * items separated by "-".
-   *
-   * @param params the {@link DataQueryParams}.
-   * @return a mapping between a dimension key and the aggregated value.
-   */
-  private Map<String, Double> getAggregatedDataValueMap(DataQueryParams params) {
-    return getDoubleMap(getAggregatedValueMap(params, DATA_VALUE, newArrayList()));
-  }
-
   void require(DataAggregator dataAggregator) {
     this.dataAggregator = dataAggregator;
   }
@@ -177,10 +177,27 @@ public class MetadataHandler {
    * @param grid the {@link Grid}.
    */
   void applyIdScheme(DataQueryParams params, Grid grid) {
+    Map<String, String> idSchemeMap = getIdSchemeMap(params);
+
+    if (idSchemeMap != null) {
+      grid.substituteMetaData(idSchemeMap);
+    }
+  }
+
+  /**
+   * Returns the mapping from identifiers to the identifier scheme meta data property indicated in
+   * the query, or null if the query does not have a custom identifier scheme.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @return a mapping of identifiers, or null.
+   */
+  Map<String, String> getIdSchemeMap(DataQueryParams params) {
     if (!params.isSkipMeta() && params.hasCustomIdSchemeSet()) {
       SchemeInfo schemeInfo = new SchemeInfo(schemeSettings(params), schemeData(params));
-      grid.substituteMetaData(schemeIdResponseMapper.getSchemeIdResponseMap(schemeInfo));
+      return schemeIdResponseMapper.getSchemeIdResponseMap(schemeInfo);
     }
+
+    return null;
   }
 
   private Data schemeData(DataQueryParams params) {
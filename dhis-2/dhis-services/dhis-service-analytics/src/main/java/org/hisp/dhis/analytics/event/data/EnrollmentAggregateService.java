@@ -41,6 +41,7 @@ import static org.hisp.dhis.commons.util.TextUtils.EMPTY;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.hisp.dhis.analytics.AnalyticsSecurityManager;
+import org.hisp.dhis.analytics.cache.QueryCoalescer;
 import org.hisp.dhis.analytics.event.EnrollmentAnalyticsManager;
 import org.hisp.dhis.analytics.event.EventQueryParams;
 import org.hisp.dhis.analytics.event.EventQueryPlanner;
@@ -72,6 +73,8 @@ public class EnrollmentAggregateService {
 
   private final SchemeIdHandler schemeIdHandler;
 
+  private final QueryCoalescer queryCoalescer;
+
   /**
    * Returns the aggregated data related to enrollments, that matches the given query.
    *
@@ -86,6 +89,24 @@ public class EnrollmentAggregateService {
     // Validate request.
     queryValidator.validate(params);
 
+    if (params.analyzeOnly()) {
+      return getAggregatedEnrollments(params);
+    }
+
+    EventQueryParams immutableParams = new EventQueryParams.Builder(params).build();
+
+    return queryCoalescer.getOrFetch(
+        "enrollment:" + params.getKey(), () -> getAggregatedEnrollments(immutableParams));
+  }
+
+  /**
+   * Fetches the aggregated enrollment data for the given, validated query and creates a grid
+   * containing headers and metadata.
+   *
+   * @param params the {@link EventQueryParams}.
+   * @return enrollments data as a {@link Grid} object.
+   */
+  private Grid getAggregatedEnrollments(EventQueryParams params) {
     List<Keyword> keywords = getDimensionsKeywords(params);
     List<DimensionalObject> periods = getPeriods(params);
 
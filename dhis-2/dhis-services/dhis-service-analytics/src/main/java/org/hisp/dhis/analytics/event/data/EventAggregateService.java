@@ -73,6 +73,7 @@ import org.hisp.dhis.analytics.AnalyticsMetaDataKey;
 import org.hisp.dhis.analytics.AnalyticsSecurityManager;
 import org.hisp.dhis.analytics.EventAnalyticsDimensionalItem;
 import org.hisp.dhis.analytics.cache.AnalyticsCache;
+import org.hisp.dhis.analytics.cache.QueryCoalescer;
 import org.hisp.dhis.analytics.event.EnrollmentAnalyticsManager;
 import org.hisp.dhis.analytics.event.EventAnalyticsManager;
 import org.hisp.dhis.analytics.event.EventDataQueryService;
@@ -133,6 +134,8 @@ public class EventAggregateService {
 
   private final AnalyticsCache analyticsCache;
 
+  private final QueryCoalescer queryCoalescer;
+
   private final AnalyticsSecurityManager securityManager;
 
   private final EventQueryValidator queryValidator;
@@ -189,7 +192,14 @@ public class EventAggregateService {
       return analyticsCache.getOrFetch(params, p -> getAggregatedDataGrid(immutableParams));
     }
 
-    return getAggregatedDataGrid(params);
+    if (params.analyzeOnly()) {
+      return getAggregatedDataGrid(params);
+    }
+
+    EventQueryParams immutableParams = new EventQueryParams.Builder(params).build();
+
+    return queryCoalescer.getOrFetch(
+        "event:" + params.getKey(), () -> getAggregatedDataGrid(immutableParams));
   }
 
   /**
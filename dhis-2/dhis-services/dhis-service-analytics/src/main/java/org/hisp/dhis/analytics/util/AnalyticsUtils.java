@@ -53,6 +53,7 @@ import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -358,52 +359,61 @@ public final class AnalyticsUtils {
       Map<String, T> valueMap, TotalType totalType) {
     Map<String, T> map = Maps.newHashMap();
 
+    for (Entry<String, T> entry : valueMap.entrySet()) {
+      String[] items =
+          convertDxToOperand(entry.getKey().split(DimensionalObject.DIMENSION_SEP), totalType);
+
+      map.put(StringUtils.join(items, DimensionalObject.DIMENSION_SEP), entry.getValue());
+    }
+
+    return map;
+  }
+
+  /**
+   * Converts the data and option combo item identifiers of a single row to an operand identifier,
+   * see {@link #convertDxToOperand(Map, TotalType)}. The row is returned unchanged if it holds fewer
+   * items than the operand is made of.
+   *
+   * @param items the item identifiers of the row.
+   * @param totalType the {@link TotalType}.
+   * @return the operand identifier followed by the remaining item identifiers.
+   */
+  public static String[] convertDxToOperand(String[] items, TotalType totalType) {
     final int upperBoundaryMarginOfDimensionalObjectItems = 1;
     final int upperBoundaryOfDimensionalObjectItems =
         totalType.getPropertyCount() + upperBoundaryMarginOfDimensionalObjectItems;
 
-    for (Entry<String, T> entry : valueMap.entrySet()) {
-      List<String> items =
-          Lists.newArrayList(entry.getKey().split(DimensionalObject.DIMENSION_SEP));
+    if (items.length < upperBoundaryOfDimensionalObjectItems) {
+      return items;
+    }
 
-      if (items.size() < upperBoundaryOfDimensionalObjectItems) {
-        map.put(entry.getKey(), entry.getValue());
-        continue;
-      }
+    List<String> operands =
+        Lists.newArrayList(Arrays.asList(items).subList(0, upperBoundaryOfDimensionalObjectItems));
 
-      List<String> operands =
-          Lists.newArrayList(items.subList(0, upperBoundaryOfDimensionalObjectItems));
-      List<String> dimensions =
-          Lists.newArrayList(items.subList(upperBoundaryOfDimensionalObjectItems, items.size()));
+    // Add wild card in place of category option combination
 
-      // Add wild card in place of category option combination
+    if (TotalType.AOC_ONLY == totalType) {
+      operands.add(1, SYMBOL_WILDCARD);
+    }
 
-      if (TotalType.AOC_ONLY == totalType) {
-        operands.add(1, SYMBOL_WILDCARD);
-      }
+    // If the DataElement has a queryModsId, move it to end of operand
 
-      // If the DataElement has a queryModsId, move it to end of operand
+    List<String> queryModsSplit =
+        Lists.newArrayList(operands.get(0).split(QUERY_MODS_ID_SEPARATOR));
+    if (queryModsSplit.size() > 1) {
+      operands.set(0, queryModsSplit.get(0));
+      int lastOp = operands.size() - 1;
+      operands.set(
+          lastOp, operands.get(lastOp) + QUERY_MODS_ID_SEPARATOR + queryModsSplit.get(1));
+    }
 
-      List<String> queryModsSplit =
-          Lists.newArrayList(operands.get(0).split(QUERY_MODS_ID_SEPARATOR));
-      if (queryModsSplit.size() > 1) {
-        operands.set(0, queryModsSplit.get(0));
-        int lastOp = operands.size() - 1;
-        operands.set(
-            lastOp, operands.get(lastOp) + QUERY_MODS_ID_SEPARATOR + queryModsSplit.get(1));
-      }
+    String[] row = new String[items.length - upperBoundaryOfDimensionalObjectItems + 1];
 
-      String operand =
-          StringUtils.join(operands, DimensionalObjectUtils.COMPOSITE_DIM_OBJECT_PLAIN_SEP);
-      String dimension = StringUtils.join(dimensions, DimensionalObject.DIMENSION_SEP);
-      dimension =
-          !dimension.isEmpty() ? (DimensionalObject.DIMENSION_SEP + dimension) : StringUtils.EMPTY;
-      String key = operand + dimension;
+    row[0] = StringUtils.join(operands, DimensionalObjectUtils.COMPOSITE_DIM_OBJECT_PLAIN_SEP);
 
-      map.put(key, entry.getValue());
-    }
+    System.arraycopy(items, upperBoundaryOfDimensionalObjectItems, row, 1, row.length - 1);
 
-    return map;
+    return row;
   }
 
   /**
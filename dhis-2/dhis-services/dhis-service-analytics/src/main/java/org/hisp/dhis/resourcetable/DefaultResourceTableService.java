@@ -29,12 +29,21 @@ package org.hisp.dhis.resourcetable;
 
 import static java.time.temporal.ChronoUnit.YEARS;
 import static java.util.Comparator.reverseOrder;
+import static org.hisp.dhis.commons.util.ConcurrentUtils.join;
 import static org.hisp.dhis.scheduling.JobProgress.FailurePolicy.SKIP_ITEM;
 
 import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
 import java.time.Year;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -74,6 +83,7 @@ import org.hisp.dhis.setting.SystemSettings;
 import org.hisp.dhis.sqlview.SqlView;
 import org.hisp.dhis.sqlview.SqlViewService;
 import org.hisp.dhis.tablereplication.TableReplicationStore;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -104,12 +114,13 @@ public class DefaultResourceTableService implements ResourceTableService {
 
   private final PeriodDataProvider periodDataProvider;
 
+  @Qualifier("resourceTableExecutor")
+  private final Executor resourceTableExecutor;
+
   @Override
   @Transactional
   public void generateResourceTables() {
-    for (ResourceTable table : getResourceTables()) {
-      resourceTableStore.generateResourceTable(table);
-    }
+    generateResourceTables(getResourceTables());
   }
 
   @Override
@@ -123,9 +134,118 @@ public class DefaultResourceTableService implements ResourceTableService {
   @Override
   @Transactional
   public void generateDataApprovalResourceTables() {
-    for (ResourceTable table : getApprovalResourceTables()) {
-      resourceTableStore.generateResourceTable(table);
+    generateResourceTables(getApprovalResourceTables());
+  }
+
+  /**
+   * Generates the given resource tables. Each table is generated in a separate transaction on the
+   * resource table executor, as soon as the tables it depends on are generated. A table is skipped
+   * when its fingerprint is unchanged since it was last generated. The content of tables is
+   * resolved on the calling thread, as it may require the Hibernate session.
+   *
+   * @param tables the list of {@link ResourceTable}.
+   */
+  void generateResourceTables(List<ResourceTable> tables) {
+    Map<ResourceTableType, String> fingerprints = new EnumMap<>(ResourceTableType.class);
+    Map<ResourceTableType, CompletableFuture<Void>> generated =
+        new EnumMap<>(ResourceTableType.class);
+
+    for (ResourceTable table : sortByDependencies(tables)) {
+      String fingerprint = getFingerprint(table, fingerprints);
+      fingerprints.put(table.getTableType(), fingerprint);
+
+      CompletableFuture<Void> dependencies =
+          CompletableFuture.allOf(
+              table.getDependencies().stream()
+                  .map(generated::get)
+                  .filter(Objects::nonNull)
+                  .toArray(CompletableFuture[]::new));
+
+      if (fingerprint != null
+          && fingerprint.equals(resourceTableStore.getGeneratedFingerprint(table))) {
+        log.info("Resource table is up to date: '{}'", table.getMainTable().getName());
+
+        generated.put(table.getTableType(), dependencies);
+        continue;
+      }
+
+      ResourceTable populated = new PopulatedResourceTable(table);
+
+      generated.put(
+          table.getTableType(),
+          dependencies.thenRunAsync(
+              () -> resourceTableStore.generateResourceTable(populated, fingerprint),
+              resourceTableExecutor));
+    }
+
+    join(CompletableFuture.allOf(generated.values().toArray(CompletableFuture[]::new)));
+  }
+
+  /**
+   * Returns a fingerprint of the content of the given resource table, based on the table
+   * definition, the populate statement, the content of the source tables and the fingerprints of
+   * the tables it depends on.
+   *
+   * @param table the {@link ResourceTable}.
+   * @param fingerprints the fingerprints of the tables generated before the given table.
+   * @return a fingerprint, or null if the table must be regenerated.
+   */
+  private String getFingerprint(ResourceTable table, Map<ResourceTableType, String> fingerprints) {
+    String sourceFingerprint = resourceTableStore.getSourceFingerprint(table);
+
+    if (sourceFingerprint == null) {
+      return null;
+    }
+
+    StringBuilder content =
+        new StringBuilder()
+            .append(table.getMainTable())
+            .append(table.getPopulateTempTableStatement().orElse(""))
+            .append(sourceFingerprint);
+
+    for (ResourceTableType dependency : table.getDependencies().stream().sorted().toList()) {
+      if (fingerprints.containsKey(dependency)) {
+        String dependencyFingerprint = fingerprints.get(dependency);
+
+        if (dependencyFingerprint == null) {
+          return null;
+        }
+
+        content.append(dependencyFingerprint);
+      }
+    }
+
+    return Hashing.sha256().hashString(content, StandardCharsets.UTF_8).toString();
+  }
+
+  /**
+   * Sorts the given resource tables so that each table comes after the tables it depends on, and
+   * otherwise retains the given order. Dependencies on tables not in the list are ignored.
+   *
+   * @param tables the list of {@link ResourceTable}.
+   * @return a sorted list of {@link ResourceTable}.
+   */
+  static List<ResourceTable> sortByDependencies(List<ResourceTable> tables) {
+    Map<ResourceTableType, ResourceTable> pending = new LinkedHashMap<>();
+    tables.forEach(table -> pending.put(table.getTableType(), table));
+
+    List<ResourceTable> sorted = new ArrayList<>();
+
+    while (!pending.isEmpty()) {
+      ResourceTable next =
+          pending.values().stream()
+              .filter(table -> table.getDependencies().stream().noneMatch(pending::containsKey))
+              .findFirst()
+              .orElseThrow(
+                  () ->
+                      new IllegalStateException(
+                          "Cyclic dependencies between resource tables: " + pending.keySet()));
+
+      pending.remove(next.getTableType());
+      sorted.add(next);
     }
+
+    return sorted;
   }
 
   /**
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2022, University of Oslo
+ * Copyright (c) 2004-2024, University of Oslo
  * All rights reserved.
  *
  * Redistribution and use in source and binary forms, with or without
@@ -25,51 +25,47 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package org.hisp.dhis.datasource;
+package org.hisp.dhis.resourcetable;
 
-import com.google.common.collect.Iterators;
-import java.sql.Connection;
-import java.sql.SQLException;
-import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
-import javax.sql.DataSource;
-import org.springframework.jdbc.datasource.AbstractDataSource;
+import java.util.Optional;
+import lombok.experimental.Delegate;
 
 /**
- * Data source implementation which routes to the configured target data sources in a circular
- * fashion.
- *
- * @author Lars Helge Overland
+ * A {@link ResourceTable} with the populate statement and content resolved up front, so that the
+ * table can be generated on a thread other than the one which owns the Hibernate session the
+ * content was loaded from.
  */
-public class CircularRoutingDataSource extends AbstractDataSource {
-  private Iterator<DataSource> dataSourceIterator;
+class PopulatedResourceTable implements ResourceTable {
+  @Delegate(excludes = Population.class)
+  private final ResourceTable resourceTable;
 
-  public CircularRoutingDataSource() {}
+  private final Optional<String> populateTempTableStatement;
 
-  public CircularRoutingDataSource(List<DataSource> targetDataSources) {
-    this.dataSourceIterator = Iterators.cycle(Collections.synchronizedList(targetDataSources));
-  }
+  private final Optional<List<Object[]>> populateTempTableContent;
 
-  // -------------------------------------------------------------------------
-  // AbstractDataSource implementation
-  // -------------------------------------------------------------------------
+  PopulatedResourceTable(ResourceTable resourceTable) {
+    this.resourceTable = resourceTable;
+    this.populateTempTableStatement = resourceTable.getPopulateTempTableStatement();
+    this.populateTempTableContent =
+        populateTempTableStatement.isPresent()
+            ? Optional.empty()
+            : resourceTable.getPopulateTempTableContent();
+  }
 
   @Override
-  public Connection getConnection() throws SQLException {
-    return getDataSource().getConnection();
+  public Optional<String> getPopulateTempTableStatement() {
+    return populateTempTableStatement;
   }
 
   @Override
-  public Connection getConnection(String username, String password) throws SQLException {
-    return getDataSource().getConnection(username, password);
+  public Optional<List<Object[]>> getPopulateTempTableContent() {
+    return populateTempTableContent;
   }
 
-  // -------------------------------------------------------------------------
-  // Private methods
-  // -------------------------------------------------------------------------
+  private interface Population {
+    Optional<String> getPopulateTempTableStatement();
 
-  private synchronized DataSource getDataSource() {
-    return dataSourceIterator.next();
+    Optional<List<Object[]>> getPopulateTempTableContent();
   }
 }
@@ -29,6 +29,7 @@ package org.hisp.dhis.resourcetable;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.hisp.dhis.db.model.Index;
 import org.hisp.dhis.db.model.Table;
 
@@ -81,4 +82,30 @@ public interface ResourceTable {
    * @return an optional list of object arrays, may be empty.
    */
   Optional<List<Object[]>> getPopulateTempTableContent();
+
+  /**
+   * Returns the types of the resource tables which this resource table is populated from, and which
+   * must hence be generated before this resource table.
+   *
+   * @return a set of {@link ResourceTableType}.
+   */
+  default Set<ResourceTableType> getDependencies() {
+    return Set.of();
+  }
+
+  /**
+   * Returns the names of the database tables which the content of this resource table is derived
+   * from. The resource table is regenerated only when the content of one of these tables, the table
+   * definition or one of its dependencies changed. An empty list indicates that the resource table
+   * is regenerated every time.
+   *
+   * <p>Changes are detected from the {@code lastupdated} column, which all tables must have. Join
+   * tables are covered by the tables of the objects on both sides of the association, as changing
+   * a membership updates the object it is changed from.
+   *
+   * @return a list of database table names, may be empty.
+   */
+  default List<String> getSourceTables() {
+    return List.of();
+  }
 }
@@ -37,4 +37,32 @@ public interface ResourceTableStore {
    * @param resourceTable the {@link ResourceTable}.
    */
   void generateResourceTable(ResourceTable resourceTable);
+
+  /**
+   * Generates the given resource table in a new transaction, and records the given fingerprint of
+   * its content with the generated table.
+   *
+   * @param resourceTable the {@link ResourceTable}.
+   * @param fingerprint the fingerprint of the content, may be null.
+   */
+  void generateResourceTable(ResourceTable resourceTable, String fingerprint);
+
+  /**
+   * Returns a fingerprint of the current content of the source tables of the given resource table.
+   * The fingerprint is based on the number of rows and the last updated timestamp of tables with a
+   * {@code lastupdated} column, and on the number of rows and a hash of the rows of other tables.
+   *
+   * @param resourceTable the {@link ResourceTable}.
+   * @return a fingerprint, or null if the resource table has no source tables or table hooks
+   *     modify its content, in which case it must always be regenerated.
+   */
+  String getSourceFingerprint(ResourceTable resourceTable);
+
+  /**
+   * Returns the fingerprint recorded when the given resource table was last generated.
+   *
+   * @param resourceTable the {@link ResourceTable}.
+   * @return the fingerprint, or null if the table does not exist or has no fingerprint.
+   */
+  String getGeneratedFingerprint(ResourceTable resourceTable);
 }
@@ -27,14 +27,19 @@
  */
 package org.hisp.dhis.resourcetable.jdbc;
 
+import static java.util.stream.Collectors.joining;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
-import static org.hisp.dhis.commons.util.TextUtils.removeLastComma;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.analytics.AnalyticsTableHook;
 import org.hisp.dhis.analytics.AnalyticsTableHookService;
 import org.hisp.dhis.analytics.AnalyticsTablePhase;
@@ -46,8 +51,12 @@ import org.hisp.dhis.resourcetable.ResourceTable;
 import org.hisp.dhis.resourcetable.ResourceTableStore;
 import org.hisp.dhis.resourcetable.ResourceTableType;
 import org.hisp.dhis.system.util.Clock;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * @author Lars Helge Overland
@@ -56,6 +65,8 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 @Service("org.hisp.dhis.resourcetable.ResourceTableStore")
 public class JdbcResourceTableStore implements ResourceTableStore {
+  /** Number of characters of CSV content written to the database at a time when copying rows. */
+  private static final int COPY_BUFFER_SIZE = 1 << 20;
 
   private final AnalyticsTableHookService analyticsTableHookService;
 
@@ -65,6 +76,12 @@ public class JdbcResourceTableStore implements ResourceTableStore {
 
   @Override
   public void generateResourceTable(ResourceTable resourceTable) {
+    generateResourceTable(resourceTable, null);
+  }
+
+  @Override
+  @Transactional
+  public void generateResourceTable(ResourceTable resourceTable, String fingerprint) {
     final Clock clock = new Clock().startClock();
     final Table stagingTable = resourceTable.getTable();
     final List<Index> indexes = resourceTable.getIndexes();
@@ -89,9 +106,57 @@ public class JdbcResourceTableStore implements ResourceTableStore {
 
     jdbcTemplate.execute(sqlBuilder.renameTable(stagingTable, tableName));
 
+    if (fingerprint != null) {
+      jdbcTemplate.execute(
+          "comment on table "
+              + sqlBuilder.quote(tableName)
+              + " is "
+              + sqlBuilder.singleQuote(fingerprint));
+    }
+
     log.info("Resource table update done: '{}' '{}'", tableName, clock.time());
   }
 
+  @Override
+  public String getSourceFingerprint(ResourceTable resourceTable) {
+    List<String> sourceTables = resourceTable.getSourceTables();
+
+    if (sourceTables.isEmpty() || isNotEmpty(getTableHooks(resourceTable.getTableType()))) {
+      return null;
+    }
+
+    String timestampedSql =
+        "select table_name from information_schema.columns "
+            + "where table_schema = current_schema() and column_name = 'lastupdated' "
+            + "and table_name in ("
+            + sqlBuilder.singleQuotedCommaDelimited(sourceTables)
+            + ")";
+
+    Set<String> timestamped =
+        new HashSet<>(jdbcTemplate.queryForList(timestampedSql, String.class));
+
+    if (!timestamped.containsAll(sourceTables)) {
+      log.warn(
+          "Source tables of resource table '{}' without last updated column, table is regenerated",
+          resourceTable.getMainTable().getName());
+      return null;
+    }
+
+    String sql =
+        sourceTables.stream()
+            .map(this::getFingerprintSql)
+            .collect(joining(", ", "select concat_ws(';', ", ")"));
+
+    return jdbcTemplate.queryForObject(sql, String.class);
+  }
+
+  @Override
+  public String getGeneratedFingerprint(ResourceTable resourceTable) {
+    String sql = "select obj_description(to_regclass(?), 'pg_class')";
+
+    return jdbcTemplate.queryForObject(sql, String.class, resourceTable.getMainTable().getName());
+  }
+
   /**
    * Drops the given table.
    *
@@ -133,8 +198,7 @@ public class JdbcResourceTableStore implements ResourceTableStore {
       log.debug("Populate table content rows: {}", content.size());
 
       if (isNotEmpty(content)) {
-        int columns = content.get(0).length;
-        batchUpdate(columns, table.getName(), content);
+        copyRows(table.getName(), content);
       }
     }
   }
@@ -145,9 +209,7 @@ public class JdbcResourceTableStore implements ResourceTableStore {
    * @param tableType the {@link ResourceTableType}.
    */
   private void invokeTableHooks(ResourceTableType tableType) {
-    List<AnalyticsTableHook> hooks =
-        analyticsTableHookService.getByPhaseAndResourceTableType(
-            AnalyticsTablePhase.RESOURCE_TABLE_POPULATED, tableType);
+    List<AnalyticsTableHook> hooks = getTableHooks(tableType);
 
     if (isNotEmpty(hooks)) {
       analyticsTableHookService.executeAnalyticsTableSqlHooks(hooks);
@@ -181,25 +243,103 @@ public class JdbcResourceTableStore implements ResourceTableStore {
   }
 
   /**
-   * Performs a batch update.
+   * Returns the table hooks which are invoked when the given resource table is populated.
    *
-   * @param columns the number of columns in the table to update.
-   * @param tableName the name of the table to update.
-   * @param batchArgs the arguments to use for the update statement.
+   * @param tableType the {@link ResourceTableType}.
+   * @return a list of {@link AnalyticsTableHook}.
    */
-  private void batchUpdate(int columns, String tableName, List<Object[]> batchArgs) {
-    if (columns == 0 || StringUtils.isBlank(tableName)) {
-      return;
-    }
+  private List<AnalyticsTableHook> getTableHooks(ResourceTableType tableType) {
+    return analyticsTableHookService.getByPhaseAndResourceTableType(
+        AnalyticsTablePhase.RESOURCE_TABLE_POPULATED, tableType);
+  }
 
-    StringBuilder sql = new StringBuilder("insert into " + tableName + " values (");
+  /**
+   * Returns a SQL sub query for the fingerprint of the content of the given table, based on the
+   * number of rows, which changes when rows are deleted, and the most recent last updated time,
+   * which changes when rows are added or updated.
+   *
+   * @param table the table name.
+   * @return a SQL sub query.
+   */
+  private String getFingerprintSql(String table) {
+    return "(select count(*) || ':' || coalesce(max(t.lastupdated)::text, '') from "
+        + sqlBuilder.quote(table)
+        + " t)";
+  }
 
-    for (int i = 0; i < columns; i++) {
-      sql.append("?,");
-    }
+  /**
+   * Copies the given rows into the given table in CSV format, which is considerably faster than
+   * inserting the rows in batches.
+   *
+   * @param tableName the name of the table to copy into.
+   * @param rows the rows to copy, with values in the order of the table columns.
+   */
+  private void copyRows(String tableName, List<Object[]> rows) {
+    String sql = "copy " + sqlBuilder.quote(tableName) + " from stdin with (format csv)";
+
+    jdbcTemplate.execute(
+        (ConnectionCallback<Long>)
+            connection -> {
+              CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+
+              try {
+                StringBuilder csv = new StringBuilder();
+
+                for (Object[] row : rows) {
+                  appendCsvRow(csv, row);
+
+                  if (csv.length() >= COPY_BUFFER_SIZE) {
+                    writeToCopy(copyIn, csv);
+                  }
+                }
+
+                writeToCopy(copyIn, csv);
+                return copyIn.endCopy();
+              } finally {
+                if (copyIn.isActive()) {
+                  copyIn.cancelCopy();
+                }
+              }
+            });
+  }
 
-    removeLastComma(sql).append(")");
+  /**
+   * Writes and clears the given CSV content.
+   *
+   * @param copyIn the {@link CopyIn} operation.
+   * @param csv the CSV content.
+   */
+  private static void writeToCopy(CopyIn copyIn, StringBuilder csv) throws SQLException {
+    byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+    copyIn.writeToCopy(bytes, 0, bytes.length);
+    csv.setLength(0);
+  }
+
+  /**
+   * Appends the given row as a line of CSV. Null values are written as unquoted empty values, which
+   * are read as null, and other values are quoted. Dates are written in the same local time format
+   * as a JDBC timestamp parameter.
+   *
+   * @param csv the CSV content.
+   * @param row the row values.
+   */
+  static void appendCsvRow(StringBuilder csv, Object[] row) {
+    for (int i = 0; i < row.length; i++) {
+      if (i > 0) {
+        csv.append(',');
+      }
+
+      Object value = row[i];
+
+      if (value != null) {
+        String text =
+            value instanceof Date date
+                ? new Timestamp(date.getTime()).toString()
+                : value.toString();
+        csv.append('"').append(text.replace("\"", "\"\"")).append('"');
+      }
+    }
 
-    jdbcTemplate.batchUpdate(sql.toString(), batchArgs);
+    csv.append('\n');
   }
 }
@@ -85,6 +85,11 @@ public class CategoryOptionComboNameResourceTable implements ResourceTable {
     return ResourceTableType.CATEGORY_OPTION_COMBO_NAME;
   }
 
+  @Override
+  public List<String> getSourceTables() {
+    return List.of("categorycombo", "category", "categoryoptioncombo", "categoryoption");
+  }
+
   @Override
   public Optional<String> getPopulateTempTableStatement() {
     return Optional.empty();
@@ -89,6 +89,11 @@ public class CategoryOptionComboResourceTable implements ResourceTable {
     return ResourceTableType.DATA_ELEMENT_CATEGORY_OPTION_COMBO;
   }
 
+  @Override
+  public List<String> getSourceTables() {
+    return List.of("dataelement", "categorycombo", "categoryoptioncombo");
+  }
+
   @Override
   public Optional<String> getPopulateTempTableStatement() {
     String sql =
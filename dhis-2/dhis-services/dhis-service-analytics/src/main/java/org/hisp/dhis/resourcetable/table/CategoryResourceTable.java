@@ -107,6 +107,16 @@ public class CategoryResourceTable implements ResourceTable {
     return ResourceTableType.CATEGORY_STRUCTURE;
   }
 
+  @Override
+  public List<String> getSourceTables() {
+    return List.of(
+        "categoryoptioncombo",
+        "categoryoption",
+        "category",
+        "categoryoptiongroup",
+        "categoryoptiongroupset");
+  }
+
   @Override
   public Optional<String> getPopulateTempTableStatement() {
     String sql =
@@ -93,6 +93,11 @@ public class DataElementGroupSetResourceTable implements ResourceTable {
     return ResourceTableType.DATA_ELEMENT_GROUP_SET_STRUCTURE;
   }
 
+  @Override
+  public List<String> getSourceTables() {
+    return List.of("dataelement", "dataelementgroup", "dataelementgroupset");
+  }
+
   @Override
   public Optional<String> getPopulateTempTableStatement() {
     String sql =
@@ -128,6 +128,11 @@ public class DataElementResourceTable implements ResourceTable {
     return ResourceTableType.DATA_ELEMENT_STRUCTURE;
   }
 
+  @Override
+  public List<String> getSourceTables() {
+    return List.of("dataelement", "dataset");
+  }
+
   @Override
   public Optional<String> getPopulateTempTableStatement() {
     return Optional.empty();
@@ -92,6 +92,12 @@ public class DataSetOrganisationUnitCategoryResourceTable implements ResourceTab
     return ResourceTableType.DATA_SET_ORG_UNIT_CATEGORY;
   }
 
+  @Override
+  public List<String> getSourceTables() {
+    return List.of(
+        "dataset", "organisationunit", "categorycombo", "categoryoptioncombo", "categoryoption");
+  }
+
   @Override
   public Optional<String> getPopulateTempTableStatement() {
     return Optional.empty();
@@ -93,6 +93,11 @@ public class IndicatorGroupSetResourceTable implements ResourceTable {
     return ResourceTableType.INDICATOR_GROUP_SET_STRUCTURE;
   }
 
+  @Override
+  public List<String> getSourceTables() {
+    return List.of("indicator", "indicatorgroup", "indicatorgroupset");
+  }
+
   @Override
   public Optional<String> getPopulateTempTableStatement() {
     String sql =
@@ -118,6 +118,11 @@ public class OrganisationUnitStructureResourceTable implements ResourceTable {
     return ResourceTableType.ORG_UNIT_STRUCTURE;
   }
 
+  @Override
+  public List<String> getSourceTables() {
+    return List.of("organisationunit");
+  }
+
   @Override
   public Optional<String> getPopulateTempTableStatement() {
     return Optional.empty();
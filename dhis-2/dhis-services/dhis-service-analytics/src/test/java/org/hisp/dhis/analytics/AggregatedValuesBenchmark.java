@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics;
+
+import static org.hisp.dhis.common.DimensionalObject.DIMENSION_SEP;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares building and reading one million aggregated values, 100 data items by 1000 org units by
+ * 10 periods, as a map of concatenated keys and boxed values and as {@link AggregatedValues}. Not
+ * run as part of the test suite, run the main method to execute it. The allocation rate is reported
+ * by the GC profiler as {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AggregatedValuesBenchmark {
+  private static final int DATA_ITEMS = 100;
+
+  private static final int ORG_UNITS = 1000;
+
+  private static final int PERIODS = 10;
+
+  private String[] dataItems;
+
+  private String[] orgUnits;
+
+  private String[] periods;
+
+  @Setup
+  public void setUp() {
+    dataItems = createItems("dataElem", DATA_ITEMS);
+    orgUnits = createItems("orgUnit", ORG_UNITS);
+    periods = createItems("2024", PERIODS);
+  }
+
+  /** Builds a map of concatenated keys, like the result set handling did, and iterates it. */
+  @Benchmark
+  public void map(Blackhole blackhole) {
+    Map<String, Object> map = new HashMap<>();
+
+    for (String dx : dataItems) {
+      for (String ou : orgUnits) {
+        for (String pe : periods) {
+          String key = dx + DIMENSION_SEP + ou + DIMENSION_SEP + pe;
+          map.put(key, (double) key.length());
+        }
+      }
+    }
+
+    for (Map.Entry<String, Object> entry : map.entrySet()) {
+      blackhole.consume(entry.getKey().split(DIMENSION_SEP));
+      blackhole.consume(entry.getValue());
+    }
+  }
+
+  /** Builds an {@link AggregatedValues} and iterates its rows. */
+  @Benchmark
+  public void aggregatedValues(Blackhole blackhole) {
+    AggregatedValues values = new AggregatedValues(3);
+    String[] row = new String[3];
+
+    for (String dx : dataItems) {
+      for (String ou : orgUnits) {
+        for (String pe : periods) {
+          row[0] = dx;
+          row[1] = ou;
+          row[2] = pe;
+          values.put(row, (double) (dx.length() + ou.length() + pe.length() + 2));
+        }
+      }
+    }
+
+    for (int i = 0; i < values.size(); i++) {
+      blackhole.consume(values.getItems(i));
+      blackhole.consume(values.getDoubleValue(i));
+    }
+  }
+
+  private static String[] createItems(String prefix, int count) {
+    String[] items = new String[count];
+
+    for (int i = 0; i < count; i++) {
+      items[i] = prefix + String.format("%04d", i);
+    }
+
+    return items;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(AggregatedValuesBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+        .run();
+  }
+}
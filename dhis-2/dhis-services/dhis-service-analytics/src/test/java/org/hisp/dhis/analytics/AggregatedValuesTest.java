@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class AggregatedValuesTest {
+  @Test
+  void testPutAndGet() {
+    AggregatedValues values = new AggregatedValues(3);
+    values.put(new String[] {"dxA", "ouA", "202401"}, 10d);
+    values.put(new String[] {"dxA", "ouB", "202401"}, "Yes");
+    values.put(new String[] {"dxB", "ouA", "202402"}, (Object) 5);
+
+    assertEquals(3, values.size());
+    assertArrayEquals(new String[] {"dxA", "ouA", "202401"}, values.getItems(0));
+    assertEquals("ouB", values.getItem(1, 1));
+    assertEquals(10d, values.getValue(0));
+    assertEquals("Yes", values.getValue(1));
+    assertTrue(values.isText(1));
+    assertTrue(Double.isNaN(values.getDoubleValue(1)));
+    assertEquals(5d, values.getDoubleValue(2));
+    assertEquals("dxB-ouA-202402", values.getKey(2));
+  }
+
+  @Test
+  void testPutReplacesValueOfSameItems() {
+    AggregatedValues values = new AggregatedValues(2);
+    values.put(new String[] {"dxA", "ouA"}, "Text");
+    values.put(new String[] {"dxA", "ouA"}, 3d);
+
+    assertEquals(1, values.size());
+    assertFalse(values.isText(0));
+    assertEquals(3d, values.getValue(0));
+  }
+
+  @Test
+  void testIndexOf() {
+    AggregatedValues values = new AggregatedValues(2);
+
+    assertEquals(-1, values.indexOf(new String[] {"dxA", "ouA"}));
+
+    values.put(new String[] {"dxA", "ouA"}, 1d);
+    values.put(new String[] {"dxB", "ouB"}, 2d);
+
+    assertEquals(0, values.indexOf(new String[] {"dxA", "ouA"}));
+    assertEquals(1, values.indexOf(new String[] {"dxB", "ouB"}));
+    assertEquals(-1, values.indexOf(new String[] {"dxA", "ouB"}));
+    assertEquals(-1, values.indexOf(new String[] {"dxC", "ouA"}));
+    assertEquals(-1, values.indexOf(new String[] {"dxA"}));
+  }
+
+  @Test
+  void testPutManyRows() {
+    AggregatedValues values = new AggregatedValues(2);
+
+    for (int i = 0; i < 1000; i++) {
+      for (int j = 0; j < 10; j++) {
+        values.put(new String[] {"dx" + j, "ou" + i}, (double) (i * j));
+      }
+    }
+
+    values.put(new String[] {"dx9", "ou999"}, 1d);
+
+    Map<String, Object> map = values.toMap();
+
+    assertEquals(10_000, values.size());
+    assertEquals(1_000d, map.get("dx2-ou500"));
+    assertEquals(1d, map.get("dx9-ou999"));
+  }
+
+  @Test
+  void testPutAll() {
+    AggregatedValues values = new AggregatedValues(2);
+    values.put(new String[] {"dxA", "ouA"}, 1d);
+    values.put(new String[] {"dxA", "ouB"}, 2d);
+
+    AggregatedValues other = new AggregatedValues(2);
+    other.put(new String[] {"dxA", "ouB"}, 3d);
+    other.put(new String[] {"dxB", "ouA"}, "Text");
+
+    values.putAll(other);
+
+    assertEquals(Map.of("dxA-ouA", 1d, "dxA-ouB", 3d, "dxB-ouA", "Text"), values.toMap());
+  }
+
+  @Test
+  void testPutAllIntoEmptyWithOtherDimensionCount() {
+    AggregatedValues values = new AggregatedValues(0);
+
+    AggregatedValues other = new AggregatedValues(2);
+    other.put(new String[] {"dxA", "ouA"}, 1d);
+
+    values.putAll(other);
+
+    assertEquals(2, values.getDimensionCount());
+    assertEquals(Map.of("dxA-ouA", 1d), values.toMap());
+  }
+
+  @Test
+  void testPutAllWithOtherDimensionCount() {
+    AggregatedValues values = new AggregatedValues(2);
+    values.put(new String[] {"dxA", "ouA"}, 1d);
+
+    AggregatedValues other = new AggregatedValues(3);
+    other.put(new String[] {"dxA", "ouA", "202401"}, 1d);
+
+    assertThrows(IllegalArgumentException.class, () -> values.putAll(other));
+  }
+
+  @Test
+  void testPutWithWrongItemCount() {
+    AggregatedValues values = new AggregatedValues(2);
+
+    assertThrows(IllegalArgumentException.class, () -> values.put(new String[] {"dxA"}, 1d));
+  }
+
+  @Test
+  void testFromMapAndToMap() {
+    Map<String, Object> map = new HashMap<>();
+    map.put("dxA-ouA-202401", 1d);
+    map.put("dxA-ouB-202401", "Text");
+    map.put("dxB-ouA-202402", 2.5d);
+
+    AggregatedValues values = AggregatedValues.fromMap(map);
+
+    assertEquals(3, values.getDimensionCount());
+    assertEquals(map, values.toMap());
+    assertTrue(AggregatedValues.fromMap(Map.of()).isEmpty());
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.cache;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheBuilder;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.cache.LocalCache;
+import org.hisp.dhis.cache.SimpleCacheBuilder;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.setting.SystemSettings;
+import org.hisp.dhis.system.grid.ListGrid;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the latency and allocation rate of {@link AnalyticsCache} hits when grids are cloned on
+ * every access and when they are stored as immutable snapshots. Not run as part of the test suite,
+ * run the main method to execute it. The allocation rate is reported by the GC profiler as {@code
+ * gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticsCacheBenchmark {
+  private static final String KEY = "key";
+
+  private static final int COLUMNS = 5;
+
+  @Param({"100", "5000", "50000"})
+  private int rows;
+
+  @Param({"false", "true"})
+  private boolean snapshot;
+
+  private AnalyticsCache analyticsCache;
+
+  @Setup
+  public void setUp() {
+    SystemSettings settings =
+        SystemSettings.of(Map.of("keyAnalyticsCacheSnapshotEnabled", String.valueOf(snapshot)));
+
+    CacheBuilder<Object> cacheBuilder = new SimpleCacheBuilder<>();
+
+    cacheBuilder.expireAfterWrite(1L, TimeUnit.HOURS);
+
+    Cache<Object> cache = new LocalCache<>(cacheBuilder);
+
+    CacheProvider cacheProvider = mock(CacheProvider.class);
+    Mockito.<Cache<Object>>when(cacheProvider.createAnalyticsCache()).thenReturn(cache);
+
+    AnalyticsCacheSettings cacheSettings = new AnalyticsCacheSettings(() -> settings);
+
+    analyticsCache =
+        new AnalyticsCache(cacheProvider, cacheSettings, new QueryCoalescer(cacheSettings));
+    analyticsCache.put(KEY, createGrid(rows), 3600);
+  }
+
+  /** A cache hit whose grid is read but not modified, like when rendering a response. */
+  @Benchmark
+  public Object getAndRead() {
+    Grid grid = analyticsCache.get(KEY).orElseThrow();
+
+    return grid.getValue(grid.getHeight() - 1, COLUMNS - 1);
+  }
+
+  /** A cache hit whose grid is post-processed by sorting and limiting the rows. */
+  @Benchmark
+  public Object getAndSort() {
+    Grid grid = analyticsCache.get(KEY).orElseThrow();
+
+    return grid.sortGrid(COLUMNS, 1).limitGrid(10);
+  }
+
+  /**
+   * Creates a grid shaped like an aggregate analytics response, with dimension item identifiers
+   * and a numeric value per row.
+   */
+  private static Grid createGrid(int rows) {
+    Grid grid = new ListGrid();
+
+    grid.addHeader(new GridHeader("dx"))
+        .addHeader(new GridHeader("ou"))
+        .addHeader(new GridHeader("pe"))
+        .addHeader(new GridHeader("co"))
+        .addHeader(new GridHeader("value"));
+
+    for (int i = 0; i < rows; i++) {
+      grid.addRow()
+          .addValue("dataElem" + (i % 100))
+          .addValue("orgUnit" + (i % 1000))
+          .addValue("2024" + String.format("%02d", i % 12 + 1))
+          .addValue("catOptCom" + (i % 10))
+          .addValue((double) i);
+    }
+
+    return grid;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(AnalyticsCacheBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+        .run();
+  }
+}
@@ -28,9 +28,14 @@
 package org.hisp.dhis.analytics.cache;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import org.hisp.dhis.analytics.DataQueryParams;
@@ -42,6 +47,7 @@ import org.hisp.dhis.cache.SimpleCacheBuilder;
 import org.hisp.dhis.common.Grid;
 import org.hisp.dhis.common.GridHeader;
 import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.setting.SystemSettings;
 import org.hisp.dhis.setting.SystemSettingsService;
 import org.hisp.dhis.system.grid.ListGrid;
 import org.junit.jupiter.api.Test;
@@ -62,33 +68,11 @@ class AnalyticsCacheTest {
   @Test
   void returnSameObjectAfterModifyCachedObject() {
     // arrange
-    AnalyticsCacheSettings settings = new AnalyticsCacheSettings(settingsService);
+    AnalyticsCache analyticsCache = createAnalyticsCache(Map.of());
 
-    CacheBuilder<Grid> cacheBuilder = new SimpleCacheBuilder<>();
-
-    cacheBuilder.expireAfterWrite(1L, TimeUnit.MINUTES);
-
-    Cache<Grid> cache = new LocalCache<>(cacheBuilder);
-
-    Mockito.<Cache<Grid>>when(cacheProvider.createAnalyticsCache()).thenReturn(cache);
-
-    AnalyticsCache analyticsCache = new AnalyticsCache(cacheProvider, settings);
-
-    Grid grid = new ListGrid();
-    grid.addHeader(new GridHeader("Header1"))
-        .addHeader(new GridHeader("Header2"))
-        .addRow()
-        .addValue("Value11")
-        .addValue("Value12")
-        .addRow()
-        .addValue("Value21")
-        .addValue("Value22");
+    Grid grid = createGrid();
 
-    DataQueryParams params =
-        DataQueryParams.newBuilder()
-            .withDataElements(
-                List.of(new DataElement("dataElementA"), new DataElement("dataElementB")))
-            .build();
+    DataQueryParams params = createParams();
 
     // act, assert
     analyticsCache.put(params.getKey(), grid, 60);
@@ -113,4 +97,164 @@ class AnalyticsCacheTest {
 
     assertEquals(2, optCachedGrid.get().getRows().size());
   }
+
+  @Test
+  void returnIsolatedGridsFromSnapshotCache() {
+    // arrange
+    AnalyticsCache analyticsCache =
+        createAnalyticsCache(Map.of("keyAnalyticsCacheSnapshotEnabled", "true"));
+
+    Grid grid = createGrid();
+
+    DataQueryParams params = createParams();
+
+    // act
+    analyticsCache.put(params.getKey(), grid, 60);
+
+    grid.addHeader(new GridHeader("Header3")).addRow().addValue("31").addValue("32");
+
+    Grid cachedGrid = analyticsCache.get(params.getKey()).orElseThrow();
+
+    cachedGrid.getRow(0).set(0, "Modified");
+    cachedGrid.addRow().addValue("Value31").addValue("Value32");
+    cachedGrid.getHeaders().get(0).setName("Modified");
+
+    Grid otherGrid = analyticsCache.get(params.getKey()).orElseThrow();
+
+    // assert
+    assertEquals(3, cachedGrid.getHeight());
+    assertEquals("Modified", cachedGrid.getValue(0, 0));
+    assertEquals("Value12", cachedGrid.getValue(0, 1));
+    assertEquals("Value31", cachedGrid.getValue(2, 0));
+
+    assertEquals(2, otherGrid.getHeaderWidth());
+    assertEquals(2, otherGrid.getHeight());
+    assertEquals("Header1", otherGrid.getHeaders().get(0).getName());
+    assertEquals(List.of("Value11", "Value12"), otherGrid.getRow(0));
+    assertEquals(List.of("Value21", "Value22"), otherGrid.getRow(1));
+  }
+
+  @Test
+  void returnFetchedGridFromSnapshotCache() {
+    // arrange
+    AnalyticsCache analyticsCache =
+        createAnalyticsCache(
+            Map.of("keyAnalyticsCacheSnapshotEnabled", "true", "keyCacheStrategy", "CACHE_1_HOUR"));
+
+    Grid grid = createGrid();
+
+    DataQueryParams params = createParams();
+
+    // act
+    Grid fetchedGrid = analyticsCache.getOrFetch(params, p -> grid);
+
+    fetchedGrid.sortGrid(1, 1);
+
+    Grid cachedGrid = analyticsCache.getOrFetch(params, p -> new ListGrid());
+
+    // assert
+    assertEquals("Value21", fetchedGrid.getValue(0, 0));
+    assertInstanceOf(ListGrid.class, cachedGrid);
+    assertEquals("Value11", cachedGrid.getValue(0, 0));
+    assertEquals(2, cachedGrid.getHeight());
+  }
+
+  @Test
+  void sortGridFromSnapshotCache() {
+    // arrange
+    AnalyticsCache analyticsCache =
+        createAnalyticsCache(Map.of("keyAnalyticsCacheSnapshotEnabled", "true"));
+
+    Grid grid = createGrid();
+
+    DataQueryParams params = createParams();
+
+    analyticsCache.put(params.getKey(), grid, 60);
+
+    Grid cachedGrid = analyticsCache.get(params.getKey()).orElseThrow();
+
+    List<Object> firstRow = cachedGrid.getRow(0);
+
+    // act
+    cachedGrid.sortGrid(1, 1);
+    cachedGrid.getRows().subList(0, 2).sort(Comparator.comparing(row -> (String) row.get(1)));
+    cachedGrid.sortGrid(1, 1);
+    firstRow.set(1, "Modified");
+
+    Grid otherGrid = analyticsCache.get(params.getKey()).orElseThrow();
+
+    // assert
+    assertEquals(List.of("Value21", "Value22"), cachedGrid.getRow(0));
+    assertEquals(List.of("Value11", "Modified"), cachedGrid.getRow(1));
+    assertEquals(List.of("Value11", "Value12"), otherGrid.getRow(0));
+    assertEquals(List.of("Value21", "Value22"), otherGrid.getRow(1));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void returnIsolatedMetaDataFromSnapshotCache() {
+    // arrange
+    AnalyticsCache analyticsCache =
+        createAnalyticsCache(Map.of("keyAnalyticsCacheSnapshotEnabled", "true"));
+
+    Grid grid = createGrid();
+    grid.getMetaData().put("items", new HashMap<>(Map.of("a", "A")));
+    grid.getInternalMetaData().put("keys", new ArrayList<>(List.of("k1")));
+    grid.getRowContext().put(0, new HashMap<>(Map.of("0", "context")));
+
+    DataQueryParams params = createParams();
+
+    // act
+    analyticsCache.put(params.getKey(), grid, 60);
+
+    ((Map<String, Object>) grid.getMetaData().get("items")).put("b", "B");
+
+    Grid cachedGrid = analyticsCache.get(params.getKey()).orElseThrow();
+
+    ((Map<String, Object>) cachedGrid.getMetaData().get("items")).put("c", "C");
+    ((List<Object>) cachedGrid.getInternalMetaData().get("keys")).add("k2");
+    cachedGrid.getRowContext().get(0).put("1", "modified");
+
+    Grid otherGrid = analyticsCache.get(params.getKey()).orElseThrow();
+
+    // assert
+    assertEquals(Map.of("a", "A"), otherGrid.getMetaData().get("items"));
+    assertEquals(List.of("k1"), otherGrid.getInternalMetaData().get("keys"));
+    assertEquals(Map.of("0", "context"), otherGrid.getRowContext().get(0));
+  }
+
+  private AnalyticsCache createAnalyticsCache(Map<String, String> settings) {
+    Mockito.when(settingsService.getCurrentSettings()).thenReturn(SystemSettings.of(settings));
+
+    CacheBuilder<Grid> cacheBuilder = new SimpleCacheBuilder<>();
+
+    cacheBuilder.expireAfterWrite(1L, TimeUnit.MINUTES);
+
+    Cache<Grid> cache = new LocalCache<>(cacheBuilder);
+
+    Mockito.<Cache<Grid>>when(cacheProvider.createAnalyticsCache()).thenReturn(cache);
+
+    AnalyticsCacheSettings cacheSettings = new AnalyticsCacheSettings(settingsService);
+
+    return new AnalyticsCache(cacheProvider, cacheSettings, new QueryCoalescer(cacheSettings));
+  }
+
+  private Grid createGrid() {
+    Grid grid = new ListGrid();
+    grid.addHeader(new GridHeader("Header1"))
+        .addHeader(new GridHeader("Header2"))
+        .addRow()
+        .addValue("Value11")
+        .addValue("Value12")
+        .addRow()
+        .addValue("Value21")
+        .addValue("Value22");
+    return grid;
+  }
+
+  private DataQueryParams createParams() {
+    return DataQueryParams.newBuilder()
+        .withDataElements(List.of(new DataElement("dataElementA"), new DataElement("dataElementB")))
+        .build();
+  }
 }
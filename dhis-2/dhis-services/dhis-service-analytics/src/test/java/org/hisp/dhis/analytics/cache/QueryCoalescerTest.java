@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.setting.SystemSettings;
+import org.hisp.dhis.system.grid.ListGrid;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class QueryCoalescerTest {
+  private final QueryCoalescer coalescer = createCoalescer(false);
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void testSequentialQueriesAreExecuted() {
+    Grid gridA = createGrid();
+    Grid gridB = createGrid();
+
+    assertSame(gridA, coalescer.getOrFetch("key", () -> gridA));
+    assertSame(gridB, coalescer.getOrFetch("key", () -> gridB));
+
+    assertEquals(2, coalescer.getExecutedCount());
+    assertEquals(0, coalescer.getCoalescedCount());
+    assertEquals(0, coalescer.getInFlightCount());
+  }
+
+  @Test
+  void testConcurrentQueriesAreCoalesced() {
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(10),
+        () -> {
+          CountDownLatch started = new CountDownLatch(1);
+          CountDownLatch release = new CountDownLatch(1);
+          AtomicInteger fetches = new AtomicInteger();
+
+          Future<Grid> leader =
+              executor.submit(
+                  () ->
+                      coalescer.getOrFetch(
+                          "key",
+                          () -> {
+                            fetches.incrementAndGet();
+                            started.countDown();
+                            await(release);
+                            return createGrid();
+                          }));
+
+          started.await();
+
+          List<Future<Grid>> followers =
+              List.of(
+                  executor.submit(() -> coalescer.getOrFetch("key", this::fail)),
+                  executor.submit(() -> coalescer.getOrFetch("key", this::fail)));
+
+          while (coalescer.getCoalescedCount() < 2) {
+            Thread.onSpinWait();
+          }
+
+          release.countDown();
+
+          Grid leaderGrid = leader.get();
+          Grid followerGrid = followers.get(0).get();
+
+          followerGrid.getRow(0).set(0, "Modified");
+
+          assertEquals(1, fetches.get());
+          assertEquals(1, coalescer.getExecutedCount());
+          assertEquals(2, coalescer.getCoalescedCount());
+          assertEquals(0, coalescer.getInFlightCount());
+          assertNotSame(leaderGrid, followerGrid);
+          assertEquals("Value11", leaderGrid.getValue(0, 0));
+          assertEquals("Value11", followers.get(1).get().getValue(0, 0));
+          assertEquals(2, followerGrid.getHeight());
+        });
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testWaitingQueriesCanSortTheirGrid(boolean snapshot) {
+    QueryCoalescer snapshotCoalescer = createCoalescer(snapshot);
+
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(10),
+        () -> {
+          CountDownLatch started = new CountDownLatch(1);
+          CountDownLatch release = new CountDownLatch(1);
+
+          Future<Grid> leader =
+              executor.submit(
+                  () ->
+                      snapshotCoalescer.getOrFetch(
+                          "key",
+                          () -> {
+                            started.countDown();
+                            await(release);
+                            return createGrid();
+                          }));
+
+          started.await();
+
+          Future<Grid> follower =
+              executor.submit(() -> snapshotCoalescer.getOrFetch("key", this::fail));
+
+          while (snapshotCoalescer.getCoalescedCount() < 1) {
+            Thread.onSpinWait();
+          }
+
+          release.countDown();
+
+          Grid leaderGrid = leader.get();
+          Grid followerGrid = follower.get();
+
+          // Without snapshots the waiting query gets a deep copy with plain rows
+
+          assertEquals(!snapshot, followerGrid.getRows() instanceof ArrayList);
+
+          followerGrid.sortGrid(1, 1);
+
+          assertEquals("Value21", followerGrid.getValue(0, 0));
+          assertEquals("Value11", followerGrid.getValue(1, 0));
+          assertEquals("Value11", leaderGrid.getValue(0, 0));
+          assertEquals("Value21", leaderGrid.getValue(1, 0));
+        });
+  }
+
+  @Test
+  void testExceptionIsPropagatedToWaitingQueries() {
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(10),
+        () -> {
+          CountDownLatch started = new CountDownLatch(1);
+          CountDownLatch release = new CountDownLatch(1);
+
+          Future<Grid> leader =
+              executor.submit(
+                  () ->
+                      coalescer.getOrFetch(
+                          "key",
+                          () -> {
+                            started.countDown();
+                            await(release);
+                            throw new IllegalStateException("Query failed");
+                          }));
+
+          started.await();
+
+          Future<Grid> follower = executor.submit(() -> coalescer.getOrFetch("key", this::fail));
+
+          while (coalescer.getCoalescedCount() < 1) {
+            Thread.onSpinWait();
+          }
+
+          release.countDown();
+
+          Exception leaderEx = assertThrows(Exception.class, leader::get);
+          Exception followerEx = assertThrows(Exception.class, follower::get);
+
+          assertEquals(IllegalStateException.class, leaderEx.getCause().getClass());
+          assertEquals(IllegalStateException.class, followerEx.getCause().getClass());
+          assertEquals(0, coalescer.getInFlightCount());
+        });
+  }
+
+  private static QueryCoalescer createCoalescer(boolean snapshot) {
+    SystemSettings settings =
+        SystemSettings.of(Map.of("keyAnalyticsCacheSnapshotEnabled", String.valueOf(snapshot)));
+
+    return new QueryCoalescer(new AnalyticsCacheSettings(() -> settings));
+  }
+
+  private Grid fail() {
+    throw new AssertionError("Coalesced query must not be executed");
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static Grid createGrid() {
+    return new ListGrid()
+        .addHeader(new GridHeader("Header1"))
+        .addHeader(new GridHeader("Header2"))
+        .addRow()
+        .addValue("Value11")
+        .addValue("Value12")
+        .addRow()
+        .addValue("Value21")
+        .addValue("Value22");
+  }
+}
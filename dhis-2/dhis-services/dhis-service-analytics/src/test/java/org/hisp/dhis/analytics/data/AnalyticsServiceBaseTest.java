@@ -73,11 +73,11 @@ import org.mockito.quality.Strictness;
 abstract class AnalyticsServiceBaseTest {
   @Mock protected AnalyticsManager analyticsManager;
 
-  @Mock private RawAnalyticsManager rawAnalyticsManager;
+  @Mock protected RawAnalyticsManager rawAnalyticsManager;
 
   @Mock private AnalyticsSecurityManager securityManager;
 
-  @Mock private QueryPlanner queryPlanner;
+  @Mock protected QueryPlanner queryPlanner;
 
   @Mock private ExpressionService expressionService;
 
@@ -89,7 +89,7 @@ abstract class AnalyticsServiceBaseTest {
 
   @Mock private DataQueryService dataQueryService;
 
-  @Mock private SchemeIdResponseMapper schemeIdResponseMapper;
+  @Mock protected SchemeIdResponseMapper schemeIdResponseMapper;
 
   @Mock private DhisConfigurationProvider dhisConfig;
 
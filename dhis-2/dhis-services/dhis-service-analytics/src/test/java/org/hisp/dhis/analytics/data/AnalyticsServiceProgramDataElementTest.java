@@ -44,6 +44,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import org.hisp.dhis.analytics.AggregatedValues;
 import org.hisp.dhis.analytics.AnalyticsAggregationType;
 import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.DataQueryParams;
@@ -101,7 +102,7 @@ class AnalyticsServiceProgramDataElementTest extends AnalyticsServiceBaseTest {
 
     when(analyticsManager.getAggregatedDataValues(
             any(DataQueryParams.class), eq(AnalyticsTableType.DATA_VALUE), eq(0)))
-        .thenReturn(CompletableFuture.completedFuture(emptyData));
+        .thenReturn(CompletableFuture.completedFuture(AggregatedValues.fromMap(emptyData)));
 
     when(eventAggregatedService.getAggregatedData(any(EventQueryParams.class)))
         .thenReturn(new ListGrid());
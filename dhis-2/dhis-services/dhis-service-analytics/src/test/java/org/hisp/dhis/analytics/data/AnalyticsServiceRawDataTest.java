@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.data;
+
+import static org.hisp.dhis.test.TestBase.createDataElement;
+import static org.hisp.dhis.test.TestBase.createOrganisationUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.analytics.QueryPlannerParams;
+import org.hisp.dhis.analytics.common.scheme.SchemeInfo;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.GridRowHandler;
+import org.hisp.dhis.common.IdScheme;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.period.PeriodType;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class AnalyticsServiceRawDataTest extends AnalyticsServiceBaseTest {
+  @Test
+  void verifyStreamedRawDataAppliesOutputIdScheme() {
+    DataElement deA = createDataElement('A');
+    OrganisationUnit ouA = createOrganisationUnit('A');
+
+    DataQueryParams params =
+        DataQueryParams.newBuilder()
+            .withDataElements(List.of(deA))
+            .withOrganisationUnits(List.of(ouA))
+            .withPeriods(List.of(PeriodType.getPeriodFromIsoString("202401")))
+            .withOutputIdScheme(IdScheme.CODE)
+            .build();
+
+    when(queryPlanner.withTableNameAndPartitions(
+            any(DataQueryParams.class), any(QueryPlannerParams.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+    when(schemeIdResponseMapper.getSchemeIdResponseMap(any(SchemeInfo.class)))
+        .thenReturn(Map.of(deA.getUid(), deA.getCode()));
+    doAnswer(
+            invocation -> {
+              Consumer<List<Object>> rowConsumer = invocation.getArgument(1);
+              rowConsumer.accept(
+                  new ArrayList<>(
+                      List.of(
+                          deA.getUid(), ouA.getCode(), "202401", "2024-01-01", "2024-01-31", 5.0)));
+              return null;
+            })
+        .when(rawAnalyticsManager)
+        .streamRawDataValues(any(DataQueryParams.class), any());
+
+    List<GridHeader> headers = new ArrayList<>();
+    List<List<Object>> rows = new ArrayList<>();
+
+    target.streamRawData(
+        params,
+        new GridRowHandler() {
+          @Override
+          public void handleHeaders(List<GridHeader> gridHeaders) {
+            headers.addAll(gridHeaders);
+          }
+
+          @Override
+          public void handleRow(List<Object> row) {
+            rows.add(row);
+          }
+        });
+
+    ArgumentCaptor<DataQueryParams> rawParams = ArgumentCaptor.forClass(DataQueryParams.class);
+    verify(rawAnalyticsManager).streamRawDataValues(rawParams.capture(), any());
+
+    assertEquals(IdScheme.CODE, rawParams.getValue().getOutputIdScheme());
+    assertTrue(rawParams.getValue().isIncludePeriodStartEndDates());
+    assertEquals(
+        List.of("dx", "ou", "pe", "pestartdate", "peenddate", "value"),
+        headers.stream().map(GridHeader::getName).toList());
+    assertEquals(
+        List.of(List.of(deA.getCode(), ouA.getCode(), "202401", "2024-01-01", "2024-01-31", 5.0)),
+        rows);
+  }
+}
@@ -46,6 +46,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
+import org.hisp.dhis.analytics.AggregatedValues;
 import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.common.BaseDimensionalObject;
@@ -115,14 +116,14 @@ class AnalyticsServiceReportingRateTest extends AnalyticsServiceBaseTest {
 
     when(analyticsManager.getAggregatedDataValues(
             any(DataQueryParams.class), eq(AnalyticsTableType.COMPLETENESS), eq(0)))
-        .thenReturn(CompletableFuture.completedFuture(actualReports));
+        .thenReturn(CompletableFuture.completedFuture(AggregatedValues.fromMap(actualReports)));
 
     Map<String, Object> reportingRate = new HashMap<>();
     reportingRate.put(dataSetA.getUid() + "-" + ou.getUid(), expectedReports);
 
     when(analyticsManager.getAggregatedDataValues(
             any(DataQueryParams.class), eq(AnalyticsTableType.COMPLETENESS_TARGET), eq(0)))
-        .thenReturn(CompletableFuture.completedFuture(reportingRate));
+        .thenReturn(CompletableFuture.completedFuture(AggregatedValues.fromMap(reportingRate)));
 
     Grid grid = target.getAggregatedDataValueGrid(params);
 
@@ -182,7 +183,7 @@ class AnalyticsServiceReportingRateTest extends AnalyticsServiceBaseTest {
 
     when(analyticsManager.getAggregatedDataValues(
             any(DataQueryParams.class), eq(AnalyticsTableType.COMPLETENESS_TARGET), eq(0)))
-        .thenReturn(CompletableFuture.completedFuture(reportingRate));
+        .thenReturn(CompletableFuture.completedFuture(AggregatedValues.fromMap(reportingRate)));
 
     Grid grid = target.getAggregatedDataValueGrid(params);
 
@@ -221,7 +222,7 @@ class AnalyticsServiceReportingRateTest extends AnalyticsServiceBaseTest {
 
     when(analyticsManager.getAggregatedDataValues(
             any(DataQueryParams.class), eq(AnalyticsTableType.COMPLETENESS), eq(0)))
-        .thenReturn(CompletableFuture.completedFuture(actualReports));
+        .thenReturn(CompletableFuture.completedFuture(AggregatedValues.fromMap(actualReports)));
 
     // NO TARGET RETURNED
     when(analyticsManager.getAggregatedDataValues(
@@ -274,11 +275,11 @@ class AnalyticsServiceReportingRateTest extends AnalyticsServiceBaseTest {
 
     when(analyticsManager.getAggregatedDataValues(
             any(DataQueryParams.class), eq(AnalyticsTableType.COMPLETENESS_TARGET), eq(0)))
-        .thenReturn(CompletableFuture.completedFuture(targets));
+        .thenReturn(CompletableFuture.completedFuture(AggregatedValues.fromMap(targets)));
 
     when(analyticsManager.getAggregatedDataValues(
             any(DataQueryParams.class), eq(AnalyticsTableType.COMPLETENESS), eq(0)))
-        .thenReturn(CompletableFuture.completedFuture(actuals));
+        .thenReturn(CompletableFuture.completedFuture(AggregatedValues.fromMap(actuals)));
 
     Grid grid = target.getAggregatedDataValueGrid(params);
     assertReportingRatesGrid(grid, dataSetA, "201902");
@@ -324,11 +325,11 @@ class AnalyticsServiceReportingRateTest extends AnalyticsServiceBaseTest {
 
     when(analyticsManager.getAggregatedDataValues(
             any(DataQueryParams.class), eq(AnalyticsTableType.COMPLETENESS_TARGET), eq(0)))
-        .thenReturn(CompletableFuture.completedFuture(targets));
+        .thenReturn(CompletableFuture.completedFuture(AggregatedValues.fromMap(targets)));
 
     when(analyticsManager.getAggregatedDataValues(
             any(DataQueryParams.class), eq(AnalyticsTableType.COMPLETENESS), eq(0)))
-        .thenReturn(CompletableFuture.completedFuture(actuals));
+        .thenReturn(CompletableFuture.completedFuture(AggregatedValues.fromMap(actuals)));
 
     Grid grid = target.getAggregatedDataValueGrid(params);
     assertReportingRatesGrid(grid, dataSetA, "201901");
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.data;
+
+import static java.sql.ResultSet.CONCUR_READ_ONLY;
+import static java.sql.ResultSet.TYPE_FORWARD_ONLY;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hisp.dhis.test.TestBase.createDataElement;
+import static org.hisp.dhis.test.TestBase.createOrganisationUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.common.IdScheme;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.db.sql.PostgreSqlBuilder;
+import org.hisp.dhis.db.sql.SqlBuilder;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class JdbcRawAnalyticsManagerTest {
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  @Mock private Connection connection;
+
+  @Mock private PreparedStatement statement;
+
+  @Mock private ResultSet resultSet;
+
+  @Spy private SqlBuilder sqlBuilder = new PostgreSqlBuilder();
+
+  @Captor private ArgumentCaptor<String> sql;
+
+  @InjectMocks private JdbcRawAnalyticsManager subject;
+
+  private final DataElement deA = createDataElement('A');
+
+  private final OrganisationUnit ouA = createOrganisationUnit('A');
+
+  @Test
+  void verifyRawDataIsStreamedFromCursorWithoutAutoCommit() throws SQLException {
+    mockConnection(true);
+
+    List<List<Object>> rows = new ArrayList<>();
+
+    subject.streamRawDataValues(createParams(IdScheme.CODE), rows::add);
+
+    InOrder inOrder = inOrder(connection, statement);
+    inOrder.verify(connection).setAutoCommit(false);
+    inOrder
+        .verify(connection)
+        .prepareStatement(sql.capture(), eq(TYPE_FORWARD_ONLY), eq(CONCUR_READ_ONLY));
+    inOrder.verify(statement).setFetchSize(1000);
+    inOrder.verify(statement).executeQuery();
+    inOrder.verify(connection).rollback();
+    inOrder.verify(connection).setAutoCommit(true);
+
+    assertThat(sql.getValue(), containsString("ou.code as \"ou\""));
+    assertThat(sql.getValue(), containsString("ou.path like '" + ouA.getPath() + "%'"));
+    assertThat(sql.getValue(), containsString("\"dx\" in ('" + deA.getUid() + "')"));
+    assertThat(
+        sql.getValue(),
+        containsString("ps.startdate >= '2024-01-01' and ps.enddate <= '2024-03-31'"));
+    assertEquals(
+        List.of(
+            List.of(deA.getUid(), ouA.getCode(), "202401", "2024-01-01", "2024-01-31", 10.0),
+            List.of(deA.getUid(), ouA.getCode(), "202402", "2024-02-01", "2024-02-29", 20.0)),
+        rows);
+  }
+
+  @Test
+  void verifyAutoCommitIsKeptWhenAlreadyDisabled() throws SQLException {
+    mockConnection(false);
+
+    List<List<Object>> rows = new ArrayList<>();
+
+    subject.streamRawDataValues(createParams(null), rows::add);
+
+    verify(connection).prepareStatement(sql.capture(), eq(TYPE_FORWARD_ONLY), eq(CONCUR_READ_ONLY));
+    verify(statement).setFetchSize(1000);
+    verify(connection, never()).setAutoCommit(anyBoolean());
+    verify(connection, never()).rollback();
+
+    assertThat(sql.getValue(), containsString("ou.uid as \"ou\""));
+    assertEquals(2, rows.size());
+  }
+
+  @SuppressWarnings("unchecked")
+  private void mockConnection(boolean autoCommit) throws SQLException {
+    when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+        .thenAnswer(
+            invocation ->
+                invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+    when(connection.getAutoCommit()).thenReturn(autoCommit);
+    when(connection.prepareStatement(anyString(), eq(TYPE_FORWARD_ONLY), eq(CONCUR_READ_ONLY)))
+        .thenReturn(statement);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true, true, false);
+    when(resultSet.getString("dx")).thenReturn(deA.getUid(), deA.getUid());
+    when(resultSet.getString("ou")).thenReturn(ouA.getCode(), ouA.getCode());
+    when(resultSet.getString("pe")).thenReturn("202401", "202402");
+    when(resultSet.getString("pestartdate")).thenReturn("2024-01-01", "2024-02-01");
+    when(resultSet.getString("peenddate")).thenReturn("2024-01-31", "2024-02-29");
+    when(resultSet.getDouble("value")).thenReturn(10.0, 20.0);
+  }
+
+  private DataQueryParams createParams(IdScheme outputIdScheme) {
+    return DataQueryParams.newBuilder()
+        .withDataElements(List.of(deA))
+        .withOrganisationUnits(List.of(ouA))
+        .withPeriodDimensionWithoutOptions()
+        .withStartDate(new DateTime(2024, 1, 1, 0, 0).toDate())
+        .withEndDate(new DateTime(2024, 3, 31, 0, 0).toDate())
+        .withIncludePeriodStartEndDates(true)
+        .withOutputIdScheme(outputIdScheme)
+        .withTableName("analytics")
+        .build();
+  }
+}
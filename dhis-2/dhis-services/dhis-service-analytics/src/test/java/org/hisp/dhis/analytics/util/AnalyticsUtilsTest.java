@@ -35,6 +35,7 @@ import static org.hisp.dhis.db.model.DataType.BIGINT;
 import static org.hisp.dhis.db.model.DataType.GEOMETRY_POINT;
 import static org.hisp.dhis.db.model.DataType.TEXT;
 import static org.hisp.dhis.db.model.Database.POSTGRESQL;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -187,6 +188,25 @@ class AnalyticsUtilsTest extends TestBase {
     assertTrue(convertedMap.containsKey("PcfRp1HETO8-zqXKIEycBck-KBJBZopYMPV"));
   }
 
+  @Test
+  void testConvertDxToOperandRow() {
+    assertArrayEquals(
+        new String[] {"GauDLAiXPKT.kC1OT9Q1n1j", "R9U8q7X1aJG"},
+        AnalyticsUtils.convertDxToOperand(
+            new String[] {"GauDLAiXPKT", "kC1OT9Q1n1j", "R9U8q7X1aJG"}, TotalType.COC_ONLY));
+    assertArrayEquals(
+        new String[] {"GauDLAiXPKT.*.kC1OT9Q1n1j", "2016"},
+        AnalyticsUtils.convertDxToOperand(
+            new String[] {"GauDLAiXPKT", "kC1OT9Q1n1j", "2016"}, TotalType.AOC_ONLY));
+    assertArrayEquals(
+        new String[] {"GauDLAiXPKT.kC1OT9Q1n1j.R9U8q7X1aJG"},
+        AnalyticsUtils.convertDxToOperand(
+            new String[] {"GauDLAiXPKT", "kC1OT9Q1n1j", "R9U8q7X1aJG"}, TotalType.COC_AND_AOC));
+    assertArrayEquals(
+        new String[] {"GauDLAiXPKT"},
+        AnalyticsUtils.convertDxToOperand(new String[] {"GauDLAiXPKT"}, TotalType.COC_ONLY));
+  }
+
   @Test
   void testGetRoundedValueObject() {
     DataQueryParams paramsA = DataQueryParams.newBuilder().build();
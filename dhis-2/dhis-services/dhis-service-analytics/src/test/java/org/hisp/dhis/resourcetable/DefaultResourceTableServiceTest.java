@@ -29,20 +29,37 @@ package org.hisp.dhis.resourcetable;
 
 import static java.time.temporal.ChronoUnit.YEARS;
 import static org.hisp.dhis.period.PeriodDataProvider.PeriodSource.DATABASE;
+import static org.hisp.dhis.resourcetable.ResourceTableType.DATA_SET;
+import static org.hisp.dhis.resourcetable.ResourceTableType.ORG_UNIT_GROUP_SET_STRUCTURE;
+import static org.hisp.dhis.resourcetable.ResourceTableType.ORG_UNIT_STRUCTURE;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Year;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 import org.hisp.dhis.analytics.table.setting.AnalyticsTableSettings;
+import org.hisp.dhis.db.model.Logged;
 import org.hisp.dhis.period.PeriodDataProvider;
 import org.hisp.dhis.period.PeriodDataProvider.PeriodSource;
+import org.hisp.dhis.resourcetable.table.DataSetResourceTable;
+import org.hisp.dhis.resourcetable.table.OrganisationUnitGroupSetResourceTable;
+import org.hisp.dhis.resourcetable.table.OrganisationUnitStructureResourceTable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -56,6 +73,22 @@ class DefaultResourceTableServiceTest {
 
   @Mock private ResourceTableStore resourceTableStore;
 
+  @Spy private Executor resourceTableExecutor = new CallerRunsExecutor();
+
+  private final Map<ResourceTableType, String> sourceFingerprints =
+      new EnumMap<>(ResourceTableType.class);
+
+  private final Map<ResourceTableType, String> generatedFingerprints =
+      new EnumMap<>(ResourceTableType.class);
+
+  private final ResourceTable orgUnitGroupSetTable =
+      new OrganisationUnitGroupSetResourceTable(Logged.UNLOGGED, List.of(), 0);
+
+  private final ResourceTable orgUnitStructureTable =
+      new OrganisationUnitStructureResourceTable(Logged.UNLOGGED, 0, null);
+
+  private final ResourceTable dataSetTable = new DataSetResourceTable(Logged.UNLOGGED);
+
   @Test
   void generateDatePeriodTableWhenYearIsOutOfRange() {
     List<Integer> yearsToCheck = List.of(2000, 2001, 2002, 2003, 2004);
@@ -119,4 +152,79 @@ class DefaultResourceTableServiceTest {
 
     assertDoesNotThrow(() -> defaultResourceTableService.getAndValidateAvailableDataYears());
   }
+
+  @Test
+  void sortByDependencies() {
+    List<ResourceTable> sorted =
+        DefaultResourceTableService.sortByDependencies(
+            List.of(orgUnitGroupSetTable, orgUnitStructureTable, dataSetTable));
+
+    assertEquals(List.of(dataSetTable, orgUnitStructureTable, orgUnitGroupSetTable), sorted);
+  }
+
+  @Test
+  void generateResourceTablesSkipsUnchangedTables() {
+    mockResourceTableStore();
+    sourceFingerprints.put(ORG_UNIT_STRUCTURE, "1");
+    sourceFingerprints.put(ORG_UNIT_GROUP_SET_STRUCTURE, "1");
+    sourceFingerprints.put(DATA_SET, "1");
+    List<ResourceTable> tables = List.of(orgUnitGroupSetTable, orgUnitStructureTable, dataSetTable);
+
+    defaultResourceTableService.generateResourceTables(tables);
+    verify(resourceTableStore, times(3)).generateResourceTable(any(), any());
+
+    defaultResourceTableService.generateResourceTables(tables);
+    verify(resourceTableStore, times(3)).generateResourceTable(any(), any());
+
+    sourceFingerprints.put(ORG_UNIT_STRUCTURE, "2");
+    defaultResourceTableService.generateResourceTables(tables);
+    verify(resourceTableStore, times(5)).generateResourceTable(any(), any());
+    verify(resourceTableStore, times(1))
+        .generateResourceTable(argThat(table -> table.getTableType() == DATA_SET), any());
+  }
+
+  @Test
+  void generateResourceTablesWithoutSourceFingerprint() {
+    mockResourceTableStore();
+    sourceFingerprints.put(ORG_UNIT_GROUP_SET_STRUCTURE, "1");
+    sourceFingerprints.put(DATA_SET, "1");
+    List<ResourceTable> tables = List.of(orgUnitGroupSetTable, orgUnitStructureTable, dataSetTable);
+
+    defaultResourceTableService.generateResourceTables(tables);
+    defaultResourceTableService.generateResourceTables(tables);
+
+    verify(resourceTableStore, times(2))
+        .generateResourceTable(
+            argThat(table -> table.getTableType() == ORG_UNIT_STRUCTURE), any());
+    verify(resourceTableStore, times(2))
+        .generateResourceTable(
+            argThat(table -> table.getTableType() == ORG_UNIT_GROUP_SET_STRUCTURE), any());
+    verify(resourceTableStore, times(1))
+        .generateResourceTable(argThat(table -> table.getTableType() == DATA_SET), any());
+  }
+
+  /**
+   * Mocks the resource table store to record the fingerprints of generated tables, and to return
+   * the source fingerprints of {@link #sourceFingerprints}.
+   */
+  private void mockResourceTableStore() {
+    when(resourceTableStore.getSourceFingerprint(any()))
+        .thenAnswer(i -> sourceFingerprints.get(i.<ResourceTable>getArgument(0).getTableType()));
+    when(resourceTableStore.getGeneratedFingerprint(any()))
+        .thenAnswer(
+            i -> generatedFingerprints.get(i.<ResourceTable>getArgument(0).getTableType()));
+    doAnswer(
+            i ->
+                generatedFingerprints.put(
+                    i.<ResourceTable>getArgument(0).getTableType(), i.getArgument(1)))
+        .when(resourceTableStore)
+        .generateResourceTable(any(), any());
+  }
+
+  private static class CallerRunsExecutor implements Executor {
+    @Override
+    public void execute(Runnable command) {
+      command.run();
+    }
+  }
 }
@@ -37,7 +37,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public abstract class AbstractAuditConsumer implements AuditConsumer {
-  protected AuditService auditService;
+  protected AuditBatchWriter auditBatchWriter;
 
   protected ObjectMapper objectMapper;
 
@@ -61,7 +61,8 @@ public abstract class AbstractAuditConsumer implements AuditConsumer {
       }
 
       if (isAuditDatabaseEnabled) {
-        auditService.addAudit(audit);
+        auditBatchWriter.add(audit, message);
+        return;
       }
     } catch (IOException e) {
       log.error(
@@ -70,5 +71,7 @@ public abstract class AbstractAuditConsumer implements AuditConsumer {
     } catch (Exception e) {
       log.error("An error occurred persisting an Audit message of type 'TRACKER'", e);
     }
+
+    AuditBatchWriter.acknowledge(message);
   }
 }
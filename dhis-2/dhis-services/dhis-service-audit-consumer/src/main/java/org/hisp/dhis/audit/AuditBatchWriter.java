@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.audit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects the audits consumed from the audit queues and saves them to the database in batches.
+ * A batch is written as soon as the configured batch size (config key: audit.database.batch_size)
+ * is reached, and at least once per second otherwise.
+ *
+ * <p>Audit messages are only acknowledged once their batch is saved. The audits of a failed batch
+ * stay unacknowledged and are written again with the next flush, and are dropped after {@link
+ * #MAX_ATTEMPTS} failed attempts. The audit topics have no durable subscriptions, so unsaved audits
+ * are still lost upon a JVM crash.
+ */
+@Slf4j
+@Component
+public class AuditBatchWriter implements MeterBinder {
+  static final int MAX_ATTEMPTS = 3;
+
+  private final AuditService auditService;
+
+  private final int batchSize;
+
+  private final BlockingQueue<PendingAudit> buffer = new LinkedBlockingQueue<>();
+
+  private final AtomicLong savedCount = new AtomicLong();
+
+  private final AtomicLong failedCount = new AtomicLong();
+
+  private DistributionSummary batchSizes;
+
+  private Timer lag;
+
+  public AuditBatchWriter(AuditService auditService, DhisConfigurationProvider dhisConfig) {
+    this.auditService = auditService;
+    this.batchSize =
+        Math.max(1, dhisConfig.getIntProperty(ConfigurationKey.AUDIT_DATABASE_BATCH_SIZE));
+  }
+
+  /**
+   * Adds the audit to the next batch, writing the batch if it is full. The message is acknowledged
+   * once the audit is saved.
+   *
+   * @param audit the audit to save
+   * @param message the message the audit was consumed from
+   */
+  public void add(Audit audit, Message message) {
+    buffer.add(new PendingAudit(audit, message, 0));
+
+    if (buffer.size() >= batchSize) {
+      flush();
+    }
+  }
+
+  /** Writes all buffered audits. Audits of a failed batch are buffered again for the next flush. */
+  @PreDestroy
+  @Scheduled(fixedDelay = 1_000)
+  public void flush() {
+    List<PendingAudit> batch = new ArrayList<>(batchSize);
+
+    int remaining = buffer.size();
+    while (remaining > 0 && buffer.drainTo(batch, Math.min(batchSize, remaining)) > 0) {
+      remaining -= batch.size();
+      write(batch);
+      batch.clear();
+    }
+  }
+
+  public int getBufferSize() {
+    return buffer.size();
+  }
+
+  private void write(List<PendingAudit> batch) {
+    List<Audit> audits = batch.stream().map(PendingAudit::audit).toList();
+    try {
+      auditService.addAudits(audits);
+    } catch (Exception e) {
+      failedCount.addAndGet(batch.size());
+      log.error("An error occurred persisting a batch of " + batch.size() + " audit messages", e);
+      retry(batch);
+      return;
+    }
+
+    savedCount.addAndGet(batch.size());
+    record(audits);
+    batch.forEach(pending -> acknowledge(pending.message()));
+  }
+
+  private void retry(List<PendingAudit> batch) {
+    for (PendingAudit pending : batch) {
+      if (pending.attempts() + 1 < MAX_ATTEMPTS) {
+        buffer.add(new PendingAudit(pending.audit(), pending.message(), pending.attempts() + 1));
+      } else {
+        log.error("Dropping an audit message after " + MAX_ATTEMPTS + " failed attempts");
+        acknowledge(pending.message());
+      }
+    }
+  }
+
+  /**
+   * Acknowledges the given audit message, so that the broker does not deliver it again.
+   *
+   * @param message the message to acknowledge
+   */
+  public static void acknowledge(Message message) {
+    try {
+      message.acknowledge();
+    } catch (JMSException e) {
+      log.warn("An error occurred acknowledging an audit message", e);
+    }
+  }
+
+  private void record(List<Audit> batch) {
+    if (batchSizes == null || lag == null) {
+      return;
+    }
+
+    batchSizes.record(batch.size());
+
+    LocalDateTime now = LocalDateTime.now();
+    batch.stream()
+        .map(Audit::getCreatedAt)
+        .filter(Objects::nonNull)
+        .forEach(createdAt -> lag.record(Duration.between(createdAt, now)));
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("audit.queue.size", this, AuditBatchWriter::getBufferSize)
+        .tag("queue", "database")
+        .description("Number of audits waiting in an audit queue")
+        .register(registry);
+    FunctionCounter.builder("audit.saved", savedCount, AtomicLong::get)
+        .tag("outcome", "success")
+        .description("Number of audits saved to the database by outcome")
+        .register(registry);
+    FunctionCounter.builder("audit.saved", failedCount, AtomicLong::get)
+        .tag("outcome", "failure")
+        .description("Number of audits saved to the database by outcome")
+        .register(registry);
+    batchSizes =
+        DistributionSummary.builder("audit.batch.size")
+            .description("Number of audits saved per batch")
+            .register(registry);
+    lag =
+        Timer.builder("audit.lag")
+            .description("Time between an audit being created and saved to the database")
+            .register(registry);
+  }
+
+  private record PendingAudit(Audit audit, Message message, int attempts) {}
+}
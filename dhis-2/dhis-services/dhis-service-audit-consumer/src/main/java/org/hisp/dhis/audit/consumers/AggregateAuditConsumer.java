@@ -31,7 +31,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.jms.TextMessage;
 import org.hisp.dhis.artemis.Topics;
 import org.hisp.dhis.audit.AbstractAuditConsumer;
-import org.hisp.dhis.audit.AuditService;
+import org.hisp.dhis.audit.AuditBatchWriter;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.springframework.jms.annotation.JmsListener;
@@ -41,15 +41,19 @@ import org.springframework.stereotype.Component;
 @Component
 public class AggregateAuditConsumer extends AbstractAuditConsumer {
   public AggregateAuditConsumer(
-      AuditService auditService, ObjectMapper objectMapper, DhisConfigurationProvider dhisConfig) {
-    this.auditService = auditService;
+      AuditBatchWriter auditBatchWriter,
+      ObjectMapper objectMapper,
+      DhisConfigurationProvider dhisConfig) {
+    this.auditBatchWriter = auditBatchWriter;
     this.objectMapper = objectMapper;
 
     this.isAuditLogEnabled = dhisConfig.isEnabled(ConfigurationKey.AUDIT_LOGGER);
     this.isAuditDatabaseEnabled = dhisConfig.isEnabled(ConfigurationKey.AUDIT_DATABASE);
   }
 
-  @JmsListener(destination = Topics.AGGREGATE_TOPIC_NAME)
+  @JmsListener(
+      destination = Topics.AGGREGATE_TOPIC_NAME,
+      containerFactory = "jmsAuditListenerContainerFactory")
   public void consume(TextMessage message) {
     _consume(message);
   }
@@ -32,7 +32,7 @@ import jakarta.jms.TextMessage;
 import java.util.Objects;
 import org.hisp.dhis.artemis.Topics;
 import org.hisp.dhis.audit.AbstractAuditConsumer;
-import org.hisp.dhis.audit.AuditService;
+import org.hisp.dhis.audit.AuditBatchWriter;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.springframework.jms.annotation.JmsListener;
@@ -46,8 +46,10 @@ import org.springframework.stereotype.Component;
 @Component
 public class TrackerAuditConsumer extends AbstractAuditConsumer {
   public TrackerAuditConsumer(
-      AuditService auditService, ObjectMapper objectMapper, DhisConfigurationProvider dhisConfig) {
-    this.auditService = auditService;
+      AuditBatchWriter auditBatchWriter,
+      ObjectMapper objectMapper,
+      DhisConfigurationProvider dhisConfig) {
+    this.auditBatchWriter = auditBatchWriter;
     this.objectMapper = objectMapper;
 
     // for legacy reasons we are overriding the default here and using "off"
@@ -57,7 +59,9 @@ public class TrackerAuditConsumer extends AbstractAuditConsumer {
     this.isAuditDatabaseEnabled = dhisConfig.isEnabled(ConfigurationKey.AUDIT_DATABASE);
   }
 
-  @JmsListener(destination = Topics.TRACKER_TOPIC_NAME)
+  @JmsListener(
+      destination = Topics.TRACKER_TOPIC_NAME,
+      containerFactory = "jmsAuditListenerContainerFactory")
   public void consume(TextMessage message) {
     _consume(message);
   }
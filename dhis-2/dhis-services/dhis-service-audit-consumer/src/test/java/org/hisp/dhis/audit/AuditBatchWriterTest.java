@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import java.util.List;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AuditBatchWriterTest {
+  @Mock private AuditService auditService;
+
+  @Mock private DhisConfigurationProvider dhisConfig;
+
+  @Mock private Message first;
+
+  @Mock private Message second;
+
+  private final Audit firstAudit = Audit.builder().build();
+
+  private final Audit secondAudit = Audit.builder().build();
+
+  private AuditBatchWriter writer;
+
+  @BeforeEach
+  void setUp() {
+    when(dhisConfig.getIntProperty(ConfigurationKey.AUDIT_DATABASE_BATCH_SIZE)).thenReturn(2);
+    writer = new AuditBatchWriter(auditService, dhisConfig);
+  }
+
+  @Test
+  void shouldAcknowledgeMessagesOnceTheirBatchIsSaved() throws JMSException {
+    writer.add(firstAudit, first);
+
+    verify(auditService, never()).addAudits(anyList());
+    verify(first, never()).acknowledge();
+
+    writer.add(secondAudit, second);
+
+    verify(auditService).addAudits(List.of(firstAudit, secondAudit));
+    verify(first).acknowledge();
+    verify(second).acknowledge();
+    assertEquals(0, writer.getBufferSize());
+  }
+
+  @Test
+  void shouldKeepMessagesOfFailedBatchUnacknowledgedAndWriteThemAgain() throws JMSException {
+    doThrow(new RuntimeException("database down"))
+        .doNothing()
+        .when(auditService)
+        .addAudits(anyList());
+
+    writer.add(firstAudit, first);
+    writer.add(secondAudit, second);
+
+    verify(first, never()).acknowledge();
+    verify(second, never()).acknowledge();
+    assertEquals(2, writer.getBufferSize());
+
+    writer.flush();
+
+    verify(auditService, times(2)).addAudits(List.of(firstAudit, secondAudit));
+    verify(first).acknowledge();
+    verify(second).acknowledge();
+    assertEquals(0, writer.getBufferSize());
+  }
+
+  @Test
+  void shouldDropAndAcknowledgeMessagesAfterMaxAttempts() throws JMSException {
+    doThrow(new RuntimeException("constraint violation")).when(auditService).addAudits(anyList());
+
+    writer.add(firstAudit, first);
+    for (int attempt = 0; attempt < AuditBatchWriter.MAX_ATTEMPTS; attempt++) {
+      verify(first, never()).acknowledge();
+      writer.flush();
+    }
+
+    verify(auditService, times(AuditBatchWriter.MAX_ATTEMPTS)).addAudits(List.of(firstAudit));
+    verify(first).acknowledge();
+    assertEquals(0, writer.getBufferSize());
+  }
+}
@@ -32,6 +32,7 @@ import static org.hisp.dhis.system.util.ValidationUtils.dataValueIsZeroAndInsign
 import static org.hisp.dhis.system.util.ValidationUtils.valueIsValid;
 
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
@@ -348,6 +349,13 @@ public class DefaultDataValueService implements DataValueService {
     return dataValueStore.getDataValueCountLastUpdatedBetween(startDate, endDate, includeDeleted);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public List<String> getOrganisationUnitPathsWithDataChangedSince(
+      Date since, Collection<String> dataElementUids) {
+    return dataValueStore.getOrganisationUnitPathsWithDataChangedSince(since, dataElementUids);
+  }
+
   @Override
   @Transactional(readOnly = true)
   public boolean dataValueExists(CategoryCombo combo) {
@@ -248,6 +248,21 @@ public class HibernateDataValueStore extends HibernateGenericStore<DataValue>
         .intValue();
   }
 
+  @Override
+  public List<String> getOrganisationUnitPathsWithDataChangedSince(
+      Date since, Collection<String> dataElementUids) {
+    if (dataElementUids.isEmpty()) {
+      return List.of();
+    }
+
+    return this.<String>getTypedQuery(
+            "select distinct dv.source.path from DataValue dv "
+                + "where dv.lastUpdated >= :since and dv.dataElement.uid in :dataElementUids")
+        .setParameter("since", since)
+        .setParameter("dataElementUids", dataElementUids)
+        .getResultList();
+  }
+
   @Override
   public boolean dataValueExists(CategoryCombo combo) {
     String cocIdsSql =
@@ -787,6 +802,10 @@ public class HibernateDataValueStore extends HibernateGenericStore<DataValue>
   /** getDeflatedDataValues - Adds {@link DeflatedDataValue} to blocking queue. */
   private void getDdvAddToBlockingQueue(
       BlockingQueue<DeflatedDataValue> blockingQueue, DeflatedDataValue ddv) {
+    if (Thread.currentThread().isInterrupted()) {
+      return; // The consumer has stopped taking values, so don't wait for it.
+    }
+
     try {
       if (!blockingQueue.offer(ddv, DDV_QUEUE_TIMEOUT_VALUE, DDV_QUEUE_TIMEOUT_UNIT)) {
         log.error("HibernateDataValueStore failed to add to BlockingQueue.");
@@ -95,7 +95,6 @@ import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.analytics.DataType;
-import org.hisp.dhis.antlr.Parser;
 import org.hisp.dhis.antlr.ParserException;
 import org.hisp.dhis.cache.Cache;
 import org.hisp.dhis.cache.CacheProvider;
@@ -271,6 +270,9 @@ public class DefaultExpressionService implements ExpressionService {
   /** Cache for the constant map. */
   private final Cache<Map<String, Constant>> constantMapCache;
 
+  /** Cache for parsed expressions, keyed by expression. */
+  private final Cache<ExpressionPlan> expressionPlanCache;
+
   // -------------------------------------------------------------------------
   // Constructor
   // -------------------------------------------------------------------------
@@ -298,6 +300,7 @@ public class DefaultExpressionService implements ExpressionService {
     this.idObjectManager = idObjectManager;
     this.i18nManager = i18nManager;
     this.constantMapCache = cacheProvider.createAllConstantsCache();
+    this.expressionPlanCache = cacheProvider.createExpressionPlanCache();
     this.sqlBuilder = sqlBuilder;
   }
 
@@ -736,11 +739,21 @@ public class DefaultExpressionService implements ExpressionService {
         .build();
   }
 
+  /**
+   * Returns the plan for the given expression, parsing the expression only if it is not already
+   * cached. The same plan is reused for every evaluation of the expression, regardless of parse
+   * type, since parse types only differ in which items the visitor accepts.
+   */
+  private ExpressionPlan getExpressionPlan(String expression) {
+    return expressionPlanCache.get(
+        expression, key -> ExpressionPlan.compile(expression, sqlBuilder));
+  }
+
   /** Visits an expression and returns the expected expression type. */
   private Object visit(
       String expression, DataType dataType, CommonExpressionVisitor visitor, boolean logWarnings) {
     try {
-      Object result = Parser.visit(expression, visitor);
+      Object result = getExpressionPlan(expression).visit(visitor);
 
       switch (dataType) {
         case NUMERIC:
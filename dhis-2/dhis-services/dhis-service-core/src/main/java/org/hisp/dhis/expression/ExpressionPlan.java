@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.expression;
+
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.hisp.dhis.antlr.Parser;
+import org.hisp.dhis.antlr.ParserException;
+import org.hisp.dhis.antlr.ParserExceptionWithoutContext;
+import org.hisp.dhis.db.sql.SqlBuilder;
+import org.hisp.dhis.parser.expression.CommonExpressionVisitor;
+
+/**
+ * An expression which has been parsed once into an immutable parse tree. The parse tree holds no
+ * evaluation state, so a plan can be cached and visited any number of times, concurrently, by
+ * separate {@link CommonExpressionVisitor} instances. An expression with a syntax error results in
+ * a plan which rethrows the parse error on every visit, so that the expression is not re-parsed.
+ *
+ * <p>A plan only depends on the expression text. Constants, items and values are resolved by the
+ * visitor at evaluation time, so a plan never becomes stale when metadata changes.
+ */
+final class ExpressionPlan {
+  private final ParseTree parseTree;
+
+  private final String parseError;
+
+  private ExpressionPlan(ParseTree parseTree, String parseError) {
+    this.parseTree = parseTree;
+    this.parseError = parseError;
+  }
+
+  /**
+   * Parses the given expression into a plan.
+   *
+   * @param expression the expression.
+   * @param sqlBuilder the {@link SqlBuilder}, required to construct a visitor.
+   * @return an {@link ExpressionPlan}.
+   */
+  static ExpressionPlan compile(String expression, SqlBuilder sqlBuilder) {
+    try {
+      return new ExpressionPlan(
+          (ParseTree) Parser.visit(expression, new ParseTreeCapture(sqlBuilder)), null);
+    } catch (ParserException ex) {
+      return new ExpressionPlan(null, ex.getMessage());
+    }
+  }
+
+  /**
+   * Visits the parse tree of this plan with the given visitor. Like {@link Parser#visit}, errors
+   * raised by the visitor as {@link ParserExceptionWithoutContext} are rethrown as {@link
+   * ParserException}.
+   *
+   * @param visitor the {@link CommonExpressionVisitor}.
+   * @return the result of the visit.
+   * @throws ParserException if the expression could not be parsed or evaluated.
+   */
+  Object visit(CommonExpressionVisitor visitor) {
+    if (parseError != null) {
+      throw new ParserException(parseError);
+    }
+
+    try {
+      return visitor.visit(parseTree);
+    } catch (ParserExceptionWithoutContext ex) {
+      throw new ParserException(ex.getMessage());
+    }
+  }
+
+  /** Visitor which returns the parse tree it is asked to visit instead of evaluating it. */
+  private static final class ParseTreeCapture extends CommonExpressionVisitor {
+    ParseTreeCapture(SqlBuilder sqlBuilder) {
+      super(CommonExpressionVisitor.builder().sqlBuilder(sqlBuilder).build());
+    }
+
+    @Override
+    public Object visit(ParseTree tree) {
+      return tree;
+    }
+  }
+}
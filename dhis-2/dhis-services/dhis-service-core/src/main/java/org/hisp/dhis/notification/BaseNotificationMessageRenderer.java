@@ -27,23 +27,21 @@
  */
 package org.hisp.dhis.notification;
 
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.SimpleCacheBuilder;
 import org.hisp.dhis.common.DeliveryChannel;
-import org.hisp.dhis.common.RegexUtils;
 import org.hisp.dhis.util.DateUtils;
 import org.joda.time.DateTime;
 import org.joda.time.Days;
@@ -89,6 +87,14 @@ public abstract class BaseNotificationMessageRenderer<T> implements Notification
   private static final Pattern DATA_ELEMENT_PATTERN =
       Pattern.compile("#\\{([A-Za-z][A-Za-z0-9]{10})}");
 
+  /** Templates split into literal text and expressions, keyed by their subject and message. */
+  private final Cache<CompiledNotificationTemplate> compiledTemplates =
+      new SimpleCacheBuilder<CompiledNotificationTemplate>()
+          .forRegion("compiledNotificationTemplates")
+          .expireAfterAccess(1, TimeUnit.HOURS)
+          .withMaximumSize(1000)
+          .build();
+
   private final Map<ExpressionType, BiFunction<T, Set<String>, Map<String, String>>>
       expressionToValueResolvers =
           Map.of(
@@ -128,15 +134,18 @@ public abstract class BaseNotificationMessageRenderer<T> implements Notification
 
   @Override
   public NotificationMessage render(T entity, NotificationTemplate template) {
-    final String collatedTemplate =
-        template.getSubjectTemplate() + " " + template.getMessageTemplate();
-
-    Map<String, String> expressionToValueMap =
-        extractExpressionsByType(collatedTemplate).entrySet().stream()
-            .map(entry -> resolveValuesFromExpressions(entry.getValue(), entry.getKey(), entity))
-            .collect(HashMap::new, Map::putAll, Map::putAll);
-
-    return createNotificationMessage(template, expressionToValueMap);
+    CompiledNotificationTemplate compiledTemplate = compile(template);
+
+    Map<ExpressionType, Map<String, String>> expressionToValueMap =
+        new EnumMap<>(ExpressionType.class);
+    compiledTemplate
+        .getExpressions()
+        .forEach(
+            (type, expressions) ->
+                expressionToValueMap.put(
+                    type, resolveValuesFromExpressions(expressions, type, entity)));
+
+    return createNotificationMessage(template, compiledTemplate, expressionToValueMap);
   }
 
   // -------------------------------------------------------------------------
@@ -227,78 +236,32 @@ public abstract class BaseNotificationMessageRenderer<T> implements Notification
     return value != null ? value : StringUtils.EMPTY;
   }
 
+  private CompiledNotificationTemplate compile(NotificationTemplate template) {
+    String subjectTemplate = template.getSubjectTemplate();
+    String messageTemplate = template.getMessageTemplate();
+
+    return compiledTemplates.get(
+        subjectTemplate + "\u0000" + messageTemplate,
+        key ->
+            new CompiledNotificationTemplate(
+                subjectTemplate, messageTemplate, this::isValidExpressionContent));
+  }
+
   private NotificationMessage createNotificationMessage(
-      NotificationTemplate template, Map<String, String> expressionToValueMap) {
-    String subject = replaceExpressions(template.getSubjectTemplate(), expressionToValueMap);
+      NotificationTemplate template,
+      CompiledNotificationTemplate compiledTemplate,
+      Map<ExpressionType, Map<String, String>> expressionToValueMap) {
+    String subject = compiledTemplate.renderSubject(expressionToValueMap);
     subject = chop(subject, SUBJECT_CHAR_LIMIT);
 
     boolean hasSmsRecipients = template.getDeliveryChannels().contains(DeliveryChannel.SMS);
 
-    String message = replaceExpressions(template.getMessageTemplate(), expressionToValueMap);
+    String message = compiledTemplate.renderMessage(expressionToValueMap);
     message = chop(message, hasSmsRecipients ? SMS_CHAR_LIMIT : EMAIL_CHAR_LIMIT);
 
     return new NotificationMessage(subject, message);
   }
 
-  private static String replaceExpressions(
-      String input, final Map<String, String> expressionToValueMap) {
-    if (StringUtils.isEmpty(input)) {
-      return StringUtils.EMPTY;
-    }
-
-    return Stream.of(ExpressionType.values())
-        .map(ExpressionType::getExpressionPattern)
-        .reduce(
-            input,
-            (str, pattern) -> {
-              StringBuilder sb = new StringBuilder(str.length());
-              Matcher matcher = pattern.matcher(str);
-
-              while (matcher.find()) {
-                String key = matcher.group(1);
-                String value = expressionToValueMap.getOrDefault(key, MISSING_VALUE_REPLACEMENT);
-                value = StringUtils.defaultIfBlank(value, StringUtils.EMPTY);
-
-                matcher.appendReplacement(sb, value);
-              }
-
-              return matcher.appendTail(sb).toString();
-            },
-            (oldStr, newStr) -> newStr);
-  }
-
-  private Map<ExpressionType, Set<String>> extractExpressionsByType(String template) {
-    return Arrays.stream(ExpressionType.values())
-        .collect(Collectors.toMap(Function.identity(), type -> extractExpressions(template, type)));
-  }
-
-  private Set<String> extractExpressions(String template, ExpressionType type) {
-    Map<Boolean, Set<String>> groupedExpressions =
-        RegexUtils.getMatches(type.getExpressionPattern(), template, 1).stream()
-            .collect(
-                Collectors.groupingBy(
-                    expr -> isValidExpressionContent(expr, type), Collectors.toSet()));
-
-    warnOfUnrecognizedExpressions(groupedExpressions.get(false), type);
-
-    Set<String> expressions = groupedExpressions.get(true);
-
-    if (expressions == null || expressions.isEmpty()) {
-      return Collections.emptySet();
-    }
-
-    return expressions;
-  }
-
-  private static void warnOfUnrecognizedExpressions(Set<String> unrecognized, ExpressionType type) {
-    if (unrecognized != null && !unrecognized.isEmpty()) {
-      log.warn(
-          String.format(
-              "%d unrecognized expressions of type %s were ignored: %s",
-              unrecognized.size(), type.name(), Arrays.toString(unrecognized.toArray())));
-    }
-  }
-
   // -------------------------------------------------------------------------
   // Supportive methods
   // -------------------------------------------------------------------------
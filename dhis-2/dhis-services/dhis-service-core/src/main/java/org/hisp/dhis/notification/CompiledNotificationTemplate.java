@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.notification;
+
+import static java.util.stream.Collectors.joining;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.notification.BaseNotificationMessageRenderer.ExpressionType;
+
+/**
+ * A notification template split once into literal text and expressions, so that rendering it for
+ * many recipients only resolves the values and joins the segments.
+ */
+@Slf4j
+final class CompiledNotificationTemplate {
+  /** Matches any expression with its content in the group of the {@link ExpressionType} ordinal. */
+  private static final Pattern EXPRESSION_PATTERN =
+      Pattern.compile(
+          Stream.of(ExpressionType.values())
+              .map(type -> "(?:" + type.getExpressionPattern().pattern() + ")")
+              .collect(joining("|")));
+
+  /** A literal text if the type is null, otherwise the content of an expression of that type. */
+  private record Segment(@CheckForNull ExpressionType type, @Nonnull String text) {}
+
+  private final List<Segment> subject;
+
+  private final List<Segment> message;
+
+  private final Map<ExpressionType, Set<String>> expressions = new EnumMap<>(ExpressionType.class);
+
+  /**
+   * @param isValid tests if the content of an expression can be resolved by the renderer, invalid
+   *     expressions are rendered as missing values
+   */
+  CompiledNotificationTemplate(
+      @CheckForNull String subjectTemplate,
+      @CheckForNull String messageTemplate,
+      @Nonnull BiPredicate<String, ExpressionType> isValid) {
+    Map<ExpressionType, Set<String>> invalid = new EnumMap<>(ExpressionType.class);
+    this.subject = compile(subjectTemplate, isValid, invalid);
+    this.message = compile(messageTemplate, isValid, invalid);
+
+    invalid.forEach(
+        (type, unrecognized) ->
+            log.warn(
+                "{} unrecognized expressions of type {} were ignored: {}",
+                unrecognized.size(),
+                type.name(),
+                unrecognized));
+  }
+
+  /**
+   * @return the content of all valid expressions in subject and message by their type
+   */
+  @Nonnull
+  Map<ExpressionType, Set<String>> getExpressions() {
+    return Collections.unmodifiableMap(expressions);
+  }
+
+  @Nonnull
+  String renderSubject(@Nonnull Map<ExpressionType, Map<String, String>> values) {
+    return render(subject, values);
+  }
+
+  @Nonnull
+  String renderMessage(@Nonnull Map<ExpressionType, Map<String, String>> values) {
+    return render(message, values);
+  }
+
+  private List<Segment> compile(
+      String template,
+      BiPredicate<String, ExpressionType> isValid,
+      Map<ExpressionType, Set<String>> invalid) {
+    if (StringUtils.isEmpty(template)) {
+      return List.of();
+    }
+
+    List<Segment> segments = new ArrayList<>();
+    Matcher matcher = EXPRESSION_PATTERN.matcher(template);
+    int end = 0;
+
+    while (matcher.find()) {
+      if (matcher.start() > end) {
+        segments.add(new Segment(null, template.substring(end, matcher.start())));
+      }
+
+      end = matcher.end();
+      ExpressionType type = matchedType(matcher);
+      String content = matcher.group(type.ordinal() + 1);
+
+      if (isValid.test(content, type)) {
+        expressions.computeIfAbsent(type, t -> new LinkedHashSet<>()).add(content);
+        segments.add(new Segment(type, content));
+      } else {
+        invalid.computeIfAbsent(type, t -> new LinkedHashSet<>()).add(content);
+        segments.add(new Segment(null, BaseNotificationMessageRenderer.MISSING_VALUE_REPLACEMENT));
+      }
+    }
+
+    if (end < template.length()) {
+      segments.add(new Segment(null, template.substring(end)));
+    }
+
+    return List.copyOf(segments);
+  }
+
+  private static ExpressionType matchedType(Matcher matcher) {
+    for (ExpressionType type : ExpressionType.values()) {
+      if (matcher.start(type.ordinal() + 1) >= 0) {
+        return type;
+      }
+    }
+    throw new IllegalStateException("Expression without type: " + matcher.group());
+  }
+
+  private static String render(
+      List<Segment> segments, Map<ExpressionType, Map<String, String>> values) {
+    StringBuilder text = new StringBuilder();
+
+    for (Segment segment : segments) {
+      if (segment.type() == null) {
+        text.append(segment.text());
+      } else {
+        String value =
+            values
+                .getOrDefault(segment.type(), Map.of())
+                .getOrDefault(
+                    segment.text(), BaseNotificationMessageRenderer.MISSING_VALUE_REPLACEMENT);
+        text.append(StringUtils.defaultIfBlank(value, StringUtils.EMPTY));
+      }
+    }
+
+    return text.toString();
+  }
+}
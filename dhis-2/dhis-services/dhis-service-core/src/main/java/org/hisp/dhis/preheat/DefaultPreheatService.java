@@ -513,15 +513,14 @@ public class DefaultPreheatService implements PreheatService {
                 if (!uidMap.containsKey(itemKlass)) uidMap.put(itemKlass, new HashSet<>());
                 if (!codeMap.containsKey(itemKlass)) codeMap.put(itemKlass, new HashSet<>());
 
-                Object reference = ReflectionUtils.invokeMethod(object, p.getGetterMethod());
+                Object reference = p.getValue(object);
 
                 if (reference != null) {
                   IdentifiableObject identifiableObject = (IdentifiableObject) reference;
                   addIdentifiers(map, identifiableObject);
                 }
               } else {
-                Collection<IdentifiableObject> reference =
-                    ReflectionUtils.invokeMethod(object, p.getGetterMethod());
+                Collection<IdentifiableObject> reference = p.getValue(object);
 
                 if (reference != null) {
                   reference.forEach(identifiableObject -> addIdentifiers(map, identifiableObject));
@@ -700,8 +699,7 @@ public class DefaultPreheatService implements PreheatService {
         properties.forEach(
             p -> {
               if (!p.isCollection()) {
-                IdentifiableObject reference =
-                    ReflectionUtils.invokeMethod(object, p.getGetterMethod());
+                IdentifiableObject reference = p.getValue(object);
 
                 if (reference != null) {
                   try {
@@ -716,8 +714,7 @@ public class DefaultPreheatService implements PreheatService {
               } else {
                 Collection<IdentifiableObject> refObjects =
                     ReflectionUtils.newCollectionInstance(p.getKlass());
-                Collection<IdentifiableObject> references =
-                    ReflectionUtils.invokeMethod(object, p.getGetterMethod());
+                Collection<IdentifiableObject> references = p.getValue(object);
 
                 if (references != null) {
                   for (IdentifiableObject reference : references) {
@@ -767,8 +764,7 @@ public class DefaultPreheatService implements PreheatService {
 
           objects.forEach(
               o -> {
-                Collection<Object> propertyValue =
-                    ReflectionUtils.invokeMethod(o, property.getGetterMethod());
+                Collection<Object> propertyValue = property.getValue(o);
                 if (!org.apache.commons.collections4.CollectionUtils.isEmpty(propertyValue)) {
                   list.addAll(propertyValue);
                 }
@@ -783,7 +779,7 @@ public class DefaultPreheatService implements PreheatService {
 
           objects.forEach(
               o -> {
-                Object item = ReflectionUtils.invokeMethod(o, property.getGetterMethod());
+                Object item = property.getValue(o);
                 if (item != null) {
                   list.add(item);
                 }
@@ -841,29 +837,27 @@ public class DefaultPreheatService implements PreheatService {
       }
 
       if (!property.isCollection()) {
-        IdentifiableObject refObject =
-            ReflectionUtils.invokeMethod(object, property.getGetterMethod());
+        IdentifiableObject refObject = property.getValue(object);
         IdentifiableObject ref = getPersistedObject(preheat, identifier, refObject);
 
         ref = connectDefaults(preheat, property, object, refObject, ref);
 
         if (ref != null && ref.getId() == 0) {
-          ReflectionUtils.invokeMethod(object, property.getSetterMethod(), (Object) null);
+          property.setValue(object, null);
         } else {
-          ReflectionUtils.invokeMethod(object, property.getSetterMethod(), ref);
+          property.setValue(object, ref);
         }
       } else {
         Collection<IdentifiableObject> objects =
             ReflectionUtils.newCollectionInstance(property.getKlass());
-        Collection<IdentifiableObject> refObjects =
-            ReflectionUtils.invokeMethod(object, property.getGetterMethod());
+        Collection<IdentifiableObject> refObjects = property.getValue(object);
 
         for (IdentifiableObject refObject : refObjects) {
           IdentifiableObject ref = getPersistedObject(preheat, identifier, refObject);
           if (ref != null && ref.getId() != 0) objects.add(ref);
         }
 
-        ReflectionUtils.invokeMethod(object, property.getSetterMethod(), objects);
+        property.setValue(object, objects);
       }
     }
   }
@@ -947,7 +941,7 @@ public class DefaultPreheatService implements PreheatService {
       uniqueProperties.forEach(
           property -> {
             if (!map.containsKey(property.getName())) map.put(property.getName(), new HashMap<>());
-            Object value = ReflectionUtils.invokeMethod(object, property.getGetterMethod());
+            Object value = property.getValue(object);
             if (value != null)
               map.get(property.getName()).put(value, identifier.getIdentifier(object));
           });
@@ -37,6 +37,7 @@ import com.google.common.collect.Sets;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -98,6 +99,9 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
               && iwt.getProgramNotificationInstance().getScheduledAt() != null
               && DateUtils.isToday(iwt.getProgramNotificationInstance().getScheduledAt());
 
+  /** Number of scheduled events or enrollments loaded, rendered and sent together. */
+  private static final int SCHEDULED_CHUNK_SIZE = 500;
+
   private static final Set<NotificationTrigger> SCHEDULED_EVENT_TRIGGERS =
       Sets.intersection(
           NotificationTrigger.getAllApplicableToEvent(),
@@ -159,9 +163,7 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
         scheduledTemplates.stream(),
         template -> "Processing template " + template.getName(),
         template -> {
-          MessageBatch batch = createScheduledMessageBatchForDay(template, notificationDate);
-          sendAll(batch);
-          totalMessageCount.addAndGet(batch.messageCount());
+          totalMessageCount.addAndGet(sendScheduledMessagesForDay(template, notificationDate));
         },
         (success, failed) -> format("Created and sent %d messages", totalMessageCount.get()));
   }
@@ -325,6 +327,11 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
   @Override
   public List<Event> getWithScheduledNotifications(
       ProgramNotificationTemplate template, Date notificationDate) {
+    return queryEventsWithScheduledNotifications(template, notificationDate, "ev", Event.class);
+  }
+
+  private <R> List<R> queryEventsWithScheduledNotifications(
+      ProgramNotificationTemplate template, Date notificationDate, String select, Class<R> type) {
     if (notificationDate == null
         || !SCHEDULED_EVENT_TRIGGERS.contains(template.getNotificationTrigger())) {
       return List.of();
@@ -339,7 +346,9 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
             notificationDate, template.getRelativeScheduledDays() * -1);
 
     String hql =
-        "select distinct ev from Event as ev "
+        "select distinct "
+            + select
+            + " from Event as ev "
             + "inner join ev.programStage as ps "
             + "where :notificationTemplate in elements(ps.notificationTemplates) "
             + "and ev.scheduledDate is not null "
@@ -348,7 +357,8 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
             + "and cast(:targetDate as date) = ev.scheduledDate "
             + "and ev.deleted is false";
 
-    return getQuery(hql)
+    return getSession()
+        .createQuery(hql, type)
         .setParameter("notificationTemplate", template)
         .setParameter("skippedEventStatus", EventStatus.SKIPPED)
         .setParameter("targetDate", targetDate)
@@ -367,21 +377,98 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
     return (event == null || event.isDeleted()) ? null : event;
   }
 
-  private MessageBatch createScheduledMessageBatchForDay(
-      ProgramNotificationTemplate template, Date day) {
-    List<Event> events = getWithScheduledNotifications(template, day);
+  /**
+   * Renders and sends the messages of a scheduled template in chunks. Each chunk loads its events
+   * or enrollments together with the org units, tracked entities and attribute values needed for
+   * rendering in one query, and is cleared from the session once sent so that memory use does not
+   * grow with the number of due notifications.
+   *
+   * @return the number of messages sent
+   */
+  private int sendScheduledMessagesForDay(ProgramNotificationTemplate template, Date day) {
+    List<Long> eventIds = queryEventsWithScheduledNotifications(template, day, "ev.id", Long.class);
+    List<Long> enrollmentIds =
+        queryEnrollmentsWithScheduledNotifications(template, day, "en.id", Long.class);
+
+    int messageCount = 0;
+
+    for (List<Long> ids : Lists.partition(eventIds, SCHEDULED_CHUNK_SIZE)) {
+      MessageBatch batch = createEventMessageBatch(reload(template), getEventsForMessages(ids));
+      messageCount += sendChunk(batch);
+    }
+
+    for (List<Long> ids : Lists.partition(enrollmentIds, SCHEDULED_CHUNK_SIZE)) {
+      MessageBatch batch =
+          createEnrollmentMessageBatch(reload(template), getEnrollmentsForMessages(ids));
+      messageCount += sendChunk(batch);
+    }
+
+    return messageCount;
+  }
+
+  private int sendChunk(MessageBatch batch) {
+    sendAll(batch);
+    manager.flush();
+    manager.clear();
+    return batch.messageCount();
+  }
+
+  /** Returns the template attached to the current session, as earlier chunks cleared it. */
+  private ProgramNotificationTemplate reload(ProgramNotificationTemplate template) {
+    ProgramNotificationTemplate current =
+        manager.get(ProgramNotificationTemplate.class, template.getId());
+    return current != null ? current : template;
+  }
 
-    List<Enrollment> enrollments = getEnrollmentsWithScheduledNotifications(template, day);
+  private List<Event> getEventsForMessages(List<Long> ids) {
+    String hql =
+        "select ev from Event as ev "
+            + "inner join fetch ev.programStage as ps "
+            + "inner join fetch ps.program "
+            + "inner join fetch ev.organisationUnit "
+            + "left join fetch ev.enrollment as en "
+            + "left join fetch en.organisationUnit "
+            + "left join fetch en.trackedEntity as te "
+            + "left join fetch te.trackedEntityAttributeValues "
+            + "where ev.id in (:ids)";
+
+    // fetching the attribute values repeats an event for each of its values
+    return getSession()
+        .createQuery(hql, Event.class)
+        .setParameter("ids", ids)
+        .list()
+        .stream()
+        .distinct()
+        .toList();
+  }
 
-    MessageBatch eventBatch = createEventMessageBatch(template, events);
-    MessageBatch psBatch = createEnrollmentMessageBatch(template, enrollments);
+  private List<Enrollment> getEnrollmentsForMessages(List<Long> ids) {
+    String hql =
+        "select en from Enrollment as en "
+            + "inner join fetch en.program "
+            + "inner join fetch en.organisationUnit "
+            + "inner join fetch en.trackedEntity as te "
+            + "left join fetch te.trackedEntityAttributeValues "
+            + "where en.id in (:ids)";
 
-    return new MessageBatch(eventBatch, psBatch);
+    return getSession()
+        .createQuery(hql, Enrollment.class)
+        .setParameter("ids", ids)
+        .list()
+        .stream()
+        .distinct()
+        .toList();
   }
 
   @Override
   public List<Enrollment> getEnrollmentsWithScheduledNotifications(
       ProgramNotificationTemplate template, Date notificationDate) {
+    return queryEnrollmentsWithScheduledNotifications(
+        template, notificationDate, "en", Enrollment.class);
+  }
+
+  private <R> List<R> queryEnrollmentsWithScheduledNotifications(
+      ProgramNotificationTemplate template, Date notificationDate, String select, Class<R> type) {
     if (notificationDate == null
         || !SCHEDULED_ENROLLMENT_TRIGGERS.contains(template.getNotificationTrigger())) {
       return Lists.newArrayList();
@@ -398,7 +485,9 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
             notificationDate, template.getRelativeScheduledDays() * -1);
 
     String hql =
-        "select distinct en from Enrollment as en "
+        "select distinct "
+            + select
+            + " from Enrollment as en "
             + "inner join en.program as p "
             + "where :notificationTemplate in elements(p.notificationTemplates) "
             + "and en."
@@ -409,7 +498,7 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
             + dateProperty;
 
     return getSession()
-        .createQuery(hql, Enrollment.class)
+        .createQuery(hql, type)
         .setParameter("notificationTemplate", template)
         .setParameter("activeEnrollmentStatus", EnrollmentStatus.ACTIVE)
         .setParameter("targetDate", targetDate)
@@ -468,9 +557,7 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
 
     if (template.getNotificationRecipient().isExternalRecipient()) {
       batch.programMessages.addAll(
-          events.stream()
-              .map(event -> createProgramMessage(event, template))
-              .collect(Collectors.toSet()));
+          events.stream().map(event -> createProgramMessage(event, template)).toList());
     } else {
       batch.dhisMessages.addAll(
           events.stream()
@@ -487,9 +574,7 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
 
     if (template.getNotificationRecipient().isExternalRecipient()) {
       batch.programMessages.addAll(
-          enrollments.stream()
-              .map(e -> createProgramMessage(e, template))
-              .collect(Collectors.toSet()));
+          enrollments.stream().map(e -> createProgramMessage(e, template)).toList());
     } else {
       batch.dhisMessages.addAll(
           enrollments.stream()
@@ -703,7 +788,7 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
                     .build()));
   }
 
-  private void sendProgramMessages(Set<ProgramMessage> messages) {
+  private void sendProgramMessages(List<ProgramMessage> messages) {
     if (messages.isEmpty()) {
       return;
     }
@@ -733,7 +818,8 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
   private static class MessageBatch {
     Set<DhisMessage> dhisMessages = Sets.newHashSet();
 
-    Set<ProgramMessage> programMessages = Sets.newHashSet();
+    // program messages have no UID until they are saved, a set would treat them all as equal
+    List<ProgramMessage> programMessages = new ArrayList<>();
 
     MessageBatch(MessageBatch... batches) {
       for (MessageBatch batch : batches) {
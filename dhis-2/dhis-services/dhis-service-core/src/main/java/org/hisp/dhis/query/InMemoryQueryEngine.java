@@ -43,7 +43,6 @@ import org.hisp.dhis.schema.Property;
 import org.hisp.dhis.schema.Schema;
 import org.hisp.dhis.schema.SchemaService;
 import org.hisp.dhis.security.acl.AclService;
-import org.hisp.dhis.system.util.ReflectionUtils;
 import org.hisp.dhis.user.CurrentUserUtil;
 import org.springframework.stereotype.Component;
 
@@ -268,6 +267,6 @@ public class InMemoryQueryEngine<T extends IdentifiableObject> implements QueryE
       return items;
     }
 
-    return ReflectionUtils.invokeMethod(object, property.getGetterMethod());
+    return property.getValue(object);
   }
 }
@@ -78,6 +78,7 @@ public class DefaultJobSchedulerLoopService implements JobSchedulerLoopService {
   private final Notifier notifier;
   private final AuthenticationService authenticationService;
   private final ObjectMapper jsonMapper;
+  private final JobStageExecutorPool stageExecutorPool;
 
   /**
    * Set of currently running jobs on this node. We use a map to use CAS operation {@link
@@ -267,7 +268,8 @@ public class DefaultJobSchedulerLoopService implements JobSchedulerLoopService {
             && Duration.between(job.getLastExecuted().toInstant(), Instant.now()).getSeconds()
                 < settingsProvider.getCurrentSettings().getJobsLogDebugBelowSeconds();
     RecordingJobProgress progress =
-        new RecordingJobProgress(messages, job, tracker, true, observer, logInfoOnDebug, false);
+        new RecordingJobProgress(
+            messages, job, tracker, true, observer, logInfoOnDebug, false, stageExecutorPool);
     recordingsById.put(job.getUid(), progress);
     return progress;
   }
@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.scheduling;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.system.executor.BoundedExecutorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * A bounded pool of threads shared by all jobs to process the items of parallel {@link
+ * JobProgress} stages.
+ *
+ * <p>A stage is processed by a number of runners limited by the stage parallelism and the per job
+ * quota. Each runner processes a single item and then queues itself again behind the runners of
+ * other stages. This way the threads are shared fairly between all jobs running concurrently.
+ *
+ * <p>When a job is cancelled no further items are started and the threads running the items of the
+ * job are interrupted.
+ *
+ * @since 2.42
+ */
+@Slf4j
+@Component
+public class JobStageExecutorPool {
+
+  /** The stage the current thread processes an item for, null for threads outside the pool. */
+  private static final ThreadLocal<Stage<?>> CURRENT_STAGE = new ThreadLocal<>();
+
+  private static final long CANCEL_POLL_MILLIS = 100;
+
+  private final ThreadPoolExecutor pool;
+
+  private final int threadsPerJob;
+
+  private final AtomicInteger activeWorkers = new AtomicInteger();
+
+  @CheckForNull private volatile MeterRegistry registry;
+
+  @Autowired
+  public JobStageExecutorPool(
+      DhisConfigurationProvider config, BoundedExecutorFactory executorFactory) {
+    this(
+        executorFactory.create(
+            "JOB-STAGE",
+            poolSize(config.getIntProperty(ConfigurationKey.SYSTEM_JOB_STAGE_THREADS))),
+        config.getIntProperty(ConfigurationKey.SYSTEM_JOB_STAGE_THREADS_PER_JOB));
+    executorFactory.addMeterBinder(this::bindTo);
+  }
+
+  /**
+   * @param threads number of shared threads, 0 or less to use the number of available processors
+   * @param threadsPerJob maximum number of threads a single job may use, 0 or less for no limit
+   */
+  public JobStageExecutorPool(int threads, int threadsPerJob) {
+    this(BoundedExecutorFactory.newExecutor("JOB-STAGE", poolSize(threads)), threadsPerJob);
+  }
+
+  private JobStageExecutorPool(ThreadPoolExecutor pool, int threadsPerJob) {
+    int size = pool.getMaximumPoolSize();
+    this.threadsPerJob = threadsPerJob > 0 ? Math.min(threadsPerJob, size) : size;
+    this.pool = pool;
+  }
+
+  private static int poolSize(int threads) {
+    return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * @param type the type of the job run, used to tag metrics
+   * @param cancelled supplier that is true once the job run got cancelled
+   * @return an executor processing stage items of the job run using the shared threads
+   */
+  @Nonnull
+  public JobStageExecutor forJob(@Nonnull JobType type, @Nonnull BooleanSupplier cancelled) {
+    return new JobStageExecutor() {
+      @Override
+      public <T> void execute(
+          int parallelism, @Nonnull Collection<T> items, @Nonnull Consumer<T> work)
+          throws InterruptedException {
+        JobStageExecutorPool.this.execute(type, cancelled, parallelism, items, work);
+      }
+    };
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    pool.shutdownNow();
+  }
+
+  public int getActiveWorkers() {
+    return activeWorkers.get();
+  }
+
+  /**
+   * Enables the per job metrics of parallel stages. The metrics of the shared threads are bound by
+   * the {@link BoundedExecutorFactory}.
+   */
+  private void bindTo(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  private <T> void execute(
+      JobType type,
+      BooleanSupplier cancelled,
+      int parallelism,
+      Collection<T> items,
+      Consumer<T> work)
+      throws InterruptedException {
+    if (items.isEmpty()) {
+      return;
+    }
+    if (CURRENT_STAGE.get() != null) {
+      // a stage started from within a work item must not wait for
+      // threads of the pool it occupies itself, so it runs sequentially
+      for (T item : items) {
+        if (cancelled.getAsBoolean()) {
+          return;
+        }
+        work.accept(item);
+      }
+      return;
+    }
+    int runners = Math.max(1, Math.min(Math.min(parallelism, threadsPerJob), items.size()));
+    Stage<T> stage = new Stage<>(type, items, work, cancelled, runners);
+    long start = System.nanoTime();
+    for (int i = 0; i < runners; i++) {
+      stage.submit();
+    }
+    try {
+      while (!stage.done.await(CANCEL_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+        if (cancelled.getAsBoolean()) {
+          stage.cancel();
+        }
+      }
+    } catch (InterruptedException ex) {
+      stage.cancel();
+      throw ex;
+    }
+    recordThroughput(type, stage.processed.get(), System.nanoTime() - start);
+    Throwable failure = stage.failure.get();
+    if (failure instanceof RuntimeException ex) {
+      throw ex;
+    }
+    if (failure instanceof Error error) {
+      throw error;
+    }
+    if (failure != null) {
+      throw new IllegalStateException(failure);
+    }
+  }
+
+  private void recordThroughput(JobType type, int processed, long nanos) {
+    MeterRegistry meters = registry;
+    if (meters == null || processed == 0 || nanos <= 0) {
+      return;
+    }
+    DistributionSummary.builder("jobs.stage.throughput")
+        .tag("job", type.name())
+        .baseUnit("items/s")
+        .description("Number of items processed per second by a parallel job stage")
+        .register(meters)
+        .record(processed * 1e9 / nanos);
+  }
+
+  @CheckForNull
+  private Timer itemTimer(JobType type) {
+    MeterRegistry meters = registry;
+    return meters == null
+        ? null
+        : Timer.builder("jobs.stage.item")
+            .tag("job", type.name())
+            .description("Time it takes to process a single item of a parallel job stage")
+            .register(meters);
+  }
+
+  /** The state of a parallel stage while its items are processed by the shared threads. */
+  private final class Stage<T> {
+    private final Queue<T> remaining;
+    private final Consumer<T> work;
+    private final BooleanSupplier cancelled;
+    private final CountDownLatch done;
+    private final AtomicInteger processed = new AtomicInteger();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    @CheckForNull private final Timer itemTimer;
+
+    /** Threads currently processing an item of this stage, guarded by this. */
+    private final Set<Thread> running = new HashSet<>();
+
+    /** True once no further items should be started, guarded by this. */
+    private boolean aborted;
+
+    Stage(
+        JobType type,
+        Collection<T> items,
+        Consumer<T> work,
+        BooleanSupplier cancelled,
+        int runners) {
+      this.remaining = new ConcurrentLinkedQueue<>(items);
+      this.work = work;
+      this.cancelled = cancelled;
+      this.done = new CountDownLatch(runners);
+      this.itemTimer = itemTimer(type);
+    }
+
+    void submit() {
+      try {
+        pool.execute(this::run);
+      } catch (RejectedExecutionException ex) {
+        log.warn("Job stage runner rejected: {}", ex.getMessage());
+        done.countDown();
+      }
+    }
+
+    private void run() {
+      T item = failure.get() != null || cancelled.getAsBoolean() ? null : remaining.poll();
+      Thread thread = Thread.currentThread();
+      if (item == null || !enter(thread)) {
+        done.countDown();
+        return;
+      }
+      long start = System.nanoTime();
+      activeWorkers.incrementAndGet();
+      CURRENT_STAGE.set(this);
+      try {
+        work.accept(item);
+        processed.incrementAndGet();
+      } catch (RuntimeException | Error ex) {
+        failure.compareAndSet(null, ex);
+      } finally {
+        CURRENT_STAGE.remove();
+        activeWorkers.decrementAndGet();
+        exit(thread);
+        if (itemTimer != null) {
+          itemTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+      }
+      if (remaining.isEmpty()) {
+        done.countDown();
+      } else {
+        submit();
+      }
+    }
+
+    private synchronized boolean enter(Thread thread) {
+      if (aborted) {
+        return false;
+      }
+      running.add(thread);
+      return true;
+    }
+
+    private synchronized void exit(Thread thread) {
+      running.remove(thread);
+      // clear an interrupt caused by cancel so the thread can be reused
+      Thread.interrupted();
+    }
+
+    synchronized void cancel() {
+      if (aborted) {
+        return;
+      }
+      aborted = true;
+      running.forEach(Thread::interrupt);
+    }
+  }
+}
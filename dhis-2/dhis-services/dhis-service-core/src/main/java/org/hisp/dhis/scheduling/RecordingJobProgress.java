@@ -77,6 +77,7 @@ public class RecordingJobProgress implements JobProgress {
   private final boolean logOnDebug;
   private final boolean skipRecording;
   private final UserDetails user;
+  @CheckForNull private final JobStageExecutor stageExecutor;
 
   private final AtomicBoolean cancellationRequested = new AtomicBoolean();
   private final AtomicBoolean abortAfterFailure = new AtomicBoolean();
@@ -99,6 +100,26 @@ public class RecordingJobProgress implements JobProgress {
       Runnable observer,
       boolean logOnDebug,
       boolean skipRecording) {
+    this(
+        messageService,
+        configuration,
+        tracker,
+        abortOnFailure,
+        observer,
+        logOnDebug,
+        skipRecording,
+        null);
+  }
+
+  public RecordingJobProgress(
+      @CheckForNull MessageService messageService,
+      @CheckForNull JobConfiguration configuration,
+      JobProgress tracker,
+      boolean abortOnFailure,
+      Runnable observer,
+      boolean logOnDebug,
+      boolean skipRecording,
+      @CheckForNull JobStageExecutorPool stageExecutorPool) {
     this.messageService = messageService;
     this.configuration = configuration;
     this.tracker = tracker;
@@ -111,6 +132,10 @@ public class RecordingJobProgress implements JobProgress {
             && configuration != null
             && configuration.getJobType().isUsingErrorNotification();
     this.user = CurrentUserUtil.getCurrentUserDetails();
+    this.stageExecutor =
+        stageExecutorPool == null || configuration == null
+            ? null
+            : stageExecutorPool.forJob(configuration.getJobType(), this::isCancelled);
   }
 
   /**
@@ -163,6 +188,12 @@ public class RecordingJobProgress implements JobProgress {
     return skipCurrentStage.get() || isCancelled();
   }
 
+  @CheckForNull
+  @Override
+  public JobStageExecutor getStageExecutor() {
+    return stageExecutor;
+  }
+
   @Override
   public void addError(
       @Nonnull ErrorCode code,
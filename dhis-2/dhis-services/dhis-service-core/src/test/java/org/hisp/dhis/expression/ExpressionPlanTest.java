@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.expression;
+
+import static org.hisp.dhis.parser.expression.ExpressionItem.ITEM_EVALUATE;
+import static org.hisp.dhis.parser.expression.ParserUtils.COMMON_EXPRESSION_ITEMS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.hisp.dhis.antlr.Parser;
+import org.hisp.dhis.antlr.ParserException;
+import org.hisp.dhis.constant.Constant;
+import org.hisp.dhis.db.sql.PostgreSqlBuilder;
+import org.hisp.dhis.db.sql.SqlBuilder;
+import org.hisp.dhis.parser.expression.CommonExpressionVisitor;
+import org.junit.jupiter.api.Test;
+
+class ExpressionPlanTest {
+  private final SqlBuilder sqlBuilder = new PostgreSqlBuilder();
+
+  @Test
+  void testVisitReusesParseTree() {
+    ExpressionPlan plan = ExpressionPlan.compile("#{fbfJHSPpUQD} + 2", sqlBuilder);
+
+    CommonExpressionVisitor visitor = mock(CommonExpressionVisitor.class);
+    when(visitor.visit(any(ParseTree.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+    Object first = plan.visit(visitor);
+
+    assertNotNull(first);
+    assertSame(first, plan.visit(visitor));
+  }
+
+  @Test
+  void testVisitRethrowsParseError() {
+    ExpressionPlan plan = ExpressionPlan.compile("(1 +", sqlBuilder);
+
+    CommonExpressionVisitor visitor = mock(CommonExpressionVisitor.class);
+
+    assertThrows(ParserException.class, () -> plan.visit(visitor));
+    assertThrows(ParserException.class, () -> plan.visit(visitor));
+    verifyNoInteractions(visitor);
+  }
+
+  @Test
+  void testVisitEvaluatesLikeParser() {
+    Constant constant = new Constant("Four", 4);
+    constant.setUid("xmhNkNuTF3T");
+    Map<String, Constant> constants = Map.of(constant.getUid(), constant);
+
+    List<String> expressions =
+        List.of(
+            "1 + 2 * 3",
+            "(10 - 4) / 3 ^ 2",
+            "if(3 > 2, 7, 8)",
+            "!(1 > 2) && 3 >= 3",
+            "firstNonNull(null, 5) + C{xmhNkNuTF3T}",
+            "greatest(2, log10(1000), least(9, 8)) % 5",
+            "#{fbfJHSPpUQD}");
+
+    for (String expression : expressions) {
+      assertEquals(
+          evaluateWithParser(expression, constants),
+          evaluateWithPlan(expression, constants),
+          expression);
+    }
+  }
+
+  @Test
+  void testVisitConvertsVisitorErrorsToParserException() {
+    ExpressionPlan plan = ExpressionPlan.compile("#{fbfJHSPpUQD}", sqlBuilder);
+
+    assertThrows(ParserException.class, () -> plan.visit(newVisitor(Map.of())));
+  }
+
+  /** Evaluates the expression by parsing it, returning the result or the exception class. */
+  private Object evaluateWithParser(String expression, Map<String, Constant> constants) {
+    try {
+      return Parser.visit(expression, newVisitor(constants));
+    } catch (RuntimeException ex) {
+      return ex.getClass();
+    }
+  }
+
+  /** Evaluates the expression through a plan, returning the result or the exception class. */
+  private Object evaluateWithPlan(String expression, Map<String, Constant> constants) {
+    try {
+      return ExpressionPlan.compile(expression, sqlBuilder).visit(newVisitor(constants));
+    } catch (RuntimeException ex) {
+      return ex.getClass();
+    }
+  }
+
+  private CommonExpressionVisitor newVisitor(Map<String, Constant> constants) {
+    return CommonExpressionVisitor.builder()
+        .sqlBuilder(sqlBuilder)
+        .constantMap(constants)
+        .itemMap(COMMON_EXPRESSION_ITEMS)
+        .itemMethod(ITEM_EVALUATE)
+        .build();
+  }
+}
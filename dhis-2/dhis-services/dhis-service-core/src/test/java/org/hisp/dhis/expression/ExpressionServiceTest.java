@@ -245,6 +245,7 @@ class ExpressionServiceTest extends TestBase {
   @BeforeEach
   public void setUp() {
     when(cacheProvider.createAllConstantsCache()).thenReturn(new NoOpCache<>());
+    when(cacheProvider.createExpressionPlanCache()).thenReturn(new NoOpCache<>());
     target =
         new DefaultExpressionService(
             hibernateGenericStore,
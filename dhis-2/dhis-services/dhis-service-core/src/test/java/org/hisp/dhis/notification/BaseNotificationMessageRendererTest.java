@@ -140,6 +140,23 @@ class BaseNotificationMessageRendererTest {
     assertEquals(expected, message.getMessage());
   }
 
+  @Test
+  void testRenderInsertsValuesLiterally() {
+    Entity e = entity(format("$1 \\ A{%s}", ATTR_A.getKey()), "B");
+    NotificationTemplate template = template("V{a} V{b}");
+    NotificationMessage message = renderer.render(e, template);
+    String expected = format("%s %s", e.propertyA, e.propertyB);
+    assertNotNull(message);
+    assertEquals(expected, message.getMessage());
+  }
+
+  @Test
+  void testRenderSameTemplateForDifferentEntities() {
+    NotificationTemplate template = template("V{a} and V{b}");
+    assertEquals("A and B", renderer.render(entity(), template).getMessage());
+    assertEquals("C and D", renderer.render(entity("C", "D"), template).getMessage());
+  }
+
   @Test
   void testSubjectLengthIsLimited() {
     Entity e = entity();
@@ -31,10 +31,15 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -44,8 +49,18 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
 import org.hisp.dhis.common.CodeGenerator;
 import org.hisp.dhis.common.DeliveryChannel;
 import org.hisp.dhis.common.IdentifiableObjectManager;
@@ -627,10 +642,107 @@ class ProgramNotificationServiceTest extends TestBase {
     assertEquals(0, sentProgramMessages.size());
   }
 
+  @Test
+  void testScheduledNotificationsForDayAreSentInChunks() {
+    List<Long> ids = LongStream.rangeClosed(1, 1001).boxed().toList();
+    ProgramNotificationTemplate template = createScheduledTemplate();
+    // incremented whenever the session is cleared, entities loaded before that are detached
+    AtomicInteger epoch = new AtomicInteger();
+    Map<Object, Integer> loadedIn = new IdentityHashMap<>();
+    Predicate<Object> detached = entity -> !Objects.equals(loadedIn.get(entity), epoch.get());
+    List<Long> rendered = new ArrayList<>();
+    List<Object> detachedAccesses = new ArrayList<>();
+
+    Session session = mock(Session.class);
+    Query<Long> idQuery = mock(Query.class, RETURNS_SELF);
+    Query<Enrollment> enrollmentQuery = mock(Query.class, RETURNS_SELF);
+    AtomicReference<List<Long>> chunk = new AtomicReference<>();
+    when(entityManager.unwrap(Session.class)).thenReturn(session);
+    when(session.createQuery(anyString(), eq(Long.class))).thenReturn(idQuery);
+    when(session.createQuery(anyString(), eq(Enrollment.class))).thenReturn(enrollmentQuery);
+    when(idQuery.list()).thenReturn(ids);
+    when(enrollmentQuery.setParameter(eq("ids"), any()))
+        .thenAnswer(
+            invocation -> {
+              chunk.set(invocation.getArgument(1));
+              return enrollmentQuery;
+            });
+    when(enrollmentQuery.list())
+        .thenAnswer(
+            invocation ->
+                chunk.get().stream()
+                    .map(id -> load(loadedIn, epoch, createScheduledEnrollment(id)))
+                    .toList());
+
+    when(manager.getAll(ProgramNotificationTemplate.class))
+        .thenReturn(List.of(load(loadedIn, epoch, template)));
+    when(manager.get(eq(ProgramNotificationTemplate.class), anyLong()))
+        .thenAnswer(invocation -> load(loadedIn, epoch, createScheduledTemplate()));
+    doAnswer(invocation -> epoch.incrementAndGet()).when(manager).clear();
+
+    when(programNotificationRenderer.render(any(Enrollment.class), any(NotificationTemplate.class)))
+        .thenAnswer(
+            invocation -> {
+              Enrollment enrollment = invocation.getArgument(0);
+              Stream.<Object>of(enrollment, invocation.getArgument(1))
+                  .filter(detached)
+                  .forEach(detachedAccesses::add);
+              rendered.add(enrollment.getId());
+              return notificationMessage;
+            });
+    when(programMessageService.sendMessages(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<ProgramMessage> messages = invocation.getArgument(0);
+              messages.stream()
+                  .map(ProgramMessage::getEnrollment)
+                  .filter(detached)
+                  .forEach(detachedAccesses::add);
+              sentProgramMessages.addAll(messages);
+              return new BatchResponseStatus(Collections.emptyList());
+            });
+
+    programNotificationService.sendScheduledNotificationsForDay(new Date(), JobProgress.noop());
+
+    assertEquals(ids, rendered);
+    assertEquals(ids, sentProgramMessages.stream().map(m -> m.getEnrollment().getId()).toList());
+    assertEquals(List.of(), detachedAccesses);
+    verify(enrollmentQuery, times(3)).list();
+    verify(manager, times(3)).flush();
+    verify(manager, times(3)).clear();
+    verify(manager, times(3)).get(eq(ProgramNotificationTemplate.class), anyLong());
+  }
+
   // -------------------------------------------------------------------------
   // Supportive methods
   // -------------------------------------------------------------------------
 
+  private static <T> T load(Map<Object, Integer> loadedIn, AtomicInteger epoch, T entity) {
+    loadedIn.put(entity, epoch.get());
+    return entity;
+  }
+
+  private ProgramNotificationTemplate createScheduledTemplate() {
+    ProgramNotificationTemplate template =
+        createProgramNotificationTemplate(
+            TEMPLATE_NAME,
+            0,
+            NotificationTrigger.SCHEDULED_DAYS_ENROLLMENT_DATE,
+            ProgramNotificationRecipient.TRACKED_ENTITY_INSTANCE);
+    template.setId(1L);
+    template.setUid(notificationTemplate);
+    return template;
+  }
+
+  private Enrollment createScheduledEnrollment(long id) {
+    Enrollment enrollment = new Enrollment();
+    enrollment.setAutoFields();
+    enrollment.setId(id);
+    enrollment.setOrganisationUnit(lvlTwoLeftLeft);
+    enrollment.setTrackedEntity(te);
+    return enrollment;
+  }
+
   private void setUpInstances() {
     programNotificationTemplate =
         createProgramNotificationTemplate(
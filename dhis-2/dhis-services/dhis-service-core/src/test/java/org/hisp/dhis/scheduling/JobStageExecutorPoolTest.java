@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.scheduling;
+
+import static org.hisp.dhis.test.TestBase.injectSecurityContextNoSettings;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.hisp.dhis.common.CodeGenerator;
+import org.hisp.dhis.user.SystemUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** Tests the {@link JobStageExecutorPool} used to run parallel stages of {@link JobProgress}. */
+class JobStageExecutorPoolTest {
+
+  private final JobStageExecutorPool pool = new JobStageExecutorPool(4, 2);
+
+  @BeforeAll
+  static void setup() {
+    injectSecurityContextNoSettings(new SystemUser());
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  void testExecute_ProcessesAllItemsWithinQuota() throws InterruptedException {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    Set<Integer> processed = ConcurrentHashMap.newKeySet();
+
+    pool.forJob(JobType.PREDICTOR, () -> false)
+        .execute(
+            8,
+            range(20),
+            item -> {
+              maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+              sleep(5);
+              running.decrementAndGet();
+              processed.add(item);
+            });
+
+    assertEquals(20, processed.size());
+    assertTrue(maxRunning.get() <= 2, "per job quota exceeded: " + maxRunning.get());
+    assertEquals(0, pool.getActiveWorkers());
+  }
+
+  @Test
+  void testExecute_CancellationInterruptsRunningItems() {
+    AtomicBoolean cancelled = new AtomicBoolean();
+    AtomicInteger started = new AtomicInteger();
+    AtomicInteger interrupted = new AtomicInteger();
+    CountDownLatch running = new CountDownLatch(2);
+
+    Thread canceller =
+        new Thread(
+            () -> {
+              await(running);
+              cancelled.set(true);
+            });
+    canceller.start();
+
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(10),
+        () ->
+            pool.forJob(JobType.PREDICTOR, cancelled::get)
+                .execute(
+                    2,
+                    range(10),
+                    item -> {
+                      started.incrementAndGet();
+                      running.countDown();
+                      try {
+                        Thread.sleep(60_000);
+                      } catch (InterruptedException ex) {
+                        interrupted.incrementAndGet();
+                      }
+                    }));
+
+    assertEquals(2, started.get());
+    assertEquals(2, interrupted.get());
+  }
+
+  @Test
+  void testExecute_FailureIsRethrown() {
+    IllegalStateException failure = new IllegalStateException("failed");
+    JobStageExecutor executor = pool.forJob(JobType.PREDICTOR, () -> false);
+
+    IllegalStateException ex =
+        assertThrows(
+            IllegalStateException.class,
+            () ->
+                executor.execute(
+                    2,
+                    range(5),
+                    item -> {
+                      if (item == 2) throw failure;
+                    }));
+    assertSame(failure, ex);
+  }
+
+  @Test
+  void testExecute_NestedStageRunsSequentially() {
+    JobStageExecutorPool single = new JobStageExecutorPool(1, 0);
+    JobStageExecutor executor = single.forJob(JobType.PREDICTOR, () -> false);
+    AtomicInteger processed = new AtomicInteger();
+    try {
+      assertTimeoutPreemptively(
+          Duration.ofSeconds(10),
+          () ->
+              executor.execute(
+                  2,
+                  range(3),
+                  outer -> {
+                    try {
+                      executor.execute(2, range(3), inner -> processed.incrementAndGet());
+                    } catch (InterruptedException ex) {
+                      Thread.currentThread().interrupt();
+                    }
+                  }));
+    } finally {
+      single.shutdown();
+    }
+    assertEquals(9, processed.get());
+  }
+
+  @Test
+  void testRunStageInParallel_UsesSharedPool() {
+    JobConfiguration config = new JobConfiguration();
+    config.setJobType(JobType.PREDICTOR);
+    config.setUid(CodeGenerator.generateUid());
+    JobProgress progress =
+        new RecordingJobProgress(
+            null, config, JobProgress.noop(), true, () -> {}, false, false, pool);
+    Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    progress.startingProcess("test");
+    progress.startingStage("parallel", 6);
+    progress.runStageInParallel(
+        4,
+        range(6),
+        String::valueOf,
+        item -> {
+          threads.add(Thread.currentThread().getName());
+          sleep(5);
+        });
+    progress.completedProcess(null);
+
+    assertTrue(progress.isSuccessful());
+    assertFalse(threads.isEmpty());
+    assertTrue(threads.stream().allMatch(name -> name.startsWith("JOB-STAGE-")), threads::toString);
+  }
+
+  private static List<Integer> range(int n) {
+    return IntStream.range(0, n).boxed().toList();
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
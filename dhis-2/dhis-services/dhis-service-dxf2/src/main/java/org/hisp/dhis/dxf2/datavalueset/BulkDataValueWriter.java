@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.hisp.dhis.datavalue.DataValue;
+import org.hisp.dhis.datavalue.DataValueAudit;
+
+/**
+ * Buffers the data values and audits of a bulk {@link DataValueSet} import chunk, see {@link
+ * org.hisp.dhis.dxf2.common.ImportOptions#isBulkImport()}. Existing values of the chunk are looked
+ * up with one query, and values and audits written with one statement each when the chunk is
+ * flushed.
+ *
+ * <p>Values written earlier in the chunk are returned as existing values for later values of the
+ * chunk, so that repeated values are handled like they are when written one by one.
+ */
+@RequiredArgsConstructor
+final class BulkDataValueWriter {
+  private final DataValueImportStore store;
+
+  private final Map<DataValue, DataValue> existingValues = new HashMap<>();
+
+  private final Map<DataValue, DataValue> dataValues = new LinkedHashMap<>();
+
+  private final List<DataValueAudit> audits = new ArrayList<>();
+
+  /**
+   * Loads the existing values for the given values of the chunk.
+   *
+   * @param values the data values of the chunk.
+   */
+  void loadExistingValues(Collection<DataValue> values) {
+    existingValues.putAll(store.getDataValues(values));
+  }
+
+  /**
+   * Returns the existing value for the given value, or null if there is none.
+   *
+   * @param value the data value.
+   * @return the existing data value or null.
+   */
+  DataValue getExistingValue(DataValue value) {
+    DataValue written = dataValues.get(value);
+
+    return written != null ? written : existingValues.get(value);
+  }
+
+  /**
+   * Adds the given value to be inserted, or updated if it exists.
+   *
+   * @param value the data value.
+   */
+  void addDataValue(DataValue value) {
+    dataValues.put(value, value);
+  }
+
+  /**
+   * Adds the given audit to be inserted.
+   *
+   * @param audit the data value audit.
+   */
+  void addAudit(DataValueAudit audit) {
+    audits.add(audit);
+  }
+
+  /** Writes the buffered values and audits and clears the chunk. */
+  void flush() {
+    store.upsertDataValues(List.copyOf(dataValues.values()));
+    store.addDataValueAudits(List.copyOf(audits));
+
+    existingValues.clear();
+    dataValues.clear();
+    audits.clear();
+  }
+}
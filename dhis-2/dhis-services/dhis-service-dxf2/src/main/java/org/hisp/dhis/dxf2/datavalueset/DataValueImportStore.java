@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import java.util.Collection;
+import java.util.Map;
+import org.hisp.dhis.datavalue.DataValue;
+import org.hisp.dhis.datavalue.DataValueAudit;
+
+/**
+ * Set-based reads and writes of data values for bulk {@link DataValueSet} imports. Each operation
+ * stages the given values in a temporary table and runs a single statement against it, instead of
+ * one statement per value.
+ */
+public interface DataValueImportStore {
+  /**
+   * Returns the persisted data values, including soft deleted values, with the same data element,
+   * period, org unit, category option combo and attribute option combo as the given values.
+   *
+   * @param values the data values to look up.
+   * @return the persisted data values mapped by the given value they match.
+   */
+  Map<DataValue, DataValue> getDataValues(Collection<DataValue> values);
+
+  /**
+   * Inserts the given data values, or updates the persisted values with the same data element,
+   * period, org unit, category option combo and attribute option combo. The given values must be
+   * unique.
+   *
+   * @param values the data values to insert or update.
+   */
+  void upsertDataValues(Collection<DataValue> values);
+
+  /**
+   * Inserts the given data value audits.
+   *
+   * @param audits the data value audits to insert.
+   */
+  void addDataValueAudits(Collection<DataValueAudit> audits);
+}
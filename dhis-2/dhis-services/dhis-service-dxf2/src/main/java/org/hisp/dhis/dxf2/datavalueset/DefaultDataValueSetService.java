@@ -138,6 +138,8 @@ public class DefaultDataValueSetService implements DataValueSetService {
 
   private static final int CACHE_MISS_THRESHOLD = 250;
 
+  private static final int BULK_IMPORT_CHUNK_SIZE = 10_000;
+
   private final IdentifiableObjectManager identifiableObjectManager;
 
   private final CategoryService categoryService;
@@ -178,6 +180,8 @@ public class DefaultDataValueSetService implements DataValueSetService {
 
   private final UserService userService;
 
+  private final DataValueImportStore dataValueImportStore;
+
   // -------------------------------------------------------------------------
   // DataValueSet implementation
   // -------------------------------------------------------------------------
@@ -739,17 +743,19 @@ public class DefaultDataValueSetService implements DataValueSetService {
     notifier.notify(id, notificationLevel, "Importing data values");
 
     List<? extends DataValueEntry> values = dataValueSet.getDataValues();
+    List<PreparedDataValue> chunk = new ArrayList<>();
     int index = 0;
     if (values != null && !values.isEmpty()) {
       for (DataValueEntry dataValue : values) {
-        importDataValue(context, dataSetContext, importCount, now, index++, dataValue);
+        importDataValue(context, dataSetContext, importCount, now, index++, dataValue, chunk);
       }
     }
     DataValueEntry dataValue = reader.readNext();
     while (dataValue != null) {
-      importDataValue(context, dataSetContext, importCount, now, index++, dataValue);
+      importDataValue(context, dataSetContext, importCount, now, index++, dataValue, chunk);
       dataValue = reader.readNext();
     }
+    importDataValueChunk(context, importCount, chunk);
 
     context
         .getSummary()
@@ -781,7 +787,77 @@ public class DefaultDataValueSetService implements DataValueSetService {
     return date;
   }
 
+  /**
+   * Imports the given data value. For bulk imports the validated data value is added to the given
+   * chunk instead, which is imported once it is full.
+   */
   private void importDataValue(
+      ImportContext context,
+      DataSetContext dataSetContext,
+      ImportCount importCount,
+      Date now,
+      int index,
+      DataValueEntry dataValue,
+      List<PreparedDataValue> chunk) {
+    PreparedDataValue value =
+        prepareDataValue(context, dataSetContext, importCount, now, index, dataValue);
+
+    if (value == null) {
+      return;
+    }
+
+    if (context.isBulkImport()) {
+      chunk.add(value);
+
+      if (chunk.size() >= BULK_IMPORT_CHUNK_SIZE) {
+        importDataValueChunk(context, importCount, chunk);
+      }
+
+      return;
+    }
+
+    DataValue existingValue =
+        !context.isSkipExistingCheck()
+            ? context.getDataValueBatchHandler().findObject(value.internalValue())
+            : null;
+
+    saveDataValue(context, importCount, value, existingValue);
+  }
+
+  /**
+   * Imports the given chunk of validated data values of a bulk import. The existing values of the
+   * chunk are looked up with a single query, and the resulting values and audits are written with
+   * a single statement each. Clears the chunk.
+   */
+  private void importDataValueChunk(
+      ImportContext context, ImportCount importCount, List<PreparedDataValue> chunk) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+
+    BulkDataValueWriter writer = context.getBulkDataValueWriter();
+
+    if (!context.isSkipExistingCheck()) {
+      writer.loadExistingValues(chunk.stream().map(PreparedDataValue::internalValue).toList());
+    }
+
+    for (PreparedDataValue value : chunk) {
+      DataValue existingValue =
+          !context.isSkipExistingCheck() ? writer.getExistingValue(value.internalValue()) : null;
+
+      saveDataValue(context, importCount, value, existingValue);
+    }
+
+    writer.flush();
+    chunk.clear();
+  }
+
+  /**
+   * Validates the given data value and creates the internal data value for it.
+   *
+   * @return the prepared data value, or null if the data value is skipped.
+   */
+  private PreparedDataValue prepareDataValue(
       ImportContext context,
       DataSetContext dataSetContext,
       ImportCount importCount,
@@ -803,7 +879,7 @@ public class DefaultDataValueSetService implements DataValueSetService {
     if (importValidator.skipDataValue(dataValue, context, dataSetContext, valueContext)) {
       importCount.incrementIgnored();
       context.addRejected(valueContext.getIndex());
-      return;
+      return null;
     }
 
     // -----------------------------------------------------------------
@@ -811,13 +887,17 @@ public class DefaultDataValueSetService implements DataValueSetService {
     // -----------------------------------------------------------------
     DataValue internalValue = createDataValue(dataValue, context, valueContext, now);
 
-    // -----------------------------------------------------------------
-    // Save, update or delete data value
-    // -----------------------------------------------------------------
-    DataValue existingValue =
-        !context.isSkipExistingCheck()
-            ? context.getDataValueBatchHandler().findObject(internalValue)
-            : null;
+    return new PreparedDataValue(dataValue.getValue(), valueContext, internalValue);
+  }
+
+  /** Saves, updates or deletes the given data value depending on the existing value. */
+  private void saveDataValue(
+      ImportContext context,
+      ImportCount importCount,
+      PreparedDataValue value,
+      DataValue existingValue) {
+    ImportContext.DataValueContext valueContext = value.valueContext();
+    DataValue internalValue = value.internalValue();
 
     // -----------------------------------
     // Preserve any existing created date
@@ -828,8 +908,7 @@ public class DefaultDataValueSetService implements DataValueSetService {
 
     final ImportStrategy strategy = context.getStrategy();
     boolean zeroAndInsignificant =
-        ValidationUtils.dataValueIsZeroAndInsignificant(
-            dataValue.getValue(), valueContext.getDataElement());
+        dataValueIsZeroAndInsignificant(value.value(), valueContext.getDataElement());
     if (zeroAndInsignificant && (existingValue == null || strategy.isCreate())) {
       // Ignore value
       context.getSummary().skipValue();
@@ -842,10 +921,9 @@ public class DefaultDataValueSetService implements DataValueSetService {
     if (!context.isSkipExistingCheck() && existingValue != null && !existingValue.isDeleted()) {
       if (strategy.isCreateAndUpdate() || strategy.isUpdate()) {
         saveDataValueUpdate(
-            context, importCount, dataValue, valueContext, internalValue, existingValue);
+            context, importCount, value.value(), valueContext, internalValue, existingValue);
       } else if (strategy.isDelete()) {
-        saveDataValueDelete(
-            context, importCount, dataValue, valueContext, internalValue, existingValue);
+        saveDataValueDelete(context, importCount, valueContext, internalValue, existingValue);
       } else {
         importCount.incrementIgnored();
         context.addRejected(valueContext.getIndex());
@@ -874,7 +952,7 @@ public class DefaultDataValueSetService implements DataValueSetService {
       importCount.incrementImported();
 
       if (!context.isDryRun()) {
-        context.getDataValueBatchHandler().updateObject(internalValue);
+        updateDataValue(context, internalValue);
 
         if (valueContext.getDataElement().isFileType()) {
           FileResource fr = fileResourceService.getFileResource(internalValue.getValue());
@@ -889,7 +967,7 @@ public class DefaultDataValueSetService implements DataValueSetService {
     boolean added = false;
 
     if (!context.isDryRun()) {
-      added = context.getDataValueBatchHandler().addObject(internalValue);
+      added = addDataValue(context, internalValue);
 
       if (added && valueContext.getDataElement().isFileType()) {
         FileResource fr = fileResourceService.getFileResource(internalValue.getValue());
@@ -908,7 +986,6 @@ public class DefaultDataValueSetService implements DataValueSetService {
   private void saveDataValueDelete(
       ImportContext context,
       ImportCount importCount,
-      DataValueEntry dataValue,
       ImportContext.DataValueContext valueContext,
       DataValue internalValue,
       DataValue existingValue) {
@@ -925,17 +1002,17 @@ public class DefaultDataValueSetService implements DataValueSetService {
         }
       }
 
-      context.getDataValueBatchHandler().updateObject(internalValue);
+      updateDataValue(context, internalValue);
 
       if (!context.isSkipAudit()) {
         DataValueAudit auditValue =
             new DataValueAudit(
                 internalValue,
                 existingValue.getValue(),
-                context.getStoredBy(dataValue),
+                internalValue.getStoredBy(),
                 AuditOperationType.DELETE);
 
-        context.getAuditBatchHandler().addObject(auditValue);
+        addAudit(context, auditValue);
       }
     }
   }
@@ -943,14 +1020,14 @@ public class DefaultDataValueSetService implements DataValueSetService {
   private void saveDataValueUpdate(
       ImportContext context,
       ImportCount importCount,
-      DataValueEntry dataValue,
+      String value,
       ImportContext.DataValueContext valueContext,
       DataValue internalValue,
       DataValue existingValue) {
     AuditOperationType auditOperationType = AuditOperationType.UPDATE;
     if (internalValue.isNullValue()
         || internalValue.isDeleted()
-        || dataValueIsZeroAndInsignificant(dataValue.getValue(), valueContext.getDataElement())) {
+        || dataValueIsZeroAndInsignificant(value, valueContext.getDataElement())) {
       internalValue.setDeleted(true);
 
       auditOperationType = AuditOperationType.DELETE;
@@ -963,7 +1040,7 @@ public class DefaultDataValueSetService implements DataValueSetService {
       } else importCount.incrementUpdated();
     }
     if (!context.isDryRun()) {
-      context.getDataValueBatchHandler().updateObject(internalValue);
+      updateDataValue(context, internalValue);
 
       if (!context.isSkipAudit()
           && !Objects.equals(existingValue.getValue(), internalValue.getValue())) {
@@ -971,10 +1048,10 @@ public class DefaultDataValueSetService implements DataValueSetService {
             new DataValueAudit(
                 internalValue,
                 existingValue.getValue(),
-                context.getStoredBy(dataValue),
+                internalValue.getStoredBy(),
                 auditOperationType);
 
-        context.getAuditBatchHandler().addObject(auditValue);
+        addAudit(context, auditValue);
       }
 
       if (valueContext.getDataElement().isFileType()) {
@@ -992,6 +1069,31 @@ public class DefaultDataValueSetService implements DataValueSetService {
     }
   }
 
+  private static boolean addDataValue(ImportContext context, DataValue value) {
+    if (context.isBulkImport()) {
+      context.getBulkDataValueWriter().addDataValue(value);
+      return true;
+    }
+
+    return context.getDataValueBatchHandler().addObject(value);
+  }
+
+  private static void updateDataValue(ImportContext context, DataValue value) {
+    if (context.isBulkImport()) {
+      context.getBulkDataValueWriter().addDataValue(value);
+    } else {
+      context.getDataValueBatchHandler().updateObject(value);
+    }
+  }
+
+  private static void addAudit(ImportContext context, DataValueAudit audit) {
+    if (context.isBulkImport()) {
+      context.getBulkDataValueWriter().addAudit(audit);
+    } else {
+      context.getAuditBatchHandler().addObject(audit);
+    }
+  }
+
   private static boolean dataValueUpdateShouldBeIgnored(
       DataValue internalValue, DataValue existingValue) {
     return !internalValue.isDeleted()
@@ -1155,6 +1257,8 @@ public class DefaultDataValueSetService implements DataValueSetService {
         // data processing
         .dataValueBatchHandler(dataValueBatchHandler.init())
         .auditBatchHandler(skipAudit ? null : auditBatchHandler.init())
+        .bulkDataValueWriter(
+            options.isBulkImport() ? new BulkDataValueWriter(dataValueImportStore) : null)
         .singularNameForType(klass -> schemaService.getDynamicSchema(klass).getSingular())
         .build();
   }
@@ -1354,4 +1458,13 @@ public class DefaultDataValueSetService implements DataValueSetService {
 
     summary.setDataSetComplete(DateUtils.toMediumDate(completeDate));
   }
+
+  /**
+   * A validated data value of an import with its raw value, context and internal data value. Holds
+   * no reference to the {@link DataValueEntry}, as readers reuse entries.
+   */
+  private record PreparedDataValue(
+      String value,
+      ImportContext.DataValueContext valueContext,
+      DataValue internalValue) {}
 }
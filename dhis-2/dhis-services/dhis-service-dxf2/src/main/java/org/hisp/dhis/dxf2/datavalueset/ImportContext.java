@@ -199,12 +199,19 @@ public final class ImportContext {
 
   private final BatchHandler<DataValueAudit> auditBatchHandler;
 
+  /** Writer used instead of the batch handlers for bulk imports, null otherwise. */
+  private final BulkDataValueWriter bulkDataValueWriter;
+
   private final Function<Class<? extends IdentifiableObject>, String> singularNameForType;
 
   public String getCurrentUserName() {
     return currentUser.getUsername();
   }
 
+  public boolean isBulkImport() {
+    return bulkDataValueWriter != null;
+  }
+
   public ImportContext error() {
     summary.setStatus(ImportStatus.ERROR);
     return this;
@@ -0,0 +1,379 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.datavalue.DataValue;
+import org.hisp.dhis.datavalue.DataValueAudit;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * PostgreSQL implementation of {@link DataValueImportStore}. Values are streamed into temporary
+ * staging tables with {@code COPY}, which are dropped when the surrounding transaction commits.
+ */
+@Slf4j
+@Repository("org.hisp.dhis.dxf2.datavalueset.DataValueImportStore")
+@RequiredArgsConstructor
+public class JdbcDataValueImportStore implements DataValueImportStore {
+  private static final String KEY_COLUMNS =
+      "dataelementid, periodid, sourceid, categoryoptioncomboid, attributeoptioncomboid";
+
+  private static final String DATA_VALUE_COLUMNS =
+      KEY_COLUMNS + ", value, storedby, created, lastupdated, comment, followup, deleted";
+
+  private static final String AUDIT_COLUMNS =
+      "dataelementid, periodid, organisationunitid, categoryoptioncomboid, "
+          + "attributeoptioncomboid, value, modifiedby, created, audittype";
+
+  private static final String KEY_STAGING_TABLE = "_datavalue_import_key";
+
+  private static final String DATA_VALUE_STAGING_TABLE = "_datavalue_import";
+
+  private static final String AUDIT_STAGING_TABLE = "_datavalueaudit_import";
+
+  private static final String KEY_STAGING_TABLE_COLUMNS =
+      "dataelementid bigint not null, periodid bigint not null, sourceid bigint not null, "
+          + "categoryoptioncomboid bigint not null, attributeoptioncomboid bigint not null";
+
+  private static final String DATA_VALUE_STAGING_TABLE_COLUMNS =
+      KEY_STAGING_TABLE_COLUMNS
+          + ", value text, storedby text, created timestamp, lastupdated timestamp, comment text, "
+          + "followup boolean, deleted boolean";
+
+  private static final String AUDIT_STAGING_TABLE_COLUMNS =
+      "dataelementid bigint not null, periodid bigint not null, "
+          + "organisationunitid bigint not null, categoryoptioncomboid bigint not null, "
+          + "attributeoptioncomboid bigint not null, "
+          + "value text, modifiedby text, created timestamp, audittype text";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  // -------------------------------------------------------------------------
+  // DataValueImportStore implementation
+  // -------------------------------------------------------------------------
+
+  @Override
+  public Map<DataValue, DataValue> getDataValues(Collection<DataValue> values) {
+    if (values.isEmpty()) {
+      return Map.of();
+    }
+
+    Map<Key, DataValue> valuesByKey = new HashMap<>();
+
+    for (DataValue value : values) {
+      valuesByKey.put(Key.of(value), value);
+    }
+
+    String sql =
+        "select dv.dataelementid, dv.periodid, dv.sourceid, dv.categoryoptioncomboid, "
+            + "dv.attributeoptioncomboid, dv.value, dv.storedby, dv.created, dv.comment, "
+            + "dv.followup, dv.deleted from "
+            + KEY_STAGING_TABLE
+            + " k inner join datavalue dv on dv.dataelementid = k.dataelementid "
+            + "and dv.periodid = k.periodid and dv.sourceid = k.sourceid "
+            + "and dv.categoryoptioncomboid = k.categoryoptioncomboid "
+            + "and dv.attributeoptioncomboid = k.attributeoptioncomboid";
+
+    return jdbcTemplate.execute(
+        (ConnectionCallback<Map<DataValue, DataValue>>)
+            connection -> {
+              stage(
+                  connection,
+                  KEY_STAGING_TABLE,
+                  KEY_STAGING_TABLE_COLUMNS,
+                  KEY_COLUMNS,
+                  valuesByKey.keySet(),
+                  Key::toRow);
+
+              Map<DataValue, DataValue> existing = new HashMap<>();
+
+              try (Statement statement = connection.createStatement();
+                  ResultSet rs = statement.executeQuery(sql)) {
+                while (rs.next()) {
+                  DataValue value =
+                      valuesByKey.get(
+                          new Key(
+                              rs.getLong(1),
+                              rs.getLong(2),
+                              rs.getLong(3),
+                              rs.getLong(4),
+                              rs.getLong(5)));
+
+                  if (value != null) {
+                    existing.put(value, mapRow(value, rs));
+                  }
+                }
+              }
+
+              log.debug("Found {} existing data values of {}", existing.size(), values.size());
+
+              return existing;
+            });
+  }
+
+  @Override
+  public void upsertDataValues(Collection<DataValue> values) {
+    if (values.isEmpty()) {
+      return;
+    }
+
+    String sql =
+        "insert into datavalue ("
+            + DATA_VALUE_COLUMNS
+            + ") select "
+            + DATA_VALUE_COLUMNS
+            + " from "
+            + DATA_VALUE_STAGING_TABLE
+            + " on conflict ("
+            + KEY_COLUMNS
+            + ") do update set value = excluded.value, storedby = excluded.storedby, "
+            + "created = excluded.created, lastupdated = excluded.lastupdated, "
+            + "comment = excluded.comment, followup = excluded.followup, "
+            + "deleted = excluded.deleted";
+
+    jdbcTemplate.execute(
+        (ConnectionCallback<Integer>)
+            connection -> {
+              stage(
+                  connection,
+                  DATA_VALUE_STAGING_TABLE,
+                  DATA_VALUE_STAGING_TABLE_COLUMNS,
+                  DATA_VALUE_COLUMNS,
+                  values,
+                  JdbcDataValueImportStore::toRow);
+
+              return execute(connection, sql);
+            });
+  }
+
+  @Override
+  public void addDataValueAudits(Collection<DataValueAudit> audits) {
+    if (audits.isEmpty()) {
+      return;
+    }
+
+    String sql =
+        "insert into datavalueaudit (datavalueauditid, "
+            + AUDIT_COLUMNS
+            + ") select nextval('datavalueaudit_sequence'), "
+            + AUDIT_COLUMNS
+            + " from "
+            + AUDIT_STAGING_TABLE;
+
+    jdbcTemplate.execute(
+        (ConnectionCallback<Integer>)
+            connection -> {
+              stage(
+                  connection,
+                  AUDIT_STAGING_TABLE,
+                  AUDIT_STAGING_TABLE_COLUMNS,
+                  AUDIT_COLUMNS,
+                  audits,
+                  JdbcDataValueImportStore::toRow);
+
+              return execute(connection, sql);
+            });
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  /**
+   * Creates the given staging table if it does not exist in the current transaction, removes any
+   * rows staged earlier in the transaction and copies the given rows into it.
+   */
+  private static <T> void stage(
+      Connection connection,
+      String table,
+      String tableColumns,
+      String columns,
+      Collection<T> rows,
+      Function<T, List<Object>> toRow)
+      throws SQLException {
+    execute(
+        connection,
+        "create temp table if not exists "
+            + table
+            + " ("
+            + tableColumns
+            + ") on commit drop");
+    execute(connection, "truncate " + table);
+
+    StringBuilder data = new StringBuilder(rows.size() * 128);
+
+    for (T row : rows) {
+      appendRow(data, toRow.apply(row));
+    }
+
+    try {
+      long copied =
+          connection
+              .unwrap(PGConnection.class)
+              .getCopyAPI()
+              .copyIn(
+                  "copy " + table + " (" + columns + ") from stdin",
+                  new StringReader(data.toString()));
+
+      log.debug("Copied {} rows into {}", copied, table);
+    } catch (IOException ex) {
+      throw new SQLException("Failed to copy rows into " + table, ex);
+    }
+  }
+
+  private static int execute(Connection connection, String sql) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      return statement.executeUpdate(sql);
+    }
+  }
+
+  /**
+   * Appends a row in the text format of {@code COPY}, with tab separated values, {@code \N} for
+   * null values and backslash escapes for special characters.
+   */
+  private static void appendRow(StringBuilder data, List<Object> values) {
+    for (int i = 0; i < values.size(); i++) {
+      if (i > 0) {
+        data.append('\t');
+      }
+
+      Object value = values.get(i);
+
+      if (value == null) {
+        data.append("\\N");
+      } else if (value instanceof Date date) {
+        data.append(new Timestamp(date.getTime()));
+      } else {
+        appendEscaped(data, value.toString());
+      }
+    }
+
+    data.append('\n');
+  }
+
+  private static void appendEscaped(StringBuilder data, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+
+      switch (c) {
+        case '\\' -> data.append("\\\\");
+        case '\t' -> data.append("\\t");
+        case '\n' -> data.append("\\n");
+        case '\r' -> data.append("\\r");
+        default -> data.append(c);
+      }
+    }
+  }
+
+  private static List<Object> toRow(DataValue value) {
+    return Arrays.asList(
+        value.getDataElement().getId(),
+        value.getPeriod().getId(),
+        value.getSource().getId(),
+        value.getCategoryOptionCombo().getId(),
+        value.getAttributeOptionCombo().getId(),
+        value.getValue(),
+        value.getStoredBy(),
+        value.getCreated(),
+        value.getLastUpdated(),
+        value.getComment(),
+        value.isFollowup(),
+        value.isDeleted());
+  }
+
+  private static List<Object> toRow(DataValueAudit audit) {
+    return Arrays.asList(
+        audit.getDataElement().getId(),
+        audit.getPeriod().getId(),
+        audit.getOrganisationUnit().getId(),
+        audit.getCategoryOptionCombo().getId(),
+        audit.getAttributeOptionCombo().getId(),
+        audit.getValue(),
+        audit.getModifiedBy(),
+        audit.getCreated(),
+        audit.getAuditType().toString());
+  }
+
+  /** Returns the persisted data value of the current row for the given imported data value. */
+  private static DataValue mapRow(DataValue value, ResultSet rs) throws SQLException {
+    DataValue dv = new DataValue();
+
+    dv.setDataElement(value.getDataElement());
+    dv.setPeriod(value.getPeriod());
+    dv.setSource(value.getSource());
+    dv.setCategoryOptionCombo(value.getCategoryOptionCombo());
+    dv.setAttributeOptionCombo(value.getAttributeOptionCombo());
+    dv.setValue(rs.getString("value"));
+    dv.setStoredBy(rs.getString("storedby"));
+    dv.setCreated(rs.getTimestamp("created"));
+    dv.setComment(rs.getString("comment"));
+    dv.setFollowup(rs.getBoolean("followup"));
+    dv.setDeleted(rs.getBoolean("deleted"));
+
+    return dv;
+  }
+
+  /** Identifiers of a data value. */
+  private record Key(
+      long dataElement,
+      long period,
+      long orgUnit,
+      long categoryOptionCombo,
+      long attributeOptionCombo) {
+    static Key of(DataValue value) {
+      return new Key(
+          value.getDataElement().getId(),
+          value.getPeriod().getId(),
+          value.getSource().getId(),
+          value.getCategoryOptionCombo().getId(),
+          value.getAttributeOptionCombo().getId());
+    }
+
+    List<Object> toRow() {
+      return List.of(dataElement, period, orgUnit, categoryOptionCombo, attributeOptionCombo);
+    }
+  }
+}
@@ -179,7 +179,7 @@ public class ReferencesCheck implements ValidationCheck {
       Object object,
       List<PreheatErrorReport> preheatErrorReports,
       Property property) {
-    IdentifiableObject refObject = ReflectionUtils.invokeMethod(object, property.getGetterMethod());
+    IdentifiableObject refObject = property.getValue(object);
     IdentifiableObject ref = bundle.getPreheat().get(bundle.getPreheatIdentifier(), refObject);
 
     // HACK this needs to be redone when the move to using
@@ -214,8 +214,7 @@ public class ReferencesCheck implements ValidationCheck {
       Property property) {
     Collection<IdentifiableObject> objects =
         ReflectionUtils.newCollectionInstance(property.getKlass());
-    Collection<IdentifiableObject> refObjects =
-        ReflectionUtils.invokeMethod(object, property.getGetterMethod());
+    Collection<IdentifiableObject> refObjects = property.getValue(object);
     if (CollectionUtils.isEmpty(refObjects)) {
       return;
     }
@@ -253,7 +252,7 @@ public class ReferencesCheck implements ValidationCheck {
                         refObject,
                         property)));
 
-    ReflectionUtils.invokeMethod(object, property.getSetterMethod(), objects);
+    property.setValue(object, objects);
   }
 
   private void checkAttributeValues(
@@ -348,16 +347,14 @@ public class ReferencesCheck implements ValidationCheck {
       ObjectBundle bundle,
       List<PreheatErrorReport> preheatErrorReports) {
     if (property.isCollection()) {
-      Collection<EmbeddedObject> collection =
-          ReflectionUtils.invokeMethod(object, property.getGetterMethod());
+      Collection<EmbeddedObject> collection = property.getValue(object);
       if (collection != null) {
         collection.forEach(
             embeddedObject ->
                 checkEmbeddedObject(ctx, bundle, preheatErrorReports, property, embeddedObject));
       }
     } else {
-      EmbeddedObject embeddedObject =
-          ReflectionUtils.invokeMethod(object, property.getGetterMethod());
+      EmbeddedObject embeddedObject = property.getValue(object);
       if (embeddedObject != null) {
         checkEmbeddedObject(ctx, bundle, preheatErrorReports, property, embeddedObject);
       }
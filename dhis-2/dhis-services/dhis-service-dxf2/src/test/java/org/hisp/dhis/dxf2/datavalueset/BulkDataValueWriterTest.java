@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import static org.hisp.dhis.test.TestBase.createCategoryOptionCombo;
+import static org.hisp.dhis.test.TestBase.createDataElement;
+import static org.hisp.dhis.test.TestBase.createDataValue;
+import static org.hisp.dhis.test.TestBase.createOrganisationUnit;
+import static org.hisp.dhis.test.TestBase.createPeriod;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.hisp.dhis.audit.AuditOperationType;
+import org.hisp.dhis.category.CategoryOptionCombo;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.datavalue.DataValue;
+import org.hisp.dhis.datavalue.DataValueAudit;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.period.Period;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BulkDataValueWriterTest {
+  @Mock private DataValueImportStore store;
+
+  @Captor private ArgumentCaptor<Collection<DataValue>> dataValuesCaptor;
+
+  @Captor private ArgumentCaptor<Collection<DataValueAudit>> auditsCaptor;
+
+  private BulkDataValueWriter writer;
+
+  private DataElement dataElement;
+
+  private Period period;
+
+  private OrganisationUnit orgUnitA;
+
+  private OrganisationUnit orgUnitB;
+
+  private CategoryOptionCombo optionCombo;
+
+  @BeforeEach
+  void setUp() {
+    writer = new BulkDataValueWriter(store);
+    dataElement = createDataElement('A');
+    period = createPeriod("202401");
+    orgUnitA = createOrganisationUnit('A');
+    orgUnitB = createOrganisationUnit('B');
+    optionCombo = createCategoryOptionCombo('A');
+  }
+
+  @Test
+  void testGetExistingValue() {
+    DataValue valueA = createDataValue(dataElement, period, orgUnitA, "10", optionCombo);
+    DataValue valueB = createDataValue(dataElement, period, orgUnitB, "20", optionCombo);
+    DataValue existingA = createDataValue(dataElement, period, orgUnitA, "5", optionCombo);
+
+    when(store.getDataValues(List.of(valueA, valueB))).thenReturn(Map.of(valueA, existingA));
+
+    writer.loadExistingValues(List.of(valueA, valueB));
+
+    assertSame(existingA, writer.getExistingValue(valueA));
+    assertNull(writer.getExistingValue(valueB));
+  }
+
+  @Test
+  void testGetExistingValueWrittenEarlierInChunk() {
+    DataValue valueA = createDataValue(dataElement, period, orgUnitA, "10", optionCombo);
+    DataValue repeatedA = createDataValue(dataElement, period, orgUnitA, "11", optionCombo);
+
+    when(store.getDataValues(List.of(valueA, repeatedA))).thenReturn(Map.of());
+
+    writer.loadExistingValues(List.of(valueA, repeatedA));
+    writer.addDataValue(valueA);
+
+    assertSame(valueA, writer.getExistingValue(repeatedA));
+  }
+
+  @Test
+  void testFlushWritesLatestValuePerKeyAndAudits() {
+    DataValue valueA = createDataValue(dataElement, period, orgUnitA, "10", optionCombo);
+    DataValue valueB = createDataValue(dataElement, period, orgUnitB, "20", optionCombo);
+    DataValue repeatedA = createDataValue(dataElement, period, orgUnitA, "11", optionCombo);
+    DataValueAudit audit = new DataValueAudit(valueB, "15", "admin", AuditOperationType.UPDATE);
+
+    writer.addDataValue(valueA);
+    writer.addDataValue(valueB);
+    writer.addDataValue(repeatedA);
+    writer.addAudit(audit);
+    writer.flush();
+
+    verify(store).upsertDataValues(dataValuesCaptor.capture());
+    verify(store).addDataValueAudits(auditsCaptor.capture());
+
+    List<DataValue> written = new ArrayList<>(dataValuesCaptor.getValue());
+    assertEquals(2, written.size());
+    assertEquals("11", written.get(0).getValue());
+    assertEquals("20", written.get(1).getValue());
+    assertEquals(List.of(audit), new ArrayList<>(auditsCaptor.getValue()));
+  }
+
+  @Test
+  void testFlushClearsChunk() {
+    DataValue valueA = createDataValue(dataElement, period, orgUnitA, "10", optionCombo);
+
+    writer.addDataValue(valueA);
+    writer.flush();
+
+    assertNull(writer.getExistingValue(valueA));
+
+    writer.flush();
+
+    verify(store).upsertDataValues(List.of());
+  }
+}
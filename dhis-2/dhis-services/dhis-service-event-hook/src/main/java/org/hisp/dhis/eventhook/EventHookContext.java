@@ -44,6 +44,9 @@ public class EventHookContext {
 
   @Builder.Default List<EventHook> eventHooks = new ArrayList<>();
 
+  /** Enabled event hooks with at least one target by their source path. */
+  @Builder.Default PathTrie<EventHook> eventHookPaths = new PathTrie<>();
+
   public boolean hasTarget(String uid) {
     return targets.containsKey(uid) || targets.get(uid).isEmpty();
   }
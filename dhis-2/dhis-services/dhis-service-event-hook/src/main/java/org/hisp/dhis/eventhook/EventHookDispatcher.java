@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.eventhook;
+
+import static java.util.stream.Collectors.joining;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.eventhook.EventHookOutboxStore.Destination;
+import org.hisp.dhis.eventhook.EventHookOutboxStore.Entry;
+import org.hisp.dhis.eventhook.handlers.WebhookHandler;
+import org.hisp.dhis.eventhook.targets.WebhookTarget;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.system.executor.BoundedExecutorFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers the requests queued in the {@link EventHookOutboxStore} to webhook targets.
+ *
+ * <p>Every webhook target has its own worker which sends up to {@link WebhookTarget#getBatchSize()}
+ * queued requests at once and keeps at most {@link WebhookTarget#getMaxConcurrency()} requests in
+ * flight. Failed requests are retried with exponential backoff until {@link
+ * ConfigurationKey#EVENT_HOOKS_DELIVERY_MAX_ATTEMPTS} is reached. Workers are woken up when a
+ * request is queued on this node and by a periodic poll, which also picks up retries and requests
+ * left behind by a restart or by other nodes.
+ *
+ * <p>Delivery is at least once and requests to the same target may arrive out of order.
+ */
+@Slf4j
+@Component
+public class EventHookDispatcher {
+  private static final Duration LEASE = Duration.ofMinutes(1);
+
+  private static final Duration BACKOFF = Duration.ofSeconds(1);
+
+  private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+  private static final long POLL_INTERVAL_SECONDS = 5;
+
+  private final EventHookOutboxStore outboxStore;
+
+  private final int maxAttempts;
+
+  private final ExecutorService deliveryExecutor;
+
+  private final ScheduledExecutorService pollExecutor;
+
+  private volatile Map<Destination, Worker> workers = Map.of();
+
+  private volatile long backlog;
+
+  @CheckForNull private volatile MeterRegistry registry;
+
+  @CheckForNull private volatile Counter retries;
+
+  @CheckForNull private volatile Counter dropped;
+
+  public EventHookDispatcher(
+      EventHookOutboxStore outboxStore,
+      DhisConfigurationProvider config,
+      BoundedExecutorFactory executorFactory) {
+    this.outboxStore = outboxStore;
+    this.maxAttempts =
+        Math.max(config.getIntProperty(ConfigurationKey.EVENT_HOOKS_DELIVERY_MAX_ATTEMPTS), 1);
+    this.deliveryExecutor =
+        executorFactory.create(
+            "EventHook-Delivery",
+            config.getIntProperty(ConfigurationKey.EVENT_HOOKS_DELIVERY_THREADS));
+    executorFactory.addMeterBinder(this::bindTo);
+    this.pollExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("EventHook-Poll-%d").setDaemon(true).build());
+  }
+
+  @PostConstruct
+  public void start() {
+    pollExecutor.scheduleWithFixedDelay(
+        this::poll, POLL_INTERVAL_SECONDS, POLL_INTERVAL_SECONDS, TimeUnit.SECONDS);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    pollExecutor.shutdownNow();
+    deliveryExecutor.shutdownNow();
+    workers.values().forEach(Worker::close);
+  }
+
+  /**
+   * Binds the outbox metrics. The metrics of the delivery threads are bound by the {@link
+   * BoundedExecutorFactory}.
+   */
+  private void bindTo(MeterRegistry registry) {
+    Gauge.builder("eventhooks.outbox.backlog", this, EventHookDispatcher::getBacklog)
+        .description("Number of event hook requests waiting to be delivered")
+        .register(registry);
+    this.retries =
+        Counter.builder("eventhooks.delivery.retries")
+            .description("Number of event hook requests scheduled for another attempt")
+            .register(registry);
+    this.dropped =
+        Counter.builder("eventhooks.delivery.dropped")
+            .description("Number of event hook requests dropped after their last attempt")
+            .register(registry);
+    this.registry = registry;
+  }
+
+  public long getBacklog() {
+    return backlog;
+  }
+
+  /**
+   * Replaces the workers with new ones for the webhook targets of the given event hooks. Queued
+   * requests of event hooks and targets which no longer exist or are disabled are deleted.
+   */
+  public void reload(@Nonnull List<EventHook> eventHooks) {
+    Map<Destination, Worker> newWorkers = new HashMap<>();
+    Map<String, Set<String>> targetKeys = new HashMap<>();
+
+    for (EventHook eventHook : eventHooks) {
+      if (eventHook.isDisabled()) {
+        continue;
+      }
+
+      for (Target target : eventHook.getTargets()) {
+        if (target instanceof WebhookTarget webhookTarget) {
+          Destination destination = Destination.of(eventHook.getUid(), webhookTarget);
+          targetKeys
+              .computeIfAbsent(eventHook.getUid(), uid -> new HashSet<>())
+              .add(destination.targetKey());
+          newWorkers.putIfAbsent(destination, new Worker(destination, eventHook, webhookTarget));
+        }
+      }
+    }
+
+    Map<Destination, Worker> oldWorkers = workers;
+    workers = Map.copyOf(newWorkers);
+    oldWorkers.values().forEach(Worker::close);
+
+    try {
+      outboxStore.deleteOrphans(targetKeys);
+    } catch (RuntimeException ex) {
+      log.error("Failed to delete orphaned event hook requests", ex);
+    }
+    newWorkers.values().forEach(Worker::signal);
+  }
+
+  /** Queues a payload for delivery and wakes up the worker of its target. */
+  public void enqueue(@Nonnull Destination destination, @Nonnull String payload) {
+    outboxStore.enqueue(destination, payload);
+
+    Worker worker = workers.get(destination);
+
+    if (worker != null) {
+      worker.signal();
+    }
+  }
+
+  private void poll() {
+    try {
+      Map<Destination, Worker> current = workers;
+
+      if (current.isEmpty()) {
+        return;
+      }
+
+      backlog = outboxStore.countBacklog();
+
+      for (Destination destination : outboxStore.getDueDestinations()) {
+        Worker worker = current.get(destination);
+
+        if (worker != null) {
+          worker.signal();
+        }
+      }
+    } catch (RuntimeException ex) {
+      log.error("Failed to poll the event hook outbox", ex);
+    }
+  }
+
+  private final class Worker {
+    private final Destination destination;
+
+    private final EventHook eventHook;
+
+    private final WebhookHandler handler;
+
+    private final int batchSize;
+
+    private final int maxConcurrency;
+
+    private final Semaphore permits;
+
+    private final AtomicBoolean signalled = new AtomicBoolean();
+
+    private final AtomicBoolean handlerClosed = new AtomicBoolean();
+
+    private volatile boolean closed;
+
+    Worker(Destination destination, EventHook eventHook, WebhookTarget target) {
+      this.destination = destination;
+      this.eventHook = eventHook;
+      this.handler = new WebhookHandler(target);
+      this.batchSize = Math.max(target.getBatchSize(), 1);
+      this.maxConcurrency = Math.max(target.getMaxConcurrency(), 1);
+      this.permits = new Semaphore(maxConcurrency);
+    }
+
+    void signal() {
+      signalled.set(true);
+
+      if (closed || !permits.tryAcquire()) {
+        return;
+      }
+
+      try {
+        deliveryExecutor.execute(this::drain);
+      } catch (RejectedExecutionException ex) {
+        permits.release();
+      }
+    }
+
+    void close() {
+      closed = true;
+      closeIfIdle();
+    }
+
+    private void drain() {
+      boolean failed = false;
+
+      try {
+        while (!closed && !failed) {
+          signalled.set(false);
+          List<Entry> entries = outboxStore.claim(destination, batchSize, LEASE);
+
+          if (entries.isEmpty()) {
+            break;
+          }
+
+          failed = !deliver(entries);
+        }
+      } catch (RuntimeException ex) {
+        failed = true;
+        log.error("Failed to deliver event hook requests of '{}'", eventHook.getUid(), ex);
+      } finally {
+        permits.release();
+        closeIfIdle();
+      }
+
+      // a request queued while this drain was finishing would otherwise wait for the next poll
+      if (!failed && signalled.get()) {
+        signal();
+      }
+    }
+
+    private boolean deliver(List<Entry> entries) {
+      List<Long> ids = entries.stream().map(Entry::id).toList();
+      String payload =
+          batchSize > 1
+              ? entries.stream().map(Entry::payload).collect(joining(",", "[", "]"))
+              : entries.get(0).payload();
+
+      long start = System.nanoTime();
+
+      try {
+        handler.deliver(eventHook, payload);
+        record("success", start);
+        outboxStore.delete(ids);
+        return true;
+      } catch (EventHookException ex) {
+        record("failure", start);
+        String error = String.valueOf(ex.getMessage());
+        int dropCount = outboxStore.retry(ids, error, BACKOFF, MAX_BACKOFF, maxAttempts);
+        increment(retries, ids.size() - dropCount);
+        increment(dropped, dropCount);
+
+        if (dropCount > 0) {
+          log.error(
+              "EventHook '{}' dropped {} requests to target {} after {} attempts: {}",
+              eventHook.getUid(),
+              dropCount,
+              destination.targetKey(),
+              maxAttempts,
+              error);
+        } else {
+          log.warn(
+              "EventHook '{}' failed to deliver {} requests to target {}, retrying later: {}",
+              eventHook.getUid(),
+              ids.size(),
+              destination.targetKey(),
+              error);
+        }
+        return false;
+      }
+    }
+
+    private void record(String outcome, long start) {
+      MeterRegistry meters = registry;
+
+      if (meters != null) {
+        Timer.builder("eventhooks.delivery")
+            .description("Time taken to send a request to an event hook target")
+            .tag("outcome", outcome)
+            .register(meters)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    private void increment(@CheckForNull Counter counter, int amount) {
+      if (counter != null && amount > 0) {
+        counter.increment(amount);
+      }
+    }
+
+    private void closeIfIdle() {
+      if (closed
+          && permits.availablePermits() == maxConcurrency
+          && handlerClosed.compareAndSet(false, true)) {
+        handler.close();
+      }
+    }
+  }
+}
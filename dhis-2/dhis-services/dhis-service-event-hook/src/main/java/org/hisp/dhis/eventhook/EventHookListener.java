@@ -37,10 +37,10 @@ import java.util.List;
 import java.util.Map;
 import javax.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.hisp.dhis.eventhook.EventHookOutboxStore.Destination;
 import org.hisp.dhis.eventhook.handlers.ConsoleHandler;
 import org.hisp.dhis.eventhook.handlers.JmsHandler;
 import org.hisp.dhis.eventhook.handlers.KafkaHandler;
-import org.hisp.dhis.eventhook.handlers.WebhookHandler;
 import org.hisp.dhis.eventhook.targets.ConsoleTarget;
 import org.hisp.dhis.eventhook.targets.JmsTarget;
 import org.hisp.dhis.eventhook.targets.KafkaTarget;
@@ -62,45 +62,54 @@ public class EventHookListener {
 
   private final FieldFilterService fieldFilterService;
 
-  private EventHookContext eventHookContext = EventHookContext.builder().build();
+  private volatile EventHookContext eventHookContext = EventHookContext.builder().build();
 
   private final EventHookService eventHookService;
 
+  private final EventHookDispatcher dispatcher;
+
   @Async("eventHookTaskExecutor")
   @TransactionalEventListener(
       classes = Event.class,
       phase = TransactionPhase.AFTER_COMMIT,
       fallbackExecution = true)
   public void eventListener(Event event) throws JsonProcessingException {
-    for (EventHook eventHook : eventHookContext.getEventHooks()) {
-      if (event.getPath().startsWith(eventHook.getSource().getPath())) {
-        if (!eventHookContext.hasTarget(eventHook.getUid())) {
-          continue;
-        }
+    EventHookContext context = eventHookContext;
 
-        if (event.getObject() instanceof Collection) {
-          List<ObjectNode> objects = new ArrayList<>();
+    // hooks selecting the same fields share the filtered event and its payload
+    Map<String, Event> eventsByFields = new HashMap<>();
+    Map<String, String> payloadsByFields = new HashMap<>();
 
-          for (Object object : ((Collection<?>) event.getObject())) {
-            objects.add(fieldFilterService.toObjectNode(object, eventHook.getSource().getFields()));
-          }
+    for (EventHook eventHook : context.getEventHookPaths().match(event.getPath())) {
+      String fields = eventHook.getSource().getFields();
+      Event filteredEvent = eventsByFields.get(fields);
 
-          event = event.withObject(objects);
-        } else {
-          ObjectNode objectNode =
-              fieldFilterService.toObjectNode(event.getObject(), eventHook.getSource().getFields());
-          event = event.withObject(objectNode);
-        }
+      if (filteredEvent == null) {
+        filteredEvent = filter(event, fields);
+        eventsByFields.put(fields, filteredEvent);
+        payloadsByFields.put(fields, objectMapper.writeValueAsString(filteredEvent));
+      }
 
-        String payload = objectMapper.writeValueAsString(event);
+      String payload = payloadsByFields.get(fields);
+
+      for (Handler handler : context.getTarget(eventHook.getUid())) {
+        handler.run(eventHook, filteredEvent, payload);
+      }
+    }
+  }
 
-        List<Handler> handlers = eventHookContext.getTarget(eventHook.getUid());
+  private Event filter(Event event, String fields) {
+    if (event.getObject() instanceof Collection) {
+      List<ObjectNode> objects = new ArrayList<>();
 
-        for (Handler handler : handlers) {
-          handler.run(eventHook, event, payload);
-        }
+      for (Object object : ((Collection<?>) event.getObject())) {
+        objects.add(fieldFilterService.toObjectNode(object, fields));
       }
+
+      return event.withObject(objects);
     }
+
+    return event.withObject(fieldFilterService.toObjectNode(event.getObject(), fields));
   }
 
   @PostConstruct
@@ -110,27 +119,42 @@ public class EventHookListener {
 
     List<EventHook> eventHooks = eventHookService.getAll();
     Map<String, List<Handler>> targets = new HashMap<>();
+    PathTrie<EventHook> eventHookPaths = new PathTrie<>();
 
     for (EventHook eh : eventHooks) {
       if (eh.isDisabled()) {
         continue;
       }
 
-      targets.put(eh.getUid(), new ArrayList<>());
+      List<Handler> handlers = new ArrayList<>();
+      targets.put(eh.getUid(), handlers);
 
       for (Target target : eh.getTargets()) {
         if (WebhookTarget.TYPE.equals(target.getType())) {
-          targets.get(eh.getUid()).add(new WebhookHandler((WebhookTarget) target));
+          // webhooks are delivered from the outbox, see EventHookDispatcher
+          Destination destination = Destination.of(eh.getUid(), (WebhookTarget) target);
+          handlers.add((eventHook, event, payload) -> dispatcher.enqueue(destination, payload));
         } else if (ConsoleTarget.TYPE.equals(target.getType())) {
-          targets.get(eh.getUid()).add(new ConsoleHandler((ConsoleTarget) target));
+          handlers.add(new ConsoleHandler((ConsoleTarget) target));
         } else if (JmsTarget.TYPE.equals(target.getType())) {
-          targets.get(eh.getUid()).add(new JmsHandler((JmsTarget) target));
+          handlers.add(new JmsHandler((JmsTarget) target));
         } else if (KafkaTarget.TYPE.equals(target.getType())) {
-          targets.get(eh.getUid()).add(new KafkaHandler((KafkaTarget) target));
+          handlers.add(new KafkaHandler((KafkaTarget) target));
         }
       }
+
+      if (!handlers.isEmpty()) {
+        eventHookPaths.put(eh.getSource().getPath(), eh);
+      }
     }
 
-    eventHookContext = EventHookContext.builder().eventHooks(eventHooks).targets(targets).build();
+    dispatcher.reload(eventHooks);
+
+    eventHookContext =
+        EventHookContext.builder()
+            .eventHooks(eventHooks)
+            .targets(targets)
+            .eventHookPaths(eventHookPaths)
+            .build();
   }
 }
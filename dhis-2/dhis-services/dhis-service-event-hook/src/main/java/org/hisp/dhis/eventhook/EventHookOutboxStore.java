@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.eventhook;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import lombok.RequiredArgsConstructor;
+import org.hisp.dhis.common.HashUtils;
+import org.hisp.dhis.eventhook.targets.WebhookTarget;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Persistent queue of event hook requests waiting to be delivered to a target. Rows are claimed by
+ * pushing their next attempt into the future for the duration of a lease, so a delivery that dies
+ * with its node is picked up again once the lease has run out.
+ *
+ * <p>Rows are keyed by the client ID and URL of their target rather than by its position, so that
+ * reordering, adding or removing other targets of an event hook does not send queued requests to
+ * the wrong target.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventHookOutboxStore {
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  /**
+   * @param hookUid the event hook the payload was created for
+   * @param targetKey identifies the target within the event hook, see {@link #of(String,
+   *     WebhookTarget)}
+   */
+  public record Destination(@Nonnull String hookUid, @Nonnull String targetKey) {
+    /**
+     * @return the destination of the given target, which stays the same as long as the client ID
+     *     and URL of the target do not change
+     */
+    public static Destination of(@Nonnull String hookUid, @Nonnull WebhookTarget target) {
+      String identity =
+          Objects.toString(target.getClientId(), "") + "\n" + Objects.toString(target.getUrl(), "");
+      return new Destination(hookUid, HashUtils.hashMD5(identity.getBytes(StandardCharsets.UTF_8)));
+    }
+  }
+
+  public record Entry(long id, @Nonnull String payload) {}
+
+  public void enqueue(@Nonnull Destination destination, @Nonnull String payload) {
+    String sql =
+        """
+            insert into eventhookoutbox (eventhookuid, targetkey, payload)
+            values (:hookUid, :targetKey, :payload)
+        """;
+    jdbcTemplate.update(sql, params(destination).addValue("payload", payload));
+  }
+
+  /**
+   * Claims the oldest due entries of a destination. Rows claimed by a concurrent caller are
+   * skipped.
+   *
+   * @param limit maximum number of entries to claim
+   * @param lease time after which the entries are due again unless deleted or rescheduled
+   * @return the claimed entries, oldest first
+   */
+  @Nonnull
+  public List<Entry> claim(@Nonnull Destination destination, int limit, @Nonnull Duration lease) {
+    String sql =
+        """
+            update eventhookoutbox
+            set nextattempt = now() + :lease * interval '1 millisecond'
+            where eventhookoutboxid in (
+                select eventhookoutboxid from eventhookoutbox
+                where eventhookuid = :hookUid and targetkey = :targetKey
+                and nextattempt <= now()
+                order by eventhookoutboxid
+                limit :limit
+                for update skip locked)
+            returning eventhookoutboxid, payload
+        """;
+    MapSqlParameterSource params =
+        params(destination).addValue("limit", limit).addValue("lease", lease.toMillis());
+    List<Entry> entries =
+        jdbcTemplate.query(sql, params, (rs, row) -> new Entry(rs.getLong(1), rs.getString(2)));
+    entries.sort((a, b) -> Long.compare(a.id(), b.id()));
+    return entries;
+  }
+
+  public void delete(@Nonnull Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.update(
+        "delete from eventhookoutbox where eventhookoutboxid in (:ids)", Map.of("ids", ids));
+  }
+
+  /**
+   * Schedules the entries for another attempt with exponential backoff. Entries that have used up
+   * their attempts are deleted.
+   *
+   * @param backoff delay before the second attempt, doubled for every further attempt
+   * @param maxBackoff upper bound of the delay
+   * @param maxAttempts number of attempts after which an entry is dropped
+   * @return the number of dropped entries
+   */
+  public int retry(
+      @Nonnull Collection<Long> ids,
+      @Nonnull String error,
+      @Nonnull Duration backoff,
+      @Nonnull Duration maxBackoff,
+      int maxAttempts) {
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    String sql =
+        """
+            update eventhookoutbox
+            set attempts = attempts + 1,
+                lasterror = :error,
+                nextattempt = now()
+                    + least(:backoff * power(2, attempts), :maxBackoff) * interval '1 millisecond'
+            where eventhookoutboxid in (:ids)
+        """;
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("ids", ids)
+            .addValue("error", error.length() > 1024 ? error.substring(0, 1024) : error)
+            .addValue("backoff", backoff.toMillis())
+            .addValue("maxBackoff", maxBackoff.toMillis());
+    jdbcTemplate.update(sql, params);
+    return jdbcTemplate.update(
+        "delete from eventhookoutbox where eventhookoutboxid in (:ids) and attempts >= :max",
+        new MapSqlParameterSource().addValue("ids", ids).addValue("max", maxAttempts));
+  }
+
+  /**
+   * @return the destinations which have at least one entry due for delivery
+   */
+  @Nonnull
+  public List<Destination> getDueDestinations() {
+    String sql =
+        """
+            select distinct eventhookuid, targetkey from eventhookoutbox
+            where nextattempt <= now()
+        """;
+    return jdbcTemplate.query(
+        sql, Map.of(), (rs, row) -> new Destination(rs.getString(1), rs.getString(2)));
+  }
+
+  public long countBacklog() {
+    Long count =
+        jdbcTemplate.queryForObject("select count(*) from eventhookoutbox", Map.of(), Long.class);
+    return count == null ? 0 : count;
+  }
+
+  /**
+   * Deletes the entries of event hooks and targets that no longer exist or are disabled.
+   *
+   * @param targetKeys the {@link Destination#targetKey() target keys} of each active event hook by
+   *     event hook UID, event hooks without webhook targets may be left out
+   */
+  public void deleteOrphans(@Nonnull Map<String, Set<String>> targetKeys) {
+    if (targetKeys.isEmpty()) {
+      jdbcTemplate.update("delete from eventhookoutbox", Map.of());
+      return;
+    }
+    jdbcTemplate.update(
+        "delete from eventhookoutbox where eventhookuid not in (:uids)",
+        Map.of("uids", targetKeys.keySet()));
+    for (Map.Entry<String, Set<String>> hook : targetKeys.entrySet()) {
+      jdbcTemplate.update(
+          "delete from eventhookoutbox where eventhookuid = :hookUid and targetkey not in (:keys)",
+          Map.of("hookUid", hook.getKey(), "keys", hook.getValue()));
+    }
+  }
+
+  private static MapSqlParameterSource params(Destination destination) {
+    return new MapSqlParameterSource()
+        .addValue("hookUid", destination.hookUid())
+        .addValue("targetKey", destination.targetKey());
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.eventhook;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+/**
+ * Prefix tree of event hook source paths. Looking up an event path returns the values of all
+ * paths that are a prefix of it, with the same semantics as {@link String#startsWith(String)} but
+ * without scanning every registered path.
+ *
+ * <p>The trie is built once and only read afterwards, so it is safe to share between threads once
+ * published.
+ *
+ * @param <T> the type of the values stored for a path
+ */
+public class PathTrie<T> {
+  private final Node<T> root = new Node<>();
+
+  public void put(@Nonnull String path, @Nonnull T value) {
+    Node<T> node = root;
+
+    for (int i = 0; i < path.length(); i++) {
+      node = node.children.computeIfAbsent(path.charAt(i), c -> new Node<>());
+    }
+
+    node.values.add(value);
+  }
+
+  /**
+   * @param path the event path
+   * @return the values of all paths that are a prefix of the given path, shortest path first
+   */
+  @Nonnull
+  public List<T> match(@Nonnull String path) {
+    List<T> matches = new ArrayList<>(root.values);
+    Node<T> node = root;
+
+    for (int i = 0; i < path.length(); i++) {
+      node = node.children.get(path.charAt(i));
+
+      if (node == null) {
+        break;
+      }
+
+      matches.addAll(node.values);
+    }
+
+    return matches;
+  }
+
+  private static final class Node<T> {
+    private final Map<Character, Node<T>> children = new HashMap<>();
+
+    private final List<T> values = new ArrayList<>(1);
+  }
+}
@@ -37,6 +37,7 @@ import org.apache.hc.core5.http.io.SocketConfig;
 import org.apache.hc.core5.util.Timeout;
 import org.hisp.dhis.eventhook.Event;
 import org.hisp.dhis.eventhook.EventHook;
+import org.hisp.dhis.eventhook.EventHookException;
 import org.hisp.dhis.eventhook.Handler;
 import org.hisp.dhis.eventhook.targets.WebhookTarget;
 import org.hisp.dhis.system.util.HttpUtils;
@@ -57,14 +58,29 @@ public class WebhookHandler implements Handler {
 
   private final RestTemplate restTemplate;
 
+  private final PoolingHttpClientConnectionManager connectionManager;
+
   public WebhookHandler(WebhookTarget target) {
     this.webhookTarget = target;
     this.restTemplate = new RestTemplate();
-    configure(this.restTemplate);
+    this.connectionManager = configure(this.restTemplate, target);
   }
 
   @Override
   public void run(EventHook eventHook, Event event, String payload) {
+    try {
+      deliver(eventHook, payload);
+    } catch (EventHookException ex) {
+      log.error(ex.getMessage());
+    }
+  }
+
+  /**
+   * Posts the payload to the target.
+   *
+   * @throws EventHookException when the request fails or the target responds with an error status
+   */
+  public void deliver(EventHook eventHook, String payload) throws EventHookException {
     HttpHeaders httpHeaders = new HttpHeaders();
     httpHeaders.setContentType(MediaType.parseMediaType(webhookTarget.getContentType()));
     httpHeaders.setAll(webhookTarget.getHeaders());
@@ -85,11 +101,17 @@ public class WebhookHandler implements Handler {
           HttpUtils.resolve(response.getStatusCode()).name(),
           response.getBody());
     } catch (RestClientException ex) {
-      log.error(ex.getMessage());
+      throw new EventHookException(ex.getMessage(), ex);
     }
   }
 
-  private void configure(RestTemplate template) {
+  @Override
+  public void close() {
+    connectionManager.close();
+  }
+
+  private static PoolingHttpClientConnectionManager configure(
+      RestTemplate template, WebhookTarget target) {
 
     // Connect timeout
     ConnectionConfig connectionConfig =
@@ -107,6 +129,11 @@ public class WebhookHandler implements Handler {
     connectionManager.setDefaultSocketConfig(socketConfig);
     connectionManager.setDefaultConnectionConfig(connectionConfig);
 
+    // One connection for each request the target allows in flight
+    int connections = Math.max(target.getMaxConcurrency(), 1);
+    connectionManager.setMaxTotal(connections);
+    connectionManager.setDefaultMaxPerRoute(connections);
+
     HttpClient httpClient =
         HttpClientBuilder.create()
             .setConnectionManager(connectionManager)
@@ -114,5 +141,6 @@ public class WebhookHandler implements Handler {
             .build();
 
     template.setRequestFactory(new HttpComponentsClientHttpRequestFactory(httpClient));
+    return connectionManager;
   }
 }
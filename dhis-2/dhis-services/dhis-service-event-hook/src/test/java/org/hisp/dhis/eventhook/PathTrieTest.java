@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.eventhook;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PathTrieTest {
+
+  @Test
+  void testMatchReturnsAllPrefixes() {
+    PathTrie<String> trie = new PathTrie<>();
+    trie.put("metadata", "all");
+    trie.put("metadata.dataElement", "dataElements");
+    trie.put("metadata.dataElementGroup", "groups");
+    trie.put("tracker", "tracker");
+
+    assertEquals(List.of("all", "dataElements"), trie.match("metadata.dataElement.abc"));
+    assertEquals(
+        List.of("all", "dataElements", "groups"), trie.match("metadata.dataElementGroup.abc"));
+    assertEquals(List.of("all"), trie.match("metadata.user"));
+    assertEquals(List.of(), trie.match("scheduler"));
+  }
+
+  @Test
+  void testMatchKeepsStartsWithSemantics() {
+    PathTrie<String> trie = new PathTrie<>();
+    trie.put("", "everything");
+    trie.put("meta", "partial");
+    trie.put("metadata.dataElement.abc", "exact");
+
+    assertEquals(List.of("everything", "partial", "exact"), trie.match("metadata.dataElement.abc"));
+    assertEquals(List.of("everything", "partial"), trie.match("metadata.dataElement"));
+    assertEquals(List.of("everything"), trie.match("met"));
+  }
+
+  @Test
+  void testMatchReturnsAllValuesOfSamePath() {
+    PathTrie<String> trie = new PathTrie<>();
+    trie.put("metadata", "a");
+    trie.put("metadata", "b");
+
+    assertEquals(List.of("a", "b"), trie.match("metadata.user"));
+  }
+}
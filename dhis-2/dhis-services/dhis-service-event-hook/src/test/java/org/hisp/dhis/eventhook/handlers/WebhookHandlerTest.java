@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.eventhook.handlers;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hisp.dhis.eventhook.EventHook;
+import org.hisp.dhis.eventhook.EventHookException;
+import org.hisp.dhis.eventhook.targets.WebhookTarget;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests the {@link WebhookHandler} against a local HTTP stub. */
+class WebhookHandlerTest {
+
+  private HttpServer server;
+
+  private final List<String> received = new CopyOnWriteArrayList<>();
+
+  private final List<String> headers = new CopyOnWriteArrayList<>();
+
+  private volatile int status = 200;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/hook",
+        exchange -> {
+          try (InputStream body = exchange.getRequestBody()) {
+            received.add(new String(body.readAllBytes(), UTF_8));
+          }
+          headers.add(exchange.getRequestHeaders().getFirst("X-Test"));
+          exchange.sendResponseHeaders(status, -1);
+          exchange.close();
+        });
+    server.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  void testDeliverPostsPayload() {
+    try (WebhookHandler handler = new WebhookHandler(target())) {
+      assertDoesNotThrow(() -> handler.deliver(eventHook(), "[{\"a\":1},{\"a\":2}]"));
+    }
+
+    assertEquals(List.of("[{\"a\":1},{\"a\":2}]"), received);
+    assertEquals(List.of("yes"), headers);
+  }
+
+  @Test
+  void testDeliverThrowsOnErrorStatus() {
+    status = 503;
+
+    try (WebhookHandler handler = new WebhookHandler(target())) {
+      assertThrows(EventHookException.class, () -> handler.deliver(eventHook(), "{}"));
+    }
+
+    assertEquals(1, received.size());
+  }
+
+  @Test
+  void testDeliverThrowsWhenTargetIsUnreachable() {
+    WebhookTarget target = target();
+    server.stop(0);
+
+    try (WebhookHandler handler = new WebhookHandler(target)) {
+      assertThrows(EventHookException.class, () -> handler.deliver(eventHook(), "{}"));
+    }
+  }
+
+  @Test
+  void testRunSwallowsFailure() {
+    status = 500;
+
+    try (WebhookHandler handler = new WebhookHandler(target())) {
+      assertDoesNotThrow(() -> handler.run(eventHook(), null, "{}"));
+    }
+  }
+
+  private WebhookTarget target() {
+    return new WebhookTarget()
+        .setUrl("http://localhost:" + server.getAddress().getPort() + "/hook")
+        .setHeaders(Map.of("X-Test", "yes"));
+  }
+
+  private static EventHook eventHook() {
+    EventHook eventHook = new EventHook();
+    eventHook.setUid("eventHookA1");
+    return eventHook;
+  }
+}
@@ -30,6 +30,8 @@ package org.hisp.dhis.predictor;
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static java.lang.String.format;
 import static java.util.Collections.emptySet;
+import static java.util.function.UnaryOperator.identity;
+import static java.util.stream.Collectors.toMap;
 import static org.apache.commons.collections4.CollectionUtils.isEmpty;
 import static org.hisp.dhis.common.OrganisationUnitDescendants.DESCENDANTS;
 import static org.hisp.dhis.expression.MissingValueStrategy.NEVER_SKIP;
@@ -42,14 +44,19 @@ import static org.hisp.dhis.util.DateUtils.addDays;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
 import javax.annotation.CheckForNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -73,6 +80,8 @@ import org.hisp.dhis.expression.ExpressionInfo;
 import org.hisp.dhis.expression.ExpressionParams;
 import org.hisp.dhis.expression.ExpressionService;
 import org.hisp.dhis.expression.ExpressionValidationOutcome;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.organisationunit.OrganisationUnitLevel;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
@@ -85,6 +94,7 @@ import org.hisp.dhis.user.CurrentUserUtil;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.user.UserService;
 import org.hisp.quick.BatchHandlerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -98,6 +108,12 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 @RequiredArgsConstructor
 public class DefaultPredictionService implements PredictionService {
+  /**
+   * Number of data values that each partition query may fetch ahead of the partition being
+   * predicted.
+   */
+  private static final int PARTITION_PREFETCH_SIZE = 10_000;
+
   private final PredictorService predictorService;
 
   private final ExpressionService expressionService;
@@ -122,6 +138,11 @@ public class DefaultPredictionService implements PredictionService {
 
   private final UserService userService;
 
+  private final DhisConfigurationProvider config;
+
+  @Qualifier("predictionExecutor")
+  private final ExecutorService predictionExecutor;
+
   // -------------------------------------------------------------------------
   // Prediction business logic
   // -------------------------------------------------------------------------
@@ -275,12 +296,11 @@ public class DefaultPredictionService implements PredictionService {
     Set<OrganisationUnit> currentUserOrgUnits =
         (currentUser != null) ? currentUser.getOrganisationUnits() : emptySet();
 
-    PredictionDataConsolidator consolidator =
-        new PredictionDataConsolidator(
-            items,
-            predictor.getOrganisationUnitDescendants().equals(DESCENDANTS),
-            new PredictionDataValueFetcher(dataValueService, categoryService, currentUserOrgUnits),
-            new PredictionAnalyticsDataFetcher(analyticsService, categoryService));
+    boolean includeDescendants = predictor.getOrganisationUnitDescendants().equals(DESCENDANTS);
+    Map<Long, CategoryOptionCombo> cocLookup =
+        categoryService.getAllCategoryOptionCombos().stream()
+            .collect(toMap(CategoryOptionCombo::getId, identity()));
+    int threads = Math.max(1, config.getIntProperty(ConfigurationKey.PREDICTOR_THREADS));
 
     PredictionWriter predictionWriter = new PredictionWriter(dataValueService, batchHandlerFactory);
 
@@ -293,68 +313,117 @@ public class DefaultPredictionService implements PredictionService {
           organisationUnitService.getOrganisationUnitsAtOrgUnitLevels(
               Lists.newArrayList(orgUnitLevel), currentUserOrgUnits);
 
-      consolidator.init(
-          orgUnitLevel.getLevel(),
-          orgUnits,
-          dataValueQueryPeriods,
-          analyticsQueryPeriods,
-          existingOutputPeriods,
-          outputDataElementOperand);
+      List<PredictionPartition> partitions =
+          PredictionPartitioner.partition(
+              orgUnits, orgUnitLevel.getLevel(), currentUserOrgUnits, threads);
+
+      // Partitions are predicted and written in order on this thread, which owns the transaction
+      // (new output periods are only visible inside it). Data value queries for the partitions
+      // that follow run ahead on the shared executor, up to one query per thread.
+
+      Function<PredictionPartition, PredictionDataConsolidator> startPartition =
+          partition -> {
+            PredictionDataConsolidator partitionConsolidator =
+                new PredictionDataConsolidator(
+                    items,
+                    includeDescendants,
+                    new PredictionDataValueFetcher(
+                            dataValueService, cocLookup, partition.getRoots())
+                        .setExecutor(predictionExecutor, PARTITION_PREFETCH_SIZE),
+                    new PredictionAnalyticsDataFetcher(analyticsService, categoryService));
+
+            partitionConsolidator.init(
+                orgUnitLevel.getLevel(),
+                partition.getOrgUnits(),
+                dataValueQueryPeriods,
+                analyticsQueryPeriods,
+                existingOutputPeriods,
+                outputDataElementOperand);
+
+            return partitionConsolidator;
+          };
+
+      Iterator<PredictionPartition> unstarted = partitions.iterator();
+      Queue<PredictionDataConsolidator> started = new ArrayDeque<>();
+
+      try {
+        for (int i = 0; i < partitions.size(); i++) {
+          while (started.size() < threads && unstarted.hasNext()) {
+            started.add(startPartition.apply(unstarted.next()));
+          }
 
-      PredictionData data;
+          PredictionDataConsolidator consolidator = started.element();
 
-      while ((data = filter(consolidator.getData())) != null) {
-        List<DataValue> predictions = new ArrayList<>();
+          PredictionData data;
 
-        List<PredictionContext> contexts =
-            PredictionContextGenerator.getContexts(
-                outputPeriods, data.getValues(), defaultCategoryOptionCombo, preDis);
+          while ((data = filter(consolidator.getData())) != null) {
+            List<DataValue> predictions = new ArrayList<>();
 
-        for (PredictionContext c : contexts) {
-          Map<DimensionalItemObject, Object> valueMap =
-              firstNonNull(c.getPeriodValueMap().get(c.getOutputPeriod()), new HashMap<>());
+            List<PredictionContext> contexts =
+                PredictionContextGenerator.getContexts(
+                    outputPeriods, data.getValues(), defaultCategoryOptionCombo, preDis);
 
-          List<Period> samplePeriods = new ArrayList<>(samplePeriodsMap.get(c.getOutputPeriod()));
+            for (PredictionContext c : contexts) {
+              Map<DimensionalItemObject, Object> valueMap =
+                  firstNonNull(c.getPeriodValueMap().get(c.getOutputPeriod()), new HashMap<>());
 
-          samplePeriods.removeAll(
-              getSkippedPeriods(
-                  allSamplePeriods,
-                  baseExParams,
+              List<Period> samplePeriods =
+                  new ArrayList<>(samplePeriodsMap.get(c.getOutputPeriod()));
+
+              samplePeriods.removeAll(
+                  getSkippedPeriods(
+                      allSamplePeriods,
+                      baseExParams,
+                      c.getPeriodValueMap(),
+                      skipTest,
+                      data.getOrgUnit()));
+
+              if (!isEvaluationRequired(
+                  requireData,
+                  exInfo,
+                  samplePeriods,
+                  valueMap,
                   c.getPeriodValueMap(),
-                  skipTest,
-                  data.getOrgUnit()));
-
-          if (!isEvaluationRequired(
-              requireData,
-              exInfo,
-              samplePeriods,
-              valueMap,
-              c.getPeriodValueMap(),
-              baseExParams.getItemMap())) {
-            continue;
+                  baseExParams.getItemMap())) {
+                continue;
+              }
+
+              Object value =
+                  expressionService.getExpressionValue(
+                      baseExParams.toBuilder()
+                          .expression(predictor.getGenerator().getExpression())
+                          .parseType(PREDICTOR_EXPRESSION)
+                          .dataType(expressionDataType)
+                          .valueMap(valueMap)
+                          .days(c.getOutputPeriod().getDaysInPeriod())
+                          .missingValueStrategy(generator.getMissingValueStrategy())
+                          .orgUnit(data.getOrgUnit())
+                          .samplePeriods(samplePeriods)
+                          .periodValueMap(c.getPeriodValueMap())
+                          .build());
+
+              DataValue prediction =
+                  processPrediction(predictor, c, value, currentUser, data.getOrgUnit());
+
+              rememberPredictedValue(prediction, predictions, contexts, forwardReference);
+            }
+
+            predictionWriter.write(predictions, data.getOldPredictions());
           }
 
-          Object value =
-              expressionService.getExpressionValue(
-                  baseExParams.toBuilder()
-                      .expression(predictor.getGenerator().getExpression())
-                      .parseType(PREDICTOR_EXPRESSION)
-                      .dataType(expressionDataType)
-                      .valueMap(valueMap)
-                      .days(c.getOutputPeriod().getDaysInPeriod())
-                      .missingValueStrategy(generator.getMissingValueStrategy())
-                      .orgUnit(data.getOrgUnit())
-                      .samplePeriods(samplePeriods)
-                      .periodValueMap(c.getPeriodValueMap())
-                      .build());
-
-          DataValue prediction =
-              processPrediction(predictor, c, value, currentUser, data.getOrgUnit());
-
-          rememberPredictedValue(prediction, predictions, contexts, forwardReference);
-        }
+          started.remove();
 
-        predictionWriter.write(predictions, data.getOldPredictions());
+          log.debug(
+              format(
+                  "Predictor %s level %d: predicted partition %d of %d (%d organisation units)",
+                  predictor.getName(),
+                  orgUnitLevel.getLevel(),
+                  i + 1,
+                  partitions.size(),
+                  partitions.get(i).getOrgUnits().size()));
+        }
+      } finally {
+        started.forEach(PredictionDataConsolidator::cancel);
       }
     }
 
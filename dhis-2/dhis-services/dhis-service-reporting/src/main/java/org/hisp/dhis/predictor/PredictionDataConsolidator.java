@@ -139,6 +139,11 @@ public class PredictionDataConsolidator {
     return readyPredictionData.poll();
   }
 
+  /** Stops fetching data values, if the fetch is still running on a shared executor. */
+  public void cancel() {
+    dataValueFetcher.cancel();
+  }
+
   // -------------------------------------------------------------------------
   // Supportive Methods
   // -------------------------------------------------------------------------
@@ -49,6 +49,8 @@ import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.hisp.dhis.category.CategoryOptionCombo;
@@ -95,8 +97,11 @@ import org.hisp.dhis.period.Period;
 public class PredictionDataValueFetcher implements Runnable {
   private final DataValueService dataValueService;
 
-  /** Organisation units assigned to the current user. */
-  private final Set<OrganisationUnit> currentUserOrgUnits;
+  /**
+   * Organisation units whose subtrees are searched for data: those assigned to the current user, or
+   * the roots of one organisation unit partition.
+   */
+  private final Set<OrganisationUnit> rootOrgUnits;
 
   /*
    * Organisation unit level at which we are fetching data.
@@ -156,6 +161,9 @@ public class PredictionDataValueFetcher implements Runnable {
   /** Organisation unit for the next deflated data value. */
   private OrganisationUnit nextOrgUnit;
 
+  /** Whether the first deflated data value has been dequeued. */
+  private boolean primed;
+
   /** Exception (if any) on the producer side, waiting to be reported. */
   private RuntimeException producerException;
 
@@ -170,15 +178,37 @@ public class PredictionDataValueFetcher implements Runnable {
    */
   private static final int DDV_BLOCKING_QUEUE_SIZE = 1;
 
+  /** Size of the blocking queue, larger when data is prefetched ahead of its consumer. */
+  private int blockingQueueSize = DDV_BLOCKING_QUEUE_SIZE;
+
+  /** Shared executor for the data value query, or null to use a thread of our own. */
+  private ExecutorService executor;
+
+  /** The running data value query, when started on a shared executor. */
+  private Future<?> producer;
+
   public PredictionDataValueFetcher(
       DataValueService dataValueService,
       CategoryService categoryService,
-      Set<OrganisationUnit> currentUserOrgUnits) {
-    this.dataValueService = dataValueService;
-    this.currentUserOrgUnits = currentUserOrgUnits;
-    this.cocLookup =
+      Set<OrganisationUnit> rootOrgUnits) {
+    this(
+        dataValueService,
         categoryService.getAllCategoryOptionCombos().stream()
-            .collect(toMap(CategoryOptionCombo::getId, identity()));
+            .collect(toMap(CategoryOptionCombo::getId, identity())),
+        rootOrgUnits);
+  }
+
+  /**
+   * Constructs a fetcher with a category option combo lookup shared with other fetchers, so that
+   * the fetchers of several organisation unit partitions need to load them only once.
+   */
+  public PredictionDataValueFetcher(
+      DataValueService dataValueService,
+      Map<Long, CategoryOptionCombo> cocLookup,
+      Set<OrganisationUnit> rootOrgUnits) {
+    this.dataValueService = dataValueService;
+    this.cocLookup = cocLookup;
+    this.rootOrgUnits = rootOrgUnits;
   }
 
   /**
@@ -225,19 +255,34 @@ public class PredictionDataValueFetcher implements Runnable {
 
     producerException = null;
 
-    blockingQueue = new ArrayBlockingQueue<>(DDV_BLOCKING_QUEUE_SIZE);
+    blockingQueue =
+        (executor != null)
+            ? new PrefetchQueue(blockingQueueSize)
+            : new ArrayBlockingQueue<>(blockingQueueSize);
 
     if (isEmpty(dataElements) && isEmpty(dataElementOperands)) {
       nextOrgUnit = null; // There will be no data
+      primed = true;
 
       return;
     }
 
-    ExecutorService executor = Executors.newSingleThreadExecutor();
-    executor.execute(this); // Invoke run() on another thread
-    executor.shutdown();
+    if (executor != null) {
+      producer = executor.submit(this); // Invoke run() on a shared thread
+
+      // Don't wait here for the query to return its first value, so that the caller can start
+      // the queries of other fetchers while this one runs. Prime on the first request for data.
+      primed = false;
+
+      return;
+    }
+
+    ExecutorService singleExecutor = Executors.newSingleThreadExecutor();
+    singleExecutor.execute(this); // Invoke run() on another thread
+    singleExecutor.shutdown();
 
     getNextDeflatedDataValue(); // Prime the algorithm with the first value.
+    primed = true;
   }
 
   /** In a separate thread, fetches all the requested data values. */
@@ -247,7 +292,7 @@ public class PredictionDataValueFetcher implements Runnable {
     params.setDataElements(dataElements);
     params.setDataElementOperands(dataElementOperands);
     params.setPeriods(queryPeriods);
-    params.setOrganisationUnits(currentUserOrgUnits);
+    params.setOrganisationUnits(rootOrgUnits);
     params.setOuMode(DESCENDANTS);
     params.setOrgUnitLevel(orgUnitLevel);
     params.setBlockingQueue(blockingQueue);
@@ -275,6 +320,12 @@ public class PredictionDataValueFetcher implements Runnable {
    * @return the prediction data
    */
   public PredictionData getData() {
+    if (!primed) {
+      getNextDeflatedDataValue();
+
+      primed = true;
+    }
+
     if (nextOrgUnit == null) {
       return null;
     }
@@ -307,6 +358,30 @@ public class PredictionDataValueFetcher implements Runnable {
     return this;
   }
 
+  /**
+   * Sets a shared executor on which to run the data value query, and the number of data values it
+   * may fetch ahead of the caller. This lets the queries of several fetchers run concurrently.
+   *
+   * @param executor the shared executor.
+   * @param prefetchSize the number of data values that may be fetched ahead.
+   * @return this object (for method chaining).
+   */
+  public PredictionDataValueFetcher setExecutor(ExecutorService executor, int prefetchSize) {
+    this.executor = executor;
+    this.blockingQueueSize = Math.max(DDV_BLOCKING_QUEUE_SIZE, prefetchSize);
+    return this;
+  }
+
+  /**
+   * Stops a data value query started on a shared executor, if it is still running, so that it does
+   * not hold a thread and a database connection after the caller has stopped requesting data.
+   */
+  public void cancel() {
+    if (producer != null) {
+      producer.cancel(true);
+    }
+  }
+
   // -------------------------------------------------------------------------
   // Supportive Methods
   // -------------------------------------------------------------------------
@@ -527,4 +602,23 @@ public class PredictionDataValueFetcher implements Runnable {
       throw new IllegalStateException("could not add end of deflated data values marker");
     }
   }
+
+  /**
+   * Blocking queue for a query on a shared executor. Its producer may have to wait longer than the
+   * queue timeout while the caller is still predicting from other organisation units, so it waits
+   * until there is room in the queue, or until the query is cancelled.
+   */
+  private static class PrefetchQueue extends ArrayBlockingQueue<DeflatedDataValue> {
+    PrefetchQueue(int capacity) {
+      super(capacity);
+    }
+
+    @Override
+    public boolean offer(DeflatedDataValue ddv, long timeout, TimeUnit unit)
+        throws InterruptedException {
+      put(ddv);
+
+      return true;
+    }
+  }
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.predictor;
+
+import static java.util.Comparator.comparing;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+
+/**
+ * Splits the organisation units of a predictor level into partitions of whole subtrees, so that
+ * the data values of each partition can be fetched by a separate query.
+ *
+ * <p>Partitions are returned in organisation unit path order, and the same organisation units
+ * always give the same partitions, so predictions made partition by partition are deterministic.
+ */
+public class PredictionPartitioner {
+  /**
+   * Partitions to make for each thread, so that subtrees of uneven size can balance out among the
+   * threads.
+   */
+  private static final int PARTITIONS_PER_THREAD = 4;
+
+  /** Length of each organisation unit uid in a path, including its leading slash. */
+  private static final int PATH_SEGMENT_LENGTH = 12;
+
+  private PredictionPartitioner() {
+    throw new UnsupportedOperationException("util");
+  }
+
+  /**
+   * Partitions organisation units into subtrees under ancestors at the highest level that gives at
+   * least one subtree per thread. Ancestors are never above the current user's organisation units,
+   * so data is fetched only from the user's hierarchy. If there are not enough subtrees, or only
+   * one thread, returns a single partition under the current user's organisation units.
+   *
+   * @param orgUnits organisation units to partition, all at the given level
+   * @param level level of the organisation units
+   * @param currentUserOrgUnits organisation units assigned to the current user
+   * @param threads number of threads fetching partition data
+   * @return the partitions, in path order
+   */
+  public static List<PredictionPartition> partition(
+      List<OrganisationUnit> orgUnits,
+      int level,
+      Set<OrganisationUnit> currentUserOrgUnits,
+      int threads) {
+    if (threads > 1) {
+      int minRootLevel =
+          currentUserOrgUnits.stream().mapToInt(OrganisationUnit::getLevel).max().orElse(1);
+
+      for (int rootLevel = minRootLevel; rootLevel < level; rootLevel++) {
+        SortedMap<String, List<OrganisationUnit>> subtrees = getSubtrees(orgUnits, rootLevel);
+
+        if (subtrees.size() >= threads) {
+          return combineSubtrees(subtrees, level - rootLevel, orgUnits.size(), threads);
+        }
+      }
+    }
+
+    return List.of(new PredictionPartition(currentUserOrgUnits, orgUnits));
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive Methods
+  // -------------------------------------------------------------------------
+
+  /** Groups organisation units by the path of their ancestor at the root level. */
+  private static SortedMap<String, List<OrganisationUnit>> getSubtrees(
+      List<OrganisationUnit> orgUnits, int rootLevel) {
+    SortedMap<String, List<OrganisationUnit>> subtrees = new TreeMap<>();
+
+    for (OrganisationUnit orgUnit : orgUnits) {
+      subtrees
+          .computeIfAbsent(
+              orgUnit.getPath().substring(0, rootLevel * PATH_SEGMENT_LENGTH),
+              k -> new ArrayList<>())
+          .add(orgUnit);
+    }
+
+    return subtrees;
+  }
+
+  /**
+   * Combines neighbouring subtrees into partitions of about the same number of organisation units.
+   */
+  private static List<PredictionPartition> combineSubtrees(
+      SortedMap<String, List<OrganisationUnit>> subtrees,
+      int levelsBelowRoot,
+      int orgUnitCount,
+      int threads) {
+    int partitionCount = threads * PARTITIONS_PER_THREAD;
+    int targetSize = (orgUnitCount + partitionCount - 1) / partitionCount;
+
+    List<PredictionPartition> partitions = new ArrayList<>();
+    Set<OrganisationUnit> roots = new LinkedHashSet<>();
+    List<OrganisationUnit> partitionOrgUnits = new ArrayList<>();
+
+    for (List<OrganisationUnit> subtree : subtrees.values()) {
+      subtree.sort(comparing(OrganisationUnit::getPath));
+
+      roots.add(getAncestor(subtree.get(0), levelsBelowRoot));
+      partitionOrgUnits.addAll(subtree);
+
+      if (partitionOrgUnits.size() >= targetSize) {
+        partitions.add(new PredictionPartition(roots, partitionOrgUnits));
+
+        roots = new LinkedHashSet<>();
+        partitionOrgUnits = new ArrayList<>();
+      }
+    }
+
+    if (!partitionOrgUnits.isEmpty()) {
+      partitions.add(new PredictionPartition(roots, partitionOrgUnits));
+    }
+
+    return partitions;
+  }
+
+  /** Gets the ancestor of an organisation unit a given number of levels above it. */
+  private static OrganisationUnit getAncestor(OrganisationUnit orgUnit, int levelsAbove) {
+    OrganisationUnit ancestor = orgUnit;
+
+    for (int i = 0; i < levelsAbove; i++) {
+      ancestor = ancestor.getParent();
+    }
+
+    return ancestor;
+  }
+}
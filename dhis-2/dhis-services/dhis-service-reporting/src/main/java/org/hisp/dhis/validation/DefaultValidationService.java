@@ -34,6 +34,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
@@ -112,6 +113,32 @@ public class DefaultValidationService implements ValidationService {
   @Override
   public List<ValidationResult> validationAnalysis(
       ValidationAnalysisParams parameters, JobProgress progress) {
+    if (parameters.getChangedSince() != null) {
+      List<ValidationRule> editedRules =
+          parameters.getValidationRules().stream()
+              .filter(rule -> isEditedSince(rule, parameters.getChangedSince()))
+              .toList();
+
+      if (!editedRules.isEmpty() && editedRules.size() < parameters.getValidationRules().size()) {
+        // Rules edited since the previous run are validated for all
+        // organisation units, the others only for changed ones
+        List<ValidationRule> otherRules =
+            parameters.getValidationRules().stream()
+                .filter(rule -> !editedRules.contains(rule))
+                .toList();
+
+        List<ValidationResult> results =
+            new ArrayList<>(
+                validationAnalysis(
+                    new ValidationAnalysisParams.Builder(parameters, otherRules).build(),
+                    progress));
+        results.addAll(
+            validationAnalysis(
+                new ValidationAnalysisParams.Builder(parameters, editedRules).build(), progress));
+        return results;
+      }
+    }
+
     Clock clock =
         new Clock(log)
             .startClock()
@@ -138,6 +165,10 @@ public class DefaultValidationService implements ValidationService {
 
     List<ValidationResult> results = Validator.validate(context, runner, progress);
 
+    if (parameters.getChangedSince() != null) {
+      results = mergeWithPersistedResults(parameters, context);
+    }
+
     if (context.isPersistResults()) {
       progress.startingStage("Persisting Results", SKIP_STAGE);
       progress.runStage(
@@ -150,7 +181,11 @@ public class DefaultValidationService implements ValidationService {
         .stop();
 
     if (context.isSendNotifications()) {
-      notificationService.sendNotifications(results, progress);
+      // In incremental mode the context only holds the results found for
+      // the first time, the persisted ones were notified by an earlier run
+      notificationService.sendNotifications(
+          parameters.getChangedSince() != null ? context.getValidationResults() : results,
+          progress);
     }
 
     return results;
@@ -254,9 +289,15 @@ public class DefaultValidationService implements ValidationService {
     ExpressionParams baseExParams =
         getExpressionInfo(periodTypeXMap, parameters.getValidationRules());
 
+    List<OrganisationUnit> orgUnits = getOrganisationUnits(parameters);
+
+    if (parameters.getChangedSince() != null) {
+      orgUnits = getChangedOrganisationUnits(parameters, orgUnits);
+    }
+
     ValidationRunContext.Builder builder =
         ValidationRunContext.newBuilder()
-            .withOrgUnits(getOrganisationUnits(parameters))
+            .withOrgUnits(orgUnits)
             .withPeriodTypeXs(new ArrayList<>(periodTypeXMap.values()))
             .withSendNotifications(parameters.isSendNotifications())
             .withPersistResults(parameters.isPersistResults())
@@ -272,6 +313,12 @@ public class DefaultValidationService implements ValidationService {
           .withCogDimensionConstraints(categoryService.getCogDimensionConstraints(currentUser));
     }
 
+    if (parameters.getChangedSince() != null) {
+      // Persisted results are merged after the analysis, so that every
+      // tuple is re-evaluated and stale results can be detected
+      return builder.build();
+    }
+
     List<ValidationResult> initialResults =
         validationResultService.getValidationResults(
             parameters.getOrgUnit(),
@@ -304,6 +351,125 @@ public class DefaultValidationService implements ValidationService {
     return Lists.newArrayList(ou);
   }
 
+  /**
+   * Returns the organisation units which need to be validated again because data for the data
+   * elements of the rules changed since the date given by the parameters. The ancestors of each
+   * such organisation unit are included, as their aggregated data changed as well. All the given
+   * organisation units are returned if any rule refers to items other than data elements, since
+   * changes to those cannot be detected from data values, or if any rule was edited since the
+   * date, as its results for unchanged data may differ as well.
+   *
+   * @param parameters the {@link ValidationAnalysisParams}.
+   * @param orgUnits the organisation units in scope for the analysis.
+   * @return the organisation units to validate.
+   */
+  private List<OrganisationUnit> getChangedOrganisationUnits(
+      ValidationAnalysisParams parameters, List<OrganisationUnit> orgUnits) {
+    Set<String> dataElementUids = new HashSet<>();
+
+    for (ValidationRule rule : parameters.getValidationRules()) {
+      if (isEditedSince(rule, parameters.getChangedSince())) {
+        return orgUnits;
+      }
+
+      for (Expression expression : List.of(rule.getLeftSide(), rule.getRightSide())) {
+        for (DimensionalItemId itemId :
+            expressionService.getExpressionDimensionalItemIds(
+                expression.getExpression(), VALIDATION_RULE_EXPRESSION)) {
+          if (!itemId.isDataElementOrOperand()) {
+            return orgUnits;
+          }
+
+          dataElementUids.add(itemId.getId0());
+        }
+      }
+    }
+
+    Set<String> changedUids = new HashSet<>();
+
+    for (String path :
+        dataValueService.getOrganisationUnitPathsWithDataChangedSince(
+            parameters.getChangedSince(), dataElementUids)) {
+      changedUids.addAll(Arrays.asList(StringUtils.split(path, '/')));
+    }
+
+    return orgUnits.stream().filter(ou -> changedUids.contains(ou.getUid())).toList();
+  }
+
+  /**
+   * Indicates whether the given rule, including its expressions, was edited at or after the given
+   * date. A rule without a last updated date is considered edited.
+   */
+  private boolean isEditedSince(ValidationRule rule, Date changedSince) {
+    return rule.getLastUpdated() == null || !rule.getLastUpdated().before(changedSince);
+  }
+
+  /**
+   * Merges the results of an incremental analysis with the results persisted for the validated
+   * organisation units. A new result which was already persisted is replaced by the persisted one.
+   * Afterwards the context only holds the results which were not persisted before, so that only
+   * those are saved and notified. A persisted result which was not found again no longer holds and
+   * is deleted, unless the analysis stopped early at the maximum number of results.
+   *
+   * @param parameters the {@link ValidationAnalysisParams}.
+   * @param context the {@link ValidationRunContext}.
+   * @return the merged results, including the persisted ones which still hold.
+   */
+  private List<ValidationResult> mergeWithPersistedResults(
+      ValidationAnalysisParams parameters, ValidationRunContext context) {
+    Set<OrganisationUnit> orgUnits = new HashSet<>(context.getOrgUnits());
+
+    Map<List<Object>, ValidationResult> persisted = new HashMap<>();
+
+    for (ValidationResult result :
+        validationResultService.getValidationResults(
+            parameters.getOrgUnit(),
+            parameters.isIncludeOrgUnitDescendants(),
+            parameters.getValidationRules(),
+            parameters.getPeriods())) {
+      if (orgUnits.contains(result.getOrganisationUnit())) {
+        persisted.put(getResultKey(result), result);
+      }
+    }
+
+    boolean truncated = context.isAnalysisComplete();
+
+    List<ValidationResult> merged = new ArrayList<>();
+    List<ValidationResult> newResults = new ArrayList<>();
+
+    for (ValidationResult result : context.getValidationResults()) {
+      ValidationResult existing = persisted.remove(getResultKey(result));
+
+      if (existing != null) {
+        merged.add(existing);
+      } else {
+        merged.add(result);
+        newResults.add(result);
+      }
+    }
+
+    if (!truncated && context.isPersistResults()) {
+      persisted.values().forEach(validationResultService::deleteValidationResult);
+
+      log.info("Removed {} validation results which no longer hold", persisted.size());
+    }
+
+    context.getValidationResults().clear();
+    context.getValidationResults().addAll(newResults);
+
+    return merged;
+  }
+
+  /** Returns a key which identifies the tuple a validation result was found for. */
+  private List<Object> getResultKey(ValidationResult result) {
+    return List.of(
+        result.getOrganisationUnit().getId(),
+        result.getValidationRule().getId(),
+        result.getPeriod().getId(),
+        result.getAttributeOptionCombo().getId(),
+        result.getDayInPeriod());
+  }
+
   /**
    * Adds Periods to the context, grouped by period type.
    *
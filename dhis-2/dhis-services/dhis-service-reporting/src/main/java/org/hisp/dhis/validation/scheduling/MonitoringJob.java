@@ -47,6 +47,7 @@ import org.hisp.dhis.period.PeriodService;
 import org.hisp.dhis.scheduling.Job;
 import org.hisp.dhis.scheduling.JobConfiguration;
 import org.hisp.dhis.scheduling.JobProgress;
+import org.hisp.dhis.scheduling.JobStatus;
 import org.hisp.dhis.scheduling.JobType;
 import org.hisp.dhis.scheduling.parameters.MonitoringJobParameters;
 import org.hisp.dhis.validation.ValidationAnalysisParams;
@@ -99,6 +100,7 @@ public class MonitoringJob implements Job {
               .withMaxResults(ValidationService.MAX_SCHEDULED_ALERTS)
               .withSendNotifications(params.isSendNotifications())
               .withPersistResults(params.isPersistResults())
+              .withChangedSince(getChangedSince(config, params))
               .build();
 
       validationService.validationAnalysis(parameters, progress);
@@ -111,6 +113,21 @@ public class MonitoringJob implements Job {
     }
   }
 
+  /**
+   * Returns the time the previous run of the job started, if the job is incremental and the
+   * previous run completed successfully, otherwise null to validate all organisation units. The
+   * configuration is the one loaded before this run was started, so its last executed time still
+   * refers to the previous run. Data stored while the previous run was in progress is picked up
+   * again by this run.
+   */
+  private Date getChangedSince(JobConfiguration config, MonitoringJobParameters params) {
+    if (!params.isIncremental() || config.getLastExecutedStatus() != JobStatus.COMPLETED) {
+      return null;
+    }
+
+    return config.getLastExecuted();
+  }
+
   private Collection<ValidationRule> getValidationRules(List<String> groupUIDs) {
     if (groupUIDs.isEmpty()) {
       return validationRuleService.getValidationRulesWithNotificationTemplates();
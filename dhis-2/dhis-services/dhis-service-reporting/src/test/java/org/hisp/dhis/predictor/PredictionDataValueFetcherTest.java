@@ -43,6 +43,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.common.FoundDimensionItemValue;
@@ -435,6 +437,46 @@ class PredictionDataValueFetcherTest extends TestBase {
     assertNull(data3);
   }
 
+  @Test
+  void testGetDataValuesOnSharedExecutor() {
+    when(dataValueService.getDeflatedDataValues(any(DataExportParams.class)))
+        .thenAnswer(
+            p -> {
+              BlockingQueue<DeflatedDataValue> blockingQueue =
+                  ((DataExportParams) p.getArgument(0)).getBlockingQueue();
+              blockingQueue.put(deflatedDataValueA);
+              blockingQueue.put(deflatedDataValueC);
+              blockingQueue.put(END_OF_DDV_DATA);
+              return new ArrayList<>();
+            });
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    try {
+      fetcher.setExecutor(executor, 10);
+      fetcher.init(
+          ORG_UNIT_LEVEl,
+          levelOneOrgUnits,
+          queryPeriods,
+          outputPeriods,
+          dataElements,
+          dataElementOperands,
+          dataElementOperandX);
+
+      PredictionData data1 = fetcher.getData();
+      assertNotNull(data1);
+      assertEquals(orgUnitB, data1.getOrgUnit());
+
+      PredictionData data2 = fetcher.getData();
+      assertNotNull(data2);
+      assertEquals(orgUnitC, data2.getOrgUnit());
+
+      assertNull(fetcher.getData());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Test
   void testNoDataValues() {
     when(dataValueService.getDeflatedDataValues(any(DataExportParams.class)))
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.predictor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.test.TestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests {@link PredictionPartitioner}. */
+class PredictionPartitionerTest extends TestBase {
+  private OrganisationUnit orgUnitR;
+
+  private OrganisationUnit orgUnitA;
+
+  private OrganisationUnit orgUnitB;
+
+  private OrganisationUnit orgUnitC;
+
+  private OrganisationUnit orgUnitD;
+
+  private OrganisationUnit orgUnitE;
+
+  private OrganisationUnit orgUnitF;
+
+  private List<OrganisationUnit> levelFourOrgUnits;
+
+  @BeforeEach
+  void setUp() {
+    // Level 1: R. Level 2: A, B. Level 3: C, D under A and E, F under B.
+    // Level 4: two organisation units under each of C, D, E and F.
+
+    orgUnitR = createOrgUnit('R', null);
+    orgUnitA = createOrgUnit('A', orgUnitR);
+    orgUnitB = createOrgUnit('B', orgUnitR);
+    orgUnitC = createOrgUnit('C', orgUnitA);
+    orgUnitD = createOrgUnit('D', orgUnitA);
+    orgUnitE = createOrgUnit('E', orgUnitB);
+    orgUnitF = createOrgUnit('F', orgUnitB);
+
+    // Not in path order, to check that partitions come out in path order
+    levelFourOrgUnits =
+        List.of(
+            createOrgUnit('n', orgUnitF),
+            createOrgUnit('g', orgUnitC),
+            createOrgUnit('k', orgUnitE),
+            createOrgUnit('h', orgUnitC),
+            createOrgUnit('j', orgUnitD),
+            createOrgUnit('i', orgUnitD),
+            createOrgUnit('m', orgUnitF),
+            createOrgUnit('l', orgUnitE));
+  }
+
+  // -------------------------------------------------------------------------
+  // Tests
+  // -------------------------------------------------------------------------
+
+  @Test
+  void testSingleThread() {
+    List<PredictionPartition> partitions =
+        PredictionPartitioner.partition(levelFourOrgUnits, 4, Set.of(orgUnitR), 1);
+
+    assertEquals(1, partitions.size());
+    assertEquals(Set.of(orgUnitR), partitions.get(0).getRoots());
+    assertEquals(levelFourOrgUnits, partitions.get(0).getOrgUnits());
+  }
+
+  @Test
+  void testPartitionAtHighestLevelWithEnoughSubtrees() {
+    List<PredictionPartition> partitions =
+        PredictionPartitioner.partition(levelFourOrgUnits, 4, Set.of(orgUnitR), 2);
+
+    assertEquals(2, partitions.size());
+    assertEquals(Set.of(orgUnitA), partitions.get(0).getRoots());
+    assertEquals("ghij", getCharacters(partitions.get(0)));
+    assertEquals(Set.of(orgUnitB), partitions.get(1).getRoots());
+    assertEquals("klmn", getCharacters(partitions.get(1)));
+  }
+
+  @Test
+  void testPartitionAtLowerLevel() {
+    List<PredictionPartition> partitions =
+        PredictionPartitioner.partition(levelFourOrgUnits, 4, Set.of(orgUnitR), 4);
+
+    assertEquals(4, partitions.size());
+    assertEquals(Set.of(orgUnitC), partitions.get(0).getRoots());
+    assertEquals("gh", getCharacters(partitions.get(0)));
+    assertEquals(Set.of(orgUnitD), partitions.get(1).getRoots());
+    assertEquals("ij", getCharacters(partitions.get(1)));
+    assertEquals(Set.of(orgUnitE), partitions.get(2).getRoots());
+    assertEquals("kl", getCharacters(partitions.get(2)));
+    assertEquals(Set.of(orgUnitF), partitions.get(3).getRoots());
+    assertEquals("mn", getCharacters(partitions.get(3)));
+  }
+
+  @Test
+  void testRootsAreNotAboveCurrentUserOrgUnits() {
+    List<OrganisationUnit> orgUnits =
+        levelFourOrgUnits.stream()
+            .filter(ou -> ou.getParent().getParent() == orgUnitB || ou.getParent() == orgUnitC)
+            .toList();
+
+    List<PredictionPartition> partitions =
+        PredictionPartitioner.partition(orgUnits, 4, Set.of(orgUnitC, orgUnitB), 2);
+
+    assertEquals(3, partitions.size());
+    assertEquals(Set.of(orgUnitC), partitions.get(0).getRoots());
+    assertEquals(Set.of(orgUnitE), partitions.get(1).getRoots());
+    assertEquals(Set.of(orgUnitF), partitions.get(2).getRoots());
+  }
+
+  @Test
+  void testNotEnoughSubtrees() {
+    List<PredictionPartition> partitions =
+        PredictionPartitioner.partition(levelFourOrgUnits, 4, Set.of(orgUnitR), 8);
+
+    assertEquals(1, partitions.size());
+    assertEquals(Set.of(orgUnitR), partitions.get(0).getRoots());
+  }
+
+  @Test
+  void testSubtreesCombinedIntoPartitions() {
+    List<OrganisationUnit> orgUnits = new ArrayList<>();
+
+    for (char c : "opqrstuvwxyz01234".toCharArray()) {
+      orgUnits.add(createOrgUnit(c, orgUnitC));
+    }
+
+    orgUnits.add(createOrgUnit('P', orgUnitD));
+    orgUnits.add(createOrgUnit('Q', orgUnitE));
+    orgUnits.add(createOrgUnit('S', orgUnitF));
+
+    // 20 organisation units and 4 threads: a target of 2 organisation units per partition
+
+    List<PredictionPartition> partitions =
+        PredictionPartitioner.partition(orgUnits, 4, Set.of(orgUnitR), 4);
+
+    assertEquals(3, partitions.size());
+    assertEquals(Set.of(orgUnitC), partitions.get(0).getRoots());
+    assertEquals(17, partitions.get(0).getOrgUnits().size());
+    assertEquals(Set.of(orgUnitD, orgUnitE), partitions.get(1).getRoots());
+    assertEquals("PQ", getCharacters(partitions.get(1)));
+    assertEquals(Set.of(orgUnitF), partitions.get(2).getRoots());
+    assertEquals("S", getCharacters(partitions.get(2)));
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  private OrganisationUnit createOrgUnit(char uniqueCharacter, OrganisationUnit parent) {
+    OrganisationUnit orgUnit =
+        (parent == null)
+            ? createOrganisationUnit(uniqueCharacter)
+            : createOrganisationUnit(uniqueCharacter, parent);
+
+    orgUnit.setPath((parent == null ? "" : parent.getPath()) + "/" + orgUnit.getUid());
+
+    return orgUnit;
+  }
+
+  private String getCharacters(PredictionPartition partition) {
+    StringBuilder characters = new StringBuilder();
+
+    for (OrganisationUnit orgUnit : partition.getOrgUnits()) {
+      characters.append(orgUnit.getUid().charAt(orgUnit.getUid().length() - 1));
+    }
+
+    return characters.toString();
+  }
+}
@@ -70,10 +70,8 @@ public class DefaultMetadataMergeService implements MetadataMergeService {
       }
 
       if (property.isCollection()) {
-        Collection<T> sourceObject =
-            ReflectionUtils.invokeMethod(source, property.getGetterMethod());
-        Collection<T> targetObject =
-            ReflectionUtils.invokeMethod(target, property.getGetterMethod());
+        Collection<T> sourceObject = property.getValue(source);
+        Collection<T> targetObject = property.getValue(target);
 
         if (sourceObject == null) {
           continue;
@@ -86,11 +84,11 @@ public class DefaultMetadataMergeService implements MetadataMergeService {
         targetObject.clear();
         targetObject.addAll(sourceObject);
 
-        ReflectionUtils.invokeMethod(target, property.getSetterMethod(), targetObject);
+        property.setValue(target, targetObject);
       } else {
-        Object sourceObject = ReflectionUtils.invokeMethod(source, property.getGetterMethod());
+        Object sourceObject = property.getValue(source);
 
-        ReflectionUtils.invokeMethod(target, property.getSetterMethod(), sourceObject);
+        property.setValue(target, sourceObject);
       }
     }
 
@@ -72,6 +72,17 @@ public class DefaultPropertyIntrospectorService implements PropertyIntrospectorS
     return classMapCache.computeIfAbsent(klass, this::scanClass);
   }
 
+  @Override
+  public Map<Class<?>, Map<String, Property>> getIntrospectedProperties() {
+    return Map.copyOf(classMapCache);
+  }
+
+  @Override
+  public void preload(Map<Class<?>, Map<String, Property>> properties) {
+    properties.forEach(
+        (klass, map) -> classMapCache.putIfAbsent(klass, unmodifiableMap(new HashMap<>(map))));
+  }
+
   /**
    * Introspect a class and return a map with key=property-name, and value=Property class.
    *
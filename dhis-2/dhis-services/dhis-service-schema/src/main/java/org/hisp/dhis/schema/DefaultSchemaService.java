@@ -35,12 +35,21 @@ import com.google.common.base.CaseFormat;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import jakarta.persistence.EntityManagerFactory;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.CheckForNull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.MappingException;
@@ -58,6 +67,8 @@ import org.hisp.dhis.common.DimensionalObject;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.NameableObject;
 import org.hisp.dhis.commons.util.TextUtils;
+import org.hisp.dhis.external.location.LocationManager;
+import org.hisp.dhis.external.location.LocationManagerException;
 import org.hisp.dhis.schema.descriptors.AccessSchemaDescriptor;
 import org.hisp.dhis.schema.descriptors.AggregateDataExchangeSchemaDescriptor;
 import org.hisp.dhis.schema.descriptors.AnalyticsPeriodBoundarySchemaDescriptor;
@@ -176,10 +187,12 @@ import org.hisp.dhis.schema.descriptors.ValidationRuleSchemaDescriptor;
 import org.hisp.dhis.schema.descriptors.VisualizationSchemaDescriptor;
 import org.hisp.dhis.security.Authority;
 import org.hisp.dhis.system.util.AnnotationUtils;
+import org.hisp.dhis.system.util.Clock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.OrderComparator;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
 /**
@@ -197,6 +210,10 @@ public class DefaultSchemaService implements SchemaService {
           DimensionalItemObject.class, BaseDimensionalItemObject.class,
           AnalyticalObject.class, BaseAnalyticalObject.class);
 
+  private static final String SNAPSHOT_FILE = "schema.snapshot";
+
+  private static final String SNAPSHOT_DIRECTORY = "cache";
+
   private final Map<Class<?>, SchemaDescriptor> descriptors = new ConcurrentHashMap<>();
 
   private void init() {
@@ -330,15 +347,26 @@ public class DefaultSchemaService implements SchemaService {
 
   private final EntityManagerFactory entityManagerFactory;
 
-  @Autowired
+  /** Location of the {@link SchemaSnapshot}, null when snapshots are not used. */
+  private final LocationManager locationManager;
+
   public DefaultSchemaService(
       PropertyIntrospectorService propertyIntrospectorService,
       EntityManagerFactory entityManagerFactory) {
+    this(propertyIntrospectorService, entityManagerFactory, null);
+  }
+
+  @Autowired
+  public DefaultSchemaService(
+      PropertyIntrospectorService propertyIntrospectorService,
+      EntityManagerFactory entityManagerFactory,
+      LocationManager locationManager) {
     checkNotNull(propertyIntrospectorService);
     checkNotNull(entityManagerFactory);
 
     this.propertyIntrospectorService = propertyIntrospectorService;
     this.entityManagerFactory = entityManagerFactory;
+    this.locationManager = locationManager;
     init();
   }
 
@@ -358,6 +386,14 @@ public class DefaultSchemaService implements SchemaService {
 
   @EventListener
   public void handleContextRefresh(ContextRefreshedEvent contextRefreshedEvent) {
+    Clock clock = new Clock(log).startClock();
+    String fingerprint = getSnapshotFingerprint();
+    boolean snapshotLoaded = fingerprint != null && loadSnapshot(fingerprint);
+
+    if (snapshotLoaded) {
+      clock.logTime("Loaded schema snapshot");
+    }
+
     for (SchemaDescriptor descriptor : descriptors.values()) {
       Schema schema = descriptor.getSchema();
 
@@ -394,6 +430,113 @@ public class DefaultSchemaService implements SchemaService {
       schema.getNonPersistedProperties();
       schema.getReadableProperties();
       schema.getEmbeddedObjectProperties();
+      schema.getProperties().forEach(Property::initAccessors);
+    }
+
+    clock.logTime("Initialised {} schemas", classSchemaMap.size());
+
+    if (fingerprint != null && !snapshotLoaded) {
+      writeSnapshot(fingerprint);
+      clock.logTime("Wrote schema snapshot");
+    }
+  }
+
+  /**
+   * @return the fingerprint of the current build and Hibernate mappings, or null when schema
+   *     snapshots are not used because there is no location to store them, the build is unknown
+   *     or classes were introspected already
+   */
+  @CheckForNull
+  private String getSnapshotFingerprint() {
+    if (locationManager == null
+        || !propertyIntrospectorService.getIntrospectedProperties().isEmpty()) {
+      return null;
+    }
+
+    ClassPathResource resource = new ClassPathResource("build.properties");
+
+    if (!resource.isReadable()) {
+      return null;
+    }
+
+    try (InputStream in = resource.getInputStream()) {
+      Properties properties = new Properties();
+      properties.load(in);
+      String revision = properties.getProperty("build.revision");
+
+      if (revision == null) {
+        return null;
+      }
+
+      String build =
+          String.join(
+              "/",
+              properties.getProperty("build.version"),
+              revision,
+              properties.getProperty("build.time"));
+      return SchemaSnapshot.fingerprint(build, entityManagerFactory);
+    } catch (IOException | RuntimeException ex) {
+      log.warn("Schema snapshot cannot be used: " + ex.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Preloads the properties of all classes from the {@link SchemaSnapshot} if it was taken from
+   * the current build and Hibernate mappings.
+   *
+   * @return true, if the snapshot was loaded, false if classes must be introspected
+   */
+  private boolean loadSnapshot(String fingerprint) {
+    try (InputStream in = locationManager.getInputStream(SNAPSHOT_FILE, SNAPSHOT_DIRECTORY)) {
+      SchemaSnapshot snapshot = SchemaSnapshot.readFrom(in);
+
+      if (!fingerprint.equals(snapshot.getFingerprint())) {
+        log.info("Schema snapshot is outdated, classes are introspected");
+        return false;
+      }
+
+      propertyIntrospectorService.preload(snapshot.restore());
+      return true;
+    } catch (LocationManagerException ex) {
+      log.info("No schema snapshot found, classes are introspected");
+      return false;
+    } catch (IOException | ReflectiveOperationException | RuntimeException ex) {
+      log.warn("Schema snapshot cannot be loaded, classes are introspected: " + ex.getMessage());
+      return false;
+    }
+  }
+
+  private void writeSnapshot(String fingerprint) {
+    Path tmp = null;
+
+    try {
+      SchemaSnapshot snapshot =
+          SchemaSnapshot.of(fingerprint, propertyIntrospectorService.getIntrospectedProperties());
+      Path file = locationManager.getFileForWriting(SNAPSHOT_FILE, SNAPSHOT_DIRECTORY).toPath();
+      tmp = Files.createTempFile(file.getParent(), SNAPSHOT_FILE, ".tmp");
+
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+        snapshot.writeTo(out);
+      }
+
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException ex) {
+      log.warn("Schema snapshot cannot be written: " + ex.getMessage());
+    } finally {
+      deleteQuietly(tmp);
+    }
+  }
+
+  private static void deleteQuietly(@CheckForNull Path file) {
+    if (file == null) {
+      return;
+    }
+
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException ex) {
+      log.debug("Temporary schema snapshot cannot be deleted: " + ex.getMessage());
     }
   }
 
@@ -441,6 +584,8 @@ public class DefaultSchemaService implements SchemaService {
 
     updateSelf(schema);
 
+    schema.getProperties().forEach(Property::initAccessors);
+
     dynamicClassSchemaMap.put(klass, schema);
 
     return schema;
@@ -55,4 +55,24 @@ public interface PropertyIntrospectorService {
   default List<Property> getProperties(Class<?> klass) {
     return Lists.newArrayList(getPropertiesMap(klass).values());
   }
+
+  /**
+   * Returns the properties of all classes introspected so far.
+   *
+   * @return Map with key Class and value the properties as returned by {@link
+   *     #getPropertiesMap(Class)}
+   */
+  default Map<Class<?>, Map<String, Property>> getIntrospectedProperties() {
+    return Map.of();
+  }
+
+  /**
+   * Provides the properties of classes up front, for example from a {@link SchemaSnapshot}, so
+   * that they are not introspected when requested.
+   *
+   * @param properties Map with key Class and value the properties of that class
+   */
+  default void preload(Map<Class<?>, Map<String, Property>> properties) {
+    // by default all properties are introspected
+  }
 }
@@ -0,0 +1,518 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.schema;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.CheckForNull;
+import lombok.Getter;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.spi.MetamodelImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.hisp.dhis.schema.annotation.Gist;
+
+/**
+ * A serializable snapshot of the {@link Property} maps created by the {@link
+ * PropertyIntrospectorService}, used to skip the reflective introspection of all schema classes on
+ * startup.
+ *
+ * <p>A snapshot is only valid for the code and Hibernate mappings it was taken from. This is
+ * captured by the {@link #getFingerprint()} which is computed with {@link #fingerprint(String,
+ * EntityManagerFactory)} from the build identifier and the live Hibernate metamodel.
+ *
+ * <p>Methods, classes and annotations are stored by name and are resolved again when the snapshot
+ * is {@link #restore() restored}.
+ */
+public final class SchemaSnapshot implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Only the types a snapshot is made of may be deserialized. The depth, reference, array and byte
+   * limits are well above those of a snapshot of all schemas and stop corrupt or foreign streams
+   * from exhausting the heap or stack.
+   */
+  private static final ObjectInputFilter FILTER =
+      ObjectInputFilter.Config.createFilter(
+          "maxdepth=20;maxrefs=2000000;maxarray=100000;maxbytes=67108864;"
+              + "org.hisp.dhis.schema.**;java.lang.*;java.util.*;!*");
+
+  /** Identifies the code and mappings the snapshot was taken from. */
+  @Getter private final String fingerprint;
+
+  /** Key is the class name, value the properties of the class. */
+  private final Map<String, List<PropertySnapshot>> classes;
+
+  private SchemaSnapshot(String fingerprint, Map<String, List<PropertySnapshot>> classes) {
+    this.fingerprint = fingerprint;
+    this.classes = classes;
+  }
+
+  /**
+   * Takes a snapshot of the given introspected properties.
+   *
+   * @param fingerprint identifies the code and mappings the properties were introspected from
+   * @param classes key is the introspected class, value the properties by key as returned by {@link
+   *     PropertyIntrospectorService#getPropertiesMap(Class)}
+   * @return the snapshot
+   * @throws IllegalStateException when a property holds state that cannot be restored from a
+   *     snapshot
+   */
+  public static SchemaSnapshot of(
+      String fingerprint, Map<Class<?>, Map<String, Property>> classes) {
+    Map<String, List<PropertySnapshot>> snapshots = new HashMap<>();
+
+    for (Map.Entry<Class<?>, Map<String, Property>> entry : classes.entrySet()) {
+      List<PropertySnapshot> properties = new ArrayList<>();
+
+      for (Map.Entry<String, Property> e : entry.getValue().entrySet()) {
+        properties.add(new PropertySnapshot(entry.getKey(), e.getKey(), e.getValue()));
+      }
+
+      snapshots.put(entry.getKey().getName(), properties);
+    }
+
+    return new SchemaSnapshot(fingerprint, snapshots);
+  }
+
+  /**
+   * Recreates the {@link Property} maps from this snapshot.
+   *
+   * @return key is the introspected class, value the properties by key
+   * @throws ReflectiveOperationException when a class, method or field of the snapshot no longer
+   *     exists
+   */
+  public Map<Class<?>, Map<String, Property>> restore() throws ReflectiveOperationException {
+    Map<Class<?>, Map<String, Property>> restored = new HashMap<>();
+
+    for (Map.Entry<String, List<PropertySnapshot>> entry : classes.entrySet()) {
+      Class<?> klass = classForName(entry.getKey());
+      Map<String, Property> properties = new HashMap<>();
+
+      for (PropertySnapshot property : entry.getValue()) {
+        properties.put(property.key, property.toProperty(klass));
+      }
+
+      restored.put(klass, Map.copyOf(properties));
+    }
+
+    return restored;
+  }
+
+  /**
+   * @param out the stream to write this snapshot to, it is not closed
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    ObjectOutputStream objects = new ObjectOutputStream(out);
+    objects.writeObject(this);
+    objects.flush();
+  }
+
+  /**
+   * @param in the stream to read a snapshot from, it is not closed
+   * @return the snapshot
+   * @throws IOException when the stream does not contain a snapshot
+   */
+  public static SchemaSnapshot readFrom(InputStream in) throws IOException {
+    try {
+      ObjectInputStream objects = new ObjectInputStream(in);
+      objects.setObjectInputFilter(FILTER);
+      return (SchemaSnapshot) objects.readObject();
+    } catch (ClassNotFoundException | ClassCastException ex) {
+      throw new IOException("Not a schema snapshot", ex);
+    }
+  }
+
+  /**
+   * Computes the fingerprint of the code and the Hibernate mappings properties are introspected
+   * from.
+   *
+   * @param build identifies the build of the code, for example revision and build time
+   * @param entityManagerFactory the live Hibernate mappings
+   * @return the fingerprint
+   */
+  public static String fingerprint(String build, EntityManagerFactory entityManagerFactory) {
+    MetamodelImplementor metamodel =
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMetamodel();
+    StringBuilder str = new StringBuilder(build).append('\n');
+
+    for (EntityPersister persister : new TreeMap<>(metamodel.entityPersisters()).values()) {
+      str.append(persister.getEntityName()).append('(');
+      String[] names = persister.getPropertyNames();
+      Type[] types = persister.getPropertyTypes();
+      for (int i = 0; i < names.length; i++) {
+        str.append(names[i]).append(':').append(types[i].getName()).append(',');
+      }
+      str.append(")\n");
+    }
+
+    for (CollectionPersister persister : new TreeMap<>(metamodel.collectionPersisters()).values()) {
+      str.append(persister.getRole())
+          .append(persister.isInverse() ? ",inverse" : "")
+          .append(persister.isManyToMany() ? ",manyToMany" : "")
+          .append(persister.isOneToMany() ? ",oneToMany" : "")
+          .append('\n');
+    }
+
+    try {
+      return HexFormat.of()
+          .formatHex(
+              MessageDigest.getInstance("SHA-256")
+                  .digest(str.toString().getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  @CheckForNull
+  private static Class<?> classForName(@CheckForNull String name) throws ClassNotFoundException {
+    return name == null ? null : ClassUtils.getClass(name, false);
+  }
+
+  @CheckForNull
+  private static String nameOf(@CheckForNull Class<?> type) {
+    return type == null ? null : type.getName();
+  }
+
+  /** Where the annotations of a {@link Property} were read from by the introspection. */
+  private enum AnnotationSource {
+    NONE,
+    TYPE,
+    FIELD,
+    GETTER
+  }
+
+  /** A {@link Method} by declaring class, name and parameter types. */
+  private record MethodRef(String declaringClass, String name, String[] parameterTypes)
+      implements Serializable {
+
+    @CheckForNull
+    static MethodRef of(@CheckForNull Method method) {
+      if (method == null) {
+        return null;
+      }
+      return new MethodRef(
+          method.getDeclaringClass().getName(),
+          method.getName(),
+          Arrays.stream(method.getParameterTypes()).map(Class::getName).toArray(String[]::new));
+    }
+
+    Method resolve() throws ReflectiveOperationException {
+      Class<?>[] types = new Class<?>[parameterTypes.length];
+      for (int i = 0; i < types.length; i++) {
+        types[i] = classForName(parameterTypes[i]);
+      }
+      return classForName(declaringClass).getDeclaredMethod(name, types);
+    }
+  }
+
+  /** The state of a single {@link Property} as created by introspection. */
+  private static final class PropertySnapshot implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String key;
+
+    private final String klass;
+
+    private final PropertyType propertyType;
+
+    private final String itemKlass;
+
+    private final PropertyType itemPropertyType;
+
+    private final MethodRef getterMethod;
+
+    private final MethodRef setterMethod;
+
+    private final String name;
+
+    private final String fieldName;
+
+    private final boolean persisted;
+
+    private final String collectionName;
+
+    private final Boolean collectionWrapping;
+
+    private final String description;
+
+    private final String namespace;
+
+    private final boolean attribute;
+
+    private final boolean simple;
+
+    private final boolean collection;
+
+    private final boolean ordered;
+
+    private final boolean owner;
+
+    private final boolean identifiableObject;
+
+    private final boolean nameableObject;
+
+    private final boolean embeddedObject;
+
+    private final boolean analyticalObject;
+
+    private final boolean readable;
+
+    private final boolean writable;
+
+    private final boolean unique;
+
+    private final boolean required;
+
+    private final Integer length;
+
+    private final Double max;
+
+    private final Double min;
+
+    private final String cascade;
+
+    private final boolean manyToMany;
+
+    private final boolean oneToOne;
+
+    private final boolean manyToOne;
+
+    private final boolean oneToMany;
+
+    private final String owningRole;
+
+    private final String inverseRole;
+
+    private final ArrayList<String> constants;
+
+    private final String href;
+
+    private final String relativeApiEndpoint;
+
+    private final String apiEndpoint;
+
+    private final String propertyTransformer;
+
+    private final boolean translatable;
+
+    private final String translationKey;
+
+    private final String i18nTranslationKey;
+
+    private final Gist.Include gistIncluded;
+
+    private final Gist.Transform gistTransformation;
+
+    private final AnnotationSource annotationSource;
+
+    PropertySnapshot(Class<?> owningClass, String key, Property property) {
+      if (property.getDefaultValue() != null) {
+        throw new IllegalStateException("Default values are not supported: " + key);
+      }
+      this.key = key;
+      this.klass = nameOf(property.getKlass());
+      this.propertyType = property.getPropertyType();
+      this.itemKlass = nameOf(property.getItemKlass());
+      this.itemPropertyType = property.getItemPropertyType();
+      this.getterMethod = MethodRef.of(property.getGetterMethod());
+      this.setterMethod = MethodRef.of(property.getSetterMethod());
+      this.name = property.getName();
+      this.fieldName = property.getFieldName();
+      this.persisted = property.isPersisted();
+      this.collectionName = property.getCollectionName();
+      this.collectionWrapping = property.isCollectionWrapping();
+      this.description = property.getDescription();
+      this.namespace = property.getNamespace();
+      this.attribute = property.isAttribute();
+      this.simple = property.isSimple();
+      this.collection = property.isCollection();
+      this.ordered = property.isOrdered();
+      this.owner = property.isOwner();
+      this.identifiableObject = property.isIdentifiableObject();
+      this.nameableObject = property.isNameableObject();
+      this.embeddedObject = property.isEmbeddedObject();
+      this.analyticalObject = property.isAnalyticalObject();
+      this.readable = property.isReadable();
+      this.writable = property.isWritable();
+      this.unique = property.isUnique();
+      this.required = property.isRequired();
+      this.length = property.getLength();
+      this.max = property.getMax();
+      this.min = property.getMin();
+      this.cascade = property.getCascade();
+      this.manyToMany = property.isManyToMany();
+      this.oneToOne = property.isOneToOne();
+      this.manyToOne = property.isManyToOne();
+      this.oneToMany = property.isOneToMany();
+      this.owningRole = property.getOwningRole();
+      this.inverseRole = property.getInverseRole();
+      this.constants =
+          property.getConstants() == null ? null : new ArrayList<>(property.getConstants());
+      this.href = property.getHref();
+      this.relativeApiEndpoint = property.getRelativeApiEndpoint();
+      this.apiEndpoint = property.getApiEndpoint();
+      this.propertyTransformer = nameOf(property.getPropertyTransformer());
+      this.translatable = property.isTranslatable();
+      this.translationKey = property.getTranslationKey();
+      this.i18nTranslationKey = property.getI18nTranslationKey();
+      this.gistIncluded = property.getGistPreferences().getIncluded();
+      this.gistTransformation = property.getGistPreferences().getTransformation();
+      this.annotationSource = getAnnotationSource(owningClass, key, property);
+    }
+
+    @SuppressWarnings("unchecked")
+    Property toProperty(Class<?> owningClass) throws ReflectiveOperationException {
+      Property property = new Property();
+      if (klass != null) {
+        property.setKlass(classForName(klass));
+      }
+      property.setPropertyType(propertyType);
+      property.setItemKlass(classForName(itemKlass));
+      property.setItemPropertyType(itemPropertyType);
+      property.setGetterMethod(getterMethod == null ? null : getterMethod.resolve());
+      property.setSetterMethod(setterMethod == null ? null : setterMethod.resolve());
+      property.setName(name);
+      property.setFieldName(fieldName);
+      property.setPersisted(persisted);
+      property.setCollectionName(collectionName);
+      property.setCollectionWrapping(collectionWrapping);
+      property.setDescription(description);
+      property.setNamespace(namespace);
+      property.setAttribute(attribute);
+      property.setSimple(simple);
+      property.setCollection(collection);
+      property.setOrdered(ordered);
+      property.setOwner(owner);
+      property.setIdentifiableObject(identifiableObject);
+      property.setNameableObject(nameableObject);
+      property.setEmbeddedObject(embeddedObject);
+      property.setAnalyticalObject(analyticalObject);
+      property.setReadable(readable);
+      property.setWritable(writable);
+      property.setUnique(unique);
+      property.setRequired(required);
+      property.setLength(length);
+      property.setMax(max);
+      property.setMin(min);
+      property.setCascade(cascade);
+      property.setManyToMany(manyToMany);
+      property.setOneToOne(oneToOne);
+      property.setManyToOne(manyToOne);
+      property.setOneToMany(oneToMany);
+      property.setOwningRole(owningRole);
+      property.setInverseRole(inverseRole);
+      property.setConstants(constants == null ? null : new ArrayList<>(constants));
+      property.setHref(href);
+      property.setRelativeApiEndpoint(relativeApiEndpoint);
+      property.setApiEndpoint(apiEndpoint);
+      property.setPropertyTransformer(
+          (Class<? extends PropertyTransformer>) classForName(propertyTransformer));
+      property.setTranslatable(translatable);
+      property.setTranslationKey(translationKey);
+      property.setI18nTranslationKey(i18nTranslationKey);
+      property.setGistPreferences(new GistPreferences(gistIncluded, gistTransformation));
+      property.setAnnotations(
+          switch (annotationSource) {
+            case NONE -> new HashMap<>();
+            case TYPE -> annotationsOf(owningClass);
+            case FIELD -> annotationsOf(getField(owningClass, fieldName));
+            case GETTER -> annotationsOf(property.getGetterMethod());
+          });
+      return property;
+    }
+
+    private static Field getField(Class<?> owningClass, String fieldName)
+        throws NoSuchFieldException {
+      Field field = FieldUtils.getField(owningClass, fieldName, true);
+      if (field == null) {
+        throw new NoSuchFieldException(owningClass.getName() + "." + fieldName);
+      }
+      return field;
+    }
+
+    private static AnnotationSource getAnnotationSource(
+        Class<?> owningClass, String key, Property property) {
+      Map<Class<? extends Annotation>, Annotation> annotations = property.getAnnotations();
+
+      if (annotations == null || annotations.isEmpty()) {
+        return AnnotationSource.NONE;
+      }
+      if (SchemaService.PROPERTY_SCHEMA.equals(key)
+          && annotations.equals(annotationsOf(owningClass))) {
+        return AnnotationSource.TYPE;
+      }
+      if (property.getGetterMethod() != null
+          && annotations.equals(annotationsOf(property.getGetterMethod()))) {
+        return AnnotationSource.GETTER;
+      }
+      Field field =
+          property.getFieldName() == null
+              ? null
+              : FieldUtils.getField(owningClass, property.getFieldName(), true);
+      if (field != null && annotations.equals(annotationsOf(field))) {
+        return AnnotationSource.FIELD;
+      }
+      throw new IllegalStateException("Unknown source of annotations for property: " + key);
+    }
+
+    private static Map<Class<? extends Annotation>, Annotation> annotationsOf(
+        @CheckForNull AnnotatedElement element) {
+      if (element == null) {
+        return new HashMap<>();
+      }
+      return Arrays.stream(element.getAnnotations())
+          .collect(Collectors.toMap(Annotation::annotationType, Function.identity()));
+    }
+  }
+}
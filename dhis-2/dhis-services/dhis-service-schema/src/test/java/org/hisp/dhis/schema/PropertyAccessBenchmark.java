@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.schema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.schema.introspection.JacksonPropertyIntrospector;
+import org.hisp.dhis.schema.introspection.PropertyPropertyIntrospector;
+import org.hisp.dhis.system.util.ReflectionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures reading and writing all simple properties of a collection of objects through {@link
+ * Property#getValue(Object)} and {@link Property#setValue(Object, Object)}, as done by field
+ * filtering and metadata import, compared with {@link ReflectionUtils#invokeMethod}. Not run as
+ * part of the test suite, run the main method to execute it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropertyAccessBenchmark {
+
+  @Param({"1000", "50000"})
+  private int objects;
+
+  private List<Property> properties;
+
+  private List<DataElement> dataElements;
+
+  private DataElement target;
+
+  @Setup
+  public void setUp() {
+    PropertyIntrospectorService introspectorService =
+        new DefaultPropertyIntrospectorService(
+            new JacksonPropertyIntrospector().then(new PropertyPropertyIntrospector()));
+
+    properties = new ArrayList<>();
+    for (Property property : introspectorService.getPropertiesMap(DataElement.class).values()) {
+      if (property.isSimple() && property.isReadable() && property.isWritable()) {
+        property.initAccessors();
+        properties.add(property);
+      }
+    }
+
+    dataElements = new ArrayList<>(objects);
+    for (int i = 0; i < objects; i++) {
+      DataElement dataElement = new DataElement("DataElement" + i);
+      dataElement.setCode("DE" + i);
+      dataElement.setShortName("DE short " + i);
+      dataElement.setDescription("Data element number " + i);
+      dataElements.add(dataElement);
+    }
+    target = new DataElement();
+  }
+
+  @Benchmark
+  public void getValue(Blackhole blackhole) {
+    for (DataElement dataElement : dataElements) {
+      for (Property property : properties) {
+        blackhole.consume(property.getValue(dataElement));
+      }
+    }
+  }
+
+  @Benchmark
+  public void getValueReflective(Blackhole blackhole) {
+    for (DataElement dataElement : dataElements) {
+      for (Property property : properties) {
+        blackhole.consume(ReflectionUtils.invokeMethod(dataElement, property.getGetterMethod()));
+      }
+    }
+  }
+
+  @Benchmark
+  public DataElement setValue() {
+    for (DataElement dataElement : dataElements) {
+      for (Property property : properties) {
+        property.setValue(target, property.getValue(dataElement));
+      }
+    }
+    return target;
+  }
+
+  @Benchmark
+  public DataElement setValueReflective() {
+    for (DataElement dataElement : dataElements) {
+      for (Property property : properties) {
+        Object value = ReflectionUtils.invokeMethod(dataElement, property.getGetterMethod());
+        ReflectionUtils.invokeMethod(target, property.getSetterMethod(), value);
+      }
+    }
+    return target;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(PropertyAccessBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+        .run();
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.schema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.schema.introspection.GistPropertyIntrospector;
+import org.hisp.dhis.schema.introspection.JacksonPropertyIntrospector;
+import org.hisp.dhis.schema.introspection.PropertyPropertyIntrospector;
+import org.hisp.dhis.schema.introspection.TranslatablePropertyIntrospector;
+import org.hisp.dhis.user.User;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link SchemaSnapshot}. */
+class SchemaSnapshotTest {
+
+  private final PropertyIntrospectorService introspectorService =
+      new DefaultPropertyIntrospectorService(
+          new JacksonPropertyIntrospector()
+              .then(new TranslatablePropertyIntrospector())
+              .then(new PropertyPropertyIntrospector())
+              .then(new GistPropertyIntrospector()));
+
+  @Test
+  void testRestoreEqualsIntrospection() throws Exception {
+    introspectorService.getPropertiesMap(DataElement.class);
+    introspectorService.getPropertiesMap(OrganisationUnit.class);
+    introspectorService.getPropertiesMap(User.class);
+    Map<Class<?>, Map<String, Property>> introspected =
+        introspectorService.getIntrospectedProperties();
+
+    Map<Class<?>, Map<String, Property>> restored =
+        writeAndRead(SchemaSnapshot.of("fingerprint", introspected)).restore();
+
+    assertEquals(introspected.keySet(), restored.keySet());
+    for (Map.Entry<Class<?>, Map<String, Property>> entry : introspected.entrySet()) {
+      Map<String, Property> properties = restored.get(entry.getKey());
+      assertEquals(entry.getValue().keySet(), properties.keySet());
+      entry
+          .getValue()
+          .forEach((key, expected) -> assertPropertyEquals(expected, properties.get(key)));
+    }
+  }
+
+  @Test
+  void testReadFingerprint() throws IOException {
+    SchemaSnapshot snapshot = SchemaSnapshot.of("abc", Map.of());
+
+    assertEquals("abc", writeAndRead(snapshot).getFingerprint());
+  }
+
+  @Test
+  void testPreloadSkipsIntrospection() throws Exception {
+    introspectorService.getPropertiesMap(DataElement.class);
+    SchemaSnapshot snapshot =
+        SchemaSnapshot.of("fingerprint", introspectorService.getIntrospectedProperties());
+
+    PropertyIntrospectorService preloaded =
+        new DefaultPropertyIntrospectorService(
+            (klass, properties) -> {
+              throw new AssertionError("Introspected " + klass);
+            });
+    preloaded.preload(writeAndRead(snapshot).restore());
+
+    Map<String, Property> properties = preloaded.getPropertiesMap(DataElement.class);
+    assertFalse(properties.isEmpty());
+    assertNotSame(
+        introspectorService.getPropertiesMap(DataElement.class).get("name"),
+        properties.get("name"));
+  }
+
+  @Test
+  void testDefaultValueIsNotSupported() {
+    Property property = new Property(String.class);
+    property.setName("name");
+    property.setDefaultValue("default");
+    Map<Class<?>, Map<String, Property>> classes = new HashMap<>();
+    classes.put(DataElement.class, Map.of("name", property));
+
+    assertThrows(IllegalStateException.class, () -> SchemaSnapshot.of("fingerprint", classes));
+  }
+
+  @Test
+  void testReadRejectsOtherObjects() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ObjectOutputStream objects = new ObjectOutputStream(out)) {
+      objects.writeObject(URI.create("https://dhis2.org"));
+    }
+    ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+
+    assertThrows(IOException.class, () -> SchemaSnapshot.readFrom(in));
+  }
+
+  @Test
+  void testReadRejectsTooDeepObjects() throws IOException {
+    List<Object> nested = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      nested = new ArrayList<>(List.of(nested));
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ObjectOutputStream objects = new ObjectOutputStream(out)) {
+      objects.writeObject(nested);
+    }
+    ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+
+    assertThrows(IOException.class, () -> SchemaSnapshot.readFrom(in));
+  }
+
+  private static SchemaSnapshot writeAndRead(SchemaSnapshot snapshot) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    snapshot.writeTo(out);
+    return SchemaSnapshot.readFrom(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  private static void assertPropertyEquals(Property expected, Property actual) {
+    assertEquals(expected, actual);
+    assertEquals(expected.getAnnotations(), actual.getAnnotations());
+    assertEquals(expected.isTranslatable(), actual.isTranslatable());
+    assertEquals(expected.getTranslationKey(), actual.getTranslationKey());
+    assertEquals(expected.getI18nTranslationKey(), actual.getI18nTranslationKey());
+    assertEquals(expected.getPropertyTransformer(), actual.getPropertyTransformer());
+    assertEquals(expected.isEmbeddedObject(), actual.isEmbeddedObject());
+    assertEquals(expected.isAnalyticalObject(), actual.isAnalyticalObject());
+    assertEquals(expected.isOrdered(), actual.isOrdered());
+    assertEquals(
+        expected.getGistPreferences().getIncluded(), actual.getGistPreferences().getIncluded());
+    assertEquals(
+        expected.getGistPreferences().getTransformation(),
+        actual.getGistPreferences().getTransformation());
+  }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.deduplication;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Index of the blocking keys of tracked entities. Entities sharing a blocking key form a block of
+ * candidates that are compared with each other when looking for potential duplicates.
+ *
+ * <p>Each set of attributes the index is built for has its own index key, so the keys of different
+ * job configurations do not mix.
+ */
+@Component
+@RequiredArgsConstructor
+public class JdbcBlockingKeyStore {
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  /**
+   * @param id of the tracked entity
+   * @param type id of the tracked entity type
+   * @param values attribute values in the order of the attributes they were loaded for
+   */
+  public record Candidate(long id, long type, @Nonnull String[] values) {}
+
+  /**
+   * @return the current database time, used as watermark so that it is not affected by clock
+   *     differences between nodes
+   */
+  @Nonnull
+  public Date now() {
+    return jdbcTemplate.queryForObject("select now()", Map.of(), Timestamp.class);
+  }
+
+  /**
+   * @return the time up to which tracked entities have been indexed, null if the index was never
+   *     fully built
+   */
+  @CheckForNull
+  public Date getLastIndexed(long indexKey) {
+    List<Timestamp> res =
+        jdbcTemplate.queryForList(
+            "select lastindexed from trackedentityblockingindex where indexkey = :indexKey",
+            Map.of("indexKey", indexKey),
+            Timestamp.class);
+    return res.isEmpty() ? null : res.get(0);
+  }
+
+  public void setLastIndexed(long indexKey, @Nonnull String attributes, @Nonnull Date lastIndexed) {
+    String sql =
+        """
+            insert into trackedentityblockingindex (indexkey, attributes, lastindexed)
+            values (:indexKey, :attributes, :lastIndexed)
+            on conflict (indexkey) do update set lastindexed = excluded.lastindexed
+        """;
+    jdbcTemplate.update(
+        sql,
+        Map.of("indexKey", indexKey, "attributes", attributes, "lastIndexed", lastIndexed));
+  }
+
+  /** Removes all keys of an index so that it can be rebuilt from scratch. */
+  @Transactional
+  public void deleteIndex(long indexKey) {
+    Map<String, Long> params = Map.of("indexKey", indexKey);
+    jdbcTemplate.update("delete from trackedentityblockingkey where indexkey = :indexKey", params);
+    jdbcTemplate.update(
+        "update trackedentityblockingindex set lastindexed = null where indexkey = :indexKey",
+        params);
+  }
+
+  /**
+   * Pages through the tracked entities to index ordered by their id.
+   *
+   * <p>Without a since date only entities that are not deleted and have a value for any of the
+   * attributes are returned. With a since date all entities updated since then are returned,
+   * including deleted ones, so that their keys can be removed.
+   *
+   * @param after id of the last entity of the previous page, zero for the first page
+   * @return the ids of the next page of entities
+   */
+  @Nonnull
+  public List<Long> getTrackedEntityIds(
+      @Nonnull Collection<Long> attributes, @CheckForNull Date since, long after, int limit) {
+    String sql =
+        since == null
+            ? """
+                select te.trackedentityid from trackedentity te
+                where te.trackedentityid > :after and te.deleted = false
+                and exists (
+                    select 1 from trackedentityattributevalue teav
+                    where teav.trackedentityid = te.trackedentityid
+                    and teav.trackedentityattributeid in (:attributes))
+                order by te.trackedentityid
+                limit :limit
+            """
+            : """
+                select te.trackedentityid from trackedentity te
+                where te.trackedentityid > :after and te.lastupdated >= :since
+                order by te.trackedentityid
+                limit :limit
+            """;
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("after", after)
+            .addValue("attributes", attributes)
+            .addValue("since", since)
+            .addValue("limit", limit);
+    return jdbcTemplate.queryForList(sql, params, Long.class);
+  }
+
+  /**
+   * @param attributes ids of the attributes to load in the order their values should have
+   * @return the tracked entities that are not deleted and have a value for any of the attributes
+   */
+  @Nonnull
+  public List<Candidate> getCandidates(
+      @Nonnull Collection<Long> trackedEntities, @Nonnull List<Long> attributes) {
+    if (trackedEntities.isEmpty()) {
+      return List.of();
+    }
+    String sql =
+        """
+            select te.trackedentityid, te.trackedentitytypeid,
+                teav.trackedentityattributeid, teav.value
+            from trackedentity te
+            join trackedentityattributevalue teav on teav.trackedentityid = te.trackedentityid
+            where te.trackedentityid in (:trackedEntities) and te.deleted = false
+            and teav.trackedentityattributeid in (:attributes) and teav.value is not null
+        """;
+    Map<Long, Integer> positions = new HashMap<>();
+    for (Long attribute : attributes) {
+      positions.put(attribute, positions.size());
+    }
+    Map<Long, Candidate> candidates = new HashMap<>();
+    jdbcTemplate.query(
+        sql,
+        Map.of("trackedEntities", trackedEntities, "attributes", attributes),
+        rs -> {
+          long id = rs.getLong(1);
+          Candidate candidate = candidates.get(id);
+          if (candidate == null) {
+            candidate = new Candidate(id, rs.getLong(2), new String[attributes.size()]);
+            candidates.put(id, candidate);
+          }
+          candidate.values()[positions.get(rs.getLong(3))] = rs.getString(4);
+        });
+    return List.copyOf(candidates.values());
+  }
+
+  /**
+   * Replaces the keys of the given tracked entities. Entities without keys are removed from the
+   * index.
+   */
+  @Transactional
+  public void replaceKeys(
+      long indexKey,
+      @Nonnull Collection<Long> trackedEntities,
+      @Nonnull Map<Long, Set<Long>> keysByTrackedEntity) {
+    if (trackedEntities.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.update(
+        """
+            delete from trackedentityblockingkey
+            where indexkey = :indexKey and trackedentityid in (:trackedEntities)
+        """,
+        Map.of("indexKey", indexKey, "trackedEntities", trackedEntities));
+    List<SqlParameterSource> rows = new ArrayList<>();
+    keysByTrackedEntity.forEach(
+        (trackedEntity, keys) ->
+            keys.forEach(
+                key ->
+                    rows.add(
+                        new MapSqlParameterSource()
+                            .addValue("indexKey", indexKey)
+                            .addValue("key", key)
+                            .addValue("trackedEntity", trackedEntity))));
+    jdbcTemplate.batchUpdate(
+        """
+            insert into trackedentityblockingkey (indexkey, blockingkey, trackedentityid)
+            values (:indexKey, :key, :trackedEntity)
+        """,
+        rows.toArray(SqlParameterSource[]::new));
+  }
+
+  /**
+   * @param from smallest blocking key (inclusive)
+   * @param to largest blocking key (inclusive)
+   * @return the tracked entity ids of each block in the key range that has at least two and at
+   *     most maxBlockSize members
+   */
+  @Nonnull
+  public List<long[]> getBlocks(long indexKey, long from, long to, int maxBlockSize) {
+    String sql =
+        """
+            select array_agg(trackedentityid) from trackedentityblockingkey
+            where indexkey = :indexKey and blockingkey between :from and :to
+            group by blockingkey
+            having count(*) between 2 and :maxBlockSize
+        """;
+    return jdbcTemplate.query(
+        sql,
+        Map.of("indexKey", indexKey, "from", from, "to", to, "maxBlockSize", maxBlockSize),
+        (rs, rowNum) -> toIds(rs.getArray(1)));
+  }
+
+  /**
+   * @return the tracked entity ids of each of the given blocks that has at least two and at most
+   *     maxBlockSize members
+   */
+  @Nonnull
+  public List<long[]> getBlocks(long indexKey, @Nonnull Collection<Long> keys, int maxBlockSize) {
+    if (keys.isEmpty()) {
+      return List.of();
+    }
+    String sql =
+        """
+            select array_agg(trackedentityid) from trackedentityblockingkey
+            where indexkey = :indexKey and blockingkey in (:keys)
+            group by blockingkey
+            having count(*) between 2 and :maxBlockSize
+        """;
+    return jdbcTemplate.query(
+        sql,
+        Map.of("indexKey", indexKey, "keys", keys, "maxBlockSize", maxBlockSize),
+        (rs, rowNum) -> toIds(rs.getArray(1)));
+  }
+
+  /**
+   * @return the UIDs of the given tracked entities by their id
+   */
+  @Nonnull
+  public Map<Long, String> getUids(@Nonnull Collection<Long> trackedEntities) {
+    Map<Long, String> uids = new HashMap<>();
+    if (trackedEntities.isEmpty()) {
+      return uids;
+    }
+    jdbcTemplate.query(
+        "select trackedentityid, uid from trackedentity where trackedentityid in (:ids)",
+        Map.of("ids", trackedEntities),
+        rs -> {
+          uids.put(rs.getLong(1), rs.getString(2));
+        });
+    return uids;
+  }
+
+  private static long[] toIds(Array array) throws SQLException {
+    Object[] ids = (Object[]) array.getArray();
+    long[] res = new long[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      res[i] = ((Number) ids[i]).longValue();
+    }
+    return res;
+  }
+}
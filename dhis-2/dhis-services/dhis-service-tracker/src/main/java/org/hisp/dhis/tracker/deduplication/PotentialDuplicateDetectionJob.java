@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.deduplication;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static org.hisp.dhis.scheduling.JobProgress.FailurePolicy.SKIP_ITEM;
+
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.common.IdentifiableObject;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.common.UID;
+import org.hisp.dhis.commons.util.SystemUtils;
+import org.hisp.dhis.scheduling.Job;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.scheduling.JobProgress;
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.scheduling.parameters.PotentialDuplicateDetectionJobParameters;
+import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
+import org.hisp.dhis.tracker.deduplication.JdbcBlockingKeyStore.Candidate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Detects potential duplicates among tracked entities without comparing every entity with every
+ * other entity.
+ *
+ * <p>The job maintains an index of blocking keys derived from the values of the configured
+ * attributes (see {@link PotentialDuplicateMatcher}). Only entities sharing a blocking key are
+ * compared, which is done in parallel over partitions of the key space. Pairs that are similar
+ * enough are added as {@link PotentialDuplicate}s unless they already exist.
+ *
+ * <p>In incremental mode only entities updated since the previous successful run are indexed and
+ * only the blocks they are in are compared. The first run of a set of attributes always builds the
+ * full index.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PotentialDuplicateDetectionJob implements Job {
+  private static final int CHUNK_SIZE = 1000;
+
+  /** Number of blocking key ranges compared in parallel when comparing all blocks. */
+  private static final int PARTITIONS = 256;
+
+  private final IdentifiableObjectManager manager;
+
+  private final JdbcBlockingKeyStore blockingKeyStore;
+
+  private final DeduplicationService deduplicationService;
+
+  private record BlockingIndex(
+      long key, @Nonnull List<Long> attributes, @Nonnull PotentialDuplicateMatcher matcher) {}
+
+  /** A pair of similar tracked entities, the one with the lower id is considered the original. */
+  private record Pair(long original, long duplicate) {
+    static Pair of(long a, long b) {
+      return a < b ? new Pair(a, b) : new Pair(b, a);
+    }
+  }
+
+  @Override
+  public JobType getJobType() {
+    return JobType.POTENTIAL_DUPLICATE_DETECTION;
+  }
+
+  @Override
+  public void execute(JobConfiguration jobConfiguration, JobProgress progress) {
+    PotentialDuplicateDetectionJobParameters params =
+        (PotentialDuplicateDetectionJobParameters) jobConfiguration.getJobParameters();
+    progress.startingProcess("Detecting potential duplicates");
+
+    List<TrackedEntityAttribute> attributes = getAttributes(params);
+    if (attributes.isEmpty()) {
+      progress.completedProcess("No attributes to compare");
+      return;
+    }
+    List<String> uids = attributes.stream().map(IdentifiableObject::getUid).toList();
+    long indexKey = PotentialDuplicateMatcher.indexKey(uids);
+    BlockingIndex index =
+        new BlockingIndex(
+            indexKey,
+            attributes.stream().map(IdentifiableObject::getId).toList(),
+            new PotentialDuplicateMatcher(
+                indexKey, attributes.stream().map(TrackedEntityAttribute::getValueType).toList()));
+
+    Date started = blockingKeyStore.now();
+    Date since = params.isIncremental() ? blockingKeyStore.getLastIndexed(indexKey) : null;
+    if (since == null) {
+      progress.startingStage("Clearing blocking index");
+      progress.runStage(() -> blockingKeyStore.deleteIndex(indexKey));
+    }
+
+    Set<Long> changed = new HashSet<>();
+    Set<Long> changedKeys = new HashSet<>();
+    progress.startingStage(
+        since == null
+            ? "Indexing all tracked entities"
+            : format("Indexing tracked entities updated since %s", since));
+    Integer indexed =
+        progress.runStage(
+            null,
+            count -> format("%d tracked entities indexed", count),
+            () -> updateIndex(index, since, changed, changedKeys, progress));
+    if (indexed == null || progress.isCancelled()) {
+      progress.completedProcess("Indexing did not complete");
+      return;
+    }
+
+    Set<Pair> pairs = ConcurrentHashMap.newKeySet();
+    boolean compared =
+        since == null
+            ? compareAll(index, params, pairs, progress)
+            : compareChanged(index, params, changed, changedKeys, pairs, progress);
+
+    progress.startingStage(format("Adding %d potential duplicates", pairs.size()));
+    Integer added =
+        progress.runStage(
+            null, count -> format("%d potential duplicates added", count), () -> add(pairs));
+
+    if (compared && added != null) {
+      blockingKeyStore.setLastIndexed(indexKey, String.join(",", uids), started);
+    }
+    progress.completedProcess(null);
+  }
+
+  @Nonnull
+  private List<TrackedEntityAttribute> getAttributes(
+      PotentialDuplicateDetectionJobParameters params) {
+    List<TrackedEntityAttribute> attributes = new ArrayList<>();
+    for (TrackedEntityAttribute attribute :
+        manager.getByUid(TrackedEntityAttribute.class, params.getAttributes())) {
+      // confidential values are only stored encrypted
+      if (attribute.isConfidentialBool()) {
+        log.warn("Confidential attribute {} is not compared", attribute.getUid());
+      } else {
+        attributes.add(attribute);
+      }
+    }
+    attributes.sort(Comparator.comparing(IdentifiableObject::getUid));
+    return attributes;
+  }
+
+  /**
+   * Updates the blocking keys of all tracked entities or of those updated since the given date.
+   *
+   * @return number of entities that have keys
+   */
+  private int updateIndex(
+      BlockingIndex index,
+      @CheckForNull Date since,
+      Set<Long> changed,
+      Set<Long> changedKeys,
+      JobProgress progress) {
+    int count = 0;
+    List<Long> page =
+        blockingKeyStore.getTrackedEntityIds(index.attributes(), since, 0L, CHUNK_SIZE);
+    while (!page.isEmpty() && !progress.isCancelled()) {
+      Map<Long, Set<Long>> keys = new HashMap<>();
+      for (Candidate candidate : blockingKeyStore.getCandidates(page, index.attributes())) {
+        Set<Long> candidateKeys = index.matcher().getBlockingKeys(candidate.values());
+        if (!candidateKeys.isEmpty()) {
+          keys.put(candidate.id(), candidateKeys);
+        }
+      }
+      blockingKeyStore.replaceKeys(index.key(), page, keys);
+      if (since != null) {
+        changed.addAll(keys.keySet());
+        keys.values().forEach(changedKeys::addAll);
+      }
+      count += keys.size();
+      long last = page.get(page.size() - 1);
+      page = blockingKeyStore.getTrackedEntityIds(index.attributes(), since, last, CHUNK_SIZE);
+    }
+    return count;
+  }
+
+  private boolean compareAll(
+      BlockingIndex index,
+      PotentialDuplicateDetectionJobParameters params,
+      Set<Pair> pairs,
+      JobProgress progress) {
+    List<long[]> ranges = new ArrayList<>(PARTITIONS);
+    long step = Long.divideUnsigned(-1L, PARTITIONS) + 1;
+    for (int i = 0; i < PARTITIONS; i++) {
+      // wraps around intentionally to cover the signed range from min to max
+      long from = Long.MIN_VALUE + i * step;
+      ranges.add(new long[] {from, i == PARTITIONS - 1 ? Long.MAX_VALUE : from + step - 1});
+    }
+    progress.startingStage("Comparing candidates of all blocks", ranges.size(), SKIP_ITEM);
+    return compare(
+        ranges,
+        range -> format("Blocking keys %d to %d", range[0], range[1]),
+        range ->
+            blockingKeyStore.getBlocks(index.key(), range[0], range[1], params.getMaxBlockSize()),
+        index,
+        params,
+        null,
+        pairs,
+        progress);
+  }
+
+  private boolean compareChanged(
+      BlockingIndex index,
+      PotentialDuplicateDetectionJobParameters params,
+      Set<Long> changed,
+      Set<Long> changedKeys,
+      Set<Pair> pairs,
+      JobProgress progress) {
+    List<List<Long>> chunks = Lists.partition(new ArrayList<>(changedKeys), CHUNK_SIZE);
+    progress.startingStage(
+        format("Comparing candidates of %d changed blocks", changedKeys.size()),
+        chunks.size(),
+        SKIP_ITEM);
+    return compare(
+        chunks,
+        chunk -> format("%d blocks", chunk.size()),
+        chunk -> blockingKeyStore.getBlocks(index.key(), chunk, params.getMaxBlockSize()),
+        index,
+        params,
+        changed,
+        pairs,
+        progress);
+  }
+
+  /**
+   * Compares the candidates of each item's blocks in parallel.
+   *
+   * @param changed when not null only pairs with at least one of these entities are compared
+   * @return true, if all items were compared successfully
+   */
+  private <T> boolean compare(
+      List<T> items,
+      Function<T, String> description,
+      Function<T, List<long[]>> blocks,
+      BlockingIndex index,
+      PotentialDuplicateDetectionJobParameters params,
+      @CheckForNull Set<Long> changed,
+      Set<Pair> pairs,
+      JobProgress progress) {
+    if (items.isEmpty()) {
+      progress.completedStage("Nothing to compare");
+      return true;
+    }
+    AtomicInteger done = new AtomicInteger();
+    int parallelism = min(max(2, SystemUtils.getCpuCores() - 1), items.size());
+    progress.runStageInParallel(
+        parallelism,
+        items,
+        description,
+        item -> {
+          compare(index, blocks.apply(item), params.getThreshold(), changed, pairs);
+          done.incrementAndGet();
+        });
+    return done.get() == items.size();
+  }
+
+  private void compare(
+      BlockingIndex index,
+      List<long[]> blocks,
+      double threshold,
+      @CheckForNull Set<Long> changed,
+      Set<Pair> pairs) {
+    Set<Long> ids = new HashSet<>();
+    for (long[] block : blocks) {
+      for (long id : block) {
+        ids.add(id);
+      }
+    }
+    Map<Long, Candidate> candidates = new HashMap<>();
+    for (List<Long> chunk : Lists.partition(new ArrayList<>(ids), CHUNK_SIZE)) {
+      for (Candidate candidate : blockingKeyStore.getCandidates(chunk, index.attributes())) {
+        candidates.put(candidate.id(), candidate);
+      }
+    }
+    Set<Pair> compared = new HashSet<>();
+    for (long[] block : blocks) {
+      for (int i = 0; i < block.length; i++) {
+        Candidate a = candidates.get(block[i]);
+        for (int j = i + 1; j < block.length; j++) {
+          Candidate b = candidates.get(block[j]);
+          Pair pair = Pair.of(block[i], block[j]);
+          if (isComparable(a, b, changed)
+              && compared.add(pair)
+              && index.matcher().getSimilarity(a.values(), b.values()) >= threshold) {
+            pairs.add(pair);
+          }
+        }
+      }
+    }
+  }
+
+  private static boolean isComparable(
+      @CheckForNull Candidate a, @CheckForNull Candidate b, @CheckForNull Set<Long> changed) {
+    return a != null
+        && b != null
+        && a.type() == b.type()
+        && (changed == null || changed.contains(a.id()) || changed.contains(b.id()));
+  }
+
+  /**
+   * Adds the pairs as potential duplicates unless they already exist. This runs on the job thread
+   * as the service records the current user as creator.
+   *
+   * @return number of added potential duplicates
+   */
+  private int add(Collection<Pair> pairs) throws PotentialDuplicateConflictException {
+    int added = 0;
+    for (List<Pair> chunk : Lists.partition(new ArrayList<>(pairs), CHUNK_SIZE)) {
+      Set<Long> ids = new HashSet<>();
+      for (Pair pair : chunk) {
+        ids.add(pair.original());
+        ids.add(pair.duplicate());
+      }
+      Map<Long, String> uids = blockingKeyStore.getUids(ids);
+      for (Pair pair : chunk) {
+        String original = uids.get(pair.original());
+        String duplicate = uids.get(pair.duplicate());
+        if (original == null || duplicate == null) {
+          continue;
+        }
+        PotentialDuplicate potentialDuplicate =
+            new PotentialDuplicate(UID.of(original), UID.of(duplicate));
+        if (!deduplicationService.exists(potentialDuplicate)) {
+          deduplicationService.addPotentialDuplicate(potentialDuplicate);
+          added++;
+        }
+      }
+    }
+    return added;
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.deduplication;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import org.apache.commons.text.similarity.JaroWinklerSimilarity;
+import org.hisp.dhis.common.ValueType;
+
+/**
+ * Derives blocking keys from and scores the similarity of the attribute values of tracked
+ * entities.
+ *
+ * <p>Values are given as arrays aligned with the attributes the matcher was created for, a {@code
+ * null} element being a missing value. Names are reduced to their phonetic codes and dates to
+ * their year so that entities with small spelling or date differences still share a block.
+ *
+ * <p>A blocking key is derived for each pair of attributes an entity has values for, as two shared
+ * values are needed for a non-zero similarity. Values of other attributes that are missing or
+ * differ therefore do not separate two entities, and a single common value such as a birth year
+ * does not form a block on its own. A matcher for a single attribute derives one key from its
+ * value.
+ */
+class PotentialDuplicateMatcher {
+  private static final HashFunction HASH = Hashing.murmur3_128();
+
+  private static final JaroWinklerSimilarity JARO_WINKLER = new JaroWinklerSimilarity();
+
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  private static final Pattern YEAR = Pattern.compile("^\\d{4}");
+
+  /** Soundex digit for each letter a-z, 0 for vowels and - for letters that are ignored. */
+  private static final String SOUNDEX = "0123012-02245501262301-202";
+
+  private final long indexKey;
+
+  private final ValueType[] valueTypes;
+
+  PotentialDuplicateMatcher(long indexKey, @Nonnull List<ValueType> valueTypes) {
+    this.indexKey = indexKey;
+    this.valueTypes = valueTypes.toArray(ValueType[]::new);
+  }
+
+  /**
+   * @return a key identifying the index built for the given set of attributes
+   */
+  static long indexKey(@Nonnull Collection<String> attributes) {
+    String key = attributes.stream().sorted().collect(Collectors.joining(","));
+    return HASH.hashString(key, UTF_8).asLong();
+  }
+
+  /**
+   * @return the blocking keys of an entity with the given values, empty if it has fewer values
+   *     than needed to be compared
+   */
+  @Nonnull
+  Set<Long> getBlockingKeys(@Nonnull String[] values) {
+    String[] reduced = new String[values.length];
+    for (int i = 0; i < values.length; i++) {
+      reduced[i] = reduce(valueTypes[i], values[i]);
+    }
+    Set<Long> keys = new HashSet<>();
+    if (reduced.length == 1) {
+      if (reduced[0] != null) {
+        keys.add(hash(0, reduced[0]).hash().asLong());
+      }
+      return keys;
+    }
+    for (int i = 0; i < reduced.length; i++) {
+      if (reduced[i] == null) {
+        continue;
+      }
+      for (int j = i + 1; j < reduced.length; j++) {
+        if (reduced[j] != null) {
+          keys.add(hash(i, reduced[i]).putInt(j).putString(reduced[j], UTF_8).hash().asLong());
+        }
+      }
+    }
+    return keys;
+  }
+
+  /**
+   * Scores two entities by the average similarity of the values both of them have. At least two
+   * values (or one if the matcher only has one attribute) must be shared for a non-zero score.
+   *
+   * @return the similarity between 0 (different) and 1 (same)
+   */
+  double getSimilarity(@Nonnull String[] a, @Nonnull String[] b) {
+    double sum = 0;
+    int compared = 0;
+    for (int i = 0; i < valueTypes.length; i++) {
+      String x = normalize(a[i]);
+      String y = normalize(b[i]);
+      if (x != null && y != null) {
+        sum += similarity(valueTypes[i], x, y);
+        compared++;
+      }
+    }
+    return compared < Math.min(2, valueTypes.length) ? 0d : sum / compared;
+  }
+
+  /**
+   * @return a hasher of the index key and the value at the given position, the length of the value
+   *     is included so that it cannot run into a following value
+   */
+  private Hasher hash(int position, String value) {
+    return HASH.newHasher()
+        .putLong(indexKey)
+        .putInt(position)
+        .putInt(value.length())
+        .putString(value, UTF_8);
+  }
+
+  private static double similarity(ValueType type, String x, String y) {
+    if (type.isText()) {
+      return JARO_WINKLER.apply(x, y);
+    }
+    if (x.equals(y)) {
+      return 1d;
+    }
+    // dates in the same year are half similar
+    return type.isDate() && YEAR.matcher(x).find() && x.regionMatches(0, y, 0, 4) ? 0.5d : 0d;
+  }
+
+  @CheckForNull
+  private static String reduce(ValueType type, @CheckForNull String value) {
+    String normalized = normalize(value);
+    if (normalized == null) {
+      return null;
+    }
+    if (type == ValueType.TEXT || type == ValueType.LONG_TEXT) {
+      return Arrays.stream(normalized.split(" "))
+          .map(PotentialDuplicateMatcher::soundex)
+          .sorted()
+          .collect(Collectors.joining(" "));
+    }
+    if (type.isDate() && YEAR.matcher(normalized).find()) {
+      return normalized.substring(0, 4);
+    }
+    return normalized;
+  }
+
+  /**
+   * @return the value in lower case without accents and with any sequence of non-alphanumeric
+   *     characters replaced by a single space, null if nothing remains
+   */
+  @CheckForNull
+  static String normalize(@CheckForNull String value) {
+    if (value == null) {
+      return null;
+    }
+    String normalized =
+        MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+    normalized = SEPARATORS.matcher(normalized.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    return normalized.isEmpty() ? null : normalized;
+  }
+
+  /**
+   * @return the American Soundex code of a normalized word, the word itself if it has no latin
+   *     letters
+   */
+  @Nonnull
+  static String soundex(@Nonnull String word) {
+    StringBuilder code = new StringBuilder(4);
+    char last = 0;
+    for (int i = 0; i < word.length() && code.length() < 4; i++) {
+      char c = word.charAt(i);
+      if (c < 'a' || c > 'z') {
+        continue;
+      }
+      char digit = SOUNDEX.charAt(c - 'a');
+      if (code.isEmpty()) {
+        code.append(Character.toUpperCase(c));
+        last = digit;
+      } else if (digit != '-') {
+        if (digit != '0' && digit != last) {
+          code.append(digit);
+        }
+        last = digit;
+      }
+    }
+    if (code.isEmpty()) {
+      return word;
+    }
+    while (code.length() < 4) {
+      code.append('0');
+    }
+    return code.toString();
+  }
+}
@@ -28,6 +28,7 @@
 package org.hisp.dhis.tracker.export;
 
 import java.util.List;
+import java.util.function.ToLongFunction;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -50,24 +51,58 @@ public class Page<T> {
   private final Integer prevPage;
   private final Integer nextPage;
 
+  /**
+   * Opaque cursor to pass in {@link PageParams} to get the page following this one, or null if this
+   * page is known to be the last one. Only pages in the default order of a store support cursors.
+   */
+  private final String nextPageCursor;
+
   /**
    * Create a new page based on an existing one but with given {@code items}. Page related counts
    * will not be changed so make sure the given {@code items} match the previous page size.
    */
   public <U> Page<U> withItems(List<U> items) {
-    return new Page<>(items, this.page, this.pageSize, this.total, this.prevPage, this.nextPage);
+    return new Page<>(
+        items,
+        this.page,
+        this.pageSize,
+        this.total,
+        this.prevPage,
+        this.nextPage,
+        this.nextPageCursor);
+  }
+
+  /**
+   * Create a new page based on an existing one but with a cursor pointing after its last item. The
+   * cursor encodes the {@code key} of the last item, which must be the key the items are ordered
+   * by. No cursor is set if the page is not full, as it is then the last page.
+   */
+  public Page<T> withNextPageCursor(ToLongFunction<T> key) {
+    if (this.items.isEmpty() || this.items.size() < this.pageSize) {
+      return this;
+    }
+
+    T last = this.items.get(this.items.size() - 1);
+    return new Page<>(
+        this.items,
+        this.page,
+        this.pageSize,
+        this.total,
+        this.prevPage,
+        this.nextPage,
+        PageCursor.encode(key.applyAsLong(last)));
   }
 
   public static <T> Page<T> withTotals(List<T> items, int page, int pageSize, long total) {
-    return new Page<>(items, page, pageSize, total, null, null);
+    return new Page<>(items, page, pageSize, total, null, null, null);
   }
 
   public static <T> Page<T> withoutTotals(List<T> items, int page, int pageSize) {
-    return new Page<>(items, page, pageSize, null, null, null);
+    return new Page<>(items, page, pageSize, null, null, null, null);
   }
 
   public static <T> Page<T> withPrevAndNext(
       List<T> items, int page, int pageSize, Integer prevPage, Integer nextPage) {
-    return new Page<>(items, page, pageSize, null, prevPage, nextPage);
+    return new Page<>(items, page, pageSize, null, prevPage, nextPage, null);
   }
 }
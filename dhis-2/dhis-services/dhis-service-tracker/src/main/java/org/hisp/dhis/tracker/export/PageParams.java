@@ -31,10 +31,17 @@ import java.util.Objects;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
+import org.hisp.dhis.feedback.BadRequestException;
 
 /**
  * {@link PageParams} represent the parameters that configure the page of items to be returned. By
  * default, the total number of items will not be fetched.
+ *
+ * <p>Pages are either selected by page number or by a cursor returned in {@link
+ * Page#getNextPageCursor()}. Selecting a page by number requires the database to skip all items of
+ * previous pages, while a cursor lets it seek directly to the first item of the page using the
+ * index on the key the items are ordered by. Cursors are thus preferable to read deep into large
+ * result sets and also yield stable pages while items are added.
  */
 @Getter
 @ToString
@@ -52,9 +59,39 @@ public class PageParams {
   /** Indicates whether to fetch the total number of items. */
   final boolean pageTotal;
 
+  /**
+   * The key of the last item of the previous page if the page is selected by cursor, null
+   * otherwise. Items with a key after it in the default order of the store are returned.
+   */
+  final Long cursor;
+
   public PageParams(Integer page, Integer pageSize, Boolean pageTotal) {
+    this(page, pageSize, pageTotal, null);
+  }
+
+  private PageParams(Integer page, Integer pageSize, Boolean pageTotal, Long cursor) {
     this.page = Objects.requireNonNullElse(page, DEFAULT_PAGE);
     this.pageSize = Objects.requireNonNullElse(pageSize, DEFAULT_PAGE_SIZE);
     this.pageTotal = Boolean.TRUE.equals(pageTotal);
+    this.cursor = cursor;
+  }
+
+  /**
+   * Creates params for the page following the given {@code cursor}.
+   *
+   * @param cursor the cursor as returned by {@link Page#getNextPageCursor()}
+   * @param pageSize the number of items to be returned
+   * @param pageTotal whether to fetch the total number of items
+   * @return the page params
+   * @throws BadRequestException if the cursor is not valid
+   */
+  public static PageParams ofCursor(String cursor, Integer pageSize, Boolean pageTotal)
+      throws BadRequestException {
+    return new PageParams(DEFAULT_PAGE, pageSize, pageTotal, PageCursor.decode(cursor));
+  }
+
+  /** Indicates whether the page is selected by cursor instead of page number. */
+  public boolean hasCursor() {
+    return cursor != null;
   }
 }
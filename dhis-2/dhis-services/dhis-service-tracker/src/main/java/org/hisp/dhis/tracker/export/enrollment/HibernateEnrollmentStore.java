@@ -96,14 +96,14 @@ class HibernateEnrollmentStore extends SoftDeleteHibernateObjectStore<Enrollment
   }
 
   private String buildCountEnrollmentHql(EnrollmentQueryParams params) {
-    return buildEnrollmentHql(params)
+    return buildEnrollmentHql(params, null)
         .getQuery()
         .replaceFirst("from Enrollment en", "select count(distinct uid) from Enrollment en");
   }
 
   @Override
   public List<Enrollment> getEnrollments(EnrollmentQueryParams params) {
-    String hql = buildEnrollmentHql(params).getFullQuery();
+    String hql = buildEnrollmentHql(params, null).getFullQuery();
 
     Query<Enrollment> query = getQuery(hql);
 
@@ -112,14 +112,20 @@ class HibernateEnrollmentStore extends SoftDeleteHibernateObjectStore<Enrollment
 
   @Override
   public Page<Enrollment> getEnrollments(EnrollmentQueryParams params, PageParams pageParams) {
-    String hql = buildEnrollmentHql(params).getFullQuery();
+    String hql = buildEnrollmentHql(params, pageParams).getFullQuery();
 
     Query<Enrollment> query = getQuery(hql);
     query.setFirstResult((pageParams.getPage() - 1) * pageParams.getPageSize());
     query.setMaxResults(pageParams.getPageSize());
 
     LongSupplier enrollmentCount = () -> countEnrollments(params);
-    return getPage(pageParams, query.list(), enrollmentCount);
+    Page<Enrollment> page = getPage(pageParams, query.list(), enrollmentCount);
+
+    if (params.getOrder().isEmpty()) {
+      return page.withNextPageCursor(Enrollment::getId);
+    }
+
+    return page;
   }
 
   private long countEnrollments(EnrollmentQueryParams params) {
@@ -140,7 +146,7 @@ class HibernateEnrollmentStore extends SoftDeleteHibernateObjectStore<Enrollment
     return Page.withoutTotals(enrollments, pageParams.getPage(), pageParams.getPageSize());
   }
 
-  private QueryWithOrderBy buildEnrollmentHql(EnrollmentQueryParams params) {
+  private QueryWithOrderBy buildEnrollmentHql(EnrollmentQueryParams params, PageParams pageParams) {
     String hql = "from Enrollment en";
     SqlHelper hlp = new SqlHelper(true);
 
@@ -224,6 +230,10 @@ class HibernateEnrollmentStore extends SoftDeleteHibernateObjectStore<Enrollment
       hql += hlp.whereAnd() + " en.deleted is false ";
     }
 
+    if (pageParams != null && pageParams.hasCursor()) {
+      hql += hlp.whereAnd() + "en.id < " + pageParams.getCursor();
+    }
+
     return QueryWithOrderBy.builder().query(hql).orderBy(orderBy(params.getOrder())).build();
   }
 
@@ -258,7 +258,13 @@ class JdbcEventStore {
   public Page<Event> getEvents(EventQueryParams queryParams, PageParams pageParams) {
     List<Event> events = fetchEvents(queryParams, pageParams);
     LongSupplier eventCount = () -> getEventCount(queryParams);
-    return getPage(pageParams, events, eventCount);
+    Page<Event> page = getPage(pageParams, events, eventCount);
+
+    if (queryParams.getOrder().isEmpty()) {
+      return page.withNextPageCursor(Event::getId);
+    }
+
+    return page;
   }
 
   private List<Event> fetchEvents(EventQueryParams queryParams, PageParams pageParams) {
@@ -571,7 +577,7 @@ class JdbcEventStore {
 
     MapSqlParameterSource mapSqlParameterSource = new MapSqlParameterSource();
 
-    sql = getEventSelectQuery(params, mapSqlParameterSource, currentUser);
+    sql = getEventSelectQuery(params, null, mapSqlParameterSource, currentUser);
 
     sql = sql.replaceFirst("select .*? from", "select count(*) as ev_count from");
 
@@ -615,7 +621,7 @@ class JdbcEventStore {
     }
     sqlBuilder.append(" from (");
 
-    sqlBuilder.append(getEventSelectQuery(queryParams, mapSqlParameterSource, user));
+    sqlBuilder.append(getEventSelectQuery(queryParams, pageParams, mapSqlParameterSource, user));
 
     sqlBuilder.append(getOrderQuery(queryParams));
 
@@ -798,7 +804,10 @@ left join dataelement de on de.uid = eventdatavalue.dataelement_uid
   }
 
   private String getEventSelectQuery(
-      EventQueryParams params, MapSqlParameterSource mapSqlParameterSource, User user) {
+      EventQueryParams params,
+      PageParams pageParams,
+      MapSqlParameterSource mapSqlParameterSource,
+      User user) {
     SqlHelper hlp = new SqlHelper();
 
     StringBuilder selectBuilder =
@@ -904,6 +913,7 @@ left join dataelement de on de.uid = eventdatavalue.dataelement_uid
         .append(
             getFromWhereClause(
                 params,
+                pageParams,
                 mapSqlParameterSource,
                 user,
                 hlp,
@@ -922,6 +932,7 @@ left join dataelement de on de.uid = eventdatavalue.dataelement_uid
 
   private StringBuilder getFromWhereClause(
       EventQueryParams params,
+      PageParams pageParams,
       MapSqlParameterSource mapSqlParameterSource,
       User user,
       SqlHelper hlp,
@@ -1163,6 +1174,12 @@ left join dataelement de on de.uid = eventdatavalue.dataelement_uid
       fromBuilder.append(hlp.whereAnd()).append(" (en.uid in (:enrollment_uid)) ");
     }
 
+    if (pageParams != null && pageParams.hasCursor()) {
+      mapSqlParameterSource.addValue("cursor", pageParams.getCursor());
+
+      fromBuilder.append(hlp.whereAnd()).append(" ev.eventid < :cursor ");
+    }
+
     return fromBuilder;
   }
 
@@ -112,6 +112,7 @@ class HibernateRelationshipStore extends SoftDeleteHibernateObjectStore<Relation
       @Nonnull PageParams pageParams) {
 
     return getPage(
+        queryParams,
         pageParams,
         relationshipsList(trackedEntity, queryParams, pageParams),
         () -> countRelationships(trackedEntity, queryParams));
@@ -121,6 +122,7 @@ class HibernateRelationshipStore extends SoftDeleteHibernateObjectStore<Relation
   public Page<Relationship> getByEnrollment(
       Enrollment enrollment, RelationshipQueryParams queryParams, @Nonnull PageParams pageParams) {
     return getPage(
+        queryParams,
         pageParams,
         relationshipsList(enrollment, queryParams, pageParams),
         () -> countRelationships(enrollment, queryParams));
@@ -130,6 +132,7 @@ class HibernateRelationshipStore extends SoftDeleteHibernateObjectStore<Relation
   public Page<Relationship> getByEvent(
       Event event, RelationshipQueryParams queryParams, @Nonnull PageParams pageParams) {
     return getPage(
+        queryParams,
         pageParams,
         relationshipsList(event, queryParams, pageParams),
         () -> countRelationships(event, queryParams));
@@ -161,7 +164,7 @@ class HibernateRelationshipStore extends SoftDeleteHibernateObjectStore<Relation
    */
   private <T extends SoftDeletableObject> List<Relationship> relationshipsList(
       T entity, RelationshipQueryParams queryParams, PageParams pageParams) {
-    CriteriaQuery<Relationship> criteriaQuery = criteriaQuery(entity, queryParams);
+    CriteriaQuery<Relationship> criteriaQuery = criteriaQuery(entity, queryParams, pageParams);
 
     TypedQuery<Relationship> query = entityManager.createQuery(criteriaQuery);
 
@@ -198,7 +201,7 @@ class HibernateRelationshipStore extends SoftDeleteHibernateObjectStore<Relation
   }
 
   private <T extends SoftDeletableObject> CriteriaQuery<Relationship> criteriaQuery(
-      T entity, RelationshipQueryParams queryParams) {
+      T entity, RelationshipQueryParams queryParams, PageParams pageParams) {
     CriteriaBuilder builder = getCriteriaBuilder();
     CriteriaQuery<Relationship> criteriaQuery = builder.createQuery(Relationship.class);
 
@@ -206,9 +209,17 @@ class HibernateRelationshipStore extends SoftDeleteHibernateObjectStore<Relation
 
     criteriaQuery.select(root);
 
-    criteriaQuery.where(
-        whereConditionPredicates(
-            entity, builder, criteriaQuery, root, queryParams.isIncludeDeleted()));
+    List<Predicate> predicates =
+        new ArrayList<>(
+            List.of(
+                whereConditionPredicates(
+                    entity, builder, criteriaQuery, root, queryParams.isIncludeDeleted())));
+
+    if (pageParams != null && pageParams.hasCursor()) {
+      predicates.add(builder.lessThan(root.<Long>get("id"), pageParams.getCursor()));
+    }
+
+    criteriaQuery.where(predicates.toArray(Predicate[]::new));
 
     criteriaQuery.orderBy(orderBy(queryParams, builder, root));
 
@@ -286,16 +297,27 @@ class HibernateRelationshipStore extends SoftDeleteHibernateObjectStore<Relation
   }
 
   private Page<Relationship> getPage(
-      PageParams pageParams, List<Relationship> relationships, LongSupplier relationshipsCount) {
+      RelationshipQueryParams queryParams,
+      PageParams pageParams,
+      List<Relationship> relationships,
+      LongSupplier relationshipsCount) {
+    Page<Relationship> page;
     if (pageParams.isPageTotal()) {
-      return Page.withTotals(
-          relationships,
-          pageParams.getPage(),
-          pageParams.getPageSize(),
-          relationshipsCount.getAsLong());
+      page =
+          Page.withTotals(
+              relationships,
+              pageParams.getPage(),
+              pageParams.getPageSize(),
+              relationshipsCount.getAsLong());
+    } else {
+      page = Page.withoutTotals(relationships, pageParams.getPage(), pageParams.getPageSize());
+    }
+
+    if (queryParams.getOrder().isEmpty()) {
+      return page.withNextPageCursor(Relationship::getId);
     }
 
-    return Page.withoutTotals(relationships, pageParams.getPage(), pageParams.getPageSize());
+    return page;
   }
 
   @Override
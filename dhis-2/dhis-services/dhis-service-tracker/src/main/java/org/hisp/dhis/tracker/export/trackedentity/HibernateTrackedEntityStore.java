@@ -178,7 +178,13 @@ class HibernateTrackedEntityStore extends SoftDeleteHibernateObjectStore<Tracked
     }
 
     LongSupplier teCount = () -> getTrackedEntityCount(params);
-    return getPage(pageParams, ids, teCount);
+    Page<Long> page = getPage(pageParams, ids, teCount);
+
+    if (params.getOrder().isEmpty()) {
+      return page.withNextPageCursor(Long::longValue);
+    }
+
+    return page;
   }
 
   private Page<Long> getPage(
@@ -380,6 +386,16 @@ class HibernateTrackedEntityStore extends SoftDeleteHibernateObjectStore<Tracked
             .append(getFromSubQueryTrackedEntityConditions(whereAnd, params))
             .append(getFromSubQueryEnrollmentConditions(whereAnd, params));
 
+    if (!isCountQuery && pageParams != null && pageParams.hasCursor()) {
+      // seek past the previous page using the primary key index instead of an offset
+      fromSubQuery
+          .append(whereAnd.whereAnd())
+          .append(MAIN_QUERY_ALIAS)
+          .append(".trackedentityid < ")
+          .append(pageParams.getCursor())
+          .append(SPACE);
+    }
+
     if (!isCountQuery) {
       // SORT
       fromSubQuery
@@ -27,12 +27,11 @@
  */
 package org.hisp.dhis.tracker.export.trackedentity.aggregates;
 
-import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 /**
@@ -40,29 +39,28 @@ import java.util.function.Supplier;
  */
 interface Aggregate {
   /**
-   * Executes the Supplier asynchronously using the thread pool from the provided {@see Executor}
+   * Executes the Supplier asynchronously as a fetch of the request of the given {@see Context}
    *
    * @param condition A condition that, if true, executes the Supplier, if false, returns an empty
    *     Multimap
    * @param supplier The Supplier to execute
-   * @param executor an Executor instance
+   * @param ctx the {@see Context} of the request
    * @return A CompletableFuture with the result of the Supplier
    */
   default <T> CompletableFuture<Multimap<String, T>> conditionalAsyncFetch(
-      boolean condition, Supplier<Multimap<String, T>> supplier, Executor executor) {
-    return (condition
-        ? supplyAsync(supplier, executor)
-        : supplyAsync(ArrayListMultimap::create, executor));
+      boolean condition, Supplier<Multimap<String, T>> supplier, Context ctx) {
+    return condition ? asyncFetch(supplier, ctx) : completedFuture(ArrayListMultimap.create());
   }
 
   /**
-   * Executes the Supplier asynchronously using the thread pool from the provided {@see Executor}
+   * Executes the Supplier asynchronously as a fetch of the request of the given {@see Context}
    *
    * @param supplier The Supplier to execute
+   * @param ctx the {@see Context} of the request
    * @return A CompletableFuture with the result of the Supplier
    */
   default <T> CompletableFuture<Multimap<String, T>> asyncFetch(
-      Supplier<Multimap<String, T>> supplier, Executor executor) {
-    return supplyAsync(supplier, executor);
+      Supplier<Multimap<String, T>> supplier, Context ctx) {
+    return ctx.getRequest().fetch(supplier);
   }
 }
@@ -68,4 +68,7 @@ class Context {
 
   /** The query parameters to filter tracked entities */
   TrackedEntityQueryParams queryParams;
+
+  /** The admitted request running the asynchronous fetches */
+  ThreadPoolManager.Request request;
 }
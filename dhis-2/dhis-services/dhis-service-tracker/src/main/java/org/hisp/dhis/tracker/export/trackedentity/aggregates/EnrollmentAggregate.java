@@ -27,9 +27,7 @@
  */
 package org.hisp.dhis.tracker.export.trackedentity.aggregates;
 
-import static java.util.concurrent.CompletableFuture.allOf;
-import static org.hisp.dhis.tracker.export.trackedentity.aggregates.ThreadPoolManager.getPool;
-
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -77,56 +75,51 @@ public class EnrollmentAggregate implements Aggregate {
 
     List<Long> enrollmentIds = enrollments.values().stream().map(Enrollment::getId).toList();
 
-    final CompletableFuture<Multimap<String, Event>> eventAsync =
-        conditionalAsyncFetch(
-            ctx.getParams().getEnrollmentParams().isIncludeEvents(),
-            () -> eventAggregate.findByEnrollmentIds(enrollmentIds, ctx),
-            getPool());
-
     final CompletableFuture<Multimap<String, RelationshipItem>> relationshipAsync =
         conditionalAsyncFetch(
             ctx.getParams().getEnrollmentParams().isIncludeRelationships(),
             () -> enrollmentStore.getRelationships(enrollmentIds, ctx),
-            getPool());
+            ctx);
 
     final CompletableFuture<Multimap<String, Note>> notesAsync =
-        asyncFetch(() -> enrollmentStore.getNotes(enrollmentIds), getPool());
+        asyncFetch(() -> enrollmentStore.getNotes(enrollmentIds), ctx);
 
     final CompletableFuture<Multimap<String, TrackedEntityAttributeValue>> attributesAsync =
         conditionalAsyncFetch(
             ctx.getParams().getTeEnrollmentParams().isIncludeAttributes(),
             () -> enrollmentStore.getAttributes(enrollmentIds, ctx),
-            getPool());
+            ctx);
 
-    return allOf(eventAsync, notesAsync, relationshipAsync, attributesAsync)
-        .thenApplyAsync(
-            fn -> {
-              Multimap<String, Event> events = eventAsync.join();
-              Multimap<String, Note> notes = notesAsync.join();
-              Multimap<String, RelationshipItem> relationships = relationshipAsync.join();
-              Multimap<String, TrackedEntityAttributeValue> attributes = attributesAsync.join();
+    /*
+     * Events are fetched on this thread while the queries above run, as
+     * the event aggregate waits for fetches of its own
+     */
+    Multimap<String, Event> events =
+        ctx.getParams().getEnrollmentParams().isIncludeEvents()
+            ? eventAggregate.findByEnrollmentIds(enrollmentIds, ctx)
+            : ArrayListMultimap.create();
+    Multimap<String, Note> notes = ctx.getRequest().join(notesAsync);
+    Multimap<String, RelationshipItem> relationships = ctx.getRequest().join(relationshipAsync);
+    Multimap<String, TrackedEntityAttributeValue> attributes =
+        ctx.getRequest().join(attributesAsync);
 
-              for (Enrollment enrollment : enrollments.values()) {
-                if (ctx.getParams().getTeEnrollmentParams().isIncludeEvents()) {
-                  enrollment.setEvents(new HashSet<>(events.get(enrollment.getUid())));
-                }
-                if (ctx.getParams().getTeEnrollmentParams().isIncludeRelationships()) {
-                  enrollment.setRelationshipItems(
-                      new HashSet<>(relationships.get(enrollment.getUid())));
-                }
-                if (ctx.getParams().getTeEnrollmentParams().isIncludeAttributes()) {
-                  enrollment
-                      .getTrackedEntity()
-                      .setTrackedEntityAttributeValues(
-                          new LinkedHashSet<>(attributes.get(enrollment.getUid())));
-                }
+    for (Enrollment enrollment : enrollments.values()) {
+      if (ctx.getParams().getTeEnrollmentParams().isIncludeEvents()) {
+        enrollment.setEvents(new HashSet<>(events.get(enrollment.getUid())));
+      }
+      if (ctx.getParams().getTeEnrollmentParams().isIncludeRelationships()) {
+        enrollment.setRelationshipItems(new HashSet<>(relationships.get(enrollment.getUid())));
+      }
+      if (ctx.getParams().getTeEnrollmentParams().isIncludeAttributes()) {
+        enrollment
+            .getTrackedEntity()
+            .setTrackedEntityAttributeValues(
+                new LinkedHashSet<>(attributes.get(enrollment.getUid())));
+      }
 
-                enrollment.setNotes(new ArrayList<>(notes.get(enrollment.getUid())));
-              }
+      enrollment.setNotes(new ArrayList<>(notes.get(enrollment.getUid())));
+    }
 
-              return enrollments;
-            },
-            getPool())
-        .join();
+    return enrollments;
   }
 }
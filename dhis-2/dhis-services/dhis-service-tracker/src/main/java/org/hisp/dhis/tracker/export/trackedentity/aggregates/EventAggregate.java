@@ -27,10 +27,6 @@
  */
 package org.hisp.dhis.tracker.export.trackedentity.aggregates;
 
-import static java.util.concurrent.CompletableFuture.allOf;
-import static java.util.concurrent.CompletableFuture.supplyAsync;
-import static org.hisp.dhis.tracker.export.trackedentity.aggregates.ThreadPoolManager.getPool;
-
 import com.google.common.collect.Multimap;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -83,42 +79,36 @@ public class EventAggregate implements Aggregate {
         conditionalAsyncFetch(
             ctx.getParams().getEventParams().isIncludeRelationships(),
             () -> eventStore.getRelationships(eventIds, ctx),
-            getPool());
+            ctx);
 
     /*
      * Async fetch Notes for the given Event ids
      */
     final CompletableFuture<Multimap<String, Note>> notesAsync =
-        asyncFetch(() -> eventStore.getNotes(eventIds), getPool());
+        asyncFetch(() -> eventStore.getNotes(eventIds), ctx);
 
     /*
      * Async fetch DataValues for the given Event ids
      */
     final CompletableFuture<Map<String, List<EventDataValue>>> dataValuesAsync =
-        supplyAsync(() -> eventStore.getDataValues(eventIds), getPool());
+        ctx.getRequest().fetch(() -> eventStore.getDataValues(eventIds));
 
-    return allOf(dataValuesAsync, notesAsync, relationshipAsync)
-        .thenApplyAsync(
-            fn -> {
-              Map<String, List<EventDataValue>> dataValues = dataValuesAsync.join();
-              Multimap<String, Note> notes = notesAsync.join();
-              Multimap<String, RelationshipItem> relationships = relationshipAsync.join();
+    Map<String, List<EventDataValue>> dataValues = ctx.getRequest().join(dataValuesAsync);
+    Multimap<String, Note> notes = ctx.getRequest().join(notesAsync);
+    Multimap<String, RelationshipItem> relationships = ctx.getRequest().join(relationshipAsync);
 
-              for (Event event : events.values()) {
-                if (ctx.getParams().isIncludeRelationships()) {
-                  event.setRelationshipItems(new HashSet<>(relationships.get(event.getUid())));
-                }
+    for (Event event : events.values()) {
+      if (ctx.getParams().isIncludeRelationships()) {
+        event.setRelationshipItems(new HashSet<>(relationships.get(event.getUid())));
+      }
 
-                List<EventDataValue> dataValuesForEvent = dataValues.get(event.getUid());
-                if (dataValuesForEvent != null && !dataValuesForEvent.isEmpty()) {
-                  event.setEventDataValues(new HashSet<>(dataValues.get(event.getUid())));
-                }
-                event.setNotes(new ArrayList<>(notes.get(event.getUid())));
-              }
+      List<EventDataValue> dataValuesForEvent = dataValues.get(event.getUid());
+      if (dataValuesForEvent != null && !dataValuesForEvent.isEmpty()) {
+        event.setEventDataValues(new HashSet<>(dataValues.get(event.getUid())));
+      }
+      event.setNotes(new ArrayList<>(notes.get(event.getUid())));
+    }
 
-              return events;
-            },
-            getPool())
-        .join();
+    return events;
   }
 }
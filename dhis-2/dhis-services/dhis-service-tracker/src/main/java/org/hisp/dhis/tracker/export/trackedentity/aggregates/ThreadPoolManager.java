@@ -27,31 +27,226 @@
  */
 package org.hisp.dhis.tracker.export.trackedentity.aggregates;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.PreDestroy;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.system.executor.BoundedExecutorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
 
 /**
- * Exposes a static method to fetch an Executor for the Aggregates operations
+ * Runs the database fetches of the aggregates on a bounded pool of threads sized relative to the
+ * database connection pool.
+ *
+ * <p>Each export first has to be admitted as a {@link Request}. At most as many requests as there
+ * are threads fetch at the same time, and each request has at most {@link #FETCHES_PER_REQUEST}
+ * fetches in flight. Requests that are not admitted within the connection pool timeout are
+ * rejected with a {@link TrackerExportAdmissionException}.
+ *
+ * <p>A request is a single call of {@link TrackedEntityAggregate#find}, so an export of several
+ * pages is admitted once per page. Admission does not distinguish callers: jobs and other non-web
+ * callers exporting tracked entities share the same requests with the web API and are rejected
+ * the same way when all requests are in use.
+ *
+ * <p>Only queries are run by the pool. Fetches that combine the results of other fetches run on the
+ * request thread, so a pool thread never waits for another pool thread.
  *
  * @author Luciano Fiandesio
  */
+@Component
 public class ThreadPoolManager {
-  // Thread factory that sets a user-defined thread name (useful for debugging
-  // purposes)
-  private ThreadPoolManager() {
-    throw new IllegalStateException("only used for its static fields");
+  /** Maximum number of fetches of a single request queued or running at the same time. */
+  static final int FETCHES_PER_REQUEST = 4;
+
+  private final ThreadPoolExecutor pool;
+
+  private final Semaphore admissions;
+
+  private final int maxRequests;
+
+  private final long admissionTimeoutMillis;
+
+  @CheckForNull private volatile Timer admissionWait;
+
+  @Autowired
+  public ThreadPoolManager(
+      DhisConfigurationProvider config, BoundedExecutorFactory executorFactory) {
+    this(
+        executorFactory.create(
+            "TRACKER-TE-FETCH",
+            config.getIntProperty(ConfigurationKey.TRACKER_EXPORT_FETCH_THREADS) > 0
+                ? config.getIntProperty(ConfigurationKey.TRACKER_EXPORT_FETCH_THREADS)
+                : config.getIntProperty(ConfigurationKey.CONNECTION_POOL_MAX_SIZE) / 2),
+        config.getIntProperty(ConfigurationKey.CONNECTION_POOL_TIMEOUT));
+    executorFactory.addMeterBinder(this::bindTo);
+  }
+
+  /**
+   * @param threads number of threads running fetches
+   * @param admissionTimeoutMillis maximum time a request waits to be admitted
+   */
+  public ThreadPoolManager(int threads, long admissionTimeoutMillis) {
+    this(BoundedExecutorFactory.newExecutor("TRACKER-TE-FETCH", threads), admissionTimeoutMillis);
+  }
+
+  private ThreadPoolManager(ThreadPoolExecutor pool, long admissionTimeoutMillis) {
+    this.pool = pool;
+    this.maxRequests = pool.getMaximumPoolSize();
+    this.admissions = new Semaphore(maxRequests, true);
+    this.admissionTimeoutMillis = admissionTimeoutMillis;
+  }
+
+  /**
+   * Admits a request to fetch. The returned request must be closed once its results are joined.
+   *
+   * @return the admitted request
+   * @throws TrackerExportAdmissionException when the request could not be admitted in time
+   */
+  @Nonnull
+  Request admit() {
+    long start = System.nanoTime();
+    try {
+      if (!admissions.tryAcquire(admissionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+        throw new TrackerExportAdmissionException();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while waiting to fetch");
+    }
+    record(admissionWait, start);
+    return new Request();
   }
 
-  private static final ThreadFactory threadFactory =
-      new ThreadFactoryBuilder().setNameFormat("TRACKER-TE-FETCH-%d").setDaemon(true).build();
+  @PreDestroy
+  public void shutdown() {
+    pool.shutdownNow();
+  }
+
+  public int getActiveRequests() {
+    return maxRequests - admissions.availablePermits();
+  }
+
+  /**
+   * Binds the admission metrics. The metrics of the fetch threads are bound by the {@link
+   * BoundedExecutorFactory}.
+   */
+  private void bindTo(MeterRegistry registry) {
+    Gauge.builder("tracker.export.requests.active", this, ThreadPoolManager::getActiveRequests)
+        .description("Number of tracker export requests admitted to fetch")
+        .register(registry);
+    admissionWait =
+        Timer.builder("tracker.export.requests.admission.wait")
+            .description("Time a tracker export request waits to be admitted")
+            .register(registry);
+  }
+
+  private static void record(@CheckForNull Timer timer, long start) {
+    if (timer != null) {
+      timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * The fetches of a single export. When a fetch fails, the waiting thread is interrupted or the
+   * request is closed before all fetches completed, the fetches that did not start yet are
+   * cancelled.
+   */
+  final class Request implements AutoCloseable {
+    private final Semaphore inFlight = new Semaphore(FETCHES_PER_REQUEST);
+
+    private final Queue<CompletableFuture<?>> fetches = new ConcurrentLinkedQueue<>();
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private boolean closed;
+
+    private Request() {}
+
+    /**
+     * Runs the supplier on the pool. Blocks while the request has the maximum number of fetches in
+     * flight.
+     *
+     * @return the future result of the supplier
+     */
+    @Nonnull
+    <T> CompletableFuture<T> fetch(@Nonnull Supplier<T> supplier) {
+      try {
+        inFlight.acquire();
+      } catch (InterruptedException ex) {
+        cancel();
+        Thread.currentThread().interrupt();
+        throw new CancellationException("Interrupted while waiting to fetch");
+      }
+      CompletableFuture<T> fetch;
+      try {
+        fetch = CompletableFuture.supplyAsync(supplier, pool);
+      } catch (RejectedExecutionException ex) {
+        inFlight.release();
+        throw ex;
+      }
+      fetches.add(fetch);
+      fetch.whenComplete(
+          (value, ex) -> {
+            inFlight.release();
+            if (ex != null && !(ex instanceof CancellationException)) {
+              failure.compareAndSet(null, ex instanceof CompletionException ? ex.getCause() : ex);
+              cancel();
+            }
+          });
+      return fetch;
+    }
+
+    /**
+     * Waits for a fetch of this request to complete.
+     *
+     * @return the result of the fetch
+     * @throws CompletionException when the fetch or another fetch of this request failed
+     */
+    <T> T join(@Nonnull CompletableFuture<T> fetch) {
+      try {
+        return fetch.get();
+      } catch (InterruptedException ex) {
+        cancel();
+        Thread.currentThread().interrupt();
+        throw new CancellationException("Interrupted while waiting for fetch");
+      } catch (ExecutionException ex) {
+        throw new CompletionException(ex.getCause());
+      } catch (CancellationException ex) {
+        Throwable cause = failure.get();
+        throw cause == null ? ex : new CompletionException(cause);
+      }
+    }
 
-  /** Cached thread pool: not bound to a size, but can reuse existing threads. */
-  private static final Executor AGGREGATE_THREAD_POOL =
-      Executors.newCachedThreadPool(threadFactory);
+    private void cancel() {
+      for (CompletableFuture<?> fetch : fetches) {
+        fetch.cancel(false);
+      }
+    }
 
-  static Executor getPool() {
-    return AGGREGATE_THREAD_POOL;
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        cancel();
+        admissions.release();
+      }
+    }
   }
 }
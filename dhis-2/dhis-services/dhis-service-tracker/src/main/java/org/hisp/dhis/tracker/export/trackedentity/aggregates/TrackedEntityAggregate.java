@@ -27,11 +27,9 @@
  */
 package org.hisp.dhis.tracker.export.trackedentity.aggregates;
 
-import static java.util.concurrent.CompletableFuture.allOf;
-import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static org.hisp.dhis.common.OrganisationUnitSelectionMode.ALL;
-import static org.hisp.dhis.tracker.export.trackedentity.aggregates.ThreadPoolManager.getPool;
 
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import java.util.Collection;
@@ -91,6 +89,8 @@ public class TrackedEntityAggregate implements Aggregate {
 
   @Nonnull private final CacheProvider cacheProvider;
 
+  @Nonnull private final ThreadPoolManager threadPoolManager;
+
   private Cache<Set<TrackedEntityAttribute>> teAttributesCache;
 
   private Cache<Map<Program, Set<TrackedEntityAttribute>>> programTeAttributesCache;
@@ -135,6 +135,18 @@ public class TrackedEntityAggregate implements Aggregate {
           }
         });
 
+    try (ThreadPoolManager.Request request = threadPoolManager.admit()) {
+      return find(ids, params, queryParams, orgUnitMode, user, request);
+    }
+  }
+
+  private List<TrackedEntity> find(
+      List<Long> ids,
+      TrackedEntityParams params,
+      TrackedEntityQueryParams queryParams,
+      OrganisationUnitSelectionMode orgUnitMode,
+      Optional<User> user,
+      ThreadPoolManager.Request request) {
     /*
      * Create a context with information which will be used to fetch the
      * entities. Use a superUser context if the user is null.
@@ -148,7 +160,8 @@ public class TrackedEntityAggregate implements Aggregate {
                             userUID ->
                                 getSecurityContext(
                                     userUID,
-                                    userGroupUIDCache.get(userUID).orElse(Lists.newArrayList())))
+                                    userGroupUIDCache.get(userUID).orElse(Lists.newArrayList()),
+                                    request))
                         .toBuilder()
                         .userId(u.getId())
                         .userUid(u.getUid())
@@ -164,6 +177,7 @@ public class TrackedEntityAggregate implements Aggregate {
                     .relationshipTypes(Collections.emptyList()))
             .params(params)
             .queryParams(queryParams)
+            .request(request)
             .build();
 
     /*
@@ -174,17 +188,7 @@ public class TrackedEntityAggregate implements Aggregate {
         conditionalAsyncFetch(
             ctx.getParams().isIncludeRelationships(),
             () -> trackedEntityStore.getRelationships(ids, ctx),
-            getPool());
-
-    /*
-     * Async fetch Enrollments for the given TrackedEntity id (only if
-     * isIncludeEnrollments = true)
-     */
-    final CompletableFuture<Multimap<String, Enrollment>> enrollmentsAsync =
-        conditionalAsyncFetch(
-            ctx.getParams().isIncludeEnrollments(),
-            () -> enrollmentAggregate.findByTrackedEntityIds(ids, ctx),
-            getPool());
+            ctx);
 
     /*
      * Async fetch all ProgramOwner for the given TrackedEntity id
@@ -193,19 +197,19 @@ public class TrackedEntityAggregate implements Aggregate {
         conditionalAsyncFetch(
             ctx.getParams().isIncludeProgramOwners(),
             () -> trackedEntityStore.getProgramOwners(ids),
-            getPool());
+            ctx);
 
     /*
      * Async Fetch TrackedEntities by id
      */
     final CompletableFuture<Map<String, TrackedEntity>> trackedEntitiesAsync =
-        supplyAsync(() -> trackedEntityStore.getTrackedEntities(ids, ctx), getPool());
+        request.fetch(() -> trackedEntityStore.getTrackedEntities(ids, ctx));
 
     /*
      * Async fetch TrackedEntity Attributes by TrackedEntity id
      */
     final CompletableFuture<Multimap<String, TrackedEntityAttributeValue>> attributesAsync =
-        supplyAsync(() -> trackedEntityStore.getAttributes(ids), getPool());
+        request.fetch(() -> trackedEntityStore.getAttributes(ids));
 
     /*
      * Async fetch Owned Tei mapped to the provided program attributes by
@@ -215,61 +219,56 @@ public class TrackedEntityAggregate implements Aggregate {
         conditionalAsyncFetch(
             user.isPresent(),
             () -> trackedEntityStore.getOwnedTeis(ids, ctx, orgUnitMode == ALL),
-            getPool());
+            ctx);
+
+    /*
+     * Fetch Enrollments for the given TrackedEntity id (only if
+     * isIncludeEnrollments = true) on this thread while the queries above
+     * run, as the enrollment aggregate waits for fetches of its own
+     */
+    Multimap<String, Enrollment> enrollments =
+        ctx.getParams().isIncludeEnrollments()
+            ? enrollmentAggregate.findByTrackedEntityIds(ids, ctx)
+            : ArrayListMultimap.create();
+
     /*
-     * Execute all queries and merge the results
+     * Wait for all queries and merge the results
      */
-    return allOf(
-            trackedEntitiesAsync,
-            attributesAsync,
-            relationshipsAsync,
-            enrollmentsAsync,
-            ownedTeiAsync)
-        .thenApplyAsync(
-            fn -> {
-              Map<String, TrackedEntity> trackedEntities = trackedEntitiesAsync.join();
-
-              Multimap<String, TrackedEntityAttributeValue> attributes = attributesAsync.join();
-              Multimap<String, RelationshipItem> relationships = relationshipsAsync.join();
-              Multimap<String, Enrollment> enrollments = enrollmentsAsync.join();
-              Multimap<String, TrackedEntityProgramOwner> programOwners = programOwnersAsync.join();
-              Multimap<String, String> ownedTeis = ownedTeiAsync.join();
-
-              Stream<String> teUidStream = trackedEntities.keySet().parallelStream();
-
-              if (user.isPresent() && queryParams.hasProgram()) {
-                teUidStream = teUidStream.filter(ownedTeis::containsKey);
-              }
-
-              return teUidStream
-                  .map(
-                      uid -> {
-                        TrackedEntity te = trackedEntities.get(uid);
-                        te.setTrackedEntityAttributeValues(
-                            filterAttributes(
-                                attributes.get(uid),
-                                ownedTeis.get(uid),
-                                teAttributesCache.get(
-                                    "ALL_ATTRIBUTES",
-                                    s ->
-                                        trackedEntityAttributeService
-                                            .getTrackedEntityAttributesByTrackedEntityTypes()),
-                                programTeAttributesCache.get(
-                                    "ATTRIBUTES_BY_PROGRAM",
-                                    s ->
-                                        trackedEntityAttributeService
-                                            .getTrackedEntityAttributesByProgram()),
-                                ctx));
-                        te.setRelationshipItems(new HashSet<>(relationships.get(uid)));
-                        te.setEnrollments(
-                            filterEnrollments(enrollments.get(uid), ownedTeis.get(uid), ctx));
-                        te.setProgramOwners(new HashSet<>(programOwners.get(uid)));
-                        return te;
-                      })
-                  .toList();
-            },
-            getPool())
-        .join();
+    Map<String, TrackedEntity> trackedEntities = request.join(trackedEntitiesAsync);
+    Multimap<String, TrackedEntityAttributeValue> attributes = request.join(attributesAsync);
+    Multimap<String, RelationshipItem> relationships = request.join(relationshipsAsync);
+    Multimap<String, TrackedEntityProgramOwner> programOwners = request.join(programOwnersAsync);
+    Multimap<String, String> ownedTeis = request.join(ownedTeiAsync);
+
+    Stream<String> teUidStream = trackedEntities.keySet().parallelStream();
+
+    if (user.isPresent() && queryParams.hasProgram()) {
+      teUidStream = teUidStream.filter(ownedTeis::containsKey);
+    }
+
+    return teUidStream
+        .map(
+            uid -> {
+              TrackedEntity te = trackedEntities.get(uid);
+              te.setTrackedEntityAttributeValues(
+                  filterAttributes(
+                      attributes.get(uid),
+                      ownedTeis.get(uid),
+                      teAttributesCache.get(
+                          "ALL_ATTRIBUTES",
+                          s ->
+                              trackedEntityAttributeService
+                                  .getTrackedEntityAttributesByTrackedEntityTypes()),
+                      programTeAttributesCache.get(
+                          "ATTRIBUTES_BY_PROGRAM",
+                          s -> trackedEntityAttributeService.getTrackedEntityAttributesByProgram()),
+                      ctx));
+              te.setRelationshipItems(new HashSet<>(relationships.get(uid)));
+              te.setEnrollments(filterEnrollments(enrollments.get(uid), ownedTeis.get(uid), ctx));
+              te.setProgramOwners(new HashSet<>(programOwners.get(uid)));
+              return te;
+            })
+        .toList();
   }
 
   /** Filter enrollments based on ownership and super user status. */
@@ -334,31 +333,25 @@ public class TrackedEntityAggregate implements Aggregate {
    * @param userUID the user uid of a {@see User}
    * @return an instance of {@see Context} populated with ACL-related info
    */
-  private Context getSecurityContext(String userUID, List<String> userGroupUIDs) {
+  private Context getSecurityContext(
+      String userUID, List<String> userGroupUIDs, ThreadPoolManager.Request request) {
     final CompletableFuture<List<Long>> getTeiTypes =
-        supplyAsync(
-            () -> aclStore.getAccessibleTrackedEntityTypes(userUID, userGroupUIDs), getPool());
+        request.fetch(() -> aclStore.getAccessibleTrackedEntityTypes(userUID, userGroupUIDs));
 
     final CompletableFuture<List<Long>> getPrograms =
-        supplyAsync(() -> aclStore.getAccessiblePrograms(userUID, userGroupUIDs), getPool());
+        request.fetch(() -> aclStore.getAccessiblePrograms(userUID, userGroupUIDs));
 
     final CompletableFuture<List<Long>> getProgramStages =
-        supplyAsync(() -> aclStore.getAccessibleProgramStages(userUID, userGroupUIDs), getPool());
+        request.fetch(() -> aclStore.getAccessibleProgramStages(userUID, userGroupUIDs));
 
     final CompletableFuture<List<Long>> getRelationshipTypes =
-        supplyAsync(
-            () -> aclStore.getAccessibleRelationshipTypes(userUID, userGroupUIDs), getPool());
-
-    return allOf(getTeiTypes, getPrograms, getProgramStages, getRelationshipTypes)
-        .thenApplyAsync(
-            fn ->
-                Context.builder()
-                    .trackedEntityTypes(getTeiTypes.join())
-                    .programs(getPrograms.join())
-                    .programStages(getProgramStages.join())
-                    .relationshipTypes(getRelationshipTypes.join())
-                    .build(),
-            getPool())
-        .join();
+        request.fetch(() -> aclStore.getAccessibleRelationshipTypes(userUID, userGroupUIDs));
+
+    return Context.builder()
+        .trackedEntityTypes(request.join(getTeiTypes))
+        .programs(request.join(getPrograms))
+        .programStages(request.join(getProgramStages))
+        .relationshipTypes(request.join(getRelationshipTypes))
+        .build();
   }
 }
@@ -29,6 +29,7 @@ package org.hisp.dhis.tracker.imports;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -123,8 +124,11 @@ public class DefaultTrackerImportService implements TrackerImportService {
     }
 
     if (exitOnError(validationReport, params)) {
-      return ImportReport.withValidationErrors(
-          validationReport, bundleSize.values().stream().mapToInt(Integer::intValue).sum());
+      ImportReport importReport =
+          ImportReport.withValidationErrors(
+              validationReport, bundleSize.values().stream().mapToInt(Integer::intValue).sum());
+      importReport.setTimings(getTimings(trackerBundle));
+      return importReport;
     }
 
     jobProgress.startingStage("Commit Transaction");
@@ -135,8 +139,24 @@ public class DefaultTrackerImportService implements TrackerImportService {
     jobProgress.startingStage("PostCommit");
     jobProgress.runStage(() -> trackerBundleService.postCommit(trackerBundle));
 
-    return ImportReport.withImportCompleted(
-        Status.OK, persistenceReport, validationReport, bundleSize);
+    ImportReport importReport =
+        ImportReport.withImportCompleted(
+            Status.OK, persistenceReport, validationReport, bundleSize);
+    importReport.setTimings(getTimings(trackerBundle));
+    return importReport;
+  }
+
+  private Map<String, Long> getTimings(TrackerBundle bundle) {
+    if (bundle.getPreheat() == null) {
+      return null;
+    }
+
+    Map<String, Long> timings = new LinkedHashMap<>();
+    bundle
+        .getPreheat()
+        .getTimings()
+        .forEach((supplier, millis) -> timings.put("preheat." + supplier, millis));
+    return timings;
   }
 
   protected ValidationResult validateBundle(TrackerBundle bundle) {
@@ -206,7 +226,8 @@ public class DefaultTrackerImportService implements TrackerImportService {
             .status(originalImportReport.getStatus())
             .stats(originalImportReport.getStats())
             .persistenceReport(originalImportReport.getPersistenceReport())
-            .message(originalImportReport.getMessage());
+            .message(originalImportReport.getMessage())
+            .timings(originalImportReport.getTimings());
 
     ValidationReport originalValidationReport = originalImportReport.getValidationReport();
     ValidationReport validationReport = ValidationReport.emptyReport();
@@ -39,6 +39,8 @@ import java.util.Set;
 import javax.annotation.Nonnull;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.Session;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.feedback.ForbiddenException;
 import org.hisp.dhis.feedback.NotFoundException;
 import org.hisp.dhis.program.UserInfoSnapshot;
@@ -80,6 +82,8 @@ public class DefaultTrackerBundleService implements TrackerBundleService {
 
   private final ObjectMapper mapper;
 
+  private final DhisConfigurationProvider config;
+
   private List<NotificationHandlerService> notificationHandlers = new ArrayList<>();
 
   @Autowired(required = false)
@@ -116,6 +120,8 @@ public class DefaultTrackerBundleService implements TrackerBundleService {
       return PersistenceReport.emptyReport();
     }
 
+    enableJdbcBatching();
+
     Map<TrackerType, TrackerTypeReport> reportMap =
         Map.of(
             TrackerType.TRACKED_ENTITY,
@@ -130,6 +136,18 @@ public class DefaultTrackerBundleService implements TrackerBundleService {
     return new PersistenceReport(reportMap);
   }
 
+  /**
+   * Sends the inserts and updates of the current session in JDBC batches. The batch size is a
+   * session setting, so it does not change other sessions. The session is bound to the surrounding
+   * transaction, so the batch size also applies when it is flushed on commit.
+   */
+  private void enableJdbcBatching() {
+    int batchSize = config.getIntProperty(ConfigurationKey.TRACKER_IMPORT_JDBC_BATCH_SIZE);
+    if (batchSize > 0) {
+      entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+    }
+  }
+
   @Override
   @Transactional
   public void postCommit(@Nonnull TrackerBundle bundle) {
@@ -29,6 +29,10 @@ package org.hisp.dhis.tracker.imports.config;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.system.executor.BoundedExecutorFactory;
 import org.hisp.dhis.tracker.imports.preheat.supplier.ClassBasedSupplier;
 import org.hisp.dhis.tracker.imports.preheat.supplier.CurrentUserSupplier;
 import org.hisp.dhis.tracker.imports.preheat.supplier.DefaultsSupplier;
@@ -76,6 +80,14 @@ public class TrackerPreheatConfig {
     return preheatOrder.stream().map(Class::getSimpleName).toList();
   }
 
+  /** Runs the preheat suppliers which do not depend on the Hibernate session. */
+  @Bean("preheatExecutor")
+  public ExecutorService preheatExecutor(
+      DhisConfigurationProvider config, BoundedExecutorFactory executorFactory) {
+    return executorFactory.create(
+        "TRACKER-PREHEAT", config.getIntProperty(ConfigurationKey.TRACKER_IMPORT_PREHEAT_THREADS));
+  }
+
   @Bean("preheatStrategies")
   public Map<String, String> getPreheatStrategies() {
     return new PreheatStrategyScanner().scanSupplierStrategies();
@@ -28,7 +28,15 @@
 package org.hisp.dhis.tracker.imports.preheat;
 
 import java.beans.Introspector;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -44,6 +52,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
+ * Runs the preheat suppliers in the order given by {@code preheatOrder}. Suppliers which can run
+ * concurrently (see {@link PreheatSupplier#isConcurrent()}) are prepared on the calling thread,
+ * which owns the Hibernate session, and only their {@link PreheatSupplier.Query} is submitted to the
+ * preheat executor. The result of a query is added to the {@link TrackerPreheat} on the calling
+ * thread, before any supplier depending on it is prepared or once all suppliers have run, so the
+ * preheat is only ever accessed by the calling thread. Dependencies must precede a supplier in
+ * {@code preheatOrder}.
+ *
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
 @RequiredArgsConstructor
@@ -61,6 +77,9 @@ public class DefaultTrackerPreheatService
   @Qualifier("preheatOrder")
   private final List<String> preheatSuppliers;
 
+  @Qualifier("preheatExecutor")
+  private final Executor preheatExecutor;
+
   // TODO this flag should be configurable
   private static final boolean FAIL_FAST_ON_PREHEAT_ERROR = false;
 
@@ -72,28 +91,141 @@ public class DefaultTrackerPreheatService
     TrackerPreheat preheat = new TrackerPreheat();
     preheat.setIdSchemes(idSchemeParams);
 
+    Map<String, Long> timings = new ConcurrentHashMap<>();
+    Map<String, CompletableFuture<Consumer<TrackerPreheat>>> queries = new LinkedHashMap<>();
+
     for (String supplier : preheatSuppliers) {
-      final String beanName = Introspector.decapitalize(supplier);
-      try {
-        ctx.getBean(beanName, PreheatSupplier.class).add(trackerObjects, preheat);
-      } catch (BeansException beanException) {
-        processException(
-            "Unable to find a preheat supplier with name "
-                + beanName
-                + " in the Spring context. Skipping supplier.",
-            beanException,
-            supplier);
-      } catch (Exception e) {
-        processException(
-            "An error occurred while executing a preheat supplier with name " + supplier,
-            e,
-            supplier);
+      PreheatSupplier preheatSupplier = getSupplier(supplier);
+      if (preheatSupplier == null) {
+        continue;
+      }
+
+      for (Class<? extends PreheatSupplier> dependency : preheatSupplier.getDependencies()) {
+        apply(dependency.getSimpleName(), queries, preheat, timings);
+      }
+
+      if (preheatSupplier.isConcurrent()) {
+        queries.put(supplier, submit(supplier, preheatSupplier, trackerObjects, preheat, timings));
+      } else {
+        add(supplier, preheatSupplier, trackerObjects, preheat, timings);
       }
     }
 
+    for (String supplier : List.copyOf(queries.keySet())) {
+      apply(supplier, queries, preheat, timings);
+    }
+
+    Map<String, Long> orderedTimings = new LinkedHashMap<>();
+    for (String supplier : preheatSuppliers) {
+      if (timings.containsKey(supplier)) {
+        orderedTimings.put(supplier, timings.get(supplier));
+      }
+    }
+    preheat.setTimings(orderedTimings);
+
     return preheat;
   }
 
+  private PreheatSupplier getSupplier(String supplier) {
+    final String beanName = Introspector.decapitalize(supplier);
+    try {
+      return ctx.getBean(beanName, PreheatSupplier.class);
+    } catch (BeansException beanException) {
+      processException(
+          "Unable to find a preheat supplier with name "
+              + beanName
+              + " in the Spring context. Skipping supplier.",
+          beanException,
+          supplier);
+      return null;
+    }
+  }
+
+  private void add(
+      String supplier,
+      PreheatSupplier preheatSupplier,
+      TrackerObjects trackerObjects,
+      TrackerPreheat preheat,
+      Map<String, Long> timings) {
+    long start = System.nanoTime();
+    try {
+      preheatSupplier.add(trackerObjects, preheat);
+    } catch (Exception e) {
+      processException(
+          "An error occurred while executing a preheat supplier with name " + supplier,
+          e,
+          supplier);
+    } finally {
+      addTiming(timings, supplier, start);
+    }
+  }
+
+  private CompletableFuture<Consumer<TrackerPreheat>> submit(
+      String supplier,
+      PreheatSupplier preheatSupplier,
+      TrackerObjects trackerObjects,
+      TrackerPreheat preheat,
+      Map<String, Long> timings) {
+    long start = System.nanoTime();
+    try {
+      PreheatSupplier.Query query = preheatSupplier.prepare(trackerObjects, preheat);
+      return CompletableFuture.supplyAsync(
+          () -> {
+            long queryStart = System.nanoTime();
+            try {
+              return query.execute();
+            } finally {
+              addTiming(timings, supplier, queryStart);
+            }
+          },
+          preheatExecutor);
+    } catch (Exception e) {
+      processException(
+          "An error occurred while executing a preheat supplier with name " + supplier,
+          e,
+          supplier);
+      return CompletableFuture.completedFuture(PreheatSupplier.Query.NONE.execute());
+    } finally {
+      addTiming(timings, supplier, start);
+    }
+  }
+
+  /**
+   * Waits for the query of the given supplier, if it has been submitted and not applied yet, and
+   * adds its result to the preheat on the calling thread.
+   */
+  private void apply(
+      String supplier,
+      Map<String, CompletableFuture<Consumer<TrackerPreheat>>> queries,
+      TrackerPreheat preheat,
+      Map<String, Long> timings) {
+    CompletableFuture<Consumer<TrackerPreheat>> query = queries.remove(supplier);
+    if (query == null) {
+      return;
+    }
+
+    long start = System.nanoTime();
+    try {
+      query.join().accept(preheat);
+    } catch (CompletionException e) {
+      processException(
+          "An error occurred while executing a preheat supplier with name " + supplier,
+          e.getCause() instanceof Exception cause ? cause : e,
+          supplier);
+    } catch (Exception e) {
+      processException(
+          "An error occurred while executing a preheat supplier with name " + supplier,
+          e,
+          supplier);
+    } finally {
+      addTiming(timings, supplier, start);
+    }
+  }
+
+  private static void addTiming(Map<String, Long> timings, String supplier, long start) {
+    timings.merge(supplier, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), Long::sum);
+  }
+
   private void processException(String message, Exception e, String supplier) {
     if (FAIL_FAST_ON_PREHEAT_ERROR) {
       throw new PreheatException(
@@ -36,6 +36,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -269,6 +270,9 @@ public class TrackerPreheat {
    */
   @Getter @Setter private Map<String, List<String>> programWithOrgUnitsMap;
 
+  /** Time in milliseconds each preheat supplier took to run, keyed by supplier name. */
+  @Getter @Setter private Map<String, Long> timings = new LinkedHashMap<>();
+
   public TrackerPreheat() {}
 
   /**
@@ -29,6 +29,7 @@ package org.hisp.dhis.tracker.imports.preheat.supplier;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.UID;
 import org.hisp.dhis.tracker.imports.domain.TrackerObjects;
@@ -62,11 +63,20 @@ public class EnrollmentsWithAtLeastOneEventSupplier extends JdbcAbstractPreheatS
   }
 
   @Override
-  public void preheatAdd(TrackerObjects trackerObjects, TrackerPreheat preheat) {
+  public Set<Class<? extends PreheatSupplier>> getDependencies() {
+    return Set.of(ClassBasedSupplier.class, EventProgramEnrollmentSupplier.class);
+  }
+
+  @Override
+  public Query prepare(TrackerObjects trackerObjects, TrackerPreheat preheat) {
     List<Long> enrollmentIds =
         preheat.getEnrollments().values().stream().map(IdentifiableObject::getId).toList();
 
-    if (!enrollmentIds.isEmpty()) {
+    if (enrollmentIds.isEmpty()) {
+      return Query.NONE;
+    }
+
+    return () -> {
       List<UID> uids = new ArrayList<>();
 
       MapSqlParameterSource parameters = new MapSqlParameterSource();
@@ -77,7 +87,7 @@ public class EnrollmentsWithAtLeastOneEventSupplier extends JdbcAbstractPreheatS
           rs -> {
             uids.add(UID.of(rs.getString(COLUMN)));
           });
-      preheat.setEnrollmentsWithOneOrMoreNonDeletedEvent(uids);
-    }
+      return p -> p.setEnrollmentsWithOneOrMoreNonDeletedEvent(uids);
+    };
   }
 }
@@ -27,8 +27,10 @@
  */
 package org.hisp.dhis.tracker.imports.preheat.supplier;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import org.hisp.dhis.common.UID;
 import org.hisp.dhis.program.ProgramStage;
 import org.hisp.dhis.tracker.imports.domain.Event;
@@ -72,9 +74,14 @@ public class EventProgramStageMapSupplier extends JdbcAbstractPreheatSupplier {
   }
 
   @Override
-  public void preheatAdd(TrackerObjects trackerObjects, TrackerPreheat preheat) {
+  public Set<Class<? extends PreheatSupplier>> getDependencies() {
+    return Set.of(ClassBasedSupplier.class);
+  }
+
+  @Override
+  public Query prepare(TrackerObjects trackerObjects, TrackerPreheat preheat) {
     if (trackerObjects.getEvents().isEmpty()) {
-      return;
+      return Query.NONE;
     }
 
     List<String> notRepeatableProgramStageUids =
@@ -96,7 +103,13 @@ public class EventProgramStageMapSupplier extends JdbcAbstractPreheatSupplier {
             .distinct()
             .toList();
 
-    if (!notRepeatableProgramStageUids.isEmpty() && !enrollmentUids.isEmpty()) {
+    if (notRepeatableProgramStageUids.isEmpty() || enrollmentUids.isEmpty()) {
+      return Query.NONE;
+    }
+
+    return () -> {
+      List<String[]> programStageWithEvents = new ArrayList<>();
+
       MapSqlParameterSource parameters = new MapSqlParameterSource();
       parameters.addValue("programStageUids", notRepeatableProgramStageUids);
       parameters.addValue("enrollmentUids", UID.toValueList(enrollmentUids));
@@ -104,7 +117,12 @@ public class EventProgramStageMapSupplier extends JdbcAbstractPreheatSupplier {
           SQL,
           parameters,
           (RowCallbackHandler)
-              rs -> preheat.addProgramStageWithEvents(rs.getString(PS_UID), rs.getString(PI_UID)));
-    }
+              rs ->
+                  programStageWithEvents.add(
+                      new String[] {rs.getString(PS_UID), rs.getString(PI_UID)}));
+
+      return p ->
+          programStageWithEvents.forEach(row -> p.addProgramStageWithEvents(row[0], row[1]));
+    };
   }
 }
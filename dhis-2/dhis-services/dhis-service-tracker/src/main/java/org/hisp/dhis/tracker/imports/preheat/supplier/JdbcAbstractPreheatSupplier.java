@@ -27,12 +27,16 @@
  */
 package org.hisp.dhis.tracker.imports.preheat.supplier;
 
+import org.hisp.dhis.tracker.imports.domain.TrackerObjects;
+import org.hisp.dhis.tracker.imports.preheat.TrackerPreheat;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
 /**
- * Allows a {@link PreheatSupplier} to access the database using JDBC.
+ * Allows a {@link PreheatSupplier} to access the database using JDBC. JDBC suppliers do not use the
+ * Hibernate session and acquire their own read connections, so their queries run concurrently on a
+ * preheat worker thread.
  *
  * @author Luciano Fiandesio
  */
@@ -43,4 +47,17 @@ public abstract class JdbcAbstractPreheatSupplier extends AbstractPreheatSupplie
       @Qualifier("readOnlyJdbcTemplate") JdbcTemplate jdbcTemplate) {
     this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
   }
+
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
+
+  @Override
+  public void preheatAdd(TrackerObjects trackerObjects, TrackerPreheat preheat) {
+    prepare(trackerObjects, preheat).execute().accept(preheat);
+  }
+
+  @Override
+  public abstract Query prepare(TrackerObjects trackerObjects, TrackerPreheat preheat);
 }
@@ -27,6 +27,8 @@
  */
 package org.hisp.dhis.tracker.imports.preheat.supplier;
 
+import java.util.Set;
+import java.util.function.Consumer;
 import org.hisp.dhis.tracker.imports.TrackerImportParams;
 import org.hisp.dhis.tracker.imports.domain.TrackerObjects;
 import org.hisp.dhis.tracker.imports.preheat.TrackerPreheat;
@@ -44,4 +46,52 @@ public interface PreheatSupplier {
    * @param preheat {@link TrackerPreheat}
    */
   void add(TrackerObjects trackerObjects, TrackerPreheat preheat);
+
+  /**
+   * Suppliers whose data this supplier reads from the {@link TrackerPreheat}. A supplier only runs
+   * once all of its dependencies have completed.
+   *
+   * @return the suppliers this supplier depends on
+   */
+  default Set<Class<? extends PreheatSupplier>> getDependencies() {
+    return Set.of();
+  }
+
+  /**
+   * Whether this supplier can run concurrently with other suppliers. The work of a concurrent
+   * supplier is split by {@link #prepare(TrackerObjects, TrackerPreheat)} so that only its {@link
+   * Query} runs on a preheat worker thread. Suppliers loading entities through the Hibernate session
+   * must not run concurrently, as the session is bound to the calling thread and is not thread safe.
+   *
+   * @return true if the supplier can run concurrently
+   */
+  default boolean isConcurrent() {
+    return false;
+  }
+
+  /**
+   * Prepares the {@link Query} of a concurrent supplier. This runs on the calling thread, so it must
+   * read everything the query needs from the {@link TrackerObjects} and the {@link TrackerPreheat},
+   * including lazy associations, before returning.
+   *
+   * @param trackerObjects {@link TrackerObjects}
+   * @param preheat {@link TrackerPreheat}
+   * @return the query to run on a preheat worker thread
+   */
+  default Query prepare(TrackerObjects trackerObjects, TrackerPreheat preheat) {
+    return () -> p -> add(trackerObjects, p);
+  }
+
+  /**
+   * The part of a concurrent supplier running on a preheat worker thread. It must only use the
+   * values captured by {@link #prepare(TrackerObjects, TrackerPreheat)} and JDBC, and returns the
+   * function adding its result to the {@link TrackerPreheat} on the calling thread.
+   */
+  @FunctionalInterface
+  interface Query {
+    /** A query adding nothing to the preheat. */
+    Query NONE = () -> preheat -> {};
+
+    Consumer<TrackerPreheat> execute();
+  }
 }
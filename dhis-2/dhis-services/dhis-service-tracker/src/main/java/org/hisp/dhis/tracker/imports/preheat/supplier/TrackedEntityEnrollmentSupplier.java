@@ -32,6 +32,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.UID;
 import org.hisp.dhis.program.Enrollment;
@@ -97,7 +98,12 @@ public class TrackedEntityEnrollmentSupplier extends JdbcAbstractPreheatSupplier
   }
 
   @Override
-  public void preheatAdd(TrackerObjects trackerObjects, TrackerPreheat preheat) {
+  public Set<Class<? extends PreheatSupplier>> getDependencies() {
+    return Set.of(ClassBasedSupplier.class);
+  }
+
+  @Override
+  public Query prepare(TrackerObjects trackerObjects, TrackerPreheat preheat) {
     List<UID> trackedEntityList =
         trackerObjects.getEnrollments().stream()
             .map(org.hisp.dhis.tracker.imports.domain.Enrollment::getTrackedEntity)
@@ -109,17 +115,19 @@ public class TrackedEntityEnrollmentSupplier extends JdbcAbstractPreheatSupplier
     List<List<UID>> trackedEntities =
         Lists.partition(new ArrayList<>(trackedEntityList), Constant.SPLIT_LIST_PARTITION_SIZE);
 
-    if (programList.isEmpty() || trackedEntities.isEmpty()) return;
+    if (programList.isEmpty() || trackedEntities.isEmpty()) return Query.NONE;
 
-    Map<UID, List<Enrollment>> trackedEntityToEnrollmentMap = new HashMap<>();
+    if (trackerObjects.getEnrollments().isEmpty()) return Query.NONE;
 
-    if (trackerObjects.getEnrollments().isEmpty()) return;
+    return () -> {
+      Map<UID, List<Enrollment>> trackedEntityToEnrollmentMap = new HashMap<>();
 
-    for (List<UID> trackedEntityListSubList : trackedEntities) {
-      queryTeAndAddToMap(trackedEntityToEnrollmentMap, trackedEntityListSubList, programList);
-    }
+      for (List<UID> trackedEntityListSubList : trackedEntities) {
+        queryTeAndAddToMap(trackedEntityToEnrollmentMap, trackedEntityListSubList, programList);
+      }
 
-    preheat.setTrackedEntityToEnrollmentMap(trackedEntityToEnrollmentMap);
+      return p -> p.setTrackedEntityToEnrollmentMap(trackedEntityToEnrollmentMap);
+    };
   }
 
   private void queryTeAndAddToMap(
@@ -29,10 +29,18 @@ package org.hisp.dhis.tracker.imports.programrule;
 
 import static org.hisp.dhis.common.OrganisationUnitSelectionMode.ACCESSIBLE;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
@@ -51,8 +59,10 @@ import org.hisp.dhis.tracker.export.event.EventParams;
 import org.hisp.dhis.tracker.export.event.EventService;
 import org.hisp.dhis.tracker.imports.bundle.TrackerBundle;
 import org.hisp.dhis.tracker.imports.preheat.TrackerPreheat;
+import org.hisp.dhis.tracker.imports.programrule.engine.ProgramRuleContext;
 import org.hisp.dhis.tracker.imports.programrule.engine.ProgramRuleEngine;
 import org.hisp.dhis.tracker.imports.programrule.engine.RuleEngineEffects;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -70,26 +80,34 @@ class DefaultProgramRuleService implements ProgramRuleService {
 
   private final RuleActionEventMapper ruleActionEventMapper;
 
+  @Qualifier("programRuleExecutor")
+  private final Executor programRuleExecutor;
+
   /**
    * This is calculating the rule effects for all the enrollments and events present in the payload.
    * First, this method is iterating over the enrollments present in the payload and related events
    * (also the ones not present in the payload) and it is calculating rule effects for those. The,
    * this method is iterating over events present in the payload and related enrollment (also if it
    * is not present in the payload) and it is calculating rule effects for those. {@link
-   * #calculateTrackerEventRuleEffects(TrackerBundle, TrackerPreheat)} method makes sure that rule
+   * #getTrackerEventEvaluations(TrackerBundle, TrackerPreheat, Map)} method makes sure that rule
    * effects are calculated only once for every event. This ensures that there will be no duplicate
    * effects. Finally, this method is iterating over all program events present in the payload, and
    * it is calculating rule effects for those.
+   *
+   * <p>The inputs of all evaluations are collected first as this accesses the database. The
+   * evaluations are independent of each other and are run in parallel. Their effects are merged in
+   * the order of the payload, regardless of the order in which the evaluations complete.
    */
   @Override
   @Transactional(readOnly = true)
   public void calculateRuleEffects(TrackerBundle bundle, TrackerPreheat preheat) {
-    RuleEngineEffects ruleEffects =
-        RuleEngineEffects.merge(
-            RuleEngineEffects.merge(
-                calculateEnrollmentRuleEffects(bundle, preheat),
-                calculateTrackerEventRuleEffects(bundle, preheat)),
-            calculateProgramEventRuleEffects(bundle, preheat));
+    Map<String, ProgramRuleContext> contexts = new HashMap<>();
+    List<Supplier<RuleEngineEffects>> evaluations = new ArrayList<>();
+    evaluations.addAll(getEnrollmentEvaluations(bundle, preheat, contexts));
+    evaluations.addAll(getTrackerEventEvaluations(bundle, preheat, contexts));
+    evaluations.addAll(getProgramEventEvaluations(bundle, preheat, contexts));
+
+    RuleEngineEffects ruleEffects = evaluate(evaluations);
 
     bundle.setEnrollmentNotifications(ruleEffects.getEnrollmentNotifications());
     bundle.setEventNotifications(ruleEffects.getEventNotifications());
@@ -100,68 +118,114 @@ class DefaultProgramRuleService implements ProgramRuleService {
         ruleActionEventMapper.mapRuleEffects(ruleEffects.getEventValidationEffects(), bundle));
   }
 
-  private RuleEngineEffects calculateEnrollmentRuleEffects(
-      TrackerBundle bundle, TrackerPreheat preheat) {
+  private RuleEngineEffects evaluate(List<Supplier<RuleEngineEffects>> evaluations) {
+    if (evaluations.size() <= 1) {
+      return evaluations.stream()
+          .map(Supplier::get)
+          .reduce(RuleEngineEffects::merge)
+          .orElse(RuleEngineEffects.empty());
+    }
+
+    List<CompletableFuture<RuleEngineEffects>> results =
+        evaluations.stream()
+            .map(evaluation -> CompletableFuture.supplyAsync(evaluation, programRuleExecutor))
+            .toList();
+
+    return results.stream()
+        .map(CompletableFuture::join)
+        .reduce(RuleEngineEffects::merge)
+        .orElse(RuleEngineEffects.empty());
+  }
+
+  private ProgramRuleContext getRuleContext(
+      Program program, Map<String, ProgramRuleContext> contexts) {
+    return contexts.computeIfAbsent(
+        program.getUid(), uid -> programRuleEngine.getRuleContext(program));
+  }
+
+  private List<Supplier<RuleEngineEffects>> getEnrollmentEvaluations(
+      TrackerBundle bundle, TrackerPreheat preheat, Map<String, ProgramRuleContext> contexts) {
     return bundle.getEnrollments().stream()
         .map(
             e -> {
+              ProgramRuleContext context =
+                  getRuleContext(preheat.getProgram(e.getProgram()), contexts);
+              if (context.isEmpty()) {
+                return null;
+              }
               List<RuleAttributeValue> attributes =
                   getAttributes(e.getEnrollment(), e.getTrackedEntity(), bundle, preheat);
               RuleEnrollment enrollment =
                   RuleEngineMapper.mapPayloadEnrollment(preheat, e, attributes);
+              List<RuleEvent> events = getEventsFromEnrollment(e.getUid(), bundle, preheat);
 
-              return programRuleEngine.evaluateEnrollmentAndEvents(
-                  enrollment,
-                  getEventsFromEnrollment(e.getUid(), bundle, preheat),
-                  preheat.getProgram(e.getProgram()),
-                  bundle.getUser());
+              Supplier<RuleEngineEffects> evaluation =
+                  () ->
+                      programRuleEngine.evaluateEnrollmentAndEvents(
+                          enrollment, events, context, bundle.getUser());
+              return evaluation;
             })
-        .reduce(RuleEngineEffects::merge)
-        .orElse(RuleEngineEffects.empty());
+        .filter(Objects::nonNull)
+        .toList();
   }
 
-  private RuleEngineEffects calculateTrackerEventRuleEffects(
-      TrackerBundle bundle, TrackerPreheat preheat) {
+  private List<Supplier<RuleEngineEffects>> getTrackerEventEvaluations(
+      TrackerBundle bundle, TrackerPreheat preheat, Map<String, ProgramRuleContext> contexts) {
     Set<Enrollment> enrollments =
         bundle.getEvents().stream()
             .filter(event -> bundle.findEnrollmentByUid(event.getEnrollment()).isEmpty())
             .filter(event -> preheat.getProgram(event.getProgram()).isRegistration())
             .map(event -> preheat.getEnrollment(event.getEnrollment()))
-            .collect(Collectors.toSet());
+            .collect(Collectors.toCollection(LinkedHashSet::new));
 
     return enrollments.stream()
         .map(
             e -> {
+              ProgramRuleContext context = getRuleContext(e.getProgram(), contexts);
+              if (context.isEmpty()) {
+                return null;
+              }
               List<RuleAttributeValue> attributes =
                   getAttributes(UID.of(e), UID.of(e.getTrackedEntity()), bundle, preheat);
               RuleEnrollment enrollment = RuleEngineMapper.mapSavedEnrollment(e, attributes);
-              return programRuleEngine.evaluateEnrollmentAndEvents(
-                  enrollment,
-                  getEventsFromEnrollment(UID.of(e), bundle, preheat),
-                  e.getProgram(),
-                  bundle.getUser());
+              List<RuleEvent> events = getEventsFromEnrollment(UID.of(e), bundle, preheat);
+
+              Supplier<RuleEngineEffects> evaluation =
+                  () ->
+                      programRuleEngine.evaluateEnrollmentAndEvents(
+                          enrollment, events, context, bundle.getUser());
+              return evaluation;
             })
-        .reduce(RuleEngineEffects::merge)
-        .orElse(RuleEngineEffects.empty());
+        .filter(Objects::nonNull)
+        .toList();
   }
 
-  private RuleEngineEffects calculateProgramEventRuleEffects(
-      TrackerBundle bundle, TrackerPreheat preheat) {
+  private List<Supplier<RuleEngineEffects>> getProgramEventEvaluations(
+      TrackerBundle bundle, TrackerPreheat preheat, Map<String, ProgramRuleContext> contexts) {
     Map<Program, List<org.hisp.dhis.tracker.imports.domain.Event>> programEvents =
         bundle.getEvents().stream()
             .filter(event -> preheat.getProgram(event.getProgram()).isWithoutRegistration())
-            .collect(Collectors.groupingBy(event -> preheat.getProgram(event.getProgram())));
+            .collect(
+                Collectors.groupingBy(
+                    event -> preheat.getProgram(event.getProgram()),
+                    LinkedHashMap::new,
+                    Collectors.toList()));
 
     return programEvents.entrySet().stream()
         .map(
             entry -> {
+              ProgramRuleContext context = getRuleContext(entry.getKey(), contexts);
+              if (context.isEmpty()) {
+                return null;
+              }
               List<RuleEvent> events = RuleEngineMapper.mapPayloadEvents(preheat, entry.getValue());
 
-              return programRuleEngine.evaluateProgramEvents(
-                  events, entry.getKey(), bundle.getUser());
+              Supplier<RuleEngineEffects> evaluation =
+                  () -> programRuleEngine.evaluateProgramEvents(events, context, bundle.getUser());
+              return evaluation;
             })
-        .reduce(RuleEngineEffects::merge)
-        .orElse(RuleEngineEffects.empty());
+        .filter(Objects::nonNull)
+        .toList();
   }
 
   // Get all the attributes linked to enrollment from the payload and the DB,
@@ -30,7 +30,6 @@ package org.hisp.dhis.tracker.imports.programrule.engine;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.common.UID;
@@ -44,6 +43,7 @@ import org.hisp.dhis.programrule.ProgramRuleVariable;
 import org.hisp.dhis.programrule.ProgramRuleVariableService;
 import org.hisp.dhis.rules.api.RuleEngine;
 import org.hisp.dhis.rules.api.RuleEngineContext;
+import org.hisp.dhis.rules.models.Rule;
 import org.hisp.dhis.rules.models.RuleEffects;
 import org.hisp.dhis.rules.models.RuleEnrollment;
 import org.hisp.dhis.rules.models.RuleEvent;
@@ -69,6 +69,8 @@ public class DefaultProgramRuleEngine implements ProgramRuleEngine {
 
   private final ProgramService programService;
 
+  private final ProgramRuleContextCache ruleContextCache;
+
   private final RuleEngine ruleEngine;
 
   public DefaultProgramRuleEngine(
@@ -77,43 +79,56 @@ public class DefaultProgramRuleEngine implements ProgramRuleEngine {
       ConstantService constantService,
       ImplementableRuleService implementableRuleService,
       SupplementaryDataProvider supplementaryDataProvider,
-      ProgramService programService) {
+      ProgramService programService,
+      ProgramRuleContextCache ruleContextCache) {
     this.programRuleEntityMapperService = programRuleEntityMapperService;
     this.programRuleVariableService = programRuleVariableService;
     this.constantService = constantService;
     this.implementableRuleService = implementableRuleService;
     this.supplementaryDataProvider = supplementaryDataProvider;
     this.programService = programService;
+    this.ruleContextCache = ruleContextCache;
     this.ruleEngine = RuleEngine.getInstance();
   }
 
+  @Override
+  public ProgramRuleContext getRuleContext(Program program) {
+    try {
+      return ruleContextCache.get(program, version -> createRuleContext(program, version));
+    } catch (Exception e) {
+      log.error(DebugUtils.getStackTrace(e));
+      return ProgramRuleContext.empty(ruleContextCache.getVersion());
+    }
+  }
+
   @Override
   public RuleEngineEffects evaluateEnrollmentAndEvents(
-      RuleEnrollment enrollment, List<RuleEvent> events, Program program, UserDetails user) {
-    List<ProgramRule> rules =
-        getProgramRules(
-            program, events.stream().map(RuleEvent::getProgramStage).collect(Collectors.toSet()));
+      RuleEnrollment enrollment,
+      List<RuleEvent> events,
+      ProgramRuleContext context,
+      UserDetails user) {
+    List<Rule> rules = context.getRules(events.stream().map(RuleEvent::getProgramStage).toList());
 
     if (rules.isEmpty()) {
       return RuleEngineEffects.of(Collections.emptyList());
     }
 
     List<RuleEffects> ruleEffects =
-        evaluateProgramRulesForMultipleTrackerObjects(enrollment, program, events, rules, user);
+        evaluateProgramRulesForMultipleTrackerObjects(enrollment, events, rules, context, user);
     return RuleEngineEffects.of(ruleEffects);
   }
 
   @Override
   public RuleEngineEffects evaluateProgramEvents(
-      List<RuleEvent> events, Program program, UserDetails user) {
-    List<ProgramRule> rules = implementableRuleService.getProgramRules(program, null);
+      List<RuleEvent> events, ProgramRuleContext context, UserDetails user) {
+    List<Rule> rules = context.getRules(List.of());
 
     if (rules.isEmpty()) {
       return RuleEngineEffects.of(Collections.emptyList());
     }
 
     return RuleEngineEffects.of(
-        evaluateProgramRulesForMultipleTrackerObjects(null, program, events, rules, user));
+        evaluateProgramRulesForMultipleTrackerObjects(null, events, rules, context, user));
   }
 
   @Override
@@ -148,12 +163,18 @@ public class DefaultProgramRuleEngine implements ProgramRuleEngine {
 
   private List<RuleEffects> evaluateProgramRulesForMultipleTrackerObjects(
       RuleEnrollment ruleEnrollment,
-      Program program,
       List<RuleEvent> ruleEvents,
-      List<ProgramRule> rules,
+      List<Rule> rules,
+      ProgramRuleContext context,
       UserDetails user) {
     try {
-      RuleEngineContext ruleEngineContext = getRuleEngineContext(program, rules, user);
+      RuleEngineContext ruleEngineContext =
+          new RuleEngineContext(
+              rules,
+              context.getRuleVariables(),
+              supplementaryDataProvider.getSupplementaryData(
+                  context.getOrgUnitGroupMembers(), user),
+              context.getConstants());
       return ruleEngine.evaluateAll(ruleEnrollment, ruleEvents, ruleEngineContext);
     } catch (Exception e) {
       log.error(DebugUtils.getStackTrace(e));
@@ -161,21 +182,32 @@ public class DefaultProgramRuleEngine implements ProgramRuleEngine {
     }
   }
 
-  private List<ProgramRule> getProgramRules(Program program, Set<String> programStageUids) {
-    if (programStageUids.isEmpty()) {
-      return implementableRuleService.getProgramRules(program, null);
-    }
+  /**
+   * Maps all server supported rules of the program together with the variables, constants and org
+   * unit groups they use. The user roles are the only supplementary data added per evaluation.
+   */
+  private ProgramRuleContext createRuleContext(Program program, long version) {
+    List<ProgramRule> programRules = implementableRuleService.getProgramRules(program);
 
-    Set<ProgramRule> programRules =
-        programStageUids.stream()
-            .flatMap(psUid -> implementableRuleService.getProgramRules(program, psUid).stream())
-            .collect(Collectors.toSet());
+    if (programRules.isEmpty()) {
+      return ProgramRuleContext.empty(version);
+    }
 
-    return List.copyOf(programRules);
-  }
+    Map<String, List<Rule>> rulesByProgramStage =
+        programRules.stream()
+            .collect(
+                Collectors.groupingBy(
+                    rule ->
+                        rule.getProgramStage() == null
+                            ? ProgramRuleContext.NO_PROGRAM_STAGE
+                            : rule.getProgramStage().getUid()))
+            .entrySet()
+            .stream()
+            .collect(
+                Collectors.toMap(
+                    Map.Entry::getKey,
+                    e -> programRuleEntityMapperService.toRules(e.getValue())));
 
-  private RuleEngineContext getRuleEngineContext(
-      Program program, List<ProgramRule> programRules, UserDetails user) {
     List<ProgramRuleVariable> programRuleVariables =
         programRuleVariableService.getProgramRuleVariable(program);
 
@@ -184,13 +216,11 @@ public class DefaultProgramRuleEngine implements ProgramRuleEngine {
             .collect(
                 Collectors.toMap(Map.Entry::getKey, v -> Double.toString(v.getValue().getValue())));
 
-    Map<String, List<String>> supplementaryData =
-        supplementaryDataProvider.getSupplementaryData(programRules, user);
-
-    return new RuleEngineContext(
-        programRuleEntityMapperService.toRules(programRules),
+    return new ProgramRuleContext(
+        version,
+        rulesByProgramStage,
         programRuleEntityMapperService.toRuleVariables(programRuleVariables),
-        supplementaryData,
-        constantMap);
+        constantMap,
+        supplementaryDataProvider.getOrgUnitGroupMembers(programRules));
   }
 }
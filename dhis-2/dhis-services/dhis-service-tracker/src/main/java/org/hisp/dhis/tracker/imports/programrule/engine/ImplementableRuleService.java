@@ -28,10 +28,6 @@
 package org.hisp.dhis.tracker.imports.programrule.engine;
 
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
-import org.hisp.dhis.cache.Cache;
-import org.hisp.dhis.cache.CacheProvider;
 import org.hisp.dhis.program.Program;
 import org.hisp.dhis.programrule.ProgramRule;
 import org.hisp.dhis.programrule.ProgramRuleActionType;
@@ -41,48 +37,17 @@ import org.springframework.stereotype.Component;
 @Component
 public class ImplementableRuleService {
   private final ProgramRuleService programRuleService;
-  private final Cache<Boolean> programHasRulesCache;
 
-  public ImplementableRuleService(
-      ProgramRuleService programRuleService, CacheProvider cacheProvider) {
+  public ImplementableRuleService(ProgramRuleService programRuleService) {
     this.programRuleService = programRuleService;
-    this.programHasRulesCache = cacheProvider.createProgramHasRulesCache();
   }
 
-  protected List<ProgramRule> getProgramRulesByActionTypes(
-      Program program, String programStageUid) {
-    Set<ProgramRuleActionType> programRuleActionTypes =
-        ProgramRuleActionType.SERVER_SUPPORTED_TYPES;
-    if (programStageUid == null) {
-      return programRuleService.getProgramRulesByActionTypes(program, programRuleActionTypes);
-    } else {
-      return programRuleService.getProgramRulesByActionTypes(
-          program, programRuleActionTypes, programStageUid);
-    }
-  }
-
-  public List<ProgramRule> getProgramRules(Program program, String programStageUid) {
-    Optional<Boolean> optionalCacheValue = this.programHasRulesCache.get(program.getUid());
-
-    if (optionalCacheValue.isPresent() && Boolean.FALSE.equals(optionalCacheValue.get())) {
-      return List.of();
-    }
-
-    List<ProgramRule> programRulesByActionTypes =
-        getProgramRulesByActionTypes(program, programStageUid);
-
-    if (programStageUid == null) // To populate programHasRulesCache at
-    // enrollment
-    {
-      this.programHasRulesCache.put(program.getUid(), !programRulesByActionTypes.isEmpty());
-
-      // At enrollment, only those rules should be selected for execution
-      // which are not associated with any ProgramStage.
-      return programRulesByActionTypes.stream()
-          .filter(rule -> rule.getProgramStage() == null)
-          .toList();
-    }
-
-    return programRulesByActionTypes;
+  /**
+   * @return all rules of the program with at least one action supported by the server, regardless
+   *     of their program stage
+   */
+  public List<ProgramRule> getProgramRules(Program program) {
+    return programRuleService.getProgramRulesByActionTypes(
+        program, ProgramRuleActionType.SERVER_SUPPORTED_TYPES);
   }
 }
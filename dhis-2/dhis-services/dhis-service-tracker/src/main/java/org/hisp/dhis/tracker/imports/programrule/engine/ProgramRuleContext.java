@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports.programrule.engine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.Getter;
+import org.hisp.dhis.program.Program;
+import org.hisp.dhis.rules.models.Rule;
+import org.hisp.dhis.rules.models.RuleVariable;
+
+/**
+ * The program rules, program rule variables, constants and org unit group members of a {@link
+ * Program} mapped for the rule engine.
+ *
+ * <p>A context is immutable and shared by all evaluations of the rules of its program until the
+ * {@link #getVersion()} it was built for is outdated by a change to the metadata it depends on.
+ */
+public final class ProgramRuleContext {
+  /** Key of the rules that are not associated with a program stage. */
+  static final String NO_PROGRAM_STAGE = "";
+
+  @Getter private final long version;
+
+  private final Map<String, List<Rule>> rulesByProgramStage;
+
+  @Getter private final List<RuleVariable> ruleVariables;
+
+  @Getter private final Map<String, String> constants;
+
+  @Getter private final Map<String, List<String>> orgUnitGroupMembers;
+
+  public ProgramRuleContext(
+      long version,
+      Map<String, List<Rule>> rulesByProgramStage,
+      List<RuleVariable> ruleVariables,
+      Map<String, String> constants,
+      Map<String, List<String>> orgUnitGroupMembers) {
+    this.version = version;
+    this.rulesByProgramStage = Map.copyOf(rulesByProgramStage);
+    this.ruleVariables = List.copyOf(ruleVariables);
+    this.constants = Map.copyOf(constants);
+    this.orgUnitGroupMembers = Map.copyOf(orgUnitGroupMembers);
+  }
+
+  /**
+   * @return a context without rules, evaluating it has no effects
+   */
+  public static ProgramRuleContext empty(long version) {
+    return new ProgramRuleContext(version, Map.of(), List.of(), Map.of(), Map.of());
+  }
+
+  public boolean isEmpty() {
+    return rulesByProgramStage.isEmpty();
+  }
+
+  /**
+   * @param programStages UIDs of the program stages of the evaluated events
+   * @return the rules not associated with a program stage and the rules of the given program stages
+   */
+  public List<Rule> getRules(Collection<String> programStages) {
+    List<Rule> rules =
+        new ArrayList<>(rulesByProgramStage.getOrDefault(NO_PROGRAM_STAGE, List.of()));
+    programStages.stream()
+        .filter(Objects::nonNull)
+        .distinct()
+        .filter(stage -> !NO_PROGRAM_STAGE.equals(stage))
+        .forEach(stage -> rules.addAll(rulesByProgramStage.getOrDefault(stage, List.of())));
+    return rules;
+  }
+}
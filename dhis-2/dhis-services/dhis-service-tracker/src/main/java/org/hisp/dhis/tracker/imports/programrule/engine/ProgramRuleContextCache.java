@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports.programrule.engine;
+
+import static org.hisp.dhis.programrule.ProgramRuleContextTypes.isContextCollection;
+import static org.hisp.dhis.programrule.ProgramRuleContextTypes.isContextType;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+import javax.annotation.Nonnull;
+import javax.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.common.cache.Region;
+import org.hisp.dhis.common.event.CacheInvalidationEvent;
+import org.hisp.dhis.program.Program;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the {@link ProgramRuleContext} of each program.
+ *
+ * <p>Cached contexts are versioned. The version is incremented whenever a change to an object a
+ * context is built from is committed. A context built for an older version is rebuilt on next use.
+ * Reading the version before building a context makes sure a context built concurrently to a change
+ * is never used after the change got committed.
+ *
+ * <p>Changes of collections do not update the owning entity, so org unit group membership changed
+ * from either side is picked up from the collection events and outdates the contexts once the
+ * transaction is committed.
+ *
+ * <p>Changes committed on other servers are received through cache invalidation, which publishes a
+ * {@link CacheInvalidationEvent} for the {@link Region#programRuleContextCache} region.
+ */
+@Slf4j
+@Component
+public class ProgramRuleContextCache
+    implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener,
+        PostCollectionRecreateEventListener,
+        PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+
+  @PersistenceUnit private EntityManagerFactory emf;
+
+  private final Cache<ProgramRuleContext> contexts;
+
+  private final AtomicLong version = new AtomicLong();
+
+  public ProgramRuleContextCache(CacheProvider cacheProvider) {
+    this.contexts = cacheProvider.createProgramRuleContextCache();
+  }
+
+  @PostConstruct
+  protected void init() {
+    if (emf == null) {
+      return;
+    }
+    EventListenerRegistry registry =
+        emf.unwrap(SessionFactoryImpl.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+    registry.getEventListenerGroup(EventType.POST_COMMIT_INSERT).appendListener(this);
+    registry.getEventListenerGroup(EventType.POST_COMMIT_UPDATE).appendListener(this);
+    registry.getEventListenerGroup(EventType.POST_COMMIT_DELETE).appendListener(this);
+    registry.getEventListenerGroup(EventType.POST_COLLECTION_RECREATE).appendListener(this);
+    registry.getEventListenerGroup(EventType.POST_COLLECTION_UPDATE).appendListener(this);
+    registry.getEventListenerGroup(EventType.POST_COLLECTION_REMOVE).appendListener(this);
+  }
+
+  /**
+   * @param program the program to get the context for
+   * @param builder builds the context for the given version if none is cached for the current
+   *     version
+   * @return the context of the program for the current version
+   */
+  @Nonnull
+  public ProgramRuleContext get(
+      @Nonnull Program program, @Nonnull LongFunction<ProgramRuleContext> builder) {
+    long current = version.get();
+    Optional<ProgramRuleContext> cached = contexts.get(program.getUid());
+    if (cached.isPresent() && cached.get().getVersion() == current) {
+      return cached.get();
+    }
+    ProgramRuleContext context = builder.apply(current);
+    contexts.put(program.getUid(), context);
+    return context;
+  }
+
+  /** Outdates all cached contexts. */
+  public void invalidateAll() {
+    version.incrementAndGet();
+  }
+
+  public long getVersion() {
+    return version.get();
+  }
+
+  /** Outdates all cached contexts when objects they are built from changed on another server. */
+  @EventListener
+  public void handleCacheInvalidationEvent(CacheInvalidationEvent event) {
+    if (event.getRegion() == Region.programRuleContextCache) {
+      invalidateAll();
+    }
+  }
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    invalidateOnChange(event.getEntity());
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    invalidateOnChange(event.getEntity());
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    invalidateOnChange(event.getEntity());
+  }
+
+  @Override
+  public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+    invalidateOnCommit(event);
+  }
+
+  @Override
+  public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+    invalidateOnCommit(event);
+  }
+
+  @Override
+  public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+    invalidateOnCommit(event);
+  }
+
+  private void invalidateOnCommit(AbstractCollectionEvent event) {
+    Object owner = event.getAffectedOwnerOrNull();
+    if (owner != null && isContextCollection(owner.getClass(), event.getCollection().getRole())) {
+      event
+          .getSession()
+          .getActionQueue()
+          .registerProcess(
+              (success, session) -> {
+                if (success) {
+                  invalidateAll();
+                }
+              });
+    }
+  }
+
+  private void invalidateOnChange(Object entity) {
+    if (entity != null && isContextType(entity.getClass())) {
+      invalidateAll();
+    }
+  }
+
+  /**
+   * Only changes to the types contexts are built from are handled after commit, so that Hibernate
+   * does not queue post commit actions for the objects of other types written in a transaction.
+   */
+  @Override
+  public boolean requiresPostCommitHanding(EntityPersister persister) {
+    return requiresPostCommitHandling(persister);
+  }
+
+  @Override
+  public boolean requiresPostCommitHandling(EntityPersister persister) {
+    return isContextType(persister.getMappedClass());
+  }
+
+  @Override
+  public void onPostInsertCommitFailed(PostInsertEvent event) {
+    log.debug("onPostInsertCommitFailed: " + event);
+  }
+
+  @Override
+  public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    log.debug("onPostUpdateCommitFailed: " + event);
+  }
+
+  @Override
+  public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    log.debug("onPostDeleteCommitFailed: " + event);
+  }
+}
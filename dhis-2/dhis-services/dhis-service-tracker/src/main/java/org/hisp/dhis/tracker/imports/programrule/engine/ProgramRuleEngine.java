@@ -38,18 +38,30 @@ import org.hisp.dhis.user.UserDetails;
 
 public interface ProgramRuleEngine {
   /**
-   * Evaluate program rules for {@link Program} for enrollment and tracker events. Rules are
-   * evaluated under the authorization of given {@link UserDetails}.
+   * Get the rule context of the given {@link Program}. The context is cached and shared across
+   * imports until the program rules, variables or constants change.
+   *
+   * <p>This might access the database and must therefore be called by the thread running the import
+   * transaction. Evaluating a context does not access the database and can happen in any thread.
+   */
+  ProgramRuleContext getRuleContext(Program program);
+
+  /**
+   * Evaluate program rules of the given {@link ProgramRuleContext} for enrollment and tracker
+   * events. Rules are evaluated under the authorization of given {@link UserDetails}.
    */
   RuleEngineEffects evaluateEnrollmentAndEvents(
-      RuleEnrollment enrollment, List<RuleEvent> events, Program program, UserDetails user);
+      RuleEnrollment enrollment,
+      List<RuleEvent> events,
+      ProgramRuleContext context,
+      UserDetails user);
 
   /**
-   * Evaluate program rules as the given {@link UserDetails} for {@link Program} for program events.
-   * Rules are evaluated under the authorization of given {@link UserDetails}.
+   * Evaluate program rules of the given {@link ProgramRuleContext} for program events. Rules are
+   * evaluated under the authorization of given {@link UserDetails}.
    */
   RuleEngineEffects evaluateProgramEvents(
-      List<RuleEvent> events, Program program, UserDetails user);
+      List<RuleEvent> events, ProgramRuleContext context, UserDetails user);
 
   /**
    * To getDescription rule condition in order to fetch its description
@@ -27,8 +27,8 @@
  */
 package org.hisp.dhis.tracker.imports.programrule.engine;
 
-import com.google.common.collect.Maps;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -58,6 +58,27 @@ public class SupplementaryDataProvider {
 
   public Map<String, List<String>> getSupplementaryData(
       List<ProgramRule> programRules, UserDetails user) {
+    return getSupplementaryData(getOrgUnitGroupMembers(programRules), user);
+  }
+
+  /**
+   * @param orgUnitGroupMembers the org unit group members as returned by {@link
+   *     #getOrgUnitGroupMembers(List)}
+   * @return the supplementary data for the given user, combining the group members with the user
+   *     roles of the user
+   */
+  public Map<String, List<String>> getSupplementaryData(
+      Map<String, List<String>> orgUnitGroupMembers, UserDetails user) {
+    Map<String, List<String>> supplementaryData = new HashMap<>(orgUnitGroupMembers);
+    supplementaryData.put(USER, new ArrayList<>(user.getUserRoleIds()));
+    return supplementaryData;
+  }
+
+  /**
+   * @return the UIDs of the member org units of each org unit group used by the {@code
+   *     d2:inOrgUnitGroup} function in a condition of the given rules
+   */
+  public Map<String, List<String>> getOrgUnitGroupMembers(List<ProgramRule> programRules) {
     List<String> orgUnitGroups = new ArrayList<>();
 
     for (ProgramRule programRule : programRules) {
@@ -68,25 +89,18 @@ public class SupplementaryDataProvider {
       }
     }
 
-    Map<String, List<String>> supplementaryData = Maps.newHashMap();
-
-    if (!orgUnitGroups.isEmpty()) {
-      supplementaryData =
-          orgUnitGroups.stream()
-              .collect(
-                  Collectors.toMap(
-                      g -> g,
-                      g ->
-                          organisationUnitGroupService
-                              .getOrganisationUnitGroup(g)
-                              .getMembers()
-                              .stream()
-                              .map(OrganisationUnit::getUid)
-                              .toList()));
+    if (orgUnitGroups.isEmpty()) {
+      return Map.of();
     }
 
-    supplementaryData.put(USER, new ArrayList<>(user.getUserRoleIds()));
-
-    return supplementaryData;
+    return orgUnitGroups.stream()
+        .distinct()
+        .collect(
+            Collectors.toUnmodifiableMap(
+                g -> g,
+                g ->
+                    organisationUnitGroupService.getOrganisationUnitGroup(g).getMembers().stream()
+                        .map(OrganisationUnit::getUid)
+                        .toList()));
   }
 }
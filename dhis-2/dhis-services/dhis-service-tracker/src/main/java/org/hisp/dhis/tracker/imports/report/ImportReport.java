@@ -34,6 +34,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 import org.hisp.dhis.common.OpenApi;
 import org.hisp.dhis.tracker.TrackerType;
@@ -85,6 +86,12 @@ public class ImportReport {
    */
   @JsonProperty String message;
 
+  /**
+   * Time in milliseconds spent in the steps of the Import process, keyed by step name. Each preheat
+   * supplier is reported as {@code preheat.<supplier name>}.
+   */
+  @JsonProperty @Setter Map<String, Long> timings;
+
   /**
    * Factory method to use in case one or more Validation errors are present in the {@link
    * ValidationReport} and the Import process needs to exit without attempting persistence.
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.deduplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.hisp.dhis.common.ValueType;
+import org.junit.jupiter.api.Test;
+
+class PotentialDuplicateMatcherTest {
+  private final PotentialDuplicateMatcher nameAndBirth =
+      new PotentialDuplicateMatcher(1L, List.of(ValueType.TEXT, ValueType.DATE));
+
+  private final PotentialDuplicateMatcher nameBirthAndPhone =
+      new PotentialDuplicateMatcher(
+          1L, List.of(ValueType.TEXT, ValueType.DATE, ValueType.PHONE_NUMBER));
+
+  @Test
+  void testSoundex() {
+    assertEquals("R163", PotentialDuplicateMatcher.soundex("robert"));
+    assertEquals("R163", PotentialDuplicateMatcher.soundex("rupert"));
+    assertEquals("A261", PotentialDuplicateMatcher.soundex("ashcraft"));
+    assertEquals("T522", PotentialDuplicateMatcher.soundex("tymczak"));
+    assertEquals("P236", PotentialDuplicateMatcher.soundex("pfister"));
+    assertEquals("L000", PotentialDuplicateMatcher.soundex("lee"));
+    assertEquals("42", PotentialDuplicateMatcher.soundex("42"));
+  }
+
+  @Test
+  void testNormalize() {
+    assertEquals("jose maria", PotentialDuplicateMatcher.normalize("  José-María "));
+    assertEquals("o brien 2", PotentialDuplicateMatcher.normalize("O'Brien (2)"));
+    assertNull(PotentialDuplicateMatcher.normalize(" -- "));
+    assertNull(PotentialDuplicateMatcher.normalize(null));
+  }
+
+  @Test
+  void testIndexKeyIgnoresAttributeOrder() {
+    assertEquals(
+        PotentialDuplicateMatcher.indexKey(List.of("a", "b")),
+        PotentialDuplicateMatcher.indexKey(List.of("b", "a")));
+  }
+
+  @Test
+  void testBlockingKeysSharedForSimilarNames() {
+    assertEquals(
+        nameAndBirth.getBlockingKeys(new String[] {"Jon Smith", "1990-01-02"}),
+        nameAndBirth.getBlockingKeys(new String[] {"Smith, John", "1990-02-01"}));
+    assertNotShared(
+        nameAndBirth.getBlockingKeys(new String[] {"Jon Smith", "1990-01-02"}),
+        nameAndBirth.getBlockingKeys(new String[] {"Jon Smith", "1991-01-02"}));
+  }
+
+  @Test
+  void testBlockingKeysPerPairOfAttributes() {
+    Set<Long> a = nameBirthAndPhone.getBlockingKeys(new String[] {"Anna", "1990-01-02", "123"});
+    Set<Long> b = nameBirthAndPhone.getBlockingKeys(new String[] {"Anna", "1990-01-02", "456"});
+    Set<Long> c = nameBirthAndPhone.getBlockingKeys(new String[] {"Anna", "1990-01-02", null});
+    Set<Long> d = nameBirthAndPhone.getBlockingKeys(new String[] {null, "1990-01-02", "123"});
+
+    assertEquals(3, a.size());
+    Set<Long> shared = new HashSet<>(a);
+    shared.retainAll(b);
+    assertEquals(1, shared.size());
+    assertEquals(shared, c);
+    assertEquals(1, d.size());
+    assertTrue(a.containsAll(d));
+    assertNotShared(c, d);
+  }
+
+  @Test
+  void testBlockingKeysRequireTwoValues() {
+    PotentialDuplicateMatcher name = new PotentialDuplicateMatcher(1L, List.of(ValueType.TEXT));
+    String[] birthOnly = {null, "1990-01-02", null};
+
+    assertTrue(nameBirthAndPhone.getBlockingKeys(birthOnly).isEmpty());
+    assertEquals(1, name.getBlockingKeys(new String[] {"Anna"}).size());
+    assertEquals(
+        name.getBlockingKeys(new String[] {"Anna"}), name.getBlockingKeys(new String[] {"Ana"}));
+  }
+
+  @Test
+  void testBlockingKeysDependOnIndex() {
+    PotentialDuplicateMatcher other =
+        new PotentialDuplicateMatcher(2L, List.of(ValueType.TEXT, ValueType.DATE));
+    String[] values = {"Anna", "1990-01-02"};
+
+    assertNotShared(nameAndBirth.getBlockingKeys(values), other.getBlockingKeys(values));
+  }
+
+  @Test
+  void testBlockingKeysWithoutValues() {
+    assertTrue(nameAndBirth.getBlockingKeys(new String[] {null, " "}).isEmpty());
+  }
+
+  @Test
+  void testGetSimilarity() {
+    assertEquals(
+        1d,
+        nameAndBirth.getSimilarity(
+            new String[] {"Anna Smith", "1990-01-02"}, new String[] {"anna  smith", "1990-01-02"}));
+    assertTrue(
+        nameAndBirth.getSimilarity(
+                new String[] {"Anna Smith", "1990-01-02"},
+                new String[] {"Ana Smith", "1990-01-02"})
+            > 0.9);
+    assertEquals(
+        0.75d,
+        nameAndBirth.getSimilarity(
+            new String[] {"Anna Smith", "1990-01-02"}, new String[] {"Anna Smith", "1990-05-06"}));
+    assertEquals(
+        0.5d,
+        nameAndBirth.getSimilarity(
+            new String[] {"Anna Smith", "1990-01-02"}, new String[] {"Anna Smith", "1985-01-02"}));
+  }
+
+  @Test
+  void testGetSimilarityRequiresTwoSharedValues() {
+    assertEquals(
+        0d,
+        nameAndBirth.getSimilarity(
+            new String[] {"Anna Smith", null}, new String[] {"Anna Smith", "1990-01-02"}));
+    assertEquals(
+        1d,
+        new PotentialDuplicateMatcher(1L, List.of(ValueType.TEXT))
+            .getSimilarity(new String[] {"Anna"}, new String[] {"Anna"}));
+  }
+
+  private static void assertNotShared(Set<Long> a, Set<Long> b) {
+    assertFalse(a.stream().anyMatch(b::contains));
+  }
+}
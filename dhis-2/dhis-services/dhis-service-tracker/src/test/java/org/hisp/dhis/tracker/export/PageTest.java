@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.hisp.dhis.feedback.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+class PageTest {
+
+  @Test
+  void shouldSetNextPageCursorPointingAfterLastItemOfFullPage() throws BadRequestException {
+    Page<Long> page = Page.withoutTotals(List.of(42L, 17L, 3L), 1, 3);
+
+    Page<Long> pageWithCursor = page.withNextPageCursor(Long::longValue);
+
+    assertNotNull(pageWithCursor.getNextPageCursor());
+    PageParams nextPage = PageParams.ofCursor(pageWithCursor.getNextPageCursor(), 3, false);
+    assertTrue(nextPage.hasCursor());
+    assertEquals(3L, nextPage.getCursor());
+    assertEquals(1, nextPage.getPage());
+    assertEquals(3, nextPage.getPageSize());
+  }
+
+  @Test
+  void shouldNotSetNextPageCursorIfPageIsNotFull() {
+    Page<Long> page = Page.withoutTotals(List.of(42L, 17L), 1, 3);
+
+    assertNull(page.withNextPageCursor(Long::longValue).getNextPageCursor());
+  }
+
+  @Test
+  void shouldKeepNextPageCursorWhenReplacingItems() {
+    Page<Long> page = Page.withoutTotals(List.of(42L), 1, 1).withNextPageCursor(Long::longValue);
+
+    assertEquals(page.getNextPageCursor(), page.withItems(List.of("a")).getNextPageCursor());
+  }
+
+  @Test
+  void shouldFailGivenInvalidCursor() {
+    assertThrows(BadRequestException.class, () -> PageParams.ofCursor("not a cursor", 3, false));
+  }
+
+  @Test
+  void shouldNotHaveCursorGivenPageNumber() {
+    assertNull(new PageParams(2, 3, false).getCursor());
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.export.trackedentity.aggregates;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ThreadPoolManagerTest {
+  private final ThreadPoolManager manager = new ThreadPoolManager(1, 50);
+
+  @AfterEach
+  void tearDown() {
+    manager.shutdown();
+  }
+
+  @Test
+  void testFetch() {
+    try (ThreadPoolManager.Request request = manager.admit()) {
+      CompletableFuture<Integer> a = request.fetch(() -> 1);
+      CompletableFuture<Integer> b = request.fetch(() -> 2);
+
+      assertEquals(3, request.join(a) + request.join(b));
+      assertEquals(1, manager.getActiveRequests());
+    }
+    assertEquals(0, manager.getActiveRequests());
+  }
+
+  @Test
+  void testAdmitRejectsWhenAllRequestsAreAdmitted() {
+    try (ThreadPoolManager.Request request = manager.admit()) {
+      assertThrows(TrackerExportAdmissionException.class, manager::admit);
+    }
+    manager.admit().close();
+  }
+
+  @Test
+  void testFailedFetchCancelsQueuedFetches() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicBoolean queuedRan = new AtomicBoolean();
+    try (ThreadPoolManager.Request request = manager.admit()) {
+      CompletableFuture<Integer> blocking =
+          request.fetch(
+              () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalArgumentException("failed");
+              });
+      CompletableFuture<Integer> queued =
+          request.fetch(
+              () -> {
+                queuedRan.set(true);
+                return 1;
+              });
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      release.countDown();
+
+      CompletionException ex = assertThrows(CompletionException.class, () -> request.join(queued));
+      assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+      assertThrows(CompletionException.class, () -> request.join(blocking));
+    }
+    assertFalse(queuedRan.get());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
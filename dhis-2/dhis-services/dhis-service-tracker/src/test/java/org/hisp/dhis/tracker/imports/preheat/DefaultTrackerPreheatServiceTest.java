@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.tracker.imports.preheat;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doThrow;
@@ -34,13 +35,18 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.hisp.dhis.tracker.TrackerIdSchemeParams;
 import org.hisp.dhis.tracker.imports.domain.TrackedEntity;
 import org.hisp.dhis.tracker.imports.domain.TrackerObjects;
 import org.hisp.dhis.tracker.imports.preheat.supplier.ClassBasedSupplier;
 import org.hisp.dhis.tracker.imports.preheat.supplier.PreheatSupplier;
+import org.hisp.dhis.tracker.imports.preheat.supplier.ProgramOrgUnitsSupplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -79,7 +85,8 @@ class DefaultTrackerPreheatServiceTest {
   @BeforeEach
   public void setUp() {
     preheatService =
-        new DefaultTrackerPreheatService(List.of(ClassBasedSupplier.class.getSimpleName()));
+        new DefaultTrackerPreheatService(
+            List.of(ClassBasedSupplier.class.getSimpleName()), Runnable::run);
 
     preheatService.setApplicationContext(applicationContext);
   }
@@ -121,4 +128,122 @@ class DefaultTrackerPreheatServiceTest {
     verify(applicationContext).getBean(bean.getValue(), preheatSupplierClassCaptor.getValue());
     verify(classBasedSupplier).add(any(), any());
   }
+
+  @Test
+  void shouldPrepareConcurrentSupplierAfterItsDependenciesWereAdded() {
+    Thread caller = Thread.currentThread();
+    List<String> calls = Collections.synchronizedList(new ArrayList<>());
+    List<Thread> applyThreads = Collections.synchronizedList(new ArrayList<>());
+    PreheatSupplier dependency =
+        new TestSupplier(Set.of()) {
+          @Override
+          public Query prepare(TrackerObjects trackerObjects, TrackerPreheat preheat) {
+            calls.add("prepare dependency");
+            return () -> {
+              sleep();
+              calls.add("query dependency");
+              return p -> {
+                applyThreads.add(Thread.currentThread());
+                calls.add("apply dependency");
+              };
+            };
+          }
+        };
+    PreheatSupplier dependent =
+        new TestSupplier(Set.of(ClassBasedSupplier.class)) {
+          @Override
+          public Query prepare(TrackerObjects trackerObjects, TrackerPreheat preheat) {
+            calls.add("prepare dependent");
+            return () ->
+                p -> {
+                  applyThreads.add(Thread.currentThread());
+                  calls.add("apply dependent");
+                };
+          }
+        };
+    when(applicationContext.getBean("classBasedSupplier", PreheatSupplier.class))
+        .thenReturn(dependency);
+    when(applicationContext.getBean("programOrgUnitsSupplier", PreheatSupplier.class))
+        .thenReturn(dependent);
+    List<String> order =
+        List.of(
+            ClassBasedSupplier.class.getSimpleName(),
+            ProgramOrgUnitsSupplier.class.getSimpleName());
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      DefaultTrackerPreheatService service = new DefaultTrackerPreheatService(order, executor);
+      service.setApplicationContext(applicationContext);
+
+      TrackerPreheat preheat = service.preheat(preheatParams, idSchemeParams);
+
+      assertEquals(
+          List.of(
+              "prepare dependency",
+              "query dependency",
+              "apply dependency",
+              "prepare dependent",
+              "apply dependent"),
+          calls);
+      assertEquals(List.of(caller, caller), applyThreads);
+      assertEquals(order, List.copyOf(preheat.getTimings().keySet()));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldDoNothingWhenConcurrentQueryException() {
+    PreheatSupplier failing =
+        new TestSupplier(Set.of()) {
+          @Override
+          public Query prepare(TrackerObjects trackerObjects, TrackerPreheat preheat) {
+            return () -> {
+              throw new RuntimeException("e");
+            };
+          }
+        };
+    when(applicationContext.getBean("classBasedSupplier", PreheatSupplier.class))
+        .thenReturn(failing);
+
+    TrackerPreheat preheat = preheatService.preheat(preheatParams, idSchemeParams);
+
+    assertEquals(
+        List.of(ClassBasedSupplier.class.getSimpleName()),
+        List.copyOf(preheat.getTimings().keySet()));
+  }
+
+  private abstract static class TestSupplier implements PreheatSupplier {
+    private final Set<Class<? extends PreheatSupplier>> dependencies;
+
+    TestSupplier(Set<Class<? extends PreheatSupplier>> dependencies) {
+      this.dependencies = dependencies;
+    }
+
+    @Override
+    public void add(TrackerObjects trackerObjects, TrackerPreheat preheat) {
+      prepare(trackerObjects, preheat).execute().accept(preheat);
+    }
+
+    @Override
+    public Set<Class<? extends PreheatSupplier>> getDependencies() {
+      return dependencies;
+    }
+
+    @Override
+    public boolean isConcurrent() {
+      return true;
+    }
+
+    @Override
+    public abstract Query prepare(TrackerObjects trackerObjects, TrackerPreheat preheat);
+
+    void sleep() {
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
 }
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports.programrule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.common.UID;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.program.Program;
+import org.hisp.dhis.program.ProgramStage;
+import org.hisp.dhis.rules.models.Rule;
+import org.hisp.dhis.rules.models.RuleAction;
+import org.hisp.dhis.rules.models.RuleEffect;
+import org.hisp.dhis.rules.models.RuleEffects;
+import org.hisp.dhis.rules.models.RuleEvent;
+import org.hisp.dhis.rules.models.TrackerObjectType;
+import org.hisp.dhis.system.executor.BoundedExecutorFactory;
+import org.hisp.dhis.test.TestBase;
+import org.hisp.dhis.tracker.TrackerIdSchemeParam;
+import org.hisp.dhis.tracker.export.event.EventService;
+import org.hisp.dhis.tracker.imports.bundle.TrackerBundle;
+import org.hisp.dhis.tracker.imports.domain.Event;
+import org.hisp.dhis.tracker.imports.domain.MetadataIdentifier;
+import org.hisp.dhis.tracker.imports.preheat.TrackerPreheat;
+import org.hisp.dhis.tracker.imports.programrule.engine.ProgramRuleContext;
+import org.hisp.dhis.tracker.imports.programrule.engine.ProgramRuleEngine;
+import org.hisp.dhis.tracker.imports.programrule.engine.RuleEngineEffects;
+import org.hisp.dhis.tracker.imports.programrule.engine.ValidationEffect;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultProgramRuleServiceTest extends TestBase {
+  private static final String RULE_UID = "TvctPPhpD8u";
+
+  private static final String EXECUTOR_NAME = "program-rule-test";
+
+  @Mock private ProgramRuleEngine programRuleEngine;
+
+  @Mock private EventService eventService;
+
+  @Mock private RuleActionEnrollmentMapper ruleActionEnrollmentMapper;
+
+  @Mock private RuleActionEventMapper ruleActionEventMapper;
+
+  private ThreadPoolExecutor executor;
+
+  private TrackerBundle bundle;
+
+  private List<Event> events;
+
+  private final List<String> completed = Collections.synchronizedList(new ArrayList<>());
+
+  private final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+
+  @BeforeEach
+  void setUp() {
+    executor = BoundedExecutorFactory.newExecutor(EXECUTOR_NAME, 3);
+    OrganisationUnit orgUnit = createOrganisationUnit('O');
+    TrackerPreheat preheat = new TrackerPreheat();
+    preheat.put(TrackerIdSchemeParam.UID, orgUnit);
+    events = new ArrayList<>();
+
+    for (char c : new char[] {'A', 'B', 'C'}) {
+      Program program = createProgram(c);
+      ProgramStage programStage = createProgramStage(c, program);
+      preheat.put(TrackerIdSchemeParam.UID, program);
+      preheat.put(programStage);
+      events.add(
+          Event.builder()
+              .event(UID.generate())
+              .program(MetadataIdentifier.ofUid(program.getUid()))
+              .programStage(MetadataIdentifier.ofUid(programStage.getUid()))
+              .orgUnit(MetadataIdentifier.ofUid(orgUnit.getUid()))
+              .occurredAt(Instant.now())
+              .build());
+    }
+
+    bundle = TrackerBundle.builder().events(events).build();
+    bundle.setPreheat(preheat);
+
+    Rule rule = new Rule("true", List.of(), RULE_UID, RULE_UID, "", 0);
+    when(programRuleEngine.getRuleContext(any()))
+        .thenReturn(
+            new ProgramRuleContext(
+                1,
+                Map.of(ProgramRuleContext.NO_PROGRAM_STAGE, List.of(rule)),
+                List.of(),
+                Map.of(),
+                Map.of()));
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldEvaluateInParallelAndMergeAllEffects() {
+    CountDownLatch othersCompleted = new CountDownLatch(events.size() - 1);
+    String first = events.get(0).getUid().getValue();
+    when(programRuleEngine.evaluateProgramEvents(anyList(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              String event = invocation.<List<RuleEvent>>getArgument(0).get(0).getEvent();
+              threads.add(Thread.currentThread().getName());
+              if (event.equals(first)) {
+                assertTrue(othersCompleted.await(10, TimeUnit.SECONDS));
+              }
+              completed.add(event);
+              othersCompleted.countDown();
+              return effectsOf(event);
+            });
+
+    Map<UID, List<ValidationEffect>> effects = calculateRuleEffects(executor);
+
+    assertEquals(first, completed.get(completed.size() - 1));
+    assertTrue(threads.stream().allMatch(name -> name.startsWith(EXECUTOR_NAME)));
+    assertEquals(events.size(), effects.size());
+    for (Event event : events) {
+      assertEquals(1, effects.get(event.getUid()).size());
+    }
+  }
+
+  @Test
+  void shouldEvaluateInPayloadOrderAndMergeSameEffectsAsSequentialRun() {
+    when(programRuleEngine.evaluateProgramEvents(anyList(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              String event = invocation.<List<RuleEvent>>getArgument(0).get(0).getEvent();
+              completed.add(event);
+              return effectsOf(event);
+            });
+
+    Map<UID, List<ValidationEffect>> sequential = calculateRuleEffects(Runnable::run);
+    List<String> sequentialOrder = List.copyOf(completed);
+    Map<UID, List<ValidationEffect>> parallel = calculateRuleEffects(executor);
+
+    assertEquals(events.stream().map(e -> e.getUid().getValue()).toList(), sequentialOrder);
+    assertEquals(sequential, parallel);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<UID, List<ValidationEffect>> calculateRuleEffects(Executor programRuleExecutor) {
+    new DefaultProgramRuleService(
+            programRuleEngine,
+            eventService,
+            ruleActionEnrollmentMapper,
+            ruleActionEventMapper,
+            programRuleExecutor)
+        .calculateRuleEffects(bundle, bundle.getPreheat());
+
+    ArgumentCaptor<Map<UID, List<ValidationEffect>>> effects = ArgumentCaptor.forClass(Map.class);
+    verify(ruleActionEventMapper, atLeastOnce())
+        .mapRuleEffects(effects.capture(), any());
+    return effects.getValue();
+  }
+
+  private static RuleEngineEffects effectsOf(String event) {
+    RuleAction action = new RuleAction("data", "SHOWERROR", Map.of());
+    return RuleEngineEffects.of(
+        List.of(
+            new RuleEffects(
+                TrackerObjectType.EVENT, event, List.of(new RuleEffect(RULE_UID, action, "")))));
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports.programrule.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.ActionQueue;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.common.cache.Region;
+import org.hisp.dhis.common.event.CacheInvalidationEvent;
+import org.hisp.dhis.option.Option;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.organisationunit.OrganisationUnitGroup;
+import org.hisp.dhis.program.Event;
+import org.hisp.dhis.program.Program;
+import org.hisp.dhis.programrule.ProgramRule;
+import org.hisp.dhis.rules.models.Rule;
+import org.hisp.dhis.test.TestBase;
+import org.hisp.dhis.test.cache.TestCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class ProgramRuleContextCacheTest extends TestBase {
+
+  private ProgramRuleContextCache cache;
+
+  private Program program;
+
+  private AtomicInteger builds;
+
+  @BeforeEach
+  void setUp() {
+    CacheProvider cacheProvider = mock(CacheProvider.class);
+    when(cacheProvider.<ProgramRuleContext>createProgramRuleContextCache())
+        .thenReturn(new TestCache<>());
+    cache = new ProgramRuleContextCache(cacheProvider);
+    program = createProgram('A');
+    builds = new AtomicInteger();
+  }
+
+  @Test
+  void shouldReuseContextWhileVersionIsUnchanged() {
+    ProgramRuleContext context = cache.get(program, this::build);
+
+    assertSame(context, cache.get(program, this::build));
+    assertEquals(1, builds.get());
+  }
+
+  @Test
+  void shouldRebuildContextWhenProgramRuleChanged() {
+    ProgramRuleContext context = cache.get(program, this::build);
+
+    cache.onPostUpdate(updateOf(new ProgramRule()));
+    ProgramRuleContext rebuilt = cache.get(program, this::build);
+
+    assertEquals(2, builds.get());
+    assertEquals(context.getVersion() + 1, rebuilt.getVersion());
+  }
+
+  @Test
+  void shouldKeepContextWhenUnrelatedObjectChanged() {
+    ProgramRuleContext context = cache.get(program, this::build);
+
+    cache.onPostUpdate(updateOf(createProgram('B')));
+
+    assertSame(context, cache.get(program, this::build));
+    assertEquals(1, builds.get());
+  }
+
+  @Test
+  void shouldRebuildContextWhenInvalidatedByOtherServer() {
+    ProgramRuleContext context = cache.get(program, this::build);
+
+    cache.handleCacheInvalidationEvent(
+        new CacheInvalidationEvent(this, Region.programRuleContextCache));
+
+    assertEquals(context.getVersion() + 1, cache.get(program, this::build).getVersion());
+    assertEquals(2, builds.get());
+  }
+
+  @Test
+  void shouldKeepContextWhenOtherRegionInvalidated() {
+    ProgramRuleContext context = cache.get(program, this::build);
+
+    cache.handleCacheInvalidationEvent(new CacheInvalidationEvent(this, Region.analyticsResponse));
+
+    assertSame(context, cache.get(program, this::build));
+    assertEquals(1, builds.get());
+  }
+
+  @Test
+  void shouldRequirePostCommitHandlingOnlyForContextTypes() {
+    assertTrue(cache.requiresPostCommitHandling(persisterOf(ProgramRule.class)));
+    assertTrue(cache.requiresPostCommitHandling(persisterOf(Option.class)));
+    assertTrue(cache.requiresPostCommitHanding(persisterOf(OrganisationUnitGroup.class)));
+    assertFalse(cache.requiresPostCommitHandling(persisterOf(Program.class)));
+    assertFalse(cache.requiresPostCommitHandling(persisterOf(Event.class)));
+    assertFalse(cache.requiresPostCommitHanding(persisterOf(OrganisationUnit.class)));
+  }
+
+  @Test
+  void shouldRebuildContextWhenOrgUnitGroupsChangedFromOrgUnitAfterCommit() {
+    ProgramRuleContext context = cache.get(program, this::build);
+    ActionQueue actionQueue = mock(ActionQueue.class);
+
+    String role = OrganisationUnit.class.getName() + ".groups";
+
+    OrganisationUnit orgUnit = createOrganisationUnit('A');
+
+    cache.onPostUpdateCollection(collectionUpdateOf(orgUnit, role, actionQueue));
+
+    assertSame(context, cache.get(program, this::build));
+    ArgumentCaptor<AfterTransactionCompletionProcess> process =
+        ArgumentCaptor.forClass(AfterTransactionCompletionProcess.class);
+    verify(actionQueue).registerProcess(process.capture());
+    process.getValue().doAfterTransactionCompletion(true, null);
+
+    assertEquals(context.getVersion() + 1, cache.get(program, this::build).getVersion());
+    assertEquals(2, builds.get());
+  }
+
+  @Test
+  void shouldKeepContextWhenOtherOrgUnitCollectionChanged() {
+    ActionQueue actionQueue = mock(ActionQueue.class);
+
+    String role = OrganisationUnit.class.getName() + ".children";
+
+    OrganisationUnit orgUnit = createOrganisationUnit('A');
+
+    cache.onPostUpdateCollection(collectionUpdateOf(orgUnit, role, actionQueue));
+
+    verifyNoInteractions(actionQueue);
+  }
+
+  @Test
+  void shouldSelectRulesWithoutProgramStageAndRulesOfGivenProgramStages() {
+    Rule enrollmentRule = rule("enrollment", "");
+    Rule stageARule = rule("stageA", "A");
+    Rule stageBRule = rule("stageB", "B");
+    ProgramRuleContext context =
+        new ProgramRuleContext(
+            1,
+            Map.of(
+                ProgramRuleContext.NO_PROGRAM_STAGE,
+                List.of(enrollmentRule),
+                "A",
+                List.of(stageARule),
+                "B",
+                List.of(stageBRule)),
+            List.of(),
+            Map.of(),
+            Map.of());
+
+    assertEquals(List.of(enrollmentRule), context.getRules(List.of()));
+    assertEquals(List.of(enrollmentRule, stageARule), context.getRules(List.of("A", "A")));
+    assertTrue(ProgramRuleContext.empty(1).getRules(List.of("A")).isEmpty());
+  }
+
+  private ProgramRuleContext build(long version) {
+    builds.incrementAndGet();
+    return ProgramRuleContext.empty(version);
+  }
+
+  private static PostUpdateEvent updateOf(Object entity) {
+    PostUpdateEvent event = mock(PostUpdateEvent.class);
+    when(event.getEntity()).thenReturn(entity);
+    return event;
+  }
+
+  private static EntityPersister persisterOf(Class<?> type) {
+    EntityPersister persister = mock(EntityPersister.class);
+    when(persister.getMappedClass()).thenReturn(type);
+    return persister;
+  }
+
+  private static PostCollectionUpdateEvent collectionUpdateOf(
+      Object owner, String role, ActionQueue actionQueue) {
+    PersistentCollection collection = mock(PersistentCollection.class);
+    when(collection.getRole()).thenReturn(role);
+    EventSource session = mock(EventSource.class);
+    when(session.getActionQueue()).thenReturn(actionQueue);
+    PostCollectionUpdateEvent event = mock(PostCollectionUpdateEvent.class);
+    when(event.getAffectedOwnerOrNull()).thenReturn(owner);
+    when(event.getCollection()).thenReturn(collection);
+    when(event.getSession()).thenReturn(session);
+    return event;
+  }
+
+  private static Rule rule(String uid, String programStage) {
+    return new Rule("true", List.of(), uid, uid, programStage, 0);
+  }
+}
@@ -27,27 +27,35 @@
  */
 package org.hisp.dhis.dataanalysis;
 
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.partitioningBy;
+import static org.hisp.dhis.commons.util.ConcurrentUtils.join;
+
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.datavalue.DeflatedDataValue;
-import org.hisp.dhis.jdbc.batchhandler.MinMaxDataElementBatchHandler;
-import org.hisp.dhis.minmax.MinMaxDataElement;
 import org.hisp.dhis.minmax.MinMaxDataElementService;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.Period;
-import org.hisp.dhis.system.util.MathUtils;
-import org.hisp.quick.BatchHandler;
-import org.hisp.quick.BatchHandlerFactory;
 import org.joda.time.DateTime;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * @author Lars Helge Overland
@@ -56,11 +64,17 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 @Service("org.hisp.dhis.dataanalysis.MinMaxOutlierAnalysisService")
 public class MinMaxOutlierAnalysisService implements MinMaxDataAnalysisService {
+  /** Number of data elements whose min-max values are generated together in one transaction. */
+  private static final int DATA_ELEMENT_PARTITION_SIZE = 100;
+
   private final DataAnalysisStore dataAnalysisStore;
 
   private final MinMaxDataElementService minMaxDataElementService;
 
-  private final BatchHandlerFactory batchHandlerFactory;
+  private final TransactionTemplate transactionTemplate;
+
+  @Qualifier("minMaxGenerationExecutor")
+  private final Executor minMaxGenerationExecutor;
 
   // -------------------------------------------------------------------------
   // DataAnalysisService implementation
@@ -92,64 +106,80 @@ public class MinMaxOutlierAnalysisService implements MinMaxDataAnalysisService {
   @Override
   public void generateMinMaxValues(
       OrganisationUnit orgUnit, Collection<DataElement> dataElements, Double stdDevFactor) {
+    generateMinMaxValues(orgUnit, dataElements, stdDevFactor, null);
+  }
+
+  @Override
+  public void generateMinMaxValues(
+      OrganisationUnit orgUnit,
+      Collection<DataElement> dataElements,
+      Double stdDevFactor,
+      Date changedSince) {
+    Map<Boolean, List<DataElement>> byNumeric =
+        dataElements.stream()
+            .sorted(comparing(DataElement::getId))
+            .collect(partitioningBy(de -> de.getValueType().isNumeric()));
+
+    List<DataElement> numericDataElements = byNumeric.get(true);
+
+    if (changedSince != null) {
+      Set<Long> changed =
+          dataAnalysisStore.getDataElementsWithDataChangedSince(
+              numericDataElements, orgUnit, changedSince);
+
+      numericDataElements =
+          numericDataElements.stream().filter(de -> changed.contains(de.getId())).toList();
+    } else if (!byNumeric.get(false).isEmpty()) {
+      minMaxDataElementService.removeMinMaxDataElements(byNumeric.get(false), orgUnit);
+    }
+
     log.info(
         "Starting min-max value generation, no of data elements: "
-            + dataElements.size()
+            + numericDataElements.size()
             + ", parent: "
-            + orgUnit.getUid());
+            + orgUnit.getUid()
+            + (changedSince != null ? ", data changed since: " + changedSince : ""));
 
     Date from = new DateTime(1, 1, 1, 1, 1).toDate();
 
-    minMaxDataElementService.removeMinMaxDataElements(dataElements, orgUnit);
+    AtomicInteger generated = new AtomicInteger();
+
+    List<CompletableFuture<Void>> partitions = new ArrayList<>();
+
+    for (List<DataElement> partition :
+        Lists.partition(numericDataElements, DATA_ELEMENT_PARTITION_SIZE)) {
+      // Resolve category option combos on this thread, which owns the Hibernate session
+      Map<DataElement, Set<CategoryOptionCombo>> categoryOptionCombos =
+          getCategoryOptionCombos(partition);
+
+      partitions.add(
+          CompletableFuture.runAsync(
+              () ->
+                  transactionTemplate.executeWithoutResult(
+                      status ->
+                          generated.addAndGet(
+                              dataAnalysisStore.generateMinMaxValues(
+                                  categoryOptionCombos, orgUnit, from, stdDevFactor))),
+              minMaxGenerationExecutor));
+    }
 
-    log.debug("Deleted existing min-max values");
+    join(CompletableFuture.allOf(partitions.toArray(CompletableFuture[]::new)));
 
-    BatchHandler<MinMaxDataElement> batchHandler =
-        batchHandlerFactory.createBatchHandler(MinMaxDataElementBatchHandler.class).init();
+    log.info("Min-max value generation done, no of values: " + generated.get());
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  private static Map<DataElement, Set<CategoryOptionCombo>> getCategoryOptionCombos(
+      List<DataElement> dataElements) {
+    Map<DataElement, Set<CategoryOptionCombo>> categoryOptionCombos = new LinkedHashMap<>();
 
     for (DataElement dataElement : dataElements) {
-      if (dataElement.getValueType().isNumeric()) {
-        Set<CategoryOptionCombo> categoryOptionCombos = dataElement.getCategoryOptionCombos();
-
-        List<DataAnalysisMeasures> measuresList =
-            dataAnalysisStore.getDataAnalysisMeasures(
-                dataElement, categoryOptionCombos, orgUnit, from);
-
-        for (DataAnalysisMeasures measures : measuresList) {
-          int min =
-              (int)
-                  Math.round(
-                      MathUtils.getLowBound(
-                          measures.getStandardDeviation(), stdDevFactor, measures.getAverage()));
-          int max =
-              (int)
-                  Math.round(
-                      MathUtils.getHighBound(
-                          measures.getStandardDeviation(), stdDevFactor, measures.getAverage()));
-
-          switch (dataElement.getValueType()) {
-            case INTEGER_POSITIVE:
-            case INTEGER_ZERO_OR_POSITIVE:
-              min = Math.max(0, min); // Cannot be < 0
-              break;
-            case INTEGER_NEGATIVE:
-              max = Math.min(0, max); // Cannot be > 0
-              break;
-          }
-
-          OrganisationUnit ou = new OrganisationUnit();
-          ou.setId(measures.getOrgUnitId());
-
-          CategoryOptionCombo coc = new CategoryOptionCombo();
-          coc.setId(measures.getCategoryOptionComboId());
-
-          batchHandler.addObject(new MinMaxDataElement(dataElement, ou, coc, min, max, true));
-        }
-      }
+      categoryOptionCombos.put(dataElement, dataElement.getCategoryOptionCombos());
     }
 
-    log.info("Min-max value generation done");
-
-    batchHandler.flush();
+    return categoryOptionCombos;
   }
 }
@@ -30,14 +30,18 @@ package org.hisp.dhis.dataanalysis.jdbc;
 import static org.hisp.dhis.common.IdentifiableObjectUtils.getIdentifiers;
 import static org.hisp.dhis.commons.util.TextUtils.getCommaDelimitedString;
 
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.category.CategoryOptionCombo;
+import org.hisp.dhis.common.ValueType;
 import org.hisp.dhis.commons.collection.PaginatedList;
 import org.hisp.dhis.commons.util.TextUtils;
 import org.hisp.dhis.dataanalysis.DataAnalysisMeasures;
@@ -64,6 +68,8 @@ import org.springframework.stereotype.Repository;
 public class JdbcDataAnalysisStore implements DataAnalysisStore {
 
   @Qualifier("readOnlyJdbcTemplate")
+  private final JdbcTemplate readOnlyJdbcTemplate;
+
   private final JdbcTemplate jdbcTemplate;
 
   @Override
@@ -102,7 +108,7 @@ public class JdbcDataAnalysisStore implements DataAnalysisStore {
             + "and dv.deleted is false "
             + "group by dv.sourceid, dv.categoryoptioncomboid;";
 
-    SqlRowSet rowSet = jdbcTemplate.queryForRowSet(sql);
+    SqlRowSet rowSet = readOnlyJdbcTemplate.queryForRowSet(sql);
 
     while (rowSet.next()) {
       int orgUnitId = rowSet.getInt(1);
@@ -118,6 +124,92 @@ public class JdbcDataAnalysisStore implements DataAnalysisStore {
     return measures;
   }
 
+  @Override
+  public int generateMinMaxValues(
+      Map<DataElement, Set<CategoryOptionCombo>> categoryOptionCombos,
+      OrganisationUnit parent,
+      Date from,
+      double stdDevFactor) {
+    if (categoryOptionCombos.isEmpty() || parent == null) {
+      return 0;
+    }
+
+    String dataElementIds = getCommaDelimitedString(getIdentifiers(categoryOptionCombos.keySet()));
+    String parentPath = parent.getPath() + "%";
+
+    jdbcTemplate.update(
+        "delete from minmaxdataelement where dataelementid in ("
+            + dataElementIds
+            + ") "
+            + "and sourceid in (select organisationunitid from organisationunit where path like ?)",
+        parentPath);
+
+    String keys = getMinMaxKeys(categoryOptionCombos);
+
+    if (keys.isEmpty()) {
+      return 0;
+    }
+
+    // Min and max are rounded half up and limited to the range of an integer, like
+    // Math.round, and then to zero by the sign constraint (if any) of the value type
+
+    String sql =
+        "insert into minmaxdataelement (minmaxdataelementid, sourceid, dataelementid, "
+            + "categoryoptioncomboid, minimumvalue, maximumvalue, generatedvalue) "
+            + "select nextval('hibernate_sequence'), m.sourceid, m.dataelementid, "
+            + "m.categoryoptioncomboid, "
+            + "cast(greatest(m.minlimit, least(2147483647, "
+            + "floor(m.average - m.standarddeviation * ? + 0.5))) as integer), "
+            + "cast(least(m.maxlimit, greatest(-2147483648, "
+            + "floor(m.average + m.standarddeviation * ? + 0.5))) as integer), "
+            + "true "
+            + "from ("
+            + "select dv.sourceid, dv.dataelementid, dv.categoryoptioncomboid, "
+            + "k.minlimit, k.maxlimit, "
+            + "avg(cast(dv.value as double precision)) as average, "
+            + "stddev_pop(cast(dv.value as double precision)) as standarddeviation "
+            + "from datavalue dv "
+            + "inner join (values "
+            + keys
+            + ") as k (dataelementid, categoryoptioncomboid, minlimit, maxlimit) "
+            + "on dv.dataelementid = k.dataelementid "
+            + "and dv.categoryoptioncomboid = k.categoryoptioncomboid "
+            + "inner join period pe on dv.periodid = pe.periodid "
+            + "inner join organisationunit ou on dv.sourceid = ou.organisationunitid "
+            + "where pe.startdate >= '"
+            + DateUtils.toMediumDate(from)
+            + "' "
+            + "and ou.path like ? "
+            + "and dv.deleted is false "
+            + "group by dv.sourceid, dv.dataelementid, dv.categoryoptioncomboid, "
+            + "k.minlimit, k.maxlimit) as m "
+            + "where m.standarddeviation <> 0";
+
+    return jdbcTemplate.update(sql, stdDevFactor, stdDevFactor, parentPath);
+  }
+
+  @Override
+  public Set<Long> getDataElementsWithDataChangedSince(
+      Collection<DataElement> dataElements, OrganisationUnit parent, Date since) {
+    if (dataElements.isEmpty() || parent == null) {
+      return Set.of();
+    }
+
+    String sql =
+        "select distinct dv.dataelementid "
+            + "from datavalue dv "
+            + "inner join organisationunit ou on dv.sourceid = ou.organisationunitid "
+            + "where dv.dataelementid in ("
+            + getCommaDelimitedString(getIdentifiers(dataElements))
+            + ") "
+            + "and dv.lastupdated >= ? "
+            + "and ou.path like ?";
+
+    return new HashSet<>(
+        jdbcTemplate.queryForList(
+            sql, Long.class, new Timestamp(since.getTime()), parent.getPath() + "%"));
+  }
+
   @Override
   public List<DeflatedDataValue> getMinMaxViolations(
       Collection<DataElement> dataElements,
@@ -170,7 +262,7 @@ public class JdbcDataAnalysisStore implements DataAnalysisStore {
             + limit
             + ";";
 
-    return jdbcTemplate.query(sql, new DeflatedDataValueNameMinMaxRowMapper(null, null));
+    return readOnlyJdbcTemplate.query(sql, new DeflatedDataValueNameMinMaxRowMapper(null, null));
   }
 
   @Override
@@ -251,7 +343,7 @@ public class JdbcDataAnalysisStore implements DataAnalysisStore {
           ps.setString(2, categoryOptionCombo.getName());
         };
 
-    return jdbcTemplate.query(
+    return readOnlyJdbcTemplate.query(
         sql, pss, new DeflatedDataValueNameMinMaxRowMapper(lowerBoundMap, upperBoundMap));
   }
 
@@ -304,6 +396,36 @@ public class JdbcDataAnalysisStore implements DataAnalysisStore {
             + limit
             + ";";
 
-    return jdbcTemplate.query(sql, new DeflatedDataValueNameMinMaxRowMapper(null, null));
+    return readOnlyJdbcTemplate.query(sql, new DeflatedDataValueNameMinMaxRowMapper(null, null));
+  }
+
+  /**
+   * Gets the rows of a values list of data element and category option combo identifiers, with the
+   * lower and upper limits of generated min-max values for the value type of the data element.
+   */
+  private static String getMinMaxKeys(
+      Map<DataElement, Set<CategoryOptionCombo>> categoryOptionCombos) {
+    List<String> keys = new ArrayList<>();
+
+    for (Map.Entry<DataElement, Set<CategoryOptionCombo>> entry :
+        categoryOptionCombos.entrySet()) {
+      DataElement dataElement = entry.getKey();
+      ValueType valueType = dataElement.getValueType();
+
+      // Cannot be < 0 or > 0 respectively
+      boolean notNegative =
+          valueType == ValueType.INTEGER_POSITIVE
+              || valueType == ValueType.INTEGER_ZERO_OR_POSITIVE;
+      boolean notPositive = valueType == ValueType.INTEGER_NEGATIVE;
+
+      String limits =
+          (notNegative ? 0 : Integer.MIN_VALUE) + "," + (notPositive ? 0 : Integer.MAX_VALUE);
+
+      for (CategoryOptionCombo coc : entry.getValue()) {
+        keys.add("(" + dataElement.getId() + "," + coc.getId() + "," + limits + ")");
+      }
+    }
+
+    return String.join(",", keys);
   }
 }
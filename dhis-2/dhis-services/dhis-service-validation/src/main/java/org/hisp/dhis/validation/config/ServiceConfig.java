@@ -28,10 +28,14 @@
 package org.hisp.dhis.validation.config;
 
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import org.hisp.dhis.common.ServiceProvider;
 import org.hisp.dhis.dataanalysis.DataAnalysisService;
 import org.hisp.dhis.dataanalysis.MinMaxOutlierAnalysisService;
 import org.hisp.dhis.dataanalysis.StdDevOutlierAnalysisService;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.system.executor.BoundedExecutorFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -53,4 +57,12 @@ public class ServiceConfig {
             minMaxOutlierAnalysisService));
     return serviceProvider;
   }
+
+  /** Generates min-max values for partitions of data elements. */
+  @Bean("minMaxGenerationExecutor")
+  public ExecutorService minMaxGenerationExecutor(
+      DhisConfigurationProvider config, BoundedExecutorFactory executorFactory) {
+    return executorFactory.create(
+        "MIN-MAX-GENERATION", config.getIntProperty(ConfigurationKey.MIN_MAX_GENERATION_THREADS));
+  }
 }
@@ -31,6 +31,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
@@ -44,8 +45,8 @@ import org.hisp.dhis.audit.AuditAttribute;
 import org.hisp.dhis.audit.AuditAttributes;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.relationship.RelationshipItem;
+import org.hisp.dhis.schema.Property;
 import org.hisp.dhis.system.util.AnnotationUtils;
-import org.hisp.dhis.system.util.ReflectionUtils;
 import org.hisp.dhis.util.ObjectUtils;
 import org.springframework.stereotype.Component;
 
@@ -69,9 +70,9 @@ public class AuditManager {
 
   /**
    * Cache for Fields of {@link org.hisp.dhis.audit.Auditable} classes Key is class name. Value is
-   * Map of {@link AuditAttribute} Fields and its getter Method
+   * Map of {@link AuditAttribute} Fields and a {@link Property} wrapping its getter Method
    */
-  private static final Map<String, Map<Field, Method>> cachedAuditAttributeFields =
+  private static final Map<String, Map<Field, Property>> cachedAuditAttributeFields =
       new ConcurrentHashMap<>();
 
   public AuditManager(
@@ -121,11 +122,19 @@ public class AuditManager {
     }
   }
 
-  public Map<Field, Method> getAuditAttributeFields(Class<?> auditClass) {
-    Map<Field, Method> map = cachedAuditAttributeFields.get(auditClass.getName());
+  public Map<Field, Property> getAuditAttributeFields(Class<?> auditClass) {
+    Map<Field, Property> map = cachedAuditAttributeFields.get(auditClass.getName());
 
     if (map == null) {
-      map = AnnotationUtils.getAnnotatedFields(auditClass, AuditAttribute.class);
+      map = new HashMap<>();
+
+      for (Map.Entry<Field, Method> entry :
+          AnnotationUtils.getAnnotatedFields(auditClass, AuditAttribute.class).entrySet()) {
+        Property property = new Property(entry.getKey().getType(), entry.getValue(), null);
+        property.initAccessors();
+        map.put(entry.getKey(), property);
+      }
+
       cachedAuditAttributeFields.put(auditClass.getName(), map);
     }
 
@@ -137,19 +146,19 @@ public class AuditManager {
 
     getAuditAttributeFields(entityClass)
         .forEach(
-            (field, getterMethod) ->
+            (field, property) ->
                 auditAttributes.put(
-                    field.getName(), getAttributeValue(entity, field.getName(), getterMethod)));
+                    field.getName(), getAttributeValue(entity, field.getName(), property)));
 
     return auditAttributes;
   }
 
-  private Object getAttributeValue(Object auditObject, String attributeName, Method getter) {
+  private Object getAttributeValue(Object auditObject, String attributeName, Property property) {
     if (auditObject instanceof Map) {
       return ((Map<?, ?>) auditObject).get(attributeName);
     }
 
-    Object value = ReflectionUtils.invokeMethod(auditObject, getter);
+    Object value = property.getValue(auditObject);
 
     if (value instanceof IdentifiableObject) {
       return ((IdentifiableObject) value).getUid();
@@ -29,7 +29,9 @@ package org.hisp.dhis.artemis.audit;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.DelayQueue;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -46,6 +48,9 @@ import org.springframework.stereotype.Component;
  * <p>To avoid excessive memory pressure, max 200 messages can stay in the queue: in-excess messages
  * are processed immediately.
  *
+ * <p>Audit messages equal to one already waiting in the queue are dropped. The waiting messages are
+ * tracked in a hash set, so this check does not scan the queue.
+ *
  * @author Luciano Fiandesio
  */
 @Slf4j
@@ -59,6 +64,8 @@ public class AuditScheduler {
 
   private final BlockingQueue<QueuedAudit> delayed = new DelayQueue<>();
 
+  private final Set<Audit> pending = ConcurrentHashMap.newKeySet();
+
   public AuditScheduler(AuditProducerSupplier auditProducerSupplier) {
     this.auditProducerSupplier = auditProducerSupplier;
   }
@@ -74,19 +81,27 @@ public class AuditScheduler {
     if (delayed.size() >= MAX_SIZE) {
       auditProducerSupplier.publish(auditItem);
     } else {
-      if (!delayed.contains(postponed)) {
+      if (pending.add(auditItem)) {
         boolean wasAddedToQueue = delayed.offer(postponed);
         log.debug("Audit queue accepted new audit item: {}", wasAddedToQueue);
       }
     }
   }
 
+  /** Number of audit messages waiting in the queue. */
+  public int getQueueSize() {
+    return delayed.size();
+  }
+
   @Scheduled(fixedDelay = 5_000)
   public void process() {
     final Collection<QueuedAudit> expired = new ArrayList<>();
 
     delayed.drainTo(expired);
 
-    expired.stream().map(QueuedAudit::getAuditItem).forEach(auditProducerSupplier::publish);
+    for (QueuedAudit queuedAudit : expired) {
+      pending.remove(queuedAudit.getAuditItem());
+      auditProducerSupplier.publish(queuedAudit.getAuditItem());
+    }
   }
 }
@@ -36,6 +36,7 @@ import java.util.HashMap;
 import java.util.Map;
 import org.apache.activemq.artemis.api.core.RoutingType;
 import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.jms.ActiveMQJMSConstants;
 import org.apache.activemq.artemis.core.config.CoreAddressConfiguration;
 import org.apache.activemq.artemis.core.config.CoreQueueConfiguration;
 import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
@@ -135,6 +136,21 @@ public class ArtemisConfig {
     return factory;
   }
 
+  @Bean // configured for audit topics
+  public DefaultJmsListenerContainerFactory jmsAuditListenerContainerFactory(
+      ConnectionFactory connectionFactory, NameDestinationResolver nameDestinationResolver) {
+    DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
+    factory.setConnectionFactory(connectionFactory);
+    factory.setDestinationResolver(nameDestinationResolver);
+    factory.setPubSubDomain(true);
+    factory.setConcurrency("1");
+    // audit messages are acknowledged one by one once they are saved to the database, the
+    // container does not acknowledge them
+    factory.setSessionAcknowledgeMode(ActiveMQJMSConstants.INDIVIDUAL_ACKNOWLEDGE);
+
+    return factory;
+  }
+
   @Bean // configured for queues
   public DefaultJmsListenerContainerFactory jmsQueueListenerContainerFactory(
       ConnectionFactory connectionFactory, NameDestinationResolver nameDestinationResolver) {
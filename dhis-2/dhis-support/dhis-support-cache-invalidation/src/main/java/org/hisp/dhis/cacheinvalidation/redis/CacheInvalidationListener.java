@@ -27,6 +27,9 @@
  */
 package org.hisp.dhis.cacheinvalidation.redis;
 
+import static org.hisp.dhis.programrule.ProgramRuleContextTypes.isContextCollection;
+import static org.hisp.dhis.programrule.ProgramRuleContextTypes.isContextType;
+
 import io.lettuce.core.pubsub.RedisPubSubListener;
 import java.io.Serializable;
 import java.lang.reflect.Field;
@@ -38,6 +41,8 @@ import org.hisp.dhis.cache.QueryCacheManager;
 import org.hisp.dhis.cacheinvalidation.BaseCacheEvictionService;
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.common.cache.Region;
+import org.hisp.dhis.common.event.CacheInvalidationEvent;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataset.CompleteDataSetRegistration;
 import org.hisp.dhis.dataset.DataSet;
@@ -50,12 +55,14 @@ import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
 import org.hisp.dhis.trackedentity.TrackedEntityAttributeService;
 import org.hisp.dhis.trackedentityattributevalue.TrackedEntityAttributeValue;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Component;
 
 /**
  * Listens for messages on a Redis pub/sub channel, and when it receives a message, it invalidates
- * the cache for the entity that was changed.
+ * the cache for the entity that was changed. Changes of objects program rule contexts are built
+ * from also outdate the contexts cached by this server, through a {@link CacheInvalidationEvent}.
  *
  * @author Morten Svanæs <msvanaes@dhis2.org>
  */
@@ -66,6 +73,8 @@ public class CacheInvalidationListener extends BaseCacheEvictionService
     implements RedisPubSubListener<String, String> {
   protected String serverInstanceId;
 
+  private final ApplicationEventPublisher eventPublisher;
+
   public CacheInvalidationListener(
       SessionFactory sessionFactory,
       PaginationCacheManager paginationCacheManager,
@@ -73,6 +82,7 @@ public class CacheInvalidationListener extends BaseCacheEvictionService
       IdentifiableObjectManager idObjectManager,
       TrackedEntityAttributeService trackedEntityAttributeService,
       PeriodService periodService,
+      ApplicationEventPublisher eventPublisher,
       @Qualifier("cacheInvalidationServerId") String serverInstanceId) {
     super(
         sessionFactory,
@@ -82,6 +92,7 @@ public class CacheInvalidationListener extends BaseCacheEvictionService
         trackedEntityAttributeService,
         periodService);
 
+    this.eventPublisher = eventPublisher;
     this.serverInstanceId = serverInstanceId;
   }
 
@@ -117,6 +128,10 @@ public class CacheInvalidationListener extends BaseCacheEvictionService
       String role = parts[3];
       Long ownerEntityId = Long.parseLong(parts[4]);
       sessionFactory.getCache().evictCollectionData(role, ownerEntityId);
+
+      if (isContextCollection(Class.forName(parts[2]), role)) {
+        invalidateProgramRuleContexts();
+      }
       return;
     }
 
@@ -138,6 +153,14 @@ public class CacheInvalidationListener extends BaseCacheEvictionService
       paginationCacheManager.evictCache(entityClass.getName());
       sessionFactory.getCache().evict(entityClass, entityId);
     }
+
+    if (isContextType(entityClass)) {
+      invalidateProgramRuleContexts();
+    }
+  }
+
+  private void invalidateProgramRuleContexts() {
+    eventPublisher.publishEvent(new CacheInvalidationEvent(this, Region.programRuleContextCache));
   }
 
   private Serializable getEntityId(String message) throws ClassNotFoundException {
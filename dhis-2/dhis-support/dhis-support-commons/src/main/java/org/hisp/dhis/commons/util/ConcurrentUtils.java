@@ -29,6 +29,7 @@ package org.hisp.dhis.commons.util;
 
 import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import lombok.extern.slf4j.Slf4j;
@@ -59,6 +60,25 @@ public class ConcurrentUtils {
     }
   }
 
+  /**
+   * Waits for the given {@link CompletableFuture} to complete and returns its value. If it
+   * completed exceptionally with a {@link RuntimeException}, that exception is thrown instead of the
+   * {@link CompletionException} wrapping it.
+   *
+   * @param future the future.
+   * @return the value of the future.
+   */
+  public static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw ex;
+    }
+  }
+
   /**
    * Returns a {@link Future} which is immediately completed and has its value set to an empty
    * string.
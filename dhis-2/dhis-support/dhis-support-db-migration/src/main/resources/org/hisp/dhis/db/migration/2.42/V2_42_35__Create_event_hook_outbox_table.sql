@@ -0,0 +1,19 @@
+-- Outbox of event hook deliveries waiting to be sent to their webhook target. Rows are keyed by
+-- the client ID and URL of the target, which unlike its position stays the same when targets are
+-- added, removed or reordered
+
+create sequence if not exists eventhookoutbox_sequence;
+
+create table if not exists eventhookoutbox (
+    eventhookoutboxid int8 not null default nextval('eventhookoutbox_sequence'),
+    eventhookuid varchar(11) not null,
+    targetkey varchar(32) not null,
+    payload text not null,
+    created timestamp not null default now(),
+    attempts int4 not null default 0,
+    nextattempt timestamp not null default now(),
+    lasterror varchar(1024) null,
+    constraint eventhookoutbox_pkey primary key (eventhookoutboxid)
+);
+
+create index if not exists eventhookoutbox_target_nextattempt_idx on eventhookoutbox (eventhookuid, targetkey, nextattempt);
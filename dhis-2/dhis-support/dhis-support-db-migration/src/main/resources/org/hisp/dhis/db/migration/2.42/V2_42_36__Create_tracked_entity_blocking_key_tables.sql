@@ -0,0 +1,19 @@
+-- Blocking keys of tracked entities used to find potential duplicates, one index per attribute set
+
+create table if not exists trackedentityblockingindex (
+    indexkey int8 not null,
+    attributes text not null,
+    lastindexed timestamp null,
+    constraint trackedentityblockingindex_pkey primary key (indexkey)
+);
+
+create table if not exists trackedentityblockingkey (
+    indexkey int8 not null,
+    blockingkey int8 not null,
+    trackedentityid int8 not null,
+    constraint trackedentityblockingkey_pkey primary key (indexkey, blockingkey, trackedentityid),
+    constraint fk_trackedentityblockingkey_trackedentityid foreign key (trackedentityid)
+        references trackedentity (trackedentityid) on delete cascade
+);
+
+create index if not exists trackedentityblockingkey_trackedentityid_idx on trackedentityblockingkey (trackedentityid);
@@ -158,6 +158,31 @@ public class CommonExpressionVisitor extends AntlrExpressionVisitor {
     this.itemDescriptions = itemDescriptions != null ? itemDescriptions : new HashMap<>();
   }
 
+  /**
+   * Creates a visitor with the collaborators and state of the given visitor, so that subclasses
+   * can be configured through the {@link #builder()}.
+   *
+   * @param visitor the visitor to copy.
+   */
+  protected CommonExpressionVisitor(CommonExpressionVisitor visitor) {
+    this(
+        visitor.idObjectManager,
+        visitor.dimensionService,
+        visitor.programIndicatorService,
+        visitor.programStageService,
+        visitor.attributeService,
+        visitor.sqlBuilder,
+        visitor.i18nSupplier,
+        visitor.constantMap,
+        visitor.itemMap,
+        visitor.itemMethod,
+        visitor.params,
+        visitor.progParams,
+        visitor.state,
+        visitor.info,
+        visitor.itemDescriptions);
+  }
+
   // -------------------------------------------------------------------------
   // Visitor logic
   // -------------------------------------------------------------------------
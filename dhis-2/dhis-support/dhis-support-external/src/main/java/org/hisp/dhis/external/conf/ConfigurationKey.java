@@ -72,6 +72,18 @@ public enum ConfigurationKey {
    */
   SYSTEM_CACHE_MAX_SIZE_FACTOR("system.cache.max_size.factor", "0.5", false),
 
+  /**
+   * Number of threads shared by all jobs to process the work items of parallel job stages. If set
+   * to 0 the number of available processor cores is used. (default: 0).
+   */
+  SYSTEM_JOB_STAGE_THREADS("system.job.stage.threads", "0", false),
+
+  /**
+   * Maximum number of shared job stage threads a single job may use at the same time. If set to 0
+   * a job may use all threads. (default: 0).
+   */
+  SYSTEM_JOB_STAGE_THREADS_PER_JOB("system.job.stage.threads_per_job", "0", false),
+
   /** Node identifier, optional, useful in clusters. */
   NODE_ID("node.id", "", false),
 
@@ -136,6 +148,13 @@ public enum ConfigurationKey {
   /** Sets 'hibernate.cache.use_query_cache'. (default: true) */
   USE_QUERY_CACHE("hibernate.cache.use_query_cache", "true", false),
 
+  /**
+   * Sets 'hibernate.order_inserts' and 'hibernate.order_updates', so sessions with a JDBC batch size
+   * send the statements of one entity type in fewer batches. These are session factory settings and
+   * change the flush order of every session. (default: off)
+   */
+  HIBERNATE_ORDER_STATEMENTS("hibernate.order_statements", Constants.OFF, false),
+
   /**
    * Sets 'hibernate.hbm2ddl.auto' (default: validate). This can be overridden by the same property
    * loaded by any class implementing {@link DhisConfigurationProvider} like {@link
@@ -407,6 +426,50 @@ public enum ConfigurationKey {
 
   PROGRAM_TEMPORARY_OWNERSHIP_TIMEOUT("tracker.temporary.ownership.timeout", "3", false),
 
+  /**
+   * Number of threads used to run independent tracker import preheat suppliers concurrently.
+   * (default: 4).
+   */
+  TRACKER_IMPORT_PREHEAT_THREADS("tracker.import.preheat.threads", "4", false),
+
+  /**
+   * Number of threads used to evaluate program rules of a tracker import in parallel. If set to 0
+   * the number of available processor cores is used. (default: 0).
+   */
+  TRACKER_IMPORT_RULE_ENGINE_THREADS("tracker.import.rule_engine.threads", "0", false),
+
+  /**
+   * Number of tracker import inserts and updates sent to the database in one JDBC batch. The batch
+   * size only applies to the session of the tracker import. Consecutive statements on the same table
+   * are batched, see {@link #HIBERNATE_ORDER_STATEMENTS} to group them by table. A value of 0
+   * disables batching. (default: 50).
+   */
+  TRACKER_IMPORT_JDBC_BATCH_SIZE("tracker.import.jdbc_batch_size", "50", false),
+
+  /**
+   * Number of threads fetching the tracked entities, enrollments and events of tracker exports. If
+   * set to 0 half of the database connection pool size is used. (default: 0).
+   */
+  TRACKER_EXPORT_FETCH_THREADS("tracker.export.fetch.threads", "0", false),
+
+  /**
+   * Number of organisation unit partitions of a predictor run whose data values are fetched from
+   * the database concurrently. A value of 1 fetches all data in a single query. (default: 4).
+   */
+  PREDICTOR_THREADS("predictor.threads", "4", false),
+
+  /**
+   * Number of data element partitions for which min-max values are generated concurrently.
+   * (default: 4).
+   */
+  MIN_MAX_GENERATION_THREADS("minmax.generation.threads", "4", false),
+
+  /**
+   * Number of resource tables which are generated concurrently, as far as the dependencies between
+   * the tables allow. (default: 4).
+   */
+  RESOURCE_TABLE_THREADS("resourcetable.threads", "4", false),
+
   /** Use unlogged tables during analytics export. (default: ON) */
   ANALYTICS_TABLE_UNLOGGED("analytics.table.unlogged", Constants.ON),
 
@@ -511,6 +574,15 @@ public enum ConfigurationKey {
   /** CPU monitoring. (default: off) */
   MONITORING_CPU_ENABLED("monitoring.cpu.enabled", Constants.OFF, false),
 
+  /** Analytics query monitoring. (default: off) */
+  MONITORING_ANALYTICS_ENABLED("monitoring.analytics.enabled", Constants.OFF, false),
+
+  /** Audit queue monitoring. (default: off) */
+  MONITORING_AUDIT_ENABLED("monitoring.audit.enabled", Constants.OFF, false),
+
+  /** Bounded executor monitoring. (default: off) */
+  MONITORING_EXECUTORS_ENABLED("monitoring.executors.enabled", Constants.OFF, false),
+
   /** AppHub base URL. (default: https://apps.dhis2.org). */
   APPHUB_BASE_URL("apphub.base.url", "https://apps.dhis2.org", false),
 
@@ -542,6 +614,12 @@ public enum ConfigurationKey {
   /** Save audits to database table "audit". (default: off). */
   AUDIT_DATABASE("audit.database", Constants.OFF, false),
 
+  /**
+   * Max number of audits consumed from the audit queues which are saved to the database in one
+   * batch. (default: 500).
+   */
+  AUDIT_DATABASE_BATCH_SIZE("audit.database.batch_size", "500", false),
+
   /** Sets the audit matrix for metadata. (default: none). */
   AUDIT_METADATA_MATRIX("audit.metadata", "", false),
 
@@ -630,6 +708,19 @@ public enum ConfigurationKey {
 
   ACTIVE_READ_REPLICAS("active.read.replicas", "0", false),
 
+  /**
+   * Interval in seconds between health checks of read replicas, 0 disables health checks. Replicas
+   * which fail to hand out a connection are probed again on demand after 30 seconds either way.
+   * (default: 10)
+   */
+  READ_REPLICA_HEALTH_CHECK_INTERVAL("read.replica.health_check_interval", "10", false),
+
+  /**
+   * Max replication lag in seconds before a read replica is taken out of routing, 0 disables the
+   * lag check. (default: 30)
+   */
+  READ_REPLICA_MAX_LAG("read.replica.max_lag", "30", false),
+
   /**
    * Allows enabling/disabling audits system-wide (without configuring the audit matrix). (default:
    * true)
@@ -671,6 +762,12 @@ public enum ConfigurationKey {
   /** Event hooks for system events. Enable or disable the feature. */
   EVENT_HOOKS_ENABLED("event_hooks.enabled", Constants.OFF, false),
 
+  /** Number of threads delivering queued event hook requests to webhook targets. (default: 10) */
+  EVENT_HOOKS_DELIVERY_THREADS("event_hooks.delivery.threads", "10", false),
+
+  /** Number of delivery attempts before a queued event hook request is dropped. (default: 10) */
+  EVENT_HOOKS_DELIVERY_MAX_ATTEMPTS("event_hooks.delivery.max_attempts", "10", false),
+
   /** Linked accounts via OpenID mapping. Enable or disable the feature. */
   LINKED_ACCOUNTS_ENABLED("linked_accounts.enabled", Constants.OFF, false),
 
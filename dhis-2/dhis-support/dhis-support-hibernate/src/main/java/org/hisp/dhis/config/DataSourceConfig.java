@@ -49,6 +49,7 @@ import org.hisp.dhis.datasource.ReadOnlyDataSourceManager;
 import org.hisp.dhis.datasource.model.PoolConfig;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -77,11 +78,16 @@ public class DataSourceConfig {
     return jdbcTemplate;
   }
 
-  @Bean
-  public JdbcTemplate readOnlyJdbcTemplate(
+  @Bean(destroyMethod = "close")
+  public ReadOnlyDataSourceManager readOnlyDataSourceManager(
       DhisConfigurationProvider config, DataSource dataSource) {
-    ReadOnlyDataSourceManager manager = new ReadOnlyDataSourceManager(config);
+    return new ReadOnlyDataSourceManager(config, dataSource);
+  }
 
+  @Bean
+  public JdbcTemplate readOnlyJdbcTemplate(
+      @Qualifier("readOnlyDataSourceManager") ReadOnlyDataSourceManager manager,
+      DataSource dataSource) {
     JdbcTemplate jdbcTemplate =
         new JdbcTemplate(MoreObjects.firstNonNull(manager.getReadOnlyDataSource(), dataSource));
     jdbcTemplate.setFetchSize(1000);
@@ -28,6 +28,7 @@
 package org.hisp.dhis.config;
 
 import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_SCHEMA;
+import static org.hisp.dhis.external.conf.ConfigurationKey.HIBERNATE_ORDER_STATEMENTS;
 import static org.hisp.dhis.external.conf.ConfigurationKey.USE_QUERY_CACHE;
 import static org.hisp.dhis.external.conf.ConfigurationKey.USE_SECOND_LEVEL_CACHE;
 
@@ -183,6 +184,11 @@ public class HibernateConfig {
 
     properties.put(AvailableSettings.HBM2DDL_AUTO, getHibernateSchemaAction(dhisConfig));
 
+    if (dhisConfig.isEnabled(HIBERNATE_ORDER_STATEMENTS)) {
+      properties.put(AvailableSettings.ORDER_INSERTS, "true");
+      properties.put(AvailableSettings.ORDER_UPDATES, "true");
+    }
+
     // TODO: this is anti-pattern and should be turn off
     properties.put("hibernate.allow_update_outside_transaction", "true");
 
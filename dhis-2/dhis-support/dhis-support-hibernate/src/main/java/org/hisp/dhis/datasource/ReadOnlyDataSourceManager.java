@@ -31,6 +31,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_PASSWORD;
 import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_URL;
 import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_USERNAME;
+import static org.hisp.dhis.external.conf.ConfigurationKey.READ_REPLICA_HEALTH_CHECK_INTERVAL;
+import static org.hisp.dhis.external.conf.ConfigurationKey.READ_REPLICA_MAX_LAG;
 
 import java.beans.PropertyVetoException;
 import java.sql.SQLException;
@@ -43,6 +45,7 @@ import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.commons.util.DebugUtils;
+import org.hisp.dhis.datasource.ReplicaRoutingDataSource.Replica;
 import org.hisp.dhis.datasource.model.PoolConfig;
 import org.hisp.dhis.datasource.model.ReadOnlyDataSourceConfig;
 import org.hisp.dhis.external.conf.ConfigurationKey;
@@ -51,12 +54,14 @@ import org.hisp.dhis.util.ObjectUtils;
 
 /**
  * Class responsible for detecting read-only databases configured in the DHIS 2 configuration file.
+ * Connections to the read-only databases are routed by a {@link ReplicaRoutingDataSource}, which
+ * falls back to the given primary data source when no read replica is available.
  *
  * @author Lars Helge Overland
  */
 @Slf4j
 @NoArgsConstructor(access = AccessLevel.PUBLIC)
-public class ReadOnlyDataSourceManager {
+public class ReadOnlyDataSourceManager implements AutoCloseable {
   private static final String FORMAT_READ_PREFIX = "read%d.";
 
   private static final String FORMAT_CONNECTION_URL = FORMAT_READ_PREFIX + CONNECTION_URL.getKey();
@@ -73,48 +78,64 @@ public class ReadOnlyDataSourceManager {
 
   private static final int MAX_READ_REPLICAS = 5;
 
-  public ReadOnlyDataSourceManager(DhisConfigurationProvider config) {
+  private static final String FORMAT_REPLICA_NAME = "read%d";
+
+  public ReadOnlyDataSourceManager(DhisConfigurationProvider config, DataSource primaryDataSource) {
     checkNotNull(config);
-    init(config);
+    init(config, primaryDataSource);
   }
 
   /** State holder for the resolved read only data source. */
-  private DataSource internalReadOnlyDataSource;
-
-  /** State holder for explicitly defined read only data sources. */
-  private List<DataSource> internalReadOnlyInstanceList;
+  private ReplicaRoutingDataSource internalReadOnlyDataSource;
 
   // -------------------------------------------------------------------------
   // Public methods
   // -------------------------------------------------------------------------
 
-  public void init(DhisConfigurationProvider config) {
-    List<DataSource> ds = getReadOnlyDataSources(config);
-
-    this.internalReadOnlyInstanceList = ds;
-    this.internalReadOnlyDataSource = !ds.isEmpty() ? new CircularRoutingDataSource(ds) : null;
+  public void init(DhisConfigurationProvider config, DataSource primaryDataSource) {
+    List<Replica> replicas = getReadOnlyDataSources(config);
+
+    this.internalReadOnlyDataSource =
+        !replicas.isEmpty()
+            ? new ReplicaRoutingDataSource(
+                replicas,
+                primaryDataSource,
+                config.getIntProperty(READ_REPLICA_HEALTH_CHECK_INTERVAL),
+                config.getIntProperty(READ_REPLICA_MAX_LAG))
+            : null;
   }
 
-  public DataSource getReadOnlyDataSource() {
+  /**
+   * Returns the data source routing to the read replicas, or null if no read replicas are
+   * configured.
+   */
+  public ReplicaRoutingDataSource getReadOnlyDataSource() {
     return internalReadOnlyDataSource;
   }
 
   public int getReadReplicaCount() {
-    return internalReadOnlyInstanceList != null ? internalReadOnlyInstanceList.size() : 0;
+    return internalReadOnlyDataSource != null ? internalReadOnlyDataSource.getReplicas().size() : 0;
+  }
+
+  @Override
+  public void close() {
+    if (internalReadOnlyDataSource != null) {
+      internalReadOnlyDataSource.close();
+    }
   }
 
   // -------------------------------------------------------------------------
   // Supportive methods
   // -------------------------------------------------------------------------
 
-  private List<DataSource> getReadOnlyDataSources(DhisConfigurationProvider config) {
+  private List<Replica> getReadOnlyDataSources(DhisConfigurationProvider config) {
     String mainUser = config.getProperty(ConfigurationKey.CONNECTION_USERNAME);
     String mainPassword = config.getProperty(ConfigurationKey.CONNECTION_PASSWORD);
     String driverClass = config.getProperty(ConfigurationKey.CONNECTION_DRIVER_CLASS);
     String maxPoolSize = config.getProperty(ConfigurationKey.CONNECTION_POOL_MAX_SIZE);
     String dbPoolType = config.getProperty(ConfigurationKey.DB_POOL_TYPE);
 
-    List<DataSource> dataSources = new ArrayList<>();
+    List<Replica> dataSources = new ArrayList<>();
 
     List<ReadOnlyDataSourceConfig> dataSourceConfigs = getReadOnlyDataSourceConfigs(config);
 
@@ -134,7 +155,9 @@ public class ReadOnlyDataSourceManager {
       builder.maxIdleTime(String.valueOf(VAL_MAX_IDLE_TIME));
 
       try {
-        dataSources.add(DatabasePoolUtils.createDbPool(builder.build()));
+        String name = String.format(FORMAT_REPLICA_NAME, dataSources.size() + 1);
+        DataSource dataSource = DatabasePoolUtils.createDbPool(builder.build());
+        dataSources.add(new Replica(name, dataSource, Integer.parseInt(maxPoolSize)));
         log.info("Created read-only data source with connection URL: '{}'", url);
       } catch (SQLException | PropertyVetoException e) {
         String message =
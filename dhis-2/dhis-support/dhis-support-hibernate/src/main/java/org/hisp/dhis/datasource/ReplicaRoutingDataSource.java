@@ -0,0 +1,422 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datasource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Data source implementation which routes to read replicas. Connections are taken from the
+ * available replica with the fewest outstanding connections, with ties broken in a circular
+ * fashion. Replicas are checked periodically and are taken out of routing while they fail the
+ * health check, lag too far behind the primary or fail to hand out connections. They are put back
+ * into routing once a health check succeeds. A replica which failed to hand out a connection or
+ * failed the health check is also probed on demand, by one caller of {@link #getConnection()},
+ * once the retry backoff has passed, so that it recovers even when health checks are disabled.
+ * When no replica is available, connections are taken from the fallback data source.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+  /** Returns the replication lag in seconds, which is zero when the replica has caught up. */
+  private static final String LAG_SQL =
+      "select case when not pg_is_in_recovery() "
+          + "or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+          + "else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+
+  private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 5;
+
+  private static final long DEFAULT_RETRY_BACKOFF_MILLIS = 30_000;
+
+  @Getter private final List<Replica> replicas;
+
+  private final DataSource fallbackDataSource;
+
+  private final long maxLagSeconds;
+
+  private final long retryBackoffNanos;
+
+  private final AtomicInteger offset = new AtomicInteger();
+
+  private final LongAdder fallbacks = new LongAdder();
+
+  private final ScheduledExecutorService healthChecker;
+
+  /**
+   * @param replicas the read replicas to route to.
+   * @param fallbackDataSource the data source to use when no replica is available.
+   * @param healthCheckIntervalSeconds the interval between health checks, 0 disables them.
+   * @param maxLagSeconds the max replication lag of an available replica, 0 disables the check.
+   */
+  public ReplicaRoutingDataSource(
+      List<Replica> replicas,
+      DataSource fallbackDataSource,
+      long healthCheckIntervalSeconds,
+      long maxLagSeconds) {
+    this(
+        replicas,
+        fallbackDataSource,
+        healthCheckIntervalSeconds,
+        maxLagSeconds,
+        DEFAULT_RETRY_BACKOFF_MILLIS);
+  }
+
+  /**
+   * @param replicas the read replicas to route to.
+   * @param fallbackDataSource the data source to use when no replica is available.
+   * @param healthCheckIntervalSeconds the interval between health checks, 0 disables them.
+   * @param maxLagSeconds the max replication lag of an available replica, 0 disables the check.
+   * @param retryBackoffMillis the time after which a failed replica is probed on demand.
+   */
+  ReplicaRoutingDataSource(
+      List<Replica> replicas,
+      DataSource fallbackDataSource,
+      long healthCheckIntervalSeconds,
+      long maxLagSeconds,
+      long retryBackoffMillis) {
+    this.replicas = List.copyOf(replicas);
+    this.fallbackDataSource = fallbackDataSource;
+    this.maxLagSeconds = maxLagSeconds;
+    this.retryBackoffNanos = TimeUnit.MILLISECONDS.toNanos(retryBackoffMillis);
+    this.healthChecker =
+        healthCheckIntervalSeconds > 0 && !replicas.isEmpty()
+            ? Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                  Thread thread = new Thread(runnable, "read-replica-health-check");
+                  thread.setDaemon(true);
+                  return thread;
+                })
+            : null;
+
+    if (healthChecker != null) {
+      healthChecker.scheduleWithFixedDelay(
+          this::checkHealth,
+          healthCheckIntervalSeconds,
+          healthCheckIntervalSeconds,
+          TimeUnit.SECONDS);
+    }
+  }
+
+  // -------------------------------------------------------------------------
+  // AbstractDataSource implementation
+  // -------------------------------------------------------------------------
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return getConnection(DataSource::getConnection);
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return getConnection(dataSource -> dataSource.getConnection(username, password));
+  }
+
+  // -------------------------------------------------------------------------
+  // Public methods
+  // -------------------------------------------------------------------------
+
+  /** Returns the number of connections taken from the fallback data source. */
+  public long getFallbackCount() {
+    return fallbacks.sum();
+  }
+
+  /**
+   * Checks the health and replication lag of all replicas, and takes replicas out of or puts them
+   * back into routing accordingly.
+   */
+  public void checkHealth() {
+    for (Replica replica : replicas) {
+      try {
+        double lag = getLagSeconds(replica.getDataSource());
+        replica.lagSeconds = lag;
+
+        if (maxLagSeconds > 0 && lag > maxLagSeconds) {
+          eject(replica, String.format("replication lag of %.0f seconds", lag), false);
+        } else {
+          restore(replica);
+        }
+      } catch (SQLException | RuntimeException ex) {
+        eject(replica, "health check failed: " + ex.getMessage(), true);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    if (healthChecker != null) {
+      healthChecker.shutdownNow();
+    }
+
+    for (Replica replica : replicas) {
+      if (replica.getDataSource() instanceof AutoCloseable closeable) {
+        try {
+          closeable.close();
+        } catch (Exception ex) {
+          log.warn("Failed to close read replica '{}'", replica.getName(), ex);
+        }
+      }
+    }
+  }
+
+  // -------------------------------------------------------------------------
+  // Private methods
+  // -------------------------------------------------------------------------
+
+  private Connection getConnection(ConnectionSource source) throws SQLException {
+    Replica replica = claimRetry();
+
+    if (replica != null) {
+      Connection connection = getConnection(source, replica);
+
+      if (connection != null) {
+        restore(replica);
+        return connection;
+      }
+    }
+
+    while ((replica = selectReplica()) != null) {
+      Connection connection = getConnection(source, replica);
+
+      if (connection != null) {
+        return connection;
+      }
+    }
+
+    if (fallbackDataSource == null) {
+      throw new SQLException("No read replica is available");
+    }
+
+    fallbacks.increment();
+    return source.getConnection(fallbackDataSource);
+  }
+
+  /**
+   * Returns a connection from the given replica, or null and ejects the replica if the replica
+   * fails to hand out a connection.
+   */
+  private Connection getConnection(ConnectionSource source, Replica replica) {
+    replica.outstanding.incrementAndGet();
+
+    try {
+      Connection connection = source.getConnection(replica.getDataSource());
+      replica.acquired.increment();
+      return replica.track(connection);
+    } catch (SQLException | RuntimeException ex) {
+      replica.outstanding.decrementAndGet();
+      eject(replica, "failed to get connection: " + ex.getMessage(), true);
+      return null;
+    }
+  }
+
+  /**
+   * Returns an ejected replica which is due to be probed, or null if there is none. The retry time
+   * of the returned replica is moved forward by the backoff, so that only one caller probes it.
+   */
+  private Replica claimRetry() {
+    long now = System.nanoTime();
+
+    for (Replica replica : replicas) {
+      long retryAt = replica.retryAt.get();
+
+      if (retryAt != 0
+          && now - retryAt >= 0
+          && !replica.isHealthy()
+          && replica.retryAt.compareAndSet(retryAt, nextRetryTime())) {
+        return replica;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Returns the available replica with the fewest outstanding connections, or null if no replica
+   * is available. The search starts at a rotating offset so that ties are spread evenly.
+   */
+  private Replica selectReplica() {
+    int size = replicas.size();
+
+    if (size == 0) {
+      return null;
+    }
+
+    int start = Math.floorMod(offset.getAndIncrement(), size);
+    Replica selected = null;
+
+    for (int i = 0; i < size; i++) {
+      Replica replica = replicas.get((start + i) % size);
+
+      if (replica.isAvailable()
+          && (selected == null || replica.getOutstanding() < selected.getOutstanding())) {
+        selected = replica;
+      }
+    }
+
+    return selected;
+  }
+
+  private double getLagSeconds(DataSource dataSource) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.setQueryTimeout(HEALTH_CHECK_TIMEOUT_SECONDS);
+
+      try (ResultSet resultSet = statement.executeQuery(LAG_SQL)) {
+        return resultSet.next() ? resultSet.getDouble(1) : 0d;
+      }
+    }
+  }
+
+  /**
+   * Takes the given replica out of routing. A retryable replica is probed on demand once the retry
+   * backoff has passed, other replicas are only put back by the health check.
+   */
+  private void eject(Replica replica, String reason, boolean retryable) {
+    replica.retryAt.set(retryable ? nextRetryTime() : 0);
+
+    if (replica.healthy.compareAndSet(true, false)) {
+      replica.ejections.increment();
+      log.warn("Read replica '{}' taken out of routing, {}", replica.getName(), reason);
+    }
+  }
+
+  /** Returns the system nano time of the next on demand probe, which is never 0. */
+  private long nextRetryTime() {
+    long retryTime = System.nanoTime() + retryBackoffNanos;
+
+    return retryTime != 0 ? retryTime : 1;
+  }
+
+  private void restore(Replica replica) {
+    replica.retryAt.set(0);
+
+    if (replica.healthy.compareAndSet(false, true)) {
+      log.info("Read replica '{}' put back into routing", replica.getName());
+    }
+  }
+
+  @FunctionalInterface
+  private interface ConnectionSource {
+    Connection getConnection(DataSource dataSource) throws SQLException;
+  }
+
+  /** A read replica together with its routing state. */
+  public static final class Replica {
+    @Getter private final String name;
+
+    @Getter private final DataSource dataSource;
+
+    /** Max number of outstanding connections, above which the replica is considered saturated. */
+    @Getter private final int maxConnections;
+
+    private final AtomicBoolean healthy = new AtomicBoolean(true);
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private final LongAdder acquired = new LongAdder();
+
+    private final LongAdder ejections = new LongAdder();
+
+    /** System nano time at which an ejected replica is probed on demand, 0 for never. */
+    private final AtomicLong retryAt = new AtomicLong();
+
+    private volatile double lagSeconds;
+
+    public Replica(String name, DataSource dataSource, int maxConnections) {
+      this.name = name;
+      this.dataSource = dataSource;
+      this.maxConnections = maxConnections;
+    }
+
+    public boolean isHealthy() {
+      return healthy.get();
+    }
+
+    public boolean isAvailable() {
+      return healthy.get() && outstanding.get() < maxConnections;
+    }
+
+    public int getOutstanding() {
+      return outstanding.get();
+    }
+
+    public long getAcquiredCount() {
+      return acquired.sum();
+    }
+
+    public long getEjectionCount() {
+      return ejections.sum();
+    }
+
+    public double getLagSeconds() {
+      return lagSeconds;
+    }
+
+    /**
+     * Wraps the given connection so that the outstanding connection count is decremented exactly
+     * once when the connection is closed.
+     */
+    private Connection track(Connection connection) {
+      AtomicBoolean closed = new AtomicBoolean();
+
+      return (Connection)
+          Proxy.newProxyInstance(
+              Connection.class.getClassLoader(),
+              new Class<?>[] {Connection.class},
+              (proxy, method, args) -> {
+                if ("equals".equals(method.getName())) {
+                  return proxy == args[0];
+                } else if ("hashCode".equals(method.getName())) {
+                  return System.identityHashCode(proxy);
+                } else if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                  outstanding.decrementAndGet();
+                }
+
+                try {
+                  return method.invoke(connection, args);
+                } catch (InvocationTargetException ex) {
+                  throw ex.getTargetException();
+                }
+              });
+    }
+  }
+}
@@ -245,6 +245,8 @@ public class HibernateDbmsManager implements DbmsManager {
     emptyTable("trackedentitychangelog");
     emptyTable("trackedentitytypeattribute");
     emptyTable("trackedentityattribute");
+    emptyTable("trackedentityblockingkey");
+    emptyTable("trackedentityblockingindex");
     emptyTable("trackedentity");
     emptyTable("trackedentitytype");
 
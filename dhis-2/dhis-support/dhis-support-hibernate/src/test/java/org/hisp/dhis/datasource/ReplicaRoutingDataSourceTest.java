@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import javax.sql.DataSource;
+import org.hisp.dhis.datasource.ReplicaRoutingDataSource.Replica;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+  @Mock private DataSource replicaA;
+
+  @Mock private DataSource replicaB;
+
+  @Mock private DataSource primary;
+
+  @Test
+  void testGetConnectionRoutesToReplicaWithFewestOutstandingConnections() throws SQLException {
+    Connection connectionA = mock(Connection.class);
+    when(replicaA.getConnection()).thenReturn(connectionA);
+    when(replicaB.getConnection()).thenReturn(mock(Connection.class));
+
+    ReplicaRoutingDataSource dataSource = createDataSource(10);
+    Replica first = dataSource.getReplicas().get(0);
+    Replica second = dataSource.getReplicas().get(1);
+
+    Connection connection = dataSource.getConnection();
+    dataSource.getConnection();
+
+    assertEquals(1, first.getOutstanding());
+    assertEquals(1, second.getOutstanding());
+
+    connection.close();
+    connection.close();
+
+    verify(connectionA).close();
+    assertEquals(0, first.getOutstanding());
+    assertEquals(1, first.getAcquiredCount());
+  }
+
+  @Test
+  void testGetConnectionEjectsReplicaOnFailure() throws SQLException {
+    when(replicaA.getConnection()).thenThrow(new SQLException("Connection refused"));
+    when(replicaB.getConnection()).thenReturn(mock(Connection.class));
+
+    ReplicaRoutingDataSource dataSource = createDataSource(10);
+    Replica first = dataSource.getReplicas().get(0);
+
+    dataSource.getConnection();
+
+    assertFalse(first.isHealthy());
+    assertEquals(0, first.getOutstanding());
+    assertEquals(1, first.getEjectionCount());
+    assertEquals(1, dataSource.getReplicas().get(1).getOutstanding());
+  }
+
+  @Test
+  void testGetConnectionProbesEjectedReplicaAfterBackoff() throws SQLException {
+    when(replicaA.getConnection())
+        .thenThrow(new SQLException("Connection refused"))
+        .thenReturn(mock(Connection.class));
+    when(replicaB.getConnection()).thenReturn(mock(Connection.class));
+
+    ReplicaRoutingDataSource dataSource =
+        new ReplicaRoutingDataSource(
+            List.of(new Replica("read1", replicaA, 10), new Replica("read2", replicaB, 10)),
+            primary,
+            0,
+            30,
+            0);
+    Replica first = dataSource.getReplicas().get(0);
+
+    dataSource.getConnection();
+
+    assertFalse(first.isHealthy());
+
+    dataSource.getConnection();
+
+    assertTrue(first.isHealthy());
+    assertEquals(1, first.getOutstanding());
+    assertEquals(1, first.getEjectionCount());
+  }
+
+  @Test
+  void testGetConnectionDoesNotProbeEjectedReplicaBeforeBackoff() throws SQLException {
+    when(replicaA.getConnection()).thenThrow(new SQLException("Connection refused"));
+    when(replicaB.getConnection()).thenReturn(mock(Connection.class));
+
+    ReplicaRoutingDataSource dataSource = createDataSource(10);
+    Replica first = dataSource.getReplicas().get(0);
+
+    dataSource.getConnection();
+    dataSource.getConnection();
+    dataSource.getConnection();
+
+    verify(replicaA, times(1)).getConnection();
+    assertFalse(first.isHealthy());
+    assertEquals(3, dataSource.getReplicas().get(1).getOutstanding());
+  }
+
+  @Test
+  void testGetConnectionFallsBackToPrimaryWhenReplicasAreSaturated() throws SQLException {
+    when(replicaA.getConnection()).thenReturn(mock(Connection.class));
+    when(replicaB.getConnection()).thenReturn(mock(Connection.class));
+    when(primary.getConnection()).thenReturn(mock(Connection.class));
+
+    ReplicaRoutingDataSource dataSource = createDataSource(1);
+
+    dataSource.getConnection();
+    dataSource.getConnection();
+    dataSource.getConnection();
+
+    verify(primary).getConnection();
+    assertEquals(1, dataSource.getFallbackCount());
+  }
+
+  @Test
+  void testGetConnectionFailsWithoutReplicasAndFallback() throws SQLException {
+    when(replicaA.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+    ReplicaRoutingDataSource dataSource =
+        new ReplicaRoutingDataSource(List.of(new Replica("read1", replicaA, 10)), null, 0, 30);
+
+    assertThrows(SQLException.class, dataSource::getConnection);
+  }
+
+  @Test
+  void testCheckHealthEjectsLaggingReplicaAndRestoresIt() throws SQLException {
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.next()).thenReturn(true);
+    when(resultSet.getDouble(1)).thenReturn(60d, 0d);
+    Statement statement = mock(Statement.class);
+    when(statement.executeQuery(anyString())).thenReturn(resultSet);
+    Connection connection = mock(Connection.class);
+    when(connection.createStatement()).thenReturn(statement);
+    when(replicaA.getConnection()).thenReturn(connection);
+    when(replicaB.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+    ReplicaRoutingDataSource dataSource = createDataSource(10);
+    Replica first = dataSource.getReplicas().get(0);
+    Replica second = dataSource.getReplicas().get(1);
+
+    dataSource.checkHealth();
+
+    assertFalse(first.isHealthy());
+    assertEquals(60d, first.getLagSeconds());
+    assertFalse(second.isHealthy());
+
+    dataSource.checkHealth();
+
+    assertTrue(first.isHealthy());
+    assertEquals(0d, first.getLagSeconds());
+    assertFalse(second.isHealthy());
+    assertEquals(1, first.getEjectionCount());
+    assertEquals(1, second.getEjectionCount());
+  }
+
+  private ReplicaRoutingDataSource createDataSource(int maxConnections) {
+    return new ReplicaRoutingDataSource(
+        List.of(
+            new Replica("read1", replicaA, maxConnections),
+            new Replica("read2", replicaB, maxConnections)),
+        primary,
+        0,
+        30);
+  }
+}
@@ -337,17 +337,6 @@ public class DefaultCacheProvider implements CacheProvider {
             .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_10K))));
   }
 
-  @Override
-  public <V> Cache<V> createProgramHasRulesCache() {
-    return registerCache(
-        this.<V>newBuilder()
-            .forRegion(Region.programHasRulesCache.name())
-            .expireAfterWrite(3, TimeUnit.HOURS)
-            .withInitialCapacity((int) getActualSize(20))
-            .forceInMemory()
-            .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_1K))));
-  }
-
   @Override
   public <V> Cache<V> createUserGroupNameCache() {
     return registerCache(
@@ -481,4 +470,34 @@ public class DefaultCacheProvider implements CacheProvider {
             .forceInMemory()
             .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_10K))));
   }
+
+  /**
+   * Cache for parsed expression plans. Plans hold ANTLR parse trees which cannot be serialized, so
+   * the cache is always in memory.
+   */
+  @Override
+  public <V> Cache<V> createExpressionPlanCache() {
+    return registerCache(
+        this.<V>newBuilder()
+            .forRegion(Region.expressionPlanCache.name())
+            .expireAfterAccess(12, TimeUnit.HOURS)
+            .withInitialCapacity((int) getActualSize(SIZE_1K))
+            .forceInMemory()
+            .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_10K))));
+  }
+
+  /**
+   * Cache for the rule engine context of programs. Contexts are versioned by the local node, so the
+   * cache is always in memory.
+   */
+  @Override
+  public <V> Cache<V> createProgramRuleContextCache() {
+    return registerCache(
+        this.<V>newBuilder()
+            .forRegion(Region.programRuleContextCache.name())
+            .expireAfterWrite(3, TimeUnit.HOURS)
+            .withInitialCapacity((int) getActualSize(20))
+            .forceInMemory()
+            .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_1K))));
+  }
 }
@@ -38,11 +38,15 @@ import java.util.List;
 import java.util.Map;
 import javax.sql.DataSource;
 import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.datasource.ReadOnlyDataSourceManager;
+import org.hisp.dhis.datasource.ReplicaRoutingDataSource;
+import org.hisp.dhis.datasource.ReplicaRoutingDataSource.Replica;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.monitoring.metrics.jdbc.C3p0MetadataProvider;
 import org.hisp.dhis.monitoring.metrics.jdbc.HikariMetadataProvider;
 import org.hisp.dhis.monitoring.metrics.jdbc.PoolMetadataProvider;
 import org.hisp.dhis.monitoring.metrics.jdbc.PoolMetrics;
+import org.hisp.dhis.monitoring.metrics.jdbc.ReplicaMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
@@ -59,6 +63,8 @@ public class DataSourcePoolMetricsConfig {
 
     private static final String DATASOURCE_SUFFIX = "dataSource";
 
+    private static final String DATASOURCE_MANAGER_SUFFIX = "DataSourceManager";
+
     private final MeterRegistry registry;
 
     private final Collection<PoolMetadataProvider> metadataProviders;
@@ -80,6 +86,34 @@ public class DataSourcePoolMetricsConfig {
           .bindTo(this.registry);
     }
 
+    @Autowired(required = false)
+    public void bindReadOnlyDataSourcesToRegistry(
+        Map<String, ReadOnlyDataSourceManager> dataSourceManagers) {
+      dataSourceManagers.forEach(this::bindReadOnlyDataSourceToRegistry);
+    }
+
+    private void bindReadOnlyDataSourceToRegistry(
+        String beanName, ReadOnlyDataSourceManager dataSourceManager) {
+      ReplicaRoutingDataSource dataSource = dataSourceManager.getReadOnlyDataSource();
+
+      if (dataSource == null) {
+        return;
+      }
+
+      String name = StringUtils.removeEnd(beanName, DATASOURCE_MANAGER_SUFFIX);
+      ReplicaMetrics replicaMetrics = new ReplicaMetrics(dataSource, name);
+      replicaMetrics.bindTo(this.registry);
+
+      for (Replica replica : dataSource.getReplicas()) {
+        new PoolMetrics(
+                replica.getDataSource(),
+                this.metadataProviders,
+                replicaMetrics.getReplicaName(replica),
+                Collections.emptyList())
+            .bindTo(this.registry);
+      }
+    }
+
     /**
      * Get the name of a DataSource based on its {@code beanName}.
      *
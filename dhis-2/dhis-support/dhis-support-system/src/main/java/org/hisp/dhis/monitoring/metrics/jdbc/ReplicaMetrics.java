@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.monitoring.metrics.jdbc;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.hisp.dhis.datasource.ReplicaRoutingDataSource;
+import org.hisp.dhis.datasource.ReplicaRoutingDataSource.Replica;
+
+/**
+ * Binds the routing state of the read replicas of a {@link ReplicaRoutingDataSource}. Replica
+ * meters are tagged with the name of the data source followed by the name of the replica.
+ */
+@RequiredArgsConstructor
+public class ReplicaMetrics implements MeterBinder {
+  private final ReplicaRoutingDataSource dataSource;
+
+  private final String name;
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder(
+            "jdbc.replica.fallbacks", dataSource, ReplicaRoutingDataSource::getFallbackCount)
+        .description("Connections taken from the primary as no read replica was available")
+        .tags(Tags.of("name", name))
+        .register(registry);
+
+    for (Replica replica : dataSource.getReplicas()) {
+      Tags tags = Tags.of("name", getReplicaName(replica));
+
+      Gauge.builder("jdbc.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+          .description("Whether the read replica is in routing")
+          .tags(tags)
+          .register(registry);
+      Gauge.builder("jdbc.replica.lag", replica, Replica::getLagSeconds)
+          .description("Replication lag of the read replica")
+          .baseUnit("seconds")
+          .tags(tags)
+          .register(registry);
+      Gauge.builder("jdbc.replica.connections.outstanding", replica, Replica::getOutstanding)
+          .description("Connections taken from the read replica which are not yet closed")
+          .tags(tags)
+          .register(registry);
+      FunctionCounter.builder(
+              "jdbc.replica.connections.acquired", replica, Replica::getAcquiredCount)
+          .description("Connections taken from the read replica")
+          .tags(tags)
+          .register(registry);
+      FunctionCounter.builder("jdbc.replica.ejections", replica, Replica::getEjectionCount)
+          .description("Times the read replica was taken out of routing")
+          .tags(tags)
+          .register(registry);
+    }
+  }
+
+  /**
+   * Returns the name of the given replica, qualified by the name of the routing data source so
+   * that replicas of different routing data sources are kept apart.
+   */
+  public String getReplicaName(Replica replica) {
+    return name + "." + replica.getName();
+  }
+}
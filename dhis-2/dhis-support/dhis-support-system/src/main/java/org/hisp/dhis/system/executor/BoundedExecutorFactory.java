@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.executor;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the bounded thread pools used by services to run work in parallel, and binds the metrics
+ * of all of them to the meter registry in one place.
+ *
+ * <p>Each pool has a fixed number of daemon threads, which time out when idle, and an unbounded
+ * queue. Work which uses a database connection must size its pool against the connection pool.
+ *
+ * <p>Owners of a pool can add a {@link MeterBinder} for metrics specific to their use of the pool.
+ * It is bound together with the pool metrics, and only if those are enabled.
+ */
+@Component
+public class BoundedExecutorFactory {
+  private final Map<String, BoundedExecutor> executors = new ConcurrentHashMap<>();
+
+  private final List<MeterBinder> binders = new ArrayList<>();
+
+  @CheckForNull private MeterRegistry registry;
+
+  /**
+   * Creates a pool which is shut down with the application context.
+   *
+   * @param name the name of the pool, used for thread names and to tag metrics
+   * @param threads the number of threads, at least 1 is used
+   * @return the pool
+   * @throws IllegalStateException if a pool of the same name was created before
+   */
+  @Nonnull
+  public synchronized ThreadPoolExecutor create(@Nonnull String name, int threads) {
+    if (executors.containsKey(name)) {
+      throw new IllegalStateException("Executor already exists: " + name);
+    }
+    BoundedExecutor executor = new BoundedExecutor(name, threads);
+    executors.put(name, executor);
+    if (registry != null) {
+      executor.bindTo(registry);
+    }
+    return executor;
+  }
+
+  /**
+   * Creates a pool which is not managed by a factory, for use in tests.
+   *
+   * @param name the name of the pool, used for thread names
+   * @param threads the number of threads, at least 1 is used
+   * @return the pool
+   */
+  @Nonnull
+  public static ThreadPoolExecutor newExecutor(@Nonnull String name, int threads) {
+    return new BoundedExecutor(name, threads);
+  }
+
+  /**
+   * Adds metrics which are bound once the pool metrics are bound.
+   *
+   * @param binder binds the metrics
+   */
+  public synchronized void addMeterBinder(@Nonnull MeterBinder binder) {
+    binders.add(binder);
+    if (registry != null) {
+      binder.bindTo(registry);
+    }
+  }
+
+  public synchronized void bindTo(@Nonnull MeterRegistry registry) {
+    this.registry = registry;
+    executors.values().forEach(executor -> executor.bindTo(registry));
+    binders.forEach(binder -> binder.bindTo(registry));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executors.values().forEach(ThreadPoolExecutor::shutdownNow);
+  }
+
+  /** A fixed size pool which records the time tasks wait in its queue. */
+  private static final class BoundedExecutor extends ThreadPoolExecutor {
+    private final String name;
+
+    @CheckForNull private volatile Timer queueWait;
+
+    BoundedExecutor(String name, int threads) {
+      super(
+          Math.max(1, threads),
+          Math.max(1, threads),
+          60,
+          TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(),
+          new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build());
+      allowCoreThreadTimeOut(true);
+      this.name = name;
+    }
+
+    @Override
+    public void execute(@Nonnull Runnable command) {
+      Timer timer = queueWait;
+      if (timer == null) {
+        super.execute(command);
+        return;
+      }
+      long queued = System.nanoTime();
+      super.execute(
+          () -> {
+            timer.record(System.nanoTime() - queued, TimeUnit.NANOSECONDS);
+            command.run();
+          });
+    }
+
+    void bindTo(MeterRegistry registry) {
+      Gauge.builder("executor.threads.active", this, ThreadPoolExecutor::getActiveCount)
+          .tag("name", name)
+          .description("Number of threads of a bounded executor currently running a task")
+          .register(registry);
+      Gauge.builder("executor.threads.max", this, ThreadPoolExecutor::getMaximumPoolSize)
+          .tag("name", name)
+          .description("Number of threads of a bounded executor")
+          .register(registry);
+      Gauge.builder("executor.queue.size", this, executor -> executor.getQueue().size())
+          .tag("name", name)
+          .description("Number of tasks waiting for a thread of a bounded executor")
+          .register(registry);
+      queueWait =
+          Timer.builder("executor.queue.wait")
+              .tag("name", name)
+              .description("Time a task waits for a thread of a bounded executor")
+              .register(registry);
+    }
+  }
+}
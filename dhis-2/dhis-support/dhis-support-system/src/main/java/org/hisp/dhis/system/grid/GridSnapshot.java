@@ -0,0 +1,456 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.apache.commons.lang3.SerializationUtils;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.PerformanceMetrics;
+import org.hisp.dhis.common.Reference;
+
+/**
+ * Immutable, columnar snapshot of a {@link Grid}. The cell values of the source grid are copied
+ * once into one array per column, and {@link #toGrid()} hands out {@link ListGrid} views which read
+ * from these arrays. The rows of a view are copied on first write only, so obtaining a view costs
+ * no allocation proportional to the number of rows in the grid.
+ *
+ * <p>Headers, meta-data and row context are deep-copied for every view, as they may hold nested
+ * maps and lists which callers modify. Cell values themselves are shared between views and are
+ * expected to be immutable, which holds for the strings, numbers and dates produced by analytics
+ * queries.
+ */
+@Getter(AccessLevel.PACKAGE)
+public final class GridSnapshot implements Serializable {
+  private final String title;
+
+  private final String subtitle;
+
+  private final String table;
+
+  private final List<GridHeader> headers;
+
+  private final HashMap<String, Object> metaData;
+
+  private final HashMap<String, Object> internalMetaData;
+
+  private final TreeMap<Integer, Map<String, Object>> rowContext;
+
+  private final PerformanceMetrics performanceMetrics;
+
+  private final List<Reference> refs;
+
+  private final boolean lastDataRow;
+
+  /** Number of rows in the grid. */
+  private final int height;
+
+  /** Cell values, indexed by column and then by row. */
+  private final Object[][] columns;
+
+  private GridSnapshot(Grid grid) {
+    List<List<Object>> rows = grid.getRows();
+
+    this.title = grid.getTitle();
+    this.subtitle = grid.getSubtitle();
+    this.table = grid.getTable();
+    this.headers = SerializationUtils.clone(new ArrayList<>(grid.getHeaders()));
+    this.metaData = copyOf(grid.getMetaData());
+    this.internalMetaData = copyOf(grid.getInternalMetaData());
+    this.rowContext =
+        grid.getRowContext() != null
+            ? SerializationUtils.clone(new TreeMap<>(grid.getRowContext()))
+            : new TreeMap<>();
+    this.performanceMetrics = grid.getPerformanceMetrics();
+    this.refs = grid.getRefs() != null ? List.copyOf(grid.getRefs()) : null;
+    this.lastDataRow = grid.hasLastDataRow();
+    this.height = rows.size();
+
+    int width = rows.isEmpty() ? 0 : rows.get(0).size();
+
+    this.columns = new Object[width][height];
+
+    for (int r = 0; r < height; r++) {
+      List<Object> row = rows.get(r);
+
+      for (int c = 0; c < width; c++) {
+        columns[c][r] = row.get(c);
+      }
+    }
+  }
+
+  /**
+   * Creates a snapshot of the given grid. The grid must be rectangular, see {@link
+   * #isSupported(Grid)}.
+   *
+   * @param grid the {@link Grid}.
+   * @return a {@link GridSnapshot}.
+   * @throws IllegalArgumentException if the rows of the grid differ in length.
+   */
+  public static GridSnapshot of(Grid grid) {
+    if (!isSupported(grid)) {
+      throw new IllegalArgumentException("Grid rows do not have the same number of cells");
+    }
+
+    return new GridSnapshot(grid);
+  }
+
+  /**
+   * Indicates whether a snapshot can be created for the given grid, i.e. whether all rows of the
+   * grid have the same number of cells.
+   *
+   * @param grid the {@link Grid}.
+   * @return true if a snapshot can be created.
+   */
+  public static boolean isSupported(Grid grid) {
+    List<List<Object>> rows = grid.getRows();
+
+    if (rows == null) {
+      return false;
+    }
+
+    int width = rows.isEmpty() ? 0 : rows.get(0).size();
+
+    for (List<Object> row : rows) {
+      if (row == null || row.size() != width) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Returns a new, mutable {@link Grid} backed by this snapshot. Changes to the returned grid are
+   * not reflected in this snapshot or in other grids obtained from it.
+   *
+   * @return a {@link Grid}.
+   */
+  public Grid toGrid() {
+    return new ListGrid(this);
+  }
+
+  /** Returns the number of columns of the snapshot. */
+  public int getWidth() {
+    return columns.length;
+  }
+
+  /** Returns the value at the given row and column. */
+  public Object getValue(int rowIndex, int columnIndex) {
+    return columns[columnIndex][rowIndex];
+  }
+
+  /** Returns a new list of headers, so that views can modify them independently. */
+  List<GridHeader> copyHeaders() {
+    return SerializationUtils.clone(new ArrayList<>(headers));
+  }
+
+  /** Returns a deep copy of the meta-data, so that views can modify it independently. */
+  Map<String, Object> copyMetaData() {
+    return SerializationUtils.clone(metaData);
+  }
+
+  /** Returns a deep copy of the internal meta-data. */
+  Map<String, Object> copyInternalMetaData() {
+    return SerializationUtils.clone(internalMetaData);
+  }
+
+  /** Returns a deep copy of the row context. */
+  Map<Integer, Map<String, Object>> copyRowContext() {
+    return SerializationUtils.clone(rowContext);
+  }
+
+  /** Returns a copy-on-write list of rows backed by this snapshot. */
+  List<List<Object>> rows() {
+    return new SnapshotRows(this);
+  }
+
+  private static HashMap<String, Object> copyOf(Map<String, Object> map) {
+    return map != null ? SerializationUtils.clone(new HashMap<>(map)) : new HashMap<>();
+  }
+
+  // -------------------------------------------------------------------------
+  // Copy-on-write rows
+  // -------------------------------------------------------------------------
+
+  /**
+   * List of rows reading from the columns of a snapshot. A row is copied into an {@link ArrayList}
+   * when it is first modified, and all rows are copied when the list itself is structurally
+   * modified or reordered. Only copies are stored in the list, so a {@link SnapshotRow} handed out
+   * before keeps referring to its own row. Serializes as a plain list of lists.
+   */
+  private static final class SnapshotRows extends AbstractList<List<Object>>
+      implements RandomAccess, Serializable {
+    private final transient GridSnapshot snapshot;
+
+    /** Rows which have been copied, indexed by their row in the snapshot. */
+    private transient List<Object>[] copiedRows;
+
+    /** All rows, set once the list has been structurally modified. */
+    private List<List<Object>> rows;
+
+    SnapshotRows(GridSnapshot snapshot) {
+      this.snapshot = snapshot;
+    }
+
+    @Override
+    public List<Object> get(int index) {
+      if (rows != null) {
+        return rows.get(index);
+      }
+
+      if (index < 0 || index >= snapshot.height) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", size: " + snapshot.height);
+      }
+
+      if (copiedRows != null && copiedRows[index] != null) {
+        return copiedRows[index];
+      }
+
+      return new SnapshotRow(this, index);
+    }
+
+    @Override
+    public int size() {
+      return rows != null ? rows.size() : snapshot.height;
+    }
+
+    @Override
+    public List<Object> set(int index, List<Object> row) {
+      List<Object> detached = detach(row);
+      return materialize().set(index, detached);
+    }
+
+    @Override
+    public void add(int index, List<Object> row) {
+      List<Object> detached = detach(row);
+      materialize().add(index, detached);
+      modCount++;
+    }
+
+    @Override
+    public void sort(Comparator<? super List<Object>> comparator) {
+      materialize().sort(comparator);
+      modCount++;
+    }
+
+    @Override
+    public List<Object> remove(int index) {
+      List<Object> removed = materialize().remove(index);
+      modCount++;
+      return removed;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+      materialize().subList(fromIndex, toIndex).clear();
+      modCount++;
+    }
+
+    /**
+     * Returns the copy of the given row, or null if the row has not been copied.
+     *
+     * @param index the row in the snapshot, which may differ from its position in this list once
+     *     rows have been added, removed or reordered.
+     */
+    List<Object> getCopiedRow(int index) {
+      return copiedRows != null ? copiedRows[index] : null;
+    }
+
+    /** Returns the copy of the given row, copying it from the snapshot if not already done. */
+    @SuppressWarnings("unchecked")
+    List<Object> copyRow(int index) {
+      List<Object> copied = getCopiedRow(index);
+
+      if (copied != null) {
+        return copied;
+      }
+
+      if (copiedRows == null) {
+        copiedRows = new List[snapshot.height];
+      }
+
+      copiedRows[index] = readRow(index);
+
+      return copiedRows[index];
+    }
+
+    /**
+     * Copies all rows which have not been copied yet and from then on keeps the rows in a list.
+     * The copies remain indexed by their row in the snapshot for rows handed out before.
+     */
+    private List<List<Object>> materialize() {
+      if (rows == null) {
+        List<List<Object>> list = new ArrayList<>(snapshot.height);
+
+        for (int r = 0; r < snapshot.height; r++) {
+          list.add(copyRow(r));
+        }
+
+        rows = list;
+      }
+
+      return rows;
+    }
+
+    /**
+     * Returns the copy of a row of this list, so that a {@link SnapshotRow} is never stored in the
+     * list, which would make rows resolve to each other. This is the case when rows are written
+     * back, as done by the default {@link List#sort(Comparator)} of a sub list.
+     */
+    private List<Object> detach(List<Object> row) {
+      return row instanceof SnapshotRow snapshotRow && snapshotRow.rows == this
+          ? snapshotRow.copy()
+          : row;
+    }
+
+    private List<Object> readRow(int index) {
+      List<Object> row = new ArrayList<>(snapshot.columns.length);
+
+      for (Object[] column : snapshot.columns) {
+        row.add(column[index]);
+      }
+
+      return row;
+    }
+
+    private Object writeReplace() {
+      return new ArrayList<>(materialize());
+    }
+  }
+
+  /**
+   * Row reading from the columns of a snapshot, delegating to a copy of the row once the row is
+   * modified.
+   */
+  private static final class SnapshotRow extends AbstractList<Object>
+      implements RandomAccess, Serializable {
+    private final transient SnapshotRows rows;
+
+    private final int index;
+
+    private List<Object> copy;
+
+    SnapshotRow(SnapshotRows rows, int index) {
+      this.rows = rows;
+      this.index = index;
+    }
+
+    @Override
+    public Object get(int columnIndex) {
+      List<Object> copied = getCopy();
+
+      return copied != null ? copied.get(columnIndex) : rows.snapshot.columns[columnIndex][index];
+    }
+
+    @Override
+    public int size() {
+      List<Object> copied = getCopy();
+
+      return copied != null ? copied.size() : rows.snapshot.columns.length;
+    }
+
+    @Override
+    public Object set(int columnIndex, Object value) {
+      return copy().set(columnIndex, value);
+    }
+
+    @Override
+    public void add(int columnIndex, Object value) {
+      copy().add(columnIndex, value);
+      modCount++;
+    }
+
+    @Override
+    public Object remove(int columnIndex) {
+      Object removed = copy().remove(columnIndex);
+      modCount++;
+      return removed;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Object> values) {
+      modCount++;
+      return copy().addAll(values);
+    }
+
+    @Override
+    public void clear() {
+      copy().clear();
+      modCount++;
+    }
+
+    @Override
+    public Object[] toArray() {
+      List<Object> copied = getCopy();
+
+      if (copied != null) {
+        return copied.toArray();
+      }
+
+      Object[] values = new Object[size()];
+
+      Arrays.setAll(values, this::get);
+
+      return values;
+    }
+
+    /** Returns the copy of this row, or null if the row has not been modified yet. */
+    private List<Object> getCopy() {
+      if (copy == null) {
+        copy = rows.getCopiedRow(index);
+      }
+
+      return copy;
+    }
+
+    private List<Object> copy() {
+      if (copy == null) {
+        copy = rows.copyRow(index);
+      }
+
+      return copy;
+    }
+
+    private Object writeReplace() {
+      return new ArrayList<>(this);
+    }
+  }
+}
@@ -154,6 +154,29 @@ public class ListGrid implements Grid, Serializable {
     this.grid = new ArrayList<>();
   }
 
+  /**
+   * Creates a grid backed by the given snapshot. Rows are read from the snapshot and copied on
+   * first write.
+   *
+   * @param snapshot the {@link GridSnapshot}.
+   */
+  ListGrid(GridSnapshot snapshot) {
+    this.title = snapshot.getTitle();
+    this.subtitle = snapshot.getSubtitle();
+    this.table = snapshot.getTable();
+    this.headers = snapshot.copyHeaders();
+    this.metaData = snapshot.copyMetaData();
+    this.internalMetaData = snapshot.copyInternalMetaData();
+    this.rowContext = snapshot.copyRowContext();
+    this.performanceMetrics = snapshot.getPerformanceMetrics();
+    this.refs = snapshot.getRefs() != null ? new ArrayList<>(snapshot.getRefs()) : null;
+    this.lastDataRow = snapshot.isLastDataRow();
+    this.grid = snapshot.rows();
+    this.currentRowWriteIndex = snapshot.getHeight() - 1;
+
+    updateColumnIndexMap();
+  }
+
   // ---------------------------------------------------------------------
   // Public methods
   // ---------------------------------------------------------------------
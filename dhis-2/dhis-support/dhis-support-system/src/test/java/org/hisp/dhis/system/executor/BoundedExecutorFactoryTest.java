@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class BoundedExecutorFactoryTest {
+  private final BoundedExecutorFactory factory = new BoundedExecutorFactory();
+
+  @AfterEach
+  void tearDown() {
+    factory.shutdown();
+  }
+
+  @Test
+  void testCreate() {
+    ThreadPoolExecutor executor = factory.create("TEST", 0);
+    AtomicReference<String> threadName = new AtomicReference<>();
+
+    CompletableFuture.runAsync(() -> threadName.set(Thread.currentThread().getName()), executor)
+        .join();
+
+    assertEquals(1, executor.getMaximumPoolSize());
+    assertTrue(threadName.get().startsWith("TEST-"), threadName::get);
+    assertThrows(IllegalStateException.class, () -> factory.create("TEST", 2));
+  }
+
+  @Test
+  void testBindTo() {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    ThreadPoolExecutor before = factory.create("BEFORE", 2);
+    AtomicReference<MeterRegistry> bound = new AtomicReference<>();
+    factory.addMeterBinder(bound::set);
+
+    factory.bindTo(registry);
+    factory.create("AFTER", 3);
+    CompletableFuture.runAsync(() -> {}, before).join();
+
+    assertEquals(registry, bound.get());
+    assertEquals(
+        2, registry.get("executor.threads.max").tag("name", "BEFORE").gauge().value(), 0.0);
+    assertEquals(3, registry.get("executor.threads.max").tag("name", "AFTER").gauge().value(), 0.0);
+    assertEquals(1, registry.get("executor.queue.wait").tag("name", "BEFORE").timer().count());
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringWriter;
+import java.util.List;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.junit.jupiter.api.Test;
+
+class CsvGridRowHandlerTest {
+
+  @Test
+  void testHandleRowsAsCsv() throws Exception {
+    Grid grid = new ListGrid();
+    grid.addHeader(new GridHeader("dx", "Data"));
+    grid.addHeader(new GridHeader("value", "Value"));
+    grid.addRow().addValue("fbfJHSPpUQD").addValue(12.5);
+    grid.addRow().addValue("cYeuwXTCPkU").addValue(null);
+
+    StringWriter expected = new StringWriter();
+    GridUtils.toCsv(grid, expected);
+
+    StringWriter actual = new StringWriter();
+    CsvGridRowHandler handler = new CsvGridRowHandler(actual);
+    handler.handleHeaders(grid.getHeaders());
+    grid.getRows().forEach(handler::handleRow);
+    handler.flush();
+
+    assertEquals(expected.toString(), actual.toString());
+    assertEquals(3, actual.toString().lines().count());
+  }
+
+  @Test
+  void testHandleEmptyHeaders() throws Exception {
+    StringWriter writer = new StringWriter();
+    CsvGridRowHandler handler = new CsvGridRowHandler(writer);
+    handler.handleHeaders(List.of());
+    handler.handleRow(List.of("a", 1));
+    handler.flush();
+
+    assertEquals(List.of("a,1"), writer.toString().lines().toList());
+  }
+}
@@ -36,6 +36,7 @@ import org.hisp.dhis.common.DimensionType;
 import org.hisp.dhis.common.DimensionalItemObject;
 import org.hisp.dhis.common.DimensionalObject;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridRowHandler;
 import org.hisp.dhis.dxf2.datavalueset.DataValueSet;
 import org.hisp.dhis.period.Period;
 
@@ -80,6 +81,11 @@ public class MockAnalyticsService implements AnalyticsService {
     throw new NotImplementedException("");
   }
 
+  @Override
+  public void streamRawDataValues(DataQueryParams params, GridRowHandler handler) {
+    throw new NotImplementedException("");
+  }
+
   @Override
   public DataValueSet getAggregatedDataValueSet(DataQueryParams params) {
     throw new NotImplementedException("");
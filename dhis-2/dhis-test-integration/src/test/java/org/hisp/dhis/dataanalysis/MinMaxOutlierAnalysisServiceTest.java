@@ -28,6 +28,9 @@
 package org.hisp.dhis.dataanalysis;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Date;
 import java.util.List;
@@ -105,6 +108,8 @@ class MinMaxOutlierAnalysisServiceTest extends PostgresIntegrationTestBase {
 
   private OrganisationUnit organisationUnitA;
 
+  private OrganisationUnit organisationUnitB;
+
   @BeforeEach
   void setUp() {
     categoryCombo = categoryService.getDefaultCategoryCombo();
@@ -136,6 +141,8 @@ class MinMaxOutlierAnalysisServiceTest extends PostgresIntegrationTestBase {
 
     organisationUnitA = createOrganisationUnit('A');
     organisationUnitService.addOrganisationUnit(organisationUnitA);
+    organisationUnitB = createOrganisationUnit('B', organisationUnitA);
+    organisationUnitService.addOrganisationUnit(organisationUnitB);
   }
 
   @Test
@@ -187,4 +194,58 @@ class MinMaxOutlierAnalysisServiceTest extends PostgresIntegrationTestBase {
     assertEquals(3, resultA.size());
     assertEquals(2, resultB.size());
   }
+
+  @Test
+  void testGenerateMinMaxValues() {
+    addDataValues(
+        dataElementA, organisationUnitB, "5", "-50", "5", "-5", "10", "-10", "13", "-13", "41",
+        "-41");
+
+    minMaxDataElementService.addMinMaxDataElement(
+        new MinMaxDataElement(dataElementB, organisationUnitB, categoryOptionCombo, 1, 2, true));
+
+    minMaxOutlierAnalysisService.generateMinMaxValues(organisationUnitA, dataElementsA, 2.0);
+
+    MinMaxDataElement minMax =
+        minMaxDataElementService.getMinMaxDataElement(
+            organisationUnitB, dataElementA, categoryOptionCombo);
+
+    assertNotNull(minMax);
+    assertEquals(-55, minMax.getMin());
+    assertEquals(46, minMax.getMax());
+    assertTrue(minMax.isGenerated());
+    assertNull(
+        minMaxDataElementService.getMinMaxDataElement(
+            organisationUnitB, dataElementB, categoryOptionCombo));
+  }
+
+  @Test
+  void testGenerateMinMaxValuesChangedSince() {
+    addDataValues(dataElementA, organisationUnitB, "5", "-50", "5", "-5", "10", "-10", "13");
+
+    minMaxDataElementService.addMinMaxDataElement(
+        new MinMaxDataElement(dataElementB, organisationUnitB, categoryOptionCombo, 1, 2, true));
+
+    minMaxOutlierAnalysisService.generateMinMaxValues(
+        organisationUnitA, dataElementsA, 2.0, getDate(1998, 1, 1));
+
+    assertNotNull(
+        minMaxDataElementService.getMinMaxDataElement(
+            organisationUnitB, dataElementA, categoryOptionCombo));
+    assertNotNull(
+        minMaxDataElementService.getMinMaxDataElement(
+            organisationUnitB, dataElementB, categoryOptionCombo));
+  }
+
+  private void addDataValues(DataElement dataElement, OrganisationUnit orgUnit, String... values) {
+    List<Period> periods =
+        List.of(
+            periodA, periodB, periodC, periodD, periodE, periodF, periodG, periodH, periodI,
+            periodJ);
+
+    for (int i = 0; i < values.length; i++) {
+      dataValueService.addDataValue(
+          createDataValue(dataElement, periods.get(i), orgUnit, values[i], categoryOptionCombo));
+    }
+  }
 }
@@ -542,6 +542,30 @@ class DataValueServiceTest extends PostgresIntegrationTestBase {
         1, dataValueService.getDataValueCountLastUpdatedBetween(getDate(1970, 1, 1), null, false));
   }
 
+  @Test
+  void testGetOrganisationUnitPathsWithDataChangedSince() {
+    dataValueService.addDataValue(new DataValue(deA, peA, ouA, optionCombo, optionCombo, "1"));
+    dataValueService.addDataValue(new DataValue(deB, peA, ouB, optionCombo, optionCombo, "2"));
+    assertEquals(
+        List.of(ouA.getPath()),
+        dataValueService.getOrganisationUnitPathsWithDataChangedSince(
+            getDate(1970, 1, 1), Set.of(deA.getUid())));
+    assertEquals(
+        Set.of(ouA.getPath(), ouB.getPath()),
+        Set.copyOf(
+            dataValueService.getOrganisationUnitPathsWithDataChangedSince(
+                getDate(1970, 1, 1), Set.of(deA.getUid(), deB.getUid()))));
+    assertTrue(
+        dataValueService
+            .getOrganisationUnitPathsWithDataChangedSince(
+                getDate(2100, 1, 1), Set.of(deA.getUid(), deB.getUid()))
+            .isEmpty());
+    assertTrue(
+        dataValueService
+            .getOrganisationUnitPathsWithDataChangedSince(getDate(1970, 1, 1), Set.of())
+            .isEmpty());
+  }
+
   @Test
   void testVAlidateMissingDataElement() {
     assertIllegalQueryEx(
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.hisp.dhis.audit.AuditOperationType;
+import org.hisp.dhis.category.CategoryOptionCombo;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dataelement.DataElementService;
+import org.hisp.dhis.datavalue.DataValue;
+import org.hisp.dhis.datavalue.DataValueAudit;
+import org.hisp.dhis.datavalue.DataValueService;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.organisationunit.OrganisationUnitService;
+import org.hisp.dhis.period.Period;
+import org.hisp.dhis.period.PeriodService;
+import org.hisp.dhis.test.integration.PostgresIntegrationTestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Tests the {@code COPY} staging and the upsert of {@link JdbcDataValueImportStore} against
+ * PostgreSQL.
+ */
+@Transactional
+class JdbcDataValueImportStoreTest extends PostgresIntegrationTestBase {
+  private static final String SPECIAL_CHARACTERS = "tab\there\nnew line\\back\\\\slash\rreturn \\N";
+
+  @Autowired private DataValueImportStore dataValueImportStore;
+
+  @Autowired private DataElementService dataElementService;
+
+  @Autowired private DataValueService dataValueService;
+
+  @Autowired private OrganisationUnitService organisationUnitService;
+
+  @Autowired private PeriodService periodService;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private DataElement deA;
+
+  private DataElement deB;
+
+  private Period peA;
+
+  private OrganisationUnit ouA;
+
+  private CategoryOptionCombo coc;
+
+  @BeforeEach
+  void setUp() {
+    deA = createDataElement('A');
+    deB = createDataElement('B');
+    deA.setValueType(ValueType.TEXT);
+    deB.setValueType(ValueType.TEXT);
+    dataElementService.addDataElement(deA);
+    dataElementService.addDataElement(deB);
+    peA = periodService.reloadPeriod(createPeriod("202401"));
+    ouA = createOrganisationUnit('A');
+    organisationUnitService.addOrganisationUnit(ouA);
+    coc = categoryService.getDefaultCategoryOptionCombo();
+  }
+
+  @Test
+  void testUpsertInsertsValuesWithSpecialCharacters() {
+    DataValue value = createDataValue(deA, peA, ouA, coc, coc, SPECIAL_CHARACTERS);
+    value.setComment("comment\twith\ttabs\\");
+
+    dataValueImportStore.upsertDataValues(List.of(value));
+
+    Map<String, Object> row = getDataValueRow(deA);
+
+    assertEquals(SPECIAL_CHARACTERS, row.get("value"));
+    assertEquals("comment\twith\ttabs\\", row.get("comment"));
+    assertEquals("StoredBy", row.get("storedby"));
+    assertEquals(false, row.get("deleted"));
+  }
+
+  @Test
+  void testUpsertInsertsNullValueAndComment() {
+    DataValue value = createDataValue(deA, peA, ouA, coc, coc, null);
+    value.setComment(null);
+    value.setStoredBy(null);
+
+    dataValueImportStore.upsertDataValues(List.of(value));
+
+    Map<String, Object> row = getDataValueRow(deA);
+
+    assertNull(row.get("value"));
+    assertNull(row.get("comment"));
+    assertNull(row.get("storedby"));
+  }
+
+  @Test
+  void testUpsertUpdatesExistingValue() {
+    dataValueService.addDataValue(createDataValue(deA, peA, ouA, coc, coc, "10"));
+    entityManager.flush();
+
+    DataValue value = createDataValue(deA, peA, ouA, coc, coc, "20");
+    value.setComment(null);
+    value.setFollowup(true);
+    value.setDeleted(true);
+
+    dataValueImportStore.upsertDataValues(List.of(value));
+
+    assertEquals(1, countDataValues(deA));
+
+    Map<String, Object> row = getDataValueRow(deA);
+
+    assertEquals("20", row.get("value"));
+    assertNull(row.get("comment"));
+    assertEquals(true, row.get("followup"));
+    assertEquals(true, row.get("deleted"));
+  }
+
+  @Test
+  void testUpsertTwiceInSameTransaction() {
+    dataValueImportStore.upsertDataValues(List.of(createDataValue(deA, peA, ouA, coc, coc, "1")));
+    dataValueImportStore.upsertDataValues(
+        List.of(
+            createDataValue(deA, peA, ouA, coc, coc, "2"),
+            createDataValue(deB, peA, ouA, coc, coc, "3")));
+
+    assertEquals(1, countDataValues(deA));
+    assertEquals("2", getDataValueRow(deA).get("value"));
+    assertEquals("3", getDataValueRow(deB).get("value"));
+  }
+
+  @Test
+  void testGetDataValuesReturnsPersistedValues() {
+    DataValue persisted = createDataValue(deA, peA, ouA, coc, coc, SPECIAL_CHARACTERS);
+    persisted.setComment(null);
+    dataValueService.addDataValue(persisted);
+    entityManager.flush();
+
+    DataValue importedA = createDataValue(deA, peA, ouA, coc, coc, "1");
+    DataValue importedB = createDataValue(deB, peA, ouA, coc, coc, "2");
+
+    Map<DataValue, DataValue> existing =
+        dataValueImportStore.getDataValues(List.of(importedA, importedB));
+
+    assertEquals(1, existing.size());
+    assertTrue(existing.containsKey(importedA));
+    assertFalse(existing.containsKey(importedB));
+
+    DataValue existingA = existing.get(importedA);
+
+    assertEquals(SPECIAL_CHARACTERS, existingA.getValue());
+    assertNull(existingA.getComment());
+    assertEquals(deA, existingA.getDataElement());
+  }
+
+  @Test
+  void testAddDataValueAudits() {
+    DataValue value = createDataValue(deA, peA, ouA, coc, coc, "1");
+    dataValueService.addDataValue(value);
+    entityManager.flush();
+
+    long before = countAudits(deA);
+
+    dataValueImportStore.addDataValueAudits(
+        List.of(
+            new DataValueAudit(value, SPECIAL_CHARACTERS, "admin", AuditOperationType.UPDATE),
+            new DataValueAudit(value, null, "admin", AuditOperationType.DELETE)));
+
+    assertEquals(before + 2, countAudits(deA));
+    assertEquals(
+        1,
+        jdbcTemplate.queryForObject(
+            "select count(*) from datavalueaudit where dataelementid = ? and value = ?",
+            Integer.class,
+            deA.getId(),
+            SPECIAL_CHARACTERS));
+    assertEquals(
+        1,
+        jdbcTemplate.queryForObject(
+            "select count(*) from datavalueaudit where dataelementid = ? and value is null "
+                + "and audittype = 'DELETE'",
+            Integer.class,
+            deA.getId()));
+  }
+
+  private Map<String, Object> getDataValueRow(DataElement dataElement) {
+    return jdbcTemplate.queryForMap(
+        "select value, comment, storedby, followup, deleted from datavalue "
+            + "where dataelementid = ? and periodid = ? and sourceid = ?",
+        dataElement.getId(),
+        peA.getId(),
+        ouA.getId());
+  }
+
+  private long countDataValues(DataElement dataElement) {
+    return jdbcTemplate.queryForObject(
+        "select count(*) from datavalue where dataelementid = ?", Long.class, dataElement.getId());
+  }
+
+  private long countAudits(DataElement dataElement) {
+    return jdbcTemplate.queryForObject(
+        "select count(*) from datavalueaudit where dataelementid = ?",
+        Long.class,
+        dataElement.getId());
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.eventhook;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.eventhook.EventHookOutboxStore.Destination;
+import org.hisp.dhis.eventhook.targets.WebhookTarget;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.system.executor.BoundedExecutorFactory;
+import org.hisp.dhis.test.integration.PostgresIntegrationTestBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Tests the {@link EventHookDispatcher} against the outbox table and a local HTTP stub. The event
+ * hooks are not persisted so that the dispatcher of the application does not pick them up.
+ */
+class EventHookDispatcherTest extends PostgresIntegrationTestBase {
+  private static final long TIMEOUT = 10;
+
+  @Autowired private EventHookOutboxStore store;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private HttpServer server;
+
+  private final List<String> receivedA = new CopyOnWriteArrayList<>();
+
+  private final List<String> receivedB = new CopyOnWriteArrayList<>();
+
+  private volatile int status = 200;
+
+  private EventHookDispatcher dispatcher;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/a", exchange -> respond(exchange, receivedA));
+    server.createContext("/b", exchange -> respond(exchange, receivedB));
+    server.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (dispatcher != null) {
+      dispatcher.shutdown();
+    }
+    server.stop(0);
+    jdbcTemplate.update("delete from eventhookoutbox");
+  }
+
+  @Test
+  void testEnqueueDeliversToTarget() {
+    dispatcher = dispatcher(5);
+    EventHook eventHook = eventHook("eventHookA1", target("/a"), target("/b"));
+    dispatcher.reload(List.of(eventHook));
+
+    dispatcher.enqueue(destination(eventHook, 0), "{\"a\":1}");
+    dispatcher.enqueue(destination(eventHook, 1), "{\"b\":1}");
+
+    await().atMost(TIMEOUT, TimeUnit.SECONDS).until(() -> store.countBacklog() == 0);
+    assertEquals(List.of("{\"a\":1}"), receivedA);
+    assertEquals(List.of("{\"b\":1}"), receivedB);
+  }
+
+  @Test
+  void testEnqueueDropsRequestAfterMaxAttempts() {
+    status = 503;
+    dispatcher = dispatcher(1);
+    EventHook eventHook = eventHook("eventHookA1", target("/a"));
+    dispatcher.reload(List.of(eventHook));
+
+    dispatcher.enqueue(destination(eventHook, 0), "{}");
+
+    await().atMost(TIMEOUT, TimeUnit.SECONDS).until(() -> store.countBacklog() == 0);
+    assertEquals(List.of("{}"), receivedA);
+  }
+
+  @Test
+  void testEnqueueSchedulesRetryOnFailure() {
+    status = 503;
+    dispatcher = dispatcher(5);
+    EventHook eventHook = eventHook("eventHookA1", target("/a"));
+    dispatcher.reload(List.of(eventHook));
+
+    dispatcher.enqueue(destination(eventHook, 0), "{}");
+
+    await()
+        .atMost(TIMEOUT, TimeUnit.SECONDS)
+        .until(() -> attempts(destination(eventHook, 0)) == 1);
+    assertEquals(1, store.countBacklog());
+    assertEquals(List.of("{}"), receivedA);
+  }
+
+  @Test
+  void testReloadKeepsRequestsOfReorderedTargets() {
+    dispatcher = dispatcher(5);
+    WebhookTarget targetA = target("/a");
+    WebhookTarget targetB = target("/b");
+    Destination destinationA = Destination.of("eventHookA1", targetA);
+    Destination destinationB = Destination.of("eventHookA1", targetB);
+    // queued by another node before the targets were reordered
+    store.enqueue(destinationA, "{\"a\":1}");
+    store.enqueue(destinationB, "{\"b\":1}");
+
+    dispatcher.reload(List.of(eventHook("eventHookA1", targetB, targetA)));
+
+    await().atMost(TIMEOUT, TimeUnit.SECONDS).until(() -> store.countBacklog() == 0);
+    assertEquals(List.of("{\"a\":1}"), receivedA);
+    assertEquals(List.of("{\"b\":1}"), receivedB);
+  }
+
+  @Test
+  void testReloadDeletesRequestsOfRemovedTargets() {
+    dispatcher = dispatcher(5);
+    WebhookTarget targetA = target("/a");
+    store.enqueue(Destination.of("eventHookA1", targetA), "{}");
+    store.enqueue(Destination.of("eventHookA1", target("/b")), "{}");
+    store.enqueue(Destination.of("eventHookB1", target("/b")), "{}");
+    status = 503;
+
+    dispatcher.reload(List.of(eventHook("eventHookA1", targetA)));
+
+    assertEquals(1, store.countBacklog());
+  }
+
+  @Test
+  void testReloadWithoutWebhooksDeletesAllRequests() {
+    dispatcher = dispatcher(5);
+    EventHook eventHook = eventHook("eventHookA1", target("/a"));
+    store.enqueue(destination(eventHook, 0), "{}");
+    eventHook.setDisabled(true);
+
+    dispatcher.reload(List.of(eventHook));
+
+    assertEquals(0, store.countBacklog());
+  }
+
+  private EventHookDispatcher dispatcher(int maxAttempts) {
+    DhisConfigurationProvider config = mock(DhisConfigurationProvider.class);
+    when(config.getIntProperty(ConfigurationKey.EVENT_HOOKS_DELIVERY_MAX_ATTEMPTS))
+        .thenReturn(maxAttempts);
+    when(config.getIntProperty(ConfigurationKey.EVENT_HOOKS_DELIVERY_THREADS)).thenReturn(2);
+    return new EventHookDispatcher(store, config, new BoundedExecutorFactory());
+  }
+
+  private int attempts(Destination destination) {
+    return jdbcTemplate
+        .queryForList(
+            "select attempts from eventhookoutbox where targetkey = ?",
+            Integer.class,
+            destination.targetKey())
+        .stream()
+        .findFirst()
+        .orElse(0);
+  }
+
+  private void respond(HttpExchange exchange, List<String> received) throws IOException {
+    try (InputStream body = exchange.getRequestBody()) {
+      received.add(new String(body.readAllBytes(), UTF_8));
+    }
+    exchange.sendResponseHeaders(status, -1);
+    exchange.close();
+  }
+
+  private WebhookTarget target(String path) {
+    return new WebhookTarget().setUrl("http://localhost:" + server.getAddress().getPort() + path);
+  }
+
+  private static Destination destination(EventHook eventHook, int index) {
+    return Destination.of(eventHook.getUid(), (WebhookTarget) eventHook.getTargets().get(index));
+  }
+
+  private static EventHook eventHook(String uid, WebhookTarget... targets) {
+    EventHook eventHook = new EventHook();
+    eventHook.setUid(uid);
+    eventHook.setTargets(List.<Target>of(targets));
+    return eventHook;
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.eventhook;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.eventhook.EventHookOutboxStore.Destination;
+import org.hisp.dhis.eventhook.EventHookOutboxStore.Entry;
+import org.hisp.dhis.eventhook.targets.WebhookTarget;
+import org.hisp.dhis.test.integration.PostgresIntegrationTestBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class EventHookOutboxStoreTest extends PostgresIntegrationTestBase {
+  private static final Duration LEASE = Duration.ofMinutes(1);
+
+  @Autowired private EventHookOutboxStore store;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private TransactionTemplate transactionTemplate;
+
+  private final Destination destinationA =
+      Destination.of("eventHookA1", new WebhookTarget().setUrl("http://localhost/a"));
+
+  private final Destination destinationB =
+      Destination.of("eventHookA1", new WebhookTarget().setUrl("http://localhost/b"));
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("delete from eventhookoutbox");
+  }
+
+  @Test
+  void testDestinationIsKeyedByClientIdAndUrl() {
+    WebhookTarget target = new WebhookTarget().setClientId("client").setUrl("http://localhost/a");
+    WebhookTarget same = new WebhookTarget().setClientId("client").setUrl("http://localhost/a");
+    WebhookTarget other = new WebhookTarget().setClientId("client").setUrl("http://localhost/b");
+
+    assertEquals(Destination.of("eventHookA1", target), Destination.of("eventHookA1", same));
+    assertNotEquals(Destination.of("eventHookA1", target), Destination.of("eventHookA1", other));
+  }
+
+  @Test
+  void testClaimReturnsOldestEntriesOfDestination() {
+    store.enqueue(destinationA, "1");
+    store.enqueue(destinationB, "2");
+    store.enqueue(destinationA, "3");
+    store.enqueue(destinationA, "4");
+
+    assertEquals(List.of("1", "3"), payloads(store.claim(destinationA, 2, LEASE)));
+    assertEquals(List.of("4"), payloads(store.claim(destinationA, 2, LEASE)));
+    assertEquals(List.of(), store.claim(destinationA, 2, LEASE));
+    assertEquals(List.of("2"), payloads(store.claim(destinationB, 2, LEASE)));
+  }
+
+  @Test
+  void testClaimSkipsEntriesLockedByConcurrentClaim() {
+    store.enqueue(destinationA, "1");
+    store.enqueue(destinationA, "2");
+    store.enqueue(destinationA, "3");
+
+    List<String> concurrent =
+        transactionTemplate.execute(
+            status -> {
+              // the claimed row stays locked until this transaction commits
+              assertEquals(List.of("1"), payloads(store.claim(destinationA, 1, LEASE)));
+
+              return CompletableFuture.supplyAsync(
+                      () ->
+                          transactionTemplate.execute(
+                              s -> payloads(store.claim(destinationA, 10, LEASE))))
+                  .orTimeout(10, TimeUnit.SECONDS)
+                  .join();
+            });
+
+    assertEquals(List.of("2", "3"), concurrent);
+    assertEquals(List.of(), store.claim(destinationA, 10, LEASE));
+  }
+
+  @Test
+  void testClaimReturnsEntriesAgainAfterLeaseExpired() throws InterruptedException {
+    store.enqueue(destinationA, "1");
+
+    assertEquals(List.of("1"), payloads(store.claim(destinationA, 1, Duration.ofMillis(100))));
+    assertEquals(List.of(), store.claim(destinationA, 1, LEASE));
+
+    Thread.sleep(200);
+
+    assertEquals(List.of("1"), payloads(store.claim(destinationA, 1, LEASE)));
+  }
+
+  @Test
+  void testRetrySchedulesNextAttemptWithExponentialBackoff() {
+    store.enqueue(destinationA, "1");
+    List<Long> ids = ids(store.claim(destinationA, 1, LEASE));
+    Duration backoff = Duration.ofSeconds(10);
+    Duration maxBackoff = Duration.ofSeconds(15);
+
+    assertEquals(0, store.retry(ids, "first", backoff, maxBackoff, 5));
+    assertAttempt(ids.get(0), 1, "first", 10);
+    assertEquals(List.of(), store.claim(destinationA, 1, LEASE));
+
+    assertEquals(0, store.retry(ids, "second", backoff, maxBackoff, 5));
+    assertAttempt(ids.get(0), 2, "second", 15);
+  }
+
+  @Test
+  void testRetryDropsEntriesAfterMaxAttempts() {
+    store.enqueue(destinationA, "1");
+    store.enqueue(destinationA, "2");
+    List<Long> ids = ids(store.claim(destinationA, 2, LEASE));
+    Duration backoff = Duration.ofMillis(1);
+
+    assertEquals(0, store.retry(ids, "error", backoff, backoff, 2));
+    assertEquals(2, store.countBacklog());
+
+    assertEquals(2, store.retry(ids, "error", backoff, backoff, 2));
+    assertEquals(0, store.countBacklog());
+  }
+
+  @Test
+  void testRetryTruncatesLongErrors() {
+    store.enqueue(destinationA, "1");
+    List<Long> ids = ids(store.claim(destinationA, 1, LEASE));
+
+    store.retry(ids, "x".repeat(2000), Duration.ofSeconds(1), Duration.ofSeconds(1), 5);
+
+    String error =
+        jdbcTemplate.queryForObject(
+            "select lasterror from eventhookoutbox where eventhookoutboxid = ?",
+            String.class,
+            ids.get(0));
+    assertEquals(1024, error.length());
+  }
+
+  @Test
+  void testGetDueDestinations() {
+    store.enqueue(destinationA, "1");
+    store.enqueue(destinationA, "2");
+    store.enqueue(destinationB, "3");
+
+    assertEquals(Set.of(destinationA, destinationB), Set.copyOf(store.getDueDestinations()));
+
+    store.claim(destinationB, 1, LEASE);
+
+    assertEquals(List.of(destinationA), store.getDueDestinations());
+  }
+
+  @Test
+  void testDeleteOrphansKeepsEntriesOfActiveTargets() {
+    Destination otherHook =
+        Destination.of("eventHookB1", new WebhookTarget().setUrl("http://localhost/a"));
+    store.enqueue(destinationA, "1");
+    store.enqueue(destinationB, "2");
+    store.enqueue(otherHook, "3");
+
+    store.deleteOrphans(
+        Map.of("eventHookA1", Set.of(destinationB.targetKey(), destinationA.targetKey())));
+
+    assertEquals(2, store.countBacklog());
+    assertEquals(List.of("2"), payloads(store.claim(destinationB, 10, LEASE)));
+
+    store.deleteOrphans(Map.of("eventHookA1", Set.of(destinationB.targetKey())));
+
+    assertEquals(List.of(), store.claim(destinationA, 10, LEASE));
+    assertEquals(1, store.countBacklog());
+
+    store.deleteOrphans(Map.of());
+
+    assertEquals(0, store.countBacklog());
+  }
+
+  private void assertAttempt(long id, int attempts, String error, long delaySeconds) {
+    Map<String, Object> row =
+        jdbcTemplate.queryForMap(
+            """
+                select attempts, lasterror,
+                extract(epoch from nextattempt - localtimestamp) as delay
+                from eventhookoutbox where eventhookoutboxid = ?
+            """,
+            id);
+    double delay = ((Number) row.get("delay")).doubleValue();
+
+    assertEquals(attempts, ((Number) row.get("attempts")).intValue());
+    assertEquals(error, row.get("lasterror"));
+    assertTrue(
+        delay > delaySeconds - 5 && delay <= delaySeconds,
+        "unexpected delay of " + delay + " seconds");
+  }
+
+  private static List<String> payloads(List<Entry> entries) {
+    return entries.stream().map(Entry::payload).toList();
+  }
+
+  private static List<Long> ids(List<Entry> entries) {
+    return entries.stream().map(Entry::id).toList();
+  }
+}
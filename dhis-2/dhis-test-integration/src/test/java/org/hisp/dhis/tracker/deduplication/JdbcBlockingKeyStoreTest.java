@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.deduplication;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.test.integration.PostgresIntegrationTestBase;
+import org.hisp.dhis.trackedentity.TrackedEntity;
+import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
+import org.hisp.dhis.trackedentity.TrackedEntityType;
+import org.hisp.dhis.trackedentityattributevalue.TrackedEntityAttributeValue;
+import org.hisp.dhis.tracker.deduplication.JdbcBlockingKeyStore.Candidate;
+import org.hisp.dhis.tracker.trackedentityattributevalue.TrackedEntityAttributeValueService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class JdbcBlockingKeyStoreTest extends PostgresIntegrationTestBase {
+  private static final long INDEX = 1L;
+
+  @Autowired private JdbcBlockingKeyStore store;
+
+  @Autowired private IdentifiableObjectManager manager;
+
+  @Autowired private TrackedEntityAttributeValueService attributeValueService;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private OrganisationUnit orgUnit;
+
+  private TrackedEntityType type;
+
+  private TrackedEntityAttribute name;
+
+  private TrackedEntityAttribute birth;
+
+  private List<Long> attributes;
+
+  @BeforeEach
+  void setUp() {
+    orgUnit = createOrganisationUnit('A');
+    manager.save(orgUnit);
+    type = createTrackedEntityType('A');
+    manager.save(type);
+    name = createTrackedEntityAttribute('N');
+    birth = createTrackedEntityAttribute('B', ValueType.DATE);
+    manager.save(name);
+    manager.save(birth);
+    attributes = List.of(birth.getId(), name.getId());
+  }
+
+  @Test
+  void testGetTrackedEntityIdsPagesEntitiesWithValues() {
+    long a = saveTrackedEntity("Anna", "1990-01-02");
+    long b = saveTrackedEntity(null, "1990-01-02");
+    saveTrackedEntity(null, null);
+    long d = saveTrackedEntity("Deleted", null);
+    delete(d);
+
+    assertEquals(List.of(a), store.getTrackedEntityIds(attributes, null, 0L, 1));
+    assertEquals(List.of(b), store.getTrackedEntityIds(attributes, null, a, 1));
+    assertEquals(List.of(), store.getTrackedEntityIds(attributes, null, b, 1));
+    assertEquals(List.of(b), store.getTrackedEntityIds(List.of(birth.getId()), null, a, 10));
+  }
+
+  @Test
+  void testGetTrackedEntityIdsUpdatedSince() {
+    saveTrackedEntity("Anna", null);
+    long b = saveTrackedEntity("Bob", null);
+    long c = saveTrackedEntity(null, null);
+    long d = saveTrackedEntity("Deleted", null);
+    jdbcTemplate.update("update trackedentity set lastupdated = now() - interval '1 day'");
+    Date since = store.now();
+    touch(b);
+    touch(c);
+    delete(d);
+
+    // deleted entities and entities without values are returned so that their keys are removed
+    assertEquals(List.of(b, c, d), store.getTrackedEntityIds(attributes, since, 0L, 10));
+    assertEquals(List.of(c, d), store.getTrackedEntityIds(attributes, since, b, 10));
+  }
+
+  @Test
+  void testGetCandidatesAlignsValuesWithAttributes() {
+    long a = saveTrackedEntity("Anna", "1990-01-02");
+    long b = saveTrackedEntity("Bob", null);
+    long c = saveTrackedEntity(null, null);
+    long d = saveTrackedEntity("Deleted", null);
+    delete(d);
+
+    List<Candidate> candidates =
+        store.getCandidates(List.of(a, b, c, d), attributes).stream()
+            .sorted(Comparator.comparingLong(Candidate::id))
+            .toList();
+
+    assertEquals(List.of(a, b), candidates.stream().map(Candidate::id).toList());
+    assertEquals(type.getId(), candidates.get(0).type());
+    assertArrayEquals(new String[] {"1990-01-02", "Anna"}, candidates.get(0).values());
+    assertArrayEquals(new String[] {null, "Bob"}, candidates.get(1).values());
+    assertEquals(List.of(), store.getCandidates(List.of(), attributes));
+  }
+
+  @Test
+  void testReplaceKeysAndGetBlocks() {
+    long a = saveTrackedEntity("Anna", null);
+    long b = saveTrackedEntity("Ana", null);
+    long c = saveTrackedEntity("Bob", null);
+
+    Map<Long, Set<Long>> keys = Map.of(a, Set.of(1L, 2L), b, Set.of(1L), c, Set.of(2L));
+    store.replaceKeys(INDEX, List.of(a, b, c), keys);
+    store.replaceKeys(2L, List.of(a, b), Map.of(a, Set.of(3L), b, Set.of(3L)));
+
+    assertEquals(Set.of(List.of(a, b), List.of(a, c)), blocks(store.getBlocks(INDEX, 0L, 10L, 2)));
+    assertEquals(Set.of(List.of(a, b)), blocks(store.getBlocks(INDEX, 1L, 1L, 2)));
+    assertEquals(Set.of(List.of(a, c)), blocks(store.getBlocks(INDEX, List.of(2L, 3L), 2)));
+    assertEquals(Set.of(List.of(a, b)), blocks(store.getBlocks(2L, List.of(3L), 2)));
+    // blocks larger than the maximum are skipped
+    assertEquals(Set.of(), blocks(store.getBlocks(INDEX, List.of(1L, 2L), 1)));
+
+    // c has no keys anymore, which leaves a alone in block 2
+    store.replaceKeys(INDEX, List.of(a, c), Map.of(a, Set.of(1L, 2L)));
+
+    List<long[]> blocks = store.getBlocks(INDEX, Long.MIN_VALUE, Long.MAX_VALUE, 2);
+    assertEquals(Set.of(List.of(a, b)), blocks(blocks));
+    assertEquals(Set.of(List.of(a, b)), blocks(store.getBlocks(2L, List.of(3L), 2)));
+  }
+
+  @Test
+  void testLastIndexedAndDeleteIndex() {
+    long a = saveTrackedEntity("Anna", null);
+    long b = saveTrackedEntity("Ana", null);
+    store.replaceKeys(INDEX, List.of(a, b), Map.of(a, Set.of(1L), b, Set.of(1L)));
+
+    assertNull(store.getLastIndexed(INDEX));
+
+    Date first = store.now();
+    store.setLastIndexed(INDEX, "a,b", first);
+    Date second = new Date(first.getTime() + 1000);
+    store.setLastIndexed(INDEX, "a,b", second);
+
+    assertEquals(second.getTime(), store.getLastIndexed(INDEX).getTime());
+
+    store.deleteIndex(INDEX);
+
+    assertNull(store.getLastIndexed(INDEX));
+    assertEquals(List.of(), store.getBlocks(INDEX, List.of(1L), 10));
+    assertNotNull(
+        jdbcTemplate.queryForObject(
+            "select attributes from trackedentityblockingindex where indexkey = ?",
+            String.class,
+            INDEX));
+  }
+
+  @Test
+  void testGetUids() {
+    long a = saveTrackedEntity("Anna", null);
+
+    assertEquals(
+        Map.of(a, manager.get(TrackedEntity.class, a).getUid()), store.getUids(List.of(a, -1L)));
+    assertEquals(Map.of(), store.getUids(List.of()));
+  }
+
+  private long saveTrackedEntity(String nameValue, String birthValue) {
+    TrackedEntity trackedEntity = createTrackedEntity(orgUnit);
+    trackedEntity.setTrackedEntityType(type);
+    manager.save(trackedEntity);
+    if (nameValue != null) {
+      addValue(trackedEntity, name, nameValue);
+    }
+    if (birthValue != null) {
+      addValue(trackedEntity, birth, birthValue);
+    }
+    return trackedEntity.getId();
+  }
+
+  private void addValue(
+      TrackedEntity trackedEntity, TrackedEntityAttribute attribute, String value) {
+    TrackedEntityAttributeValue attributeValue =
+        createTrackedEntityAttributeValue('A', trackedEntity, attribute);
+    attributeValue.setValue(value);
+    attributeValueService.addTrackedEntityAttributeValue(attributeValue);
+  }
+
+  private void touch(long trackedEntity) {
+    jdbcTemplate.update(
+        "update trackedentity set lastupdated = now() where trackedentityid = ?", trackedEntity);
+  }
+
+  private void delete(long trackedEntity) {
+    jdbcTemplate.update(
+        "update trackedentity set deleted = true, lastupdated = now() where trackedentityid = ?",
+        trackedEntity);
+  }
+
+  private static Set<List<Long>> blocks(List<long[]> blocks) {
+    return blocks.stream()
+        .map(block -> Arrays.stream(block).sorted().boxed().toList())
+        .collect(Collectors.toSet());
+  }
+}
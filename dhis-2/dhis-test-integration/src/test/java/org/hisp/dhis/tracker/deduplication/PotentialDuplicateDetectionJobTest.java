@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.deduplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.scheduling.JobProgress;
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.scheduling.parameters.PotentialDuplicateDetectionJobParameters;
+import org.hisp.dhis.test.integration.PostgresIntegrationTestBase;
+import org.hisp.dhis.trackedentity.TrackedEntity;
+import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
+import org.hisp.dhis.trackedentity.TrackedEntityType;
+import org.hisp.dhis.trackedentityattributevalue.TrackedEntityAttributeValue;
+import org.hisp.dhis.tracker.trackedentityattributevalue.TrackedEntityAttributeValueService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class PotentialDuplicateDetectionJobTest extends PostgresIntegrationTestBase {
+  @Autowired private PotentialDuplicateDetectionJob job;
+
+  @Autowired private IdentifiableObjectManager manager;
+
+  @Autowired private TrackedEntityAttributeValueService attributeValueService;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private OrganisationUnit orgUnit;
+
+  private TrackedEntityType type;
+
+  private TrackedEntityAttribute name;
+
+  private TrackedEntityAttribute birth;
+
+  private TrackedEntityAttribute village;
+
+  private JobConfiguration configuration;
+
+  @BeforeEach
+  void setUp() {
+    orgUnit = createOrganisationUnit('A');
+    manager.save(orgUnit);
+    type = createTrackedEntityType('A');
+    manager.save(type);
+    name = createTrackedEntityAttribute('N');
+    birth = createTrackedEntityAttribute('B', ValueType.DATE);
+    village = createTrackedEntityAttribute('V');
+    manager.save(name);
+    manager.save(birth);
+    manager.save(village);
+
+    PotentialDuplicateDetectionJobParameters parameters =
+        new PotentialDuplicateDetectionJobParameters();
+    parameters.setAttributes(Set.of(name.getUid(), birth.getUid(), village.getUid()));
+    parameters.setIncremental(true);
+    configuration =
+        new JobConfiguration("Potential duplicates", JobType.POTENTIAL_DUPLICATE_DETECTION);
+    configuration.setJobParameters(parameters);
+  }
+
+  @Test
+  void testIncrementalRunComparesChangedEntitiesOnly() {
+    TrackedEntity a = saveTrackedEntity("Anna", "1990-01-02", "Lusaka");
+    TrackedEntity b = saveTrackedEntity("Ana", "1990-01-02", "Lusaka");
+    TrackedEntity c = saveTrackedEntity("Bob", "1970-05-06", "Ndola");
+    TrackedEntity d = saveTrackedEntity("Anna", "1990-01-02", "Lusaka");
+    jdbcTemplate.update("update trackedentity set lastupdated = now() - interval '1 day'");
+
+    // the first run indexes and compares all entities
+    job.execute(configuration, JobProgress.noop());
+
+    assertEquals(Set.of(pair(a, b), pair(a, d), pair(b, d)), getPotentialDuplicates());
+
+    jdbcTemplate.update("delete from potentialduplicate");
+    updateValue(c, name, "Anna");
+    updateValue(c, birth, "1990-01-02");
+    updateValue(c, village, "Lusaka");
+    jdbcTemplate.update(
+        "update trackedentity set lastupdated = now() where trackedentityid = ?", c.getId());
+    jdbcTemplate.update(
+        "update trackedentity set deleted = true, lastupdated = now() where trackedentityid = ?",
+        d.getId());
+
+    // only pairs with the changed entity are compared, the deleted entity leaves the index
+    job.execute(configuration, JobProgress.noop());
+
+    assertEquals(Set.of(pair(a, c), pair(b, c)), getPotentialDuplicates());
+    assertEquals(
+        0,
+        jdbcTemplate.queryForObject(
+            "select count(*) from trackedentityblockingkey where trackedentityid = ?",
+            Integer.class,
+            d.getId()));
+  }
+
+  @Test
+  void testRunDoesNotAddExistingPotentialDuplicates() {
+    TrackedEntity a = saveTrackedEntity("Anna", "1990-01-02", "Lusaka");
+    TrackedEntity b = saveTrackedEntity("Ana", "1990-01-02", "Lusaka");
+    saveTrackedEntity("Bob", "1970-05-06", "Ndola");
+
+    job.execute(configuration, JobProgress.noop());
+    ((PotentialDuplicateDetectionJobParameters) configuration.getJobParameters())
+        .setIncremental(false);
+    job.execute(configuration, JobProgress.noop());
+
+    assertEquals(Set.of(pair(a, b)), getPotentialDuplicates());
+    assertEquals(
+        1, jdbcTemplate.queryForObject("select count(*) from potentialduplicate", Integer.class));
+  }
+
+  private TrackedEntity saveTrackedEntity(
+      String nameValue, String birthValue, String villageValue) {
+    TrackedEntity trackedEntity = createTrackedEntity(orgUnit);
+    trackedEntity.setTrackedEntityType(type);
+    manager.save(trackedEntity);
+    addValue(trackedEntity, name, nameValue);
+    addValue(trackedEntity, birth, birthValue);
+    addValue(trackedEntity, village, villageValue);
+    return trackedEntity;
+  }
+
+  private void addValue(
+      TrackedEntity trackedEntity, TrackedEntityAttribute attribute, String value) {
+    TrackedEntityAttributeValue attributeValue =
+        createTrackedEntityAttributeValue('A', trackedEntity, attribute);
+    attributeValue.setValue(value);
+    attributeValueService.addTrackedEntityAttributeValue(attributeValue);
+  }
+
+  private void updateValue(
+      TrackedEntity trackedEntity, TrackedEntityAttribute attribute, String value) {
+    jdbcTemplate.update(
+        "update trackedentityattributevalue set value = ? "
+            + "where trackedentityid = ? and trackedentityattributeid = ?",
+        value,
+        trackedEntity.getId(),
+        attribute.getId());
+  }
+
+  private Set<List<String>> getPotentialDuplicates() {
+    return jdbcTemplate
+        .query(
+            "select original, duplicate from potentialduplicate",
+            (rs, i) -> List.of(rs.getString(1), rs.getString(2)))
+        .stream()
+        .collect(Collectors.toSet());
+  }
+
+  /** The entity with the lower id is the original. */
+  private static List<String> pair(TrackedEntity a, TrackedEntity b) {
+    return a.getId() < b.getId()
+        ? List.of(a.getUid(), b.getUid())
+        : List.of(b.getUid(), a.getUid());
+  }
+}
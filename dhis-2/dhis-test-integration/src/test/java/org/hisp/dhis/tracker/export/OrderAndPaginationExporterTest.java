@@ -36,6 +36,7 @@ import static org.hisp.dhis.tracker.Assertions.assertNoErrors;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.io.IOException;
 import java.util.Collections;
@@ -717,6 +718,36 @@ class OrderAndPaginationExporterTest extends TrackerTest {
         () -> assertEquals(List.of("D9PbzJY8bJM", "pTzf9KYMk72"), uids(page)));
   }
 
+  @Test
+  void shouldReturnPaginatedEventsGivenCursor() throws ForbiddenException, BadRequestException {
+    EventOperationParams params =
+        eventParamsBuilder.orgUnit(orgUnit).programStage(programStage).build();
+
+    Page<Event> firstPage = eventService.getEvents(params, new PageParams(1, 1, false));
+
+    assertAll(
+        "first page",
+        () -> assertPage(1, 1, firstPage),
+        () -> assertEquals(List.of("D9PbzJY8bJM"), uids(firstPage)),
+        () -> assertNotNull(firstPage.getNextPageCursor()));
+
+    Page<Event> secondPage =
+        eventService.getEvents(
+            params, PageParams.ofCursor(firstPage.getNextPageCursor(), 1, false));
+
+    assertAll(
+        "second page",
+        () -> assertPage(1, 1, secondPage),
+        () -> assertEquals(List.of("pTzf9KYMk72"), uids(secondPage)));
+
+    Page<Event> thirdPage =
+        eventService.getEvents(
+            params, PageParams.ofCursor(secondPage.getNextPageCursor(), 1, false));
+
+    assertIsEmpty(thirdPage.getItems());
+    assertNull(thirdPage.getNextPageCursor());
+  }
+
   @Test
   void shouldReturnPaginatedPublicEventsWithMultipleCategoryOptionsGivenNonDefaultPageSize()
       throws ForbiddenException, BadRequestException {
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports.bundle;
+
+import static org.hisp.dhis.tracker.Assertions.assertNoErrors;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.Session;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.program.Event;
+import org.hisp.dhis.tracker.TrackerTest;
+import org.hisp.dhis.tracker.imports.TrackerImportParams;
+import org.hisp.dhis.tracker.imports.TrackerImportService;
+import org.hisp.dhis.tracker.imports.domain.TrackerObjects;
+import org.hisp.dhis.tracker.imports.report.ImportReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/** Checks that the tracker commit sends its inserts in JDBC batches. */
+class TrackerJdbcBatchingTest extends TrackerTest {
+  @Autowired private TrackerImportService trackerImportService;
+
+  @Autowired private DhisConfigurationProvider config;
+
+  @BeforeAll
+  void setUp() throws IOException {
+    setUpMetadata("tracker/event_metadata.json");
+
+    injectSecurityContextUser(userService.getUser("tTgjgobT1oS"));
+  }
+
+  @AfterEach
+  void resetBatchSize() {
+    config.getProperties().remove(ConfigurationKey.TRACKER_IMPORT_JDBC_BATCH_SIZE.getKey());
+  }
+
+  @Test
+  void shouldSendInsertsInJdbcBatchesWhenBatchSizeIsSet() throws IOException {
+    config.getProperties().put(ConfigurationKey.TRACKER_IMPORT_JDBC_BATCH_SIZE.getKey(), "50");
+
+    assertTrue(importEventsAndCountJdbcBatches() > 0);
+    assertEquals(8, countEvents());
+  }
+
+  @Test
+  void shouldNotSendInsertsInJdbcBatchesWhenBatchSizeIsZero() throws IOException {
+    config.getProperties().put(ConfigurationKey.TRACKER_IMPORT_JDBC_BATCH_SIZE.getKey(), "0");
+
+    assertEquals(0, importEventsAndCountJdbcBatches());
+    assertEquals(8, countEvents());
+  }
+
+  private int importEventsAndCountJdbcBatches() throws IOException {
+    AtomicInteger batches = new AtomicInteger();
+    entityManager
+        .unwrap(Session.class)
+        .addEventListeners(
+            new BaseSessionEventListener() {
+              @Override
+              public void jdbcExecuteBatchStart() {
+                batches.incrementAndGet();
+              }
+            });
+    TrackerObjects trackerObjects = fromJson("tracker/event_events_and_enrollment.json");
+
+    ImportReport importReport =
+        trackerImportService.importTracker(TrackerImportParams.builder().build(), trackerObjects);
+    entityManager.flush();
+
+    assertNoErrors(importReport);
+    return batches.get();
+  }
+
+  private int countEvents() {
+    return manager.getAll(Event.class).size();
+  }
+}
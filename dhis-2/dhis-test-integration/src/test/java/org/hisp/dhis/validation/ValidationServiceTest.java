@@ -128,6 +128,8 @@ class ValidationServiceTest extends PostgresIntegrationTestBase {
 
   @Autowired private UserService injectUserService;
 
+  @Autowired private ValidationResultService validationResultService;
+
   private DataElement dataElementA;
 
   private DataElement dataElementB;
@@ -1646,6 +1648,76 @@ class ValidationServiceTest extends PostgresIntegrationTestBase {
     assertResultsEquals(reference, results);
   }
 
+  @Test
+  void testValidateIncrementalOnlyChangedOrgUnits() throws InterruptedException {
+    validationRuleService.saveValidationRule(ruleA);
+    useViolatingDataValues(sourceC);
+    Date changedSince = getChangedSince();
+    useViolatingDataValues(sourceA);
+
+    Collection<ValidationResult> results =
+        runValidationAnalysis(createIncrementalParams(List.of(ruleA), changedSince, false));
+
+    Collection<ValidationResult> reference = new HashSet<>();
+    reference.add(
+        new ValidationResult(ruleA, periodA, sourceA, defaultCombo, 3.0, -1.0, dayInPeriodA));
+    assertResultsEquals(reference, results);
+  }
+
+  @Test
+  void testValidateIncrementalEditedRuleForAllOrgUnits() throws InterruptedException {
+    validationRuleService.saveValidationRule(ruleA);
+    validationRuleService.saveValidationRule(ruleB);
+    useViolatingDataValues(sourceC);
+    Date changedSince = getChangedSince();
+    useViolatingDataValues(sourceA);
+    ruleA.setDescription("edited");
+    validationRuleService.updateValidationRule(ruleA);
+
+    Collection<ValidationResult> results =
+        runValidationAnalysis(createIncrementalParams(List.of(ruleA, ruleB), changedSince, false));
+
+    Collection<ValidationResult> reference = new HashSet<>();
+    reference.add(
+        new ValidationResult(ruleA, periodA, sourceA, defaultCombo, 3.0, -1.0, dayInPeriodA));
+    reference.add(
+        new ValidationResult(ruleA, periodA, sourceC, defaultCombo, 3.0, -1.0, dayInPeriodA));
+    reference.add(
+        new ValidationResult(ruleB, periodA, sourceA, defaultCombo, -1.0, 4.0, dayInPeriodA));
+    assertResultsEquals(reference, results);
+  }
+
+  @Test
+  void testValidateIncrementalMergesWithPersistedResults() throws InterruptedException {
+    validationRuleService.saveValidationRule(ruleA);
+    useViolatingDataValues(sourceA);
+    useViolatingDataValues(sourceC);
+    runValidationAnalysis(createIncrementalParams(List.of(ruleA), null, true));
+    assertEquals(2, getPersistedResults(ruleA).size());
+
+    Date changedSince = getChangedSince();
+    // the result for sourceA no longer holds, the one for sourceC is
+    // found again and the one for sourceE is new
+    DataValue valueA = dataValueService.getDataValue(dataElementC, periodA, sourceA, optionCombo);
+    valueA.setValue("7");
+    dataValueService.updateDataValue(valueA);
+    DataValue valueC = dataValueService.getDataValue(dataElementB, periodA, sourceC, optionCombo);
+    valueC.setValue("3");
+    dataValueService.updateDataValue(valueC);
+    useViolatingDataValues(sourceE);
+
+    Collection<ValidationResult> results =
+        runValidationAnalysis(createIncrementalParams(List.of(ruleA), changedSince, true));
+
+    Collection<ValidationResult> reference = new HashSet<>();
+    reference.add(
+        new ValidationResult(ruleA, periodA, sourceC, defaultCombo, 3.0, -1.0, dayInPeriodA));
+    reference.add(
+        new ValidationResult(ruleA, periodA, sourceE, defaultCombo, 3.0, -1.0, dayInPeriodA));
+    assertResultsEquals(reference, results);
+    assertResultsEquals(reference, getPersistedResults(ruleA));
+  }
+
   @Test
   void testInstructionTranslation() {
     createUserAndInjectSecurityContext(true);
@@ -1706,6 +1778,36 @@ class ValidationServiceTest extends PostgresIntegrationTestBase {
     return validationService.validationAnalysis(params, JobProgress.noop());
   }
 
+  /** Adds data values for which deA + deB = deC - deD does not hold (3 = -1). */
+  private void useViolatingDataValues(OrganisationUnit source) {
+    useDataValue(dataElementA, periodA, source, "1");
+    useDataValue(dataElementB, periodA, source, "2");
+    useDataValue(dataElementC, periodA, source, "3");
+    useDataValue(dataElementD, periodA, source, "4");
+  }
+
+  /** Returns a date which is after all earlier changes and before all later changes. */
+  private Date getChangedSince() throws InterruptedException {
+    Thread.sleep(10);
+    Date changedSince = new Date();
+    Thread.sleep(10);
+    return changedSince;
+  }
+
+  private ValidationAnalysisParams createIncrementalParams(
+      List<ValidationRule> rules, Date changedSince, boolean persistResults) {
+    return validationService
+        .newParamsBuilder(rules, null, List.of(periodA))
+        .withPersistResults(persistResults)
+        .withChangedSince(changedSince)
+        .build();
+  }
+
+  private List<ValidationResult> getPersistedResults(ValidationRule rule) {
+    return validationResultService.getValidationResults(
+        null, false, List.of(rule), List.of(periodA));
+  }
+
   private ValidationAnalysisParams createParamsMonthlySourceAPeriodA() {
     return validationService.newParamsBuilder(dataSetMonthly, sourceA, periodA).build();
   }
@@ -51,6 +51,7 @@ import org.hisp.dhis.webapi.mvc.CurrentUserHandlerMethodArgumentResolver;
 import org.hisp.dhis.webapi.mvc.CustomRequestMappingHandlerMapping;
 import org.hisp.dhis.webapi.mvc.DhisApiVersionHandlerMethodArgumentResolver;
 import org.hisp.dhis.webapi.mvc.interceptor.AuthorityInterceptor;
+import org.hisp.dhis.webapi.mvc.interceptor.DeepEtagInterceptor;
 import org.hisp.dhis.webapi.mvc.interceptor.RequestInfoInterceptor;
 import org.hisp.dhis.webapi.mvc.interceptor.SystemSettingsInterceptor;
 import org.hisp.dhis.webapi.mvc.interceptor.UserContextInterceptor;
@@ -106,6 +107,8 @@ public class MvcTestConfig implements WebMvcConfigurer {
 
   @Autowired private SystemSettingsInterceptor settingsInterceptor;
 
+  @Autowired private DeepEtagInterceptor deepEtagInterceptor;
+
   @Autowired private NodeService nodeService;
 
   @Autowired
@@ -146,6 +149,7 @@ public class MvcTestConfig implements WebMvcConfigurer {
     registry.addInterceptor(new RequestInfoInterceptor(requestInfoService));
     registry.addInterceptor(authorityInterceptor);
     registry.addInterceptor(settingsInterceptor);
+    registry.addInterceptor(deepEtagInterceptor);
     mapping.setInterceptors(registry.getInterceptors().toArray());
 
     CustomPathExtensionContentNegotiationStrategy pathExtensionNegotiationStrategy =
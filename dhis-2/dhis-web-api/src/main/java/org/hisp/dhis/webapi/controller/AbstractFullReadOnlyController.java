@@ -42,14 +42,19 @@ import java.io.IOException;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
+import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.attribute.AttributeService;
 import org.hisp.dhis.common.CodeGenerator;
 import org.hisp.dhis.common.DhisApiVersion;
@@ -67,6 +72,7 @@ import org.hisp.dhis.feedback.ForbiddenException;
 import org.hisp.dhis.feedback.NotFoundException;
 import org.hisp.dhis.fieldfilter.FieldFilterService;
 import org.hisp.dhis.fieldfiltering.FieldFilterParams;
+import org.hisp.dhis.fieldfiltering.FieldPreset;
 import org.hisp.dhis.query.Criterion;
 import org.hisp.dhis.query.GetObjectListParams;
 import org.hisp.dhis.query.GetObjectParams;
@@ -79,11 +85,12 @@ import org.hisp.dhis.schema.Property;
 import org.hisp.dhis.schema.PropertyType;
 import org.hisp.dhis.schema.Schema;
 import org.hisp.dhis.security.acl.AclService;
-import org.hisp.dhis.system.util.ReflectionUtils;
 import org.hisp.dhis.user.CurrentUser;
 import org.hisp.dhis.user.UserDetails;
 import org.hisp.dhis.user.UserSettingsService;
+import org.hisp.dhis.webapi.mvc.DeepEtagSource;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
+import org.hisp.dhis.webapi.mvc.annotation.DeepEtag;
 import org.hisp.dhis.webapi.service.ContextService;
 import org.hisp.dhis.webapi.service.LinkService;
 import org.hisp.dhis.webapi.utils.ContextUtils;
@@ -91,10 +98,12 @@ import org.hisp.dhis.webapi.webdomain.StreamingJsonRoot;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.HandlerMapping;
 
 /**
  * Base controller for APIs that only want to offer read only access through both Gist API and full
@@ -107,7 +116,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 @OpenApi.Document(group = OpenApi.Document.GROUP_QUERY)
 public abstract class AbstractFullReadOnlyController<
         T extends IdentifiableObject, P extends GetObjectListParams>
-    extends AbstractGistReadOnlyController<T> {
+    extends AbstractGistReadOnlyController<T> implements DeepEtagSource {
 
   @Autowired protected IdentifiableObjectManager manager;
 
@@ -168,6 +177,7 @@ public abstract class AbstractFullReadOnlyController<
 
   @OpenApi.Response(GetObjectListResponse.class)
   @GetMapping
+  @DeepEtag
   public @ResponseBody ResponseEntity<StreamingJsonRoot<T>> getObjectList(
       P params, HttpServletResponse response, @CurrentUser UserDetails currentUser)
       throws ForbiddenException, BadRequestException, ConflictException {
@@ -367,16 +377,14 @@ public abstract class AbstractFullReadOnlyController<
               property.getCollectionName(), obj -> getCollectionValue(obj, property));
         } else if (property.isSimple()) {
           schemaBuilder.addColumn(property.getName());
-          obj2valueByProperty.put(
-              property.getName(),
-              obj -> ReflectionUtils.invokeMethod(obj, property.getGetterMethod()));
+          obj2valueByProperty.put(property.getName(), property::getValue);
         }
       }
     }
   }
 
   private static List<String> getCollectionValue(Object obj, Property property) {
-    Object value = ReflectionUtils.invokeMethod(obj, property.getGetterMethod());
+    Object value = property.getValue(obj);
 
     @SuppressWarnings("unchecked")
     Collection<IdentifiableObject> collection = (Collection<IdentifiableObject>) value;
@@ -393,6 +401,7 @@ public abstract class AbstractFullReadOnlyController<
 
   @OpenApi.Response(OpenApi.EntityType.class)
   @GetMapping("/{uid:[a-zA-Z0-9]{11}}")
+  @DeepEtag
   public @ResponseBody ResponseEntity<?> getObject(
       @OpenApi.Param(UID.class) @PathVariable("uid") String pvUid,
       GetObjectParams params,
@@ -544,6 +553,123 @@ public abstract class AbstractFullReadOnlyController<
     return false;
   }
 
+  // --------------------------------------------------------------------------
+  // Deep ETag
+  // --------------------------------------------------------------------------
+
+  /**
+   * Hooks that may base the response on data other than the entity table. Controllers overriding
+   * any of them fall back to shallow ETags.
+   */
+  private static final Set<String> DEEP_ETAG_UNSAFE_HOOKS =
+      Set.of(
+          "postProcessResponseEntities",
+          "postProcessResponseEntity",
+          "addProgrammaticModifiers",
+          "addProgrammaticFilters",
+          "getPreQueryMatches",
+          "getAdditionalFilters",
+          "modifyGetObjectList",
+          "getEntityListPostProcess",
+          "getEntity");
+
+  /** Non-persisted properties which are derived from the columns of the entity table. */
+  private static final Set<String> DEEP_ETAG_DERIVED_PROPERTIES =
+      Set.of(
+          "displayName",
+          "displayShortName",
+          "displayDescription",
+          "displayFormName",
+          "access",
+          "href");
+
+  /**
+   * Whether this controller overrides none of the {@link #DEEP_ETAG_UNSAFE_HOOKS}, computed on
+   * first use. Concurrent requests may compute it more than once, which is harmless as they all
+   * compute the same value.
+   */
+  private volatile Boolean deepEtagSupported;
+
+  /**
+   * The validator is the count and the last updated time of the entity type. It is only provided
+   * when all fields, filters and orders refer to columns of the entity table, as a change of a
+   * nested object or of the inverse side of an association does not update the entity.
+   */
+  @CheckForNull
+  @Override
+  public String getDeepEtag(@Nonnull HttpServletRequest request) {
+    if (!isDeepEtagSupported() || !isDeepEtagRequest(request)) {
+      return null;
+    }
+
+    Class<T> type = getEntityClass();
+    Date lastUpdated = manager.getLastUpdated(type);
+
+    return manager.getCount(type) + "-" + (lastUpdated == null ? 0 : lastUpdated.getTime());
+  }
+
+  private boolean isDeepEtagSupported() {
+    Boolean supported = deepEtagSupported;
+
+    if (supported == null) {
+      boolean overridden = false;
+
+      for (Class<?> type = ClassUtils.getUserClass(getClass());
+          type != AbstractFullReadOnlyController.class;
+          type = type.getSuperclass()) {
+        overridden |=
+            Stream.of(type.getDeclaredMethods())
+                .anyMatch(m -> DEEP_ETAG_UNSAFE_HOOKS.contains(m.getName()));
+      }
+
+      supported = !overridden;
+      deepEtagSupported = supported;
+    }
+    return supported;
+  }
+
+  private boolean isDeepEtagRequest(HttpServletRequest request) {
+    Schema schema = getSchema();
+    Map<?, ?> pathVariables =
+        (Map<?, ?>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+    boolean single = pathVariables != null && pathVariables.containsKey("uid");
+
+    String[] fields = request.getParameterValues("fields");
+    Stream<String> paths =
+        fields == null
+            ? (single ? Stream.of("*") : FieldPreset.defaultPreset().getFields().stream())
+            : Stream.of(fields).flatMap(f -> Stream.of(f.split(",")));
+
+    Stream<String> criteria =
+        Stream.of("filter", "order")
+            .map(request::getParameterValues)
+            .filter(Objects::nonNull)
+            .flatMap(Stream::of)
+            .flatMap(c -> Stream.of(c.split(",")))
+            .map(c -> StringUtils.substringBefore(c, ":"));
+
+    return Stream.concat(paths, criteria)
+        .map(String::trim)
+        .allMatch(path -> isDeepEtagPath(schema, path));
+  }
+
+  private static boolean isDeepEtagPath(Schema schema, String path) {
+    return switch (path) {
+      case "", ":simple", ":identifiable", ":nameable", ":owner" -> true;
+      case "*", ":all", ":persisted" ->
+          schema.getReadableProperties().values().stream()
+              .allMatch(AbstractFullReadOnlyController::isDeepEtagProperty);
+      default ->
+          path.startsWith("!")
+              || schema.hasProperty(path) && isDeepEtagProperty(schema.getProperty(path));
+    };
+  }
+
+  private static boolean isDeepEtagProperty(Property property) {
+    return property.isPersisted() && (property.isSimple() || property.isOwner())
+        || DEEP_ETAG_DERIVED_PROPERTIES.contains(property.getName());
+  }
+
   // --------------------------------------------------------------------------
   // Reflection helpers
   // --------------------------------------------------------------------------
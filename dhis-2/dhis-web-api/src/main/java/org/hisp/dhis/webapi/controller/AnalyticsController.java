@@ -34,7 +34,12 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.http.MediaType.TEXT_HTML_VALUE;
 import static org.springframework.http.MediaType.TEXT_PLAIN_VALUE;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.StringJoiner;
 import javax.annotation.Nonnull;
 import lombok.AllArgsConstructor;
 import org.hisp.dhis.analytics.AnalyticsService;
@@ -42,18 +47,38 @@ import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.analytics.DataQueryService;
 import org.hisp.dhis.analytics.util.AnalyticsUtils;
+import org.hisp.dhis.category.CategoryOption;
+import org.hisp.dhis.category.CategoryOptionGroup;
 import org.hisp.dhis.common.AggregateAnalyticsQueryCriteria;
 import org.hisp.dhis.common.DataQueryRequest;
 import org.hisp.dhis.common.DhisApiVersion;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.IdentifiableObject;
+import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.common.OpenApi;
 import org.hisp.dhis.common.cache.CacheStrategy;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dataset.DataSet;
 import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.dhis.dxf2.datavalueset.DataValueSet;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.indicator.Indicator;
+import org.hisp.dhis.indicator.IndicatorType;
+import org.hisp.dhis.legend.LegendSet;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.organisationunit.OrganisationUnitGroup;
+import org.hisp.dhis.program.Program;
+import org.hisp.dhis.program.ProgramIndicator;
 import org.hisp.dhis.security.RequiresAuthority;
+import org.hisp.dhis.setting.SystemSettings;
+import org.hisp.dhis.setting.SystemSettingsProvider;
+import org.hisp.dhis.system.grid.CsvGridRowHandler;
 import org.hisp.dhis.system.grid.GridUtils;
+import org.hisp.dhis.user.CurrentUserUtil;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.webapi.mvc.DeepEtagSource;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
+import org.hisp.dhis.webapi.mvc.annotation.DeepEtag;
 import org.hisp.dhis.webapi.utils.ContextUtils;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -68,7 +93,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 @Controller
 @ApiVersion({DhisApiVersion.DEFAULT, DhisApiVersion.ALL})
 @AllArgsConstructor
-public class AnalyticsController {
+public class AnalyticsController implements DeepEtagSource {
   private static final String RESOURCE_PATH = "/api/analytics";
 
   private static final String EXPLAIN_PATH = "/explain";
@@ -85,6 +110,64 @@ public class AnalyticsController {
 
   @Nonnull private final DhisConfigurationProvider configurationProvider;
 
+  @Nonnull private final SystemSettingsProvider settingsProvider;
+
+  @Nonnull private final IdentifiableObjectManager manager;
+
+  // -------------------------------------------------------------------------
+  // Deep ETag
+  // -------------------------------------------------------------------------
+
+  /**
+   * Metadata which is read when answering analytics requests rather than taken from the analytics
+   * tables, such as names, indicator expressions and legends, so that a change takes effect
+   * without an analytics table update.
+   */
+  private static final List<Class<? extends IdentifiableObject>> DEEP_ETAG_METADATA =
+      List.of(
+          DataElement.class,
+          Indicator.class,
+          IndicatorType.class,
+          ProgramIndicator.class,
+          DataSet.class,
+          Program.class,
+          OrganisationUnit.class,
+          OrganisationUnitGroup.class,
+          CategoryOption.class,
+          CategoryOptionGroup.class,
+          LegendSet.class);
+
+  /**
+   * The validator is the current date, as relative periods depend on it, the times of the last
+   * analytics, latest analytics partition and resource table updates, the last updated times of the
+   * metadata read at query time and the last updated time of the current user, which covers the
+   * dimension constraints and data view of the user. The identity, sharing context and locales of
+   * the user are added by the {@link DeepEtagSource} caller.
+   */
+  @Override
+  public String getDeepEtag(@Nonnull HttpServletRequest request) {
+    SystemSettings settings = settingsProvider.getCurrentSettings();
+    User user = manager.get(User.class, CurrentUserUtil.getCurrentUserDetails().getUid());
+
+    StringJoiner validator =
+        new StringJoiner("-")
+            .add(LocalDate.now().toString())
+            .add(getTime(settings.getLastSuccessfulAnalyticsTablesUpdate()))
+            .add(getTime(settings.getLastSuccessfulLatestAnalyticsPartitionUpdate()))
+            .add(getTime(settings.getLastSuccessfulResourceTablesUpdate()))
+            .add(getTime(user == null ? null : user.getLastUpdated()));
+
+    for (Class<? extends IdentifiableObject> type : DEEP_ETAG_METADATA) {
+      validator.add(getTime(manager.getLastUpdated(type)));
+    }
+
+    return validator.toString();
+  }
+
+  private static String getTime(Date date) {
+    return date == null ? "0" : String.valueOf(date.getTime());
+  }
+
   // -------------------------------------------------------------------------
   // Resources
   // -------------------------------------------------------------------------
@@ -100,6 +183,7 @@ public class AnalyticsController {
     return getGrid(criteria, apiVersion, ContextUtils.CONTENT_TYPE_JSON, response, true);
   }
 
+  @DeepEtag
   @GetMapping(
       value = RESOURCE_PATH,
       produces = {APPLICATION_JSON_VALUE, "application/javascript"})
@@ -110,6 +194,7 @@ public class AnalyticsController {
     return getGrid(criteria, apiVersion, ContextUtils.CONTENT_TYPE_JSON, response);
   }
 
+  @DeepEtag
   @GetMapping(value = RESOURCE_PATH + ".xml")
   public void getXml(
       AggregateAnalyticsQueryCriteria criteria,
@@ -121,6 +206,7 @@ public class AnalyticsController {
         response.getOutputStream());
   }
 
+  @DeepEtag
   @GetMapping(value = RESOURCE_PATH + ".html")
   public void getHtml(
       AggregateAnalyticsQueryCriteria criteria,
@@ -132,6 +218,7 @@ public class AnalyticsController {
         response.getWriter());
   }
 
+  @DeepEtag
   @GetMapping(value = RESOURCE_PATH + ".html+css")
   public void getHtmlCss(
       AggregateAnalyticsQueryCriteria criteria,
@@ -143,6 +230,7 @@ public class AnalyticsController {
         response.getWriter());
   }
 
+  @DeepEtag
   @GetMapping(value = RESOURCE_PATH + ".csv")
   public void getCsv(
       AggregateAnalyticsQueryCriteria criteria,
@@ -155,6 +243,7 @@ public class AnalyticsController {
         response.getWriter());
   }
 
+  @DeepEtag
   @GetMapping(value = RESOURCE_PATH + ".xls")
   public void getXls(
       AggregateAnalyticsQueryCriteria criteria,
@@ -167,6 +256,7 @@ public class AnalyticsController {
         response.getOutputStream());
   }
 
+  @DeepEtag
   @GetMapping(value = RESOURCE_PATH + ".xlsx")
   public void getXlsx(
       AggregateAnalyticsQueryCriteria criteria,
@@ -230,6 +320,7 @@ public class AnalyticsController {
   // Raw data
   // -------------------------------------------------------------------------
 
+  @DeepEtag
   @GetMapping(value = RESOURCE_PATH + RAW_DATA_PATH + ".json")
   public @ResponseBody Grid getRawDataJson(
       AggregateAnalyticsQueryCriteria criteria,
@@ -251,6 +342,7 @@ public class AnalyticsController {
     return analyticsService.getRawDataValues(params);
   }
 
+  @DeepEtag
   @GetMapping(value = RESOURCE_PATH + RAW_DATA_PATH + ".csv")
   public void getRawDataCsv(
       AggregateAnalyticsQueryCriteria criteria,
@@ -270,15 +362,18 @@ public class AnalyticsController {
         false,
         params.getLatestEndDate());
 
-    Grid grid = analyticsService.getRawDataValues(params);
+    CsvGridRowHandler handler = new CsvGridRowHandler(response.getWriter());
 
-    GridUtils.toCsv(grid, response.getWriter());
+    analyticsService.streamRawDataValues(params, handler);
+
+    handler.flush();
   }
 
   // -------------------------------------------------------------------------
   // Data value set
   // -------------------------------------------------------------------------
 
+  @DeepEtag
   @GetMapping(value = RESOURCE_PATH + DATA_VALUE_SET_PATH + ".xml")
   public @ResponseBody DataValueSet getDataValueSetXml(
       AggregateAnalyticsQueryCriteria criteria,
@@ -297,6 +392,7 @@ public class AnalyticsController {
     return analyticsService.getAggregatedDataValueSet(params);
   }
 
+  @DeepEtag
   @GetMapping(value = RESOURCE_PATH + DATA_VALUE_SET_PATH + ".json")
   public @ResponseBody DataValueSet getDataValueSetJson(
       AggregateAnalyticsQueryCriteria criteria,
@@ -315,6 +411,7 @@ public class AnalyticsController {
     return analyticsService.getAggregatedDataValueSet(params);
   }
 
+  @DeepEtag
   @GetMapping(value = RESOURCE_PATH + DATA_VALUE_SET_PATH + ".csv")
   public void getDataValueSetCsv(
       AggregateAnalyticsQueryCriteria criteria,
@@ -82,6 +82,7 @@ import org.hisp.dhis.system.util.HttpUtils;
 import org.hisp.dhis.tracker.TrackerIdSchemeParam;
 import org.hisp.dhis.tracker.deduplication.PotentialDuplicateConflictException;
 import org.hisp.dhis.tracker.deduplication.PotentialDuplicateForbiddenException;
+import org.hisp.dhis.tracker.export.trackedentity.aggregates.TrackerExportAdmissionException;
 import org.hisp.dhis.util.DateUtils;
 import org.hisp.dhis.webapi.controller.exception.MetadataImportConflictException;
 import org.hisp.dhis.webapi.controller.exception.MetadataSyncException;
@@ -216,6 +217,15 @@ public class CrudControllerAdvice {
     return createWebMessage(ex.getMessage(), Status.ERROR, HttpStatus.SERVICE_UNAVAILABLE);
   }
 
+  @ExceptionHandler(TrackerExportAdmissionException.class)
+  @ResponseBody
+  public WebMessage trackerExportAdmissionExceptionHandler(TrackerExportAdmissionException ex) {
+    return createWebMessage(
+        "Too many concurrent tracker exports, please try again later",
+        Status.ERROR,
+        HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
   @ExceptionHandler(IllegalQueryException.class)
   @ResponseBody
   public WebMessage illegalQueryExceptionHandler(IllegalQueryException ex) {
@@ -109,7 +109,8 @@ public class MinMaxValueGenerationController {
 
     double factor = settings.getFactorOfDeviation();
 
-    minMaxDataAnalysisService.generateMinMaxValues(organisationUnit, dataElements, factor);
+    minMaxDataAnalysisService.generateMinMaxValues(
+        organisationUnit, dataElements, factor, minMaxValueParams.getChangedSince());
   }
 
   @DeleteMapping("/{ou}")
@@ -36,6 +36,7 @@ import org.hisp.dhis.common.DhisApiVersion;
 import org.hisp.dhis.common.OpenApi;
 import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.dhis.dxf2.metadata.DataSetMetadataExportService;
+import org.hisp.dhis.setting.UserSettings;
 import org.hisp.dhis.user.CurrentUser;
 import org.hisp.dhis.user.UserDetails;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
@@ -61,7 +62,11 @@ public class DataSetMetadataController {
   @GetMapping("/metadata")
   public ResponseEntity<JsonNode> getMetadata(
       @CurrentUser UserDetails currentUser, HttpServletRequest request) {
-    String etag = getEtag(exportService.getDataSetMetadataLastModified(), currentUser);
+    String etag =
+        getEtag(
+            currentUser,
+            exportService.getDataSetMetadataLastModified(),
+            UserSettings.getCurrentSettings().getUserDbLocale());
 
     return ResponseEntityUtils.withEtagCaching(etag, request, exportService::getDataSetMetadata);
   }
@@ -28,6 +28,8 @@
 package org.hisp.dhis.webapi.controller.tracker.export;
 
 import org.hisp.dhis.common.OpenApi;
+import org.hisp.dhis.feedback.BadRequestException;
+import org.hisp.dhis.tracker.export.PageParams;
 
 /**
  * {@link PageRequestParams} represent the HTTP request parameters that configure whether it is
@@ -38,6 +40,9 @@ import org.hisp.dhis.common.OpenApi;
  * value from a default value.
  *
  * <p>{@code totalPages=true} is only supported on paginated responses.
+ *
+ * <p>Pages are selected either by {@code page} number or by the {@code cursor} returned in the
+ * pager of the previous page. The two are mutually exclusive.
  */
 @OpenApi.Shared(name = "TrackerPageRequestParams")
 public interface PageRequestParams {
@@ -50,6 +55,14 @@ public interface PageRequestParams {
   /** Indicates whether to include the total number of items and pages in the paginated response. */
   Boolean getTotalPages();
 
+  /**
+   * Returns the cursor of the page to be returned, as returned in the pager of the previous page.
+   * Only supported by exports which page in a default order.
+   */
+  default String getCursor() {
+    return null;
+  }
+
   /**
    * Indicates whether to return all items {@code skipPaging=true} or a page of items {@code
    * skipPaging=false}.
@@ -89,4 +102,20 @@ public interface PageRequestParams {
   default boolean isPageTotal() {
     return Boolean.TRUE.equals(getTotalPages());
   }
+
+  /**
+   * Returns the page to be returned, selected by {@link #getCursor()} if given or by {@link
+   * #getPage()} otherwise.
+   *
+   * <p>Note: this assumes the parameters have been validated.
+   *
+   * @throws BadRequestException if the cursor is not valid
+   */
+  default PageParams toPageParams() throws BadRequestException {
+    if (getCursor() != null) {
+      return PageParams.ofCursor(getCursor(), getPageSize(), getTotalPages());
+    }
+
+    return new PageParams(getPage(), getPageSize(), getTotalPages());
+  }
 }
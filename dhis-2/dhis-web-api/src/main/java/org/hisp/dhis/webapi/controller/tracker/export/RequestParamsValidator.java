@@ -463,15 +463,36 @@ public class RequestParamsValidator {
     }
 
     if (!params.isPaged()
-        && (ObjectUtils.firstNonNull(params.getPage(), params.getPageSize()) != null
+        && (ObjectUtils.firstNonNull(params.getPage(), params.getPageSize(), params.getCursor())
+                != null
             || Boolean.TRUE.equals(params.getTotalPages()))) {
       throw new BadRequestException(
-          "Paging cannot be skipped with isSkipPaging=true while also requesting a paginated response with page, pageSize and/or totalPages=true");
+          "Paging cannot be skipped with isSkipPaging=true while also requesting a paginated response with page, pageSize, cursor and/or totalPages=true");
+    }
+
+    if (params.getPage() != null && params.getCursor() != null) {
+      throw new BadRequestException("Only one of parameters 'page' and 'cursor' is allowed.");
     }
 
     validatePaginationBounds(params.getPage(), params.getPageSize());
   }
 
+  /**
+   * Validates that a cursor is not combined with an order. A cursor points into the default order
+   * of the exported items, which is the only order it can seek in.
+   *
+   * @param cursor the cursor request parameter
+   * @param order the order request parameter
+   * @throws BadRequestException if both a cursor and an order are given
+   */
+  public static void validateOrderWithCursor(String cursor, List<OrderCriteria> order)
+      throws BadRequestException {
+    if (cursor != null && order != null && !order.isEmpty()) {
+      throw new BadRequestException(
+          "Parameter 'cursor' cannot be combined with 'order' as pages can only be read by cursor in the default order.");
+    }
+  }
+
   public static void validatePaginationBounds(Integer page, Integer pageSize)
       throws BadRequestException {
     if (lessThan(page, 1)) {
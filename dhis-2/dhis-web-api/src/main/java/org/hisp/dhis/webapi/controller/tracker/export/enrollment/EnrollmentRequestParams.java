@@ -66,6 +66,8 @@ public class EnrollmentRequestParams implements PageRequestParams {
   @OpenApi.Property(defaultValue = "false")
   private Boolean totalPages = false;
 
+  private String cursor;
+
   /**
    * @deprecated use {@link #paging} instead
    */
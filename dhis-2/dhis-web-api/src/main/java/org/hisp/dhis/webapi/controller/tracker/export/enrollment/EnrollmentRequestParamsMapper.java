@@ -31,6 +31,7 @@ import static org.hisp.dhis.util.ObjectUtils.applyIfNotNull;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateDeprecatedParameter;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateDeprecatedUidsParameter;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrderParams;
+import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrderWithCursor;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrgUnitModeForEnrollmentsAndEvents;
 
 import java.util.List;
@@ -87,6 +88,8 @@ class EnrollmentRequestParamsMapper {
             enrollmentRequestParams.getStatus());
 
     validateOrderParams(enrollmentRequestParams.getOrder(), ORDERABLE_FIELD_NAMES);
+    validateOrderWithCursor(
+        enrollmentRequestParams.getCursor(), enrollmentRequestParams.getOrder());
     validateRequestParams(enrollmentRequestParams);
 
     Set<UID> enrollmentUids =
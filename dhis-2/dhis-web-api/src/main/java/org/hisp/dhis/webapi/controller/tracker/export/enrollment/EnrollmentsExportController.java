@@ -109,9 +109,7 @@ class EnrollmentsExportController {
     EnrollmentOperationParams operationParams = paramsMapper.map(requestParams);
 
     if (requestParams.isPaged()) {
-      PageParams pageParams =
-          new PageParams(
-              requestParams.getPage(), requestParams.getPageSize(), requestParams.getTotalPages());
+      PageParams pageParams = requestParams.toPageParams();
 
       org.hisp.dhis.tracker.export.Page<org.hisp.dhis.program.Enrollment> enrollmentsPage =
           enrollmentService.getEnrollments(operationParams, pageParams);
@@ -76,6 +76,8 @@ public class EventRequestParams implements PageRequestParams {
   @OpenApi.Property(defaultValue = "false")
   private Boolean totalPages = false;
 
+  private String cursor;
+
   /**
    * @deprecated use {@link #paging} instead
    */
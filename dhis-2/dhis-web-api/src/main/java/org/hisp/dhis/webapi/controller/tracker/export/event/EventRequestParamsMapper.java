@@ -33,6 +33,7 @@ import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValida
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateDeprecatedParameter;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateDeprecatedUidsParameter;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrderParams;
+import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrderWithCursor;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrgUnitModeForEnrollmentsAndEvents;
 
 import java.util.List;
@@ -123,6 +124,7 @@ class EventRequestParamsMapper {
     validateUpdateDurationParams(eventRequestParams);
     validateOrderParams(
         eventRequestParams.getOrder(), ORDERABLE_FIELD_NAMES, "data element and attribute");
+    validateOrderWithCursor(eventRequestParams.getCursor(), eventRequestParams.getOrder());
 
     EventOperationParamsBuilder builder =
         EventOperationParams.builder()
@@ -161,9 +161,7 @@ class EventsExportController {
     validatePaginationParameters(requestParams);
 
     if (requestParams.isPaged()) {
-      PageParams pageParams =
-          new PageParams(
-              requestParams.getPage(), requestParams.getPageSize(), requestParams.getTotalPages());
+      PageParams pageParams = requestParams.toPageParams();
 
       EventOperationParams eventOperationParams =
           eventParamsMapper.map(requestParams, idSchemeParams);
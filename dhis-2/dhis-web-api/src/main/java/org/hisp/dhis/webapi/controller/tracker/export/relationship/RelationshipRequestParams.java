@@ -58,6 +58,8 @@ public class RelationshipRequestParams implements PageRequestParams {
   @OpenApi.Property(defaultValue = "false")
   private Boolean totalPages = false;
 
+  private String cursor;
+
   /**
    * @deprecated use {@link #paging} instead
    */
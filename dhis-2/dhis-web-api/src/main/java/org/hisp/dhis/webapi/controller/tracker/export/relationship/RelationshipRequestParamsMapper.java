@@ -32,6 +32,7 @@ import static org.hisp.dhis.tracker.TrackerType.EVENT;
 import static org.hisp.dhis.tracker.TrackerType.TRACKED_ENTITY;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateDeprecatedParameter;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrderParams;
+import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrderWithCursor;
 
 import java.util.List;
 import java.util.Objects;
@@ -85,6 +86,8 @@ class RelationshipRequestParamsMapper {
     }
 
     validateOrderParams(relationshipRequestParams.getOrder(), ORDERABLE_FIELD_NAMES);
+    validateOrderWithCursor(
+        relationshipRequestParams.getCursor(), relationshipRequestParams.getOrder());
 
     RelationshipOperationParamsBuilder builder =
         RelationshipOperationParams.builder()
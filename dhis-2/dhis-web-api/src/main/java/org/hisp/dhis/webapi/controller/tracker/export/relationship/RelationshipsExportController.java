@@ -105,9 +105,7 @@ class RelationshipsExportController {
     RelationshipOperationParams operationParams = mapper.map(requestParams);
 
     if (requestParams.isPaged()) {
-      PageParams pageParams =
-          new PageParams(
-              requestParams.getPage(), requestParams.getPageSize(), requestParams.getTotalPages());
+      PageParams pageParams = requestParams.toPageParams();
 
       org.hisp.dhis.tracker.export.Page<org.hisp.dhis.relationship.Relationship> relationshipsPage =
           relationshipService.getRelationships(operationParams, pageParams);
@@ -170,9 +170,7 @@ class TrackedEntitiesExportController {
     TrackedEntityOperationParams operationParams = paramsMapper.map(requestParams, currentUser);
 
     if (requestParams.isPaged()) {
-      PageParams pageParams =
-          new PageParams(
-              requestParams.getPage(), requestParams.getPageSize(), requestParams.getTotalPages());
+      PageParams pageParams = requestParams.toPageParams();
 
       org.hisp.dhis.tracker.export.Page<org.hisp.dhis.trackedentity.TrackedEntity>
           trackedEntitiesPage =
@@ -73,6 +73,8 @@ public class TrackedEntityRequestParams implements PageRequestParams {
   @OpenApi.Property(defaultValue = "false")
   private Boolean totalPages = false;
 
+  private String cursor;
+
   /**
    * @deprecated use {@link #paging} instead
    */
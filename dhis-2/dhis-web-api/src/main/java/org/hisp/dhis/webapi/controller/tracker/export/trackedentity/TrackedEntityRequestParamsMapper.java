@@ -32,6 +32,7 @@ import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValida
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateDeprecatedParameter;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateDeprecatedUidsParameter;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrderParams;
+import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrderWithCursor;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrgUnitModeForTrackedEntities;
 
 import java.util.List;
@@ -121,6 +122,8 @@ class TrackedEntityRequestParamsMapper {
             "trackedEntities",
             trackedEntityRequestParams.getTrackedEntities());
     validateOrderParams(trackedEntityRequestParams.getOrder(), ORDERABLE_FIELD_NAMES, "attribute");
+    validateOrderWithCursor(
+        trackedEntityRequestParams.getCursor(), trackedEntityRequestParams.getOrder());
     validateRequestParams(trackedEntityRequestParams, trackedEntities);
 
     Map<UID, List<QueryFilter>> filters = parseFilters(trackedEntityRequestParams.getFilter());
@@ -96,7 +96,7 @@ public class Page<T> {
     this.pageSize = null;
     this.total = null;
     this.pageCount = null;
-    this.pager = new Pager(page, pageSize, null, null, prevPage, nextPage);
+    this.pager = new Pager(page, pageSize, null, null, prevPage, nextPage, null);
   }
 
   /**
@@ -119,13 +119,13 @@ public class Page<T> {
    *     to the standard pager object.
    */
   @Deprecated(since = "2.41")
-  private Page(String key, List<T> values, int page, int pageSize) {
+  private Page(String key, List<T> values, int page, int pageSize, String nextPageCursor) {
     this.items.put(key, values);
     this.page = page;
     this.pageSize = pageSize;
     this.total = null;
     this.pageCount = null;
-    this.pager = new Pager(page, pageSize, null, null, null, null);
+    this.pager = new Pager(page, pageSize, null, null, null, null, nextPageCursor);
   }
 
   /**
@@ -135,13 +135,14 @@ public class Page<T> {
    *     to the standard pager object.
    */
   @Deprecated(since = "2.41")
-  private Page(String key, List<T> values, int page, int pageSize, long total) {
+  private Page(
+      String key, List<T> values, int page, int pageSize, long total, String nextPageCursor) {
     this.items.put(key, values);
     this.page = page;
     this.pageSize = pageSize;
     this.total = total;
     this.pageCount = (int) Math.ceil(total / (double) pageSize);
-    this.pager = new Pager(page, pageSize, total, this.pageCount, null, null);
+    this.pager = new Pager(page, pageSize, total, this.pageCount, null, null, nextPageCursor);
   }
 
   /**
@@ -157,9 +158,15 @@ public class Page<T> {
   public static <T> Page<T> withPager(String key, org.hisp.dhis.tracker.export.Page<T> pager) {
     if (pager.getTotal() != null) {
       return new Page<>(
-          key, pager.getItems(), pager.getPage(), pager.getPageSize(), pager.getTotal());
+          key,
+          pager.getItems(),
+          pager.getPage(),
+          pager.getPageSize(),
+          pager.getTotal(),
+          pager.getNextPageCursor());
     }
-    return new Page<>(key, pager.getItems(), pager.getPage(), pager.getPageSize());
+    return new Page<>(
+        key, pager.getItems(), pager.getPage(), pager.getPageSize(), pager.getNextPageCursor());
   }
 
   /**
@@ -196,6 +203,12 @@ public class Page<T> {
     @JsonProperty private Integer pageCount;
     @JsonProperty private String prevPage;
     @JsonProperty private String nextPage;
+
+    /**
+     * Cursor to pass in the {@code cursor} request parameter to get the next page. Reading pages by
+     * cursor costs the same no matter how deep into the result set the page is.
+     */
+    @JsonProperty private String nextPageCursor;
   }
 
   private static String getPageLink(String url, Integer page) {
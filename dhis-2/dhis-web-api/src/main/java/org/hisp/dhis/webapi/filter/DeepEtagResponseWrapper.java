@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import org.hisp.dhis.webapi.mvc.interceptor.DeepEtagInterceptor;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Response wrapper which sets the ETag computed by the {@link DeepEtagInterceptor} when the body is
+ * written, as only then the status of the response is known. The ETag is only set on successful
+ * responses, so that error responses are not cached under the ETag of the resource.
+ *
+ * @see DeepEtagInterceptor#ETAG_ATTRIBUTE
+ */
+public class DeepEtagResponseWrapper extends HttpServletResponseWrapper {
+  private final HttpServletRequest request;
+
+  public DeepEtagResponseWrapper(HttpServletRequest request, HttpServletResponse response) {
+    super(response);
+    this.request = request;
+  }
+
+  @Override
+  public ServletOutputStream getOutputStream() throws IOException {
+    setEtag();
+    return super.getOutputStream();
+  }
+
+  @Override
+  public PrintWriter getWriter() throws IOException {
+    setEtag();
+    return super.getWriter();
+  }
+
+  @Override
+  public void flushBuffer() throws IOException {
+    setEtag();
+    super.flushBuffer();
+  }
+
+  private void setEtag() {
+    Object etag = request.getAttribute(DeepEtagInterceptor.ETAG_ATTRIBUTE);
+
+    if (etag == null || isCommitted()) {
+      return;
+    }
+
+    request.removeAttribute(DeepEtagInterceptor.ETAG_ATTRIBUTE);
+
+    if (getStatus() >= 200 && getStatus() < 300) {
+      setHeader(HttpHeaders.ETAG, etag.toString());
+    }
+  }
+}
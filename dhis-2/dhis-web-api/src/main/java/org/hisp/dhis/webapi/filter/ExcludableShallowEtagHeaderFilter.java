@@ -62,6 +62,9 @@ import org.springframework.web.filter.ShallowEtagHeaderFilter;
  * <p>The example exactly matches and excludes any request to the '/api/dataValues' and
  * '/api/dataValues/files' from the filter.
  *
+ * <p>The response of all requests is wrapped in a {@link DeepEtagResponseWrapper}, which sets the
+ * ETag computed for deep ETag endpoints on successful responses.
+ *
  * @author Lars Helge Overland
  * @author Halvdan Hoem Grelland
  */
@@ -123,12 +126,15 @@ public class ExcludableShallowEtagHeaderFilter extends ShallowEtagHeaderFilter {
 
     boolean match = pattern.matcher(uri).find();
 
+    // Set deep ETags only once the status of the response is known
+    HttpServletResponse wrapper = new DeepEtagResponseWrapper(request, response);
+
     if (match) {
       // Proceed without invoking this filter
-      filterChain.doFilter(request, response);
+      filterChain.doFilter(request, wrapper);
     } else {
       // Invoke this filter
-      super.doFilterInternal(request, response, filterChain);
+      super.doFilterInternal(request, wrapper, filterChain);
     }
   }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.mvc.interceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import javax.annotation.Nonnull;
+import org.hisp.dhis.setting.UserSettings;
+import org.hisp.dhis.user.CurrentUserUtil;
+import org.hisp.dhis.webapi.filter.DeepEtagResponseWrapper;
+import org.hisp.dhis.webapi.mvc.DeepEtagSource;
+import org.hisp.dhis.webapi.mvc.annotation.DeepEtag;
+import org.hisp.dhis.webapi.utils.ContextUtils;
+import org.hisp.dhis.webapi.utils.ResponseEntityUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Interceptor which computes the ETag of {@link DeepEtag} handler methods before the handler is
+ * invoked.
+ *
+ * <p>The ETag is a hash of the validator provided by the {@link DeepEtagSource} controller, the
+ * request URL, the accepted content types, the locales and the sharing context of the current user.
+ * If the {@code If-None-Match} header matches, the request is answered with 304 and the handler is
+ * not invoked. Otherwise the ETag is stored in the {@link #ETAG_ATTRIBUTE} request attribute and
+ * content caching of the {@link ShallowEtagHeaderFilter} is disabled, so that the response is
+ * streamed rather than buffered and hashed. The {@link DeepEtagResponseWrapper} sets the ETag
+ * header once the body is written and only if the response is successful.
+ */
+@Component
+public class DeepEtagInterceptor implements HandlerInterceptor {
+  /** Request attribute holding the quoted ETag to set on a successful response. */
+  public static final String ETAG_ATTRIBUTE = DeepEtagInterceptor.class.getName() + ".ETAG";
+
+  @Override
+  public boolean preHandle(
+      @Nonnull HttpServletRequest request,
+      @Nonnull HttpServletResponse response,
+      @Nonnull Object handler) {
+    if (!(handler instanceof HandlerMethod handlerMethod)
+        || !handlerMethod.getMethod().isAnnotationPresent(DeepEtag.class)
+        || !(handlerMethod.getBean() instanceof DeepEtagSource source)
+        || !HttpMethod.GET.matches(request.getMethod())
+        || !CurrentUserUtil.hasCurrentUser()) {
+      return true;
+    }
+
+    String validator = source.getDeepEtag(request);
+
+    if (validator == null) {
+      return true;
+    }
+
+    String etag = getEtag(request, validator);
+    String header = "\"" + etag + "\"";
+
+    if (ResponseEntityUtils.checkNotModified(etag, request)) {
+      response.setHeader(HttpHeaders.ETAG, header);
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return false;
+    }
+
+    request.setAttribute(ETAG_ATTRIBUTE, header);
+    ShallowEtagHeaderFilter.disableContentCaching(request);
+
+    return true;
+  }
+
+  private static String getEtag(HttpServletRequest request, String validator) {
+    UserSettings settings = UserSettings.getCurrentSettings();
+
+    return ContextUtils.getEtag(
+        CurrentUserUtil.getCurrentUserDetails(),
+        validator,
+        request.getRequestURI(),
+        request.getQueryString(),
+        request.getHeader(HttpHeaders.ACCEPT),
+        settings.getUserUiLocale(),
+        settings.getUserDbLocale());
+  }
+}
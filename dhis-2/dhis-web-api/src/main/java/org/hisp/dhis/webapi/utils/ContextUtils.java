@@ -28,12 +28,16 @@
 package org.hisp.dhis.webapi.utils;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.String.valueOf;
 import static org.hisp.dhis.common.cache.CacheStrategy.RESPECT_SYSTEM_SETTING;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Date;
+import java.util.StringJoiner;
+import java.util.TreeSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
@@ -291,6 +295,43 @@ public class ContextUtils {
     return HashUtils.hashMD5(value.getBytes());
   }
 
+  /**
+   * Returns an ETag based on the given validators and the sharing context of the given user,
+   * returned as 32 character string representation of an MD5 hash. In contrast to {@link
+   * #getEtag(Date, UserDetails)} the ETag also changes when the user groups, authorities or
+   * organisation units of the user change, as these decide which objects are visible to the user.
+   *
+   * @param user the {@link UserDetails}.
+   * @param validators the values that change whenever the response would change, e.g. last
+   *     modified dates and counts, null values are allowed.
+   * @return an ETag string, or null if the user is null.
+   */
+  public static String getEtag(UserDetails user, Object... validators) {
+    if (user == null) {
+      return null;
+    }
+
+    StringJoiner value = new StringJoiner("-");
+
+    for (Object validator : validators) {
+      value.add(validator instanceof Date date ? DateUtils.toLongDate(date) : valueOf(validator));
+    }
+
+    value
+        .add(user.getUid())
+        .add(sorted(user.getUserGroupIds()))
+        .add(sorted(user.getAllAuthorities()))
+        .add(sorted(user.getUserOrgUnitIds()))
+        .add(sorted(user.getUserDataOrgUnitIds()))
+        .add(sorted(user.getUserSearchOrgUnitIds()));
+
+    return HashUtils.hashMD5(value.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String sorted(Collection<String> values) {
+    return values == null ? "" : String.join(",", new TreeSet<>(values));
+  }
+
   /**
    * Indicates whether the given requests indicates that it accepts a compressed response.
    *
@@ -32,6 +32,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -41,6 +42,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.Date;
 import java.util.List;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
@@ -59,8 +61,14 @@ import org.hisp.dhis.common.IdScheme;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.indicator.Indicator;
+import org.hisp.dhis.setting.SystemSettings;
+import org.hisp.dhis.setting.SystemSettingsProvider;
 import org.hisp.dhis.system.grid.ListGrid;
 import org.hisp.dhis.test.TestBase;
+import org.hisp.dhis.user.CurrentUserUtil;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserDetails;
 import org.hisp.dhis.webapi.utils.ContextUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -70,6 +78,7 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -84,6 +93,8 @@ class AnalyticsControllerTest {
 
   private MockMvc mockMvc;
 
+  private AnalyticsController controller;
+
   @Mock private AnalyticsService analyticsService;
 
   @Mock private ContextUtils contextUtils;
@@ -94,6 +105,10 @@ class AnalyticsControllerTest {
 
   @Mock private DhisConfigurationProvider dhisConfigurationProvider;
 
+  @Mock private SystemSettingsProvider settingsProvider;
+
+  @Mock private IdentifiableObjectManager manager;
+
   @BeforeEach
   public void setUp() {
 
@@ -119,9 +134,14 @@ class AnalyticsControllerTest {
             });
 
     // Controller under test
-    AnalyticsController controller =
+    controller =
         new AnalyticsController(
-            dataQueryService, analyticsService, contextUtils, dhisConfigurationProvider);
+            dataQueryService,
+            analyticsService,
+            contextUtils,
+            dhisConfigurationProvider,
+            settingsProvider,
+            manager);
 
     mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
 
@@ -249,6 +269,35 @@ class AnalyticsControllerTest {
         .andExpect(status().isOk());
   }
 
+  @Test
+  void testGetDeepEtagDependsOnMetadataAndUser() {
+    User user = new User();
+    user.setUid("kYt56BgfED2");
+    user.setUsername("analytics");
+    user.setLastUpdated(new Date(1000));
+    CurrentUserUtil.injectUserInSecurityContext(UserDetails.fromUser(user));
+
+    try {
+      when(settingsProvider.getCurrentSettings()).thenReturn(mock(SystemSettings.class));
+      when(manager.get(User.class, "kYt56BgfED2")).thenReturn(user);
+      when(manager.getLastUpdated(Indicator.class)).thenReturn(new Date(1000));
+      MockHttpServletRequest request = new MockHttpServletRequest("GET", ENDPOINT);
+
+      String etag = controller.getDeepEtag(request);
+
+      when(manager.getLastUpdated(Indicator.class)).thenReturn(new Date(2000));
+      String indicatorUpdated = controller.getDeepEtag(request);
+
+      user.setLastUpdated(new Date(2000));
+      String userUpdated = controller.getDeepEtag(request);
+
+      assertNotEquals(etag, indicatorUpdated);
+      assertNotEquals(indicatorUpdated, userUpdated);
+    } finally {
+      CurrentUserUtil.clearSecurityContext();
+    }
+  }
+
   private Grid buildMockGrid() {
     Grid grid = new ListGrid();
     grid.addHeader(new GridHeader("a"));
@@ -34,6 +34,7 @@ import static org.hisp.dhis.webapi.controller.event.webrequest.OrderCriteria.fro
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.parseFilters;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateFilter;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrderParams;
+import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrderWithCursor;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrgUnitModeForEnrollmentsAndEvents;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrgUnitModeForTrackedEntities;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validatePaginationParameters;
@@ -438,6 +439,7 @@ class RequestParamsValidatorTest {
     private Boolean totalPages;
     private Boolean skipPaging;
     private Boolean paging;
+    private String cursor;
   }
 
   private static Stream<Arguments> mutuallyExclusivePaginationParameters() {
@@ -520,6 +522,47 @@ class RequestParamsValidatorTest {
     validatePaginationParameters(paginationParameters);
   }
 
+  @Test
+  void shouldFailWhenGivenPageAndCursor() {
+    PaginationParameters paginationParameters = new PaginationParameters();
+    paginationParameters.setPage(2);
+    paginationParameters.setCursor("MTIz");
+
+    Exception exception =
+        assertThrows(
+            BadRequestException.class, () -> validatePaginationParameters(paginationParameters));
+
+    assertStartsWith("Only one of parameters 'page' and 'cursor'", exception.getMessage());
+  }
+
+  @Test
+  void shouldFailWhenGivenCursorAndSkipPaging() {
+    PaginationParameters paginationParameters = new PaginationParameters();
+    paginationParameters.setPaging(false);
+    paginationParameters.setCursor("MTIz");
+
+    Exception exception =
+        assertThrows(
+            BadRequestException.class, () -> validatePaginationParameters(paginationParameters));
+
+    assertStartsWith("Paging cannot be skipped with", exception.getMessage());
+  }
+
+  @Test
+  void shouldFailWhenGivenCursorAndOrder() {
+    Exception exception =
+        assertThrows(
+            BadRequestException.class,
+            () -> validateOrderWithCursor("MTIz", fromOrderString("createdAt:asc")));
+
+    assertStartsWith("Parameter 'cursor' cannot be combined", exception.getMessage());
+  }
+
+  @Test
+  void shouldPassWhenGivenCursorWithoutOrder() {
+    assertDoesNotThrow(() -> validateOrderWithCursor("MTIz", List.of()));
+  }
+
   @ValueSource(ints = {-1, 0})
   @ParameterizedTest
   void shouldFailWhenGivenPageLessThanOrEqualToZero(int page) {
@@ -35,6 +35,7 @@ import static org.mockito.Mockito.when;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.FilterConfig;
 import jakarta.servlet.http.HttpServletResponse;
+import org.hisp.dhis.webapi.mvc.interceptor.DeepEtagInterceptor;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -42,6 +43,7 @@ import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.util.FileCopyUtils;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
 class ExcludableShallowEtagHeaderFilterTest {
 
@@ -111,4 +113,25 @@ class ExcludableShallowEtagHeaderFilterTest {
 
     assertEquals("\"0b10a8db164e0754105b7a99be72e3fe5\"", response.getHeader("Etag"));
   }
+
+  @ParameterizedTest
+  @ValueSource(ints = {HttpServletResponse.SC_OK, HttpServletResponse.SC_CONFLICT})
+  void shouldAddDeepEtagHeaderOnSuccessOnly(int status) throws Exception {
+    final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dataElements");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    FilterChain filterChain =
+        (filterRequest, filterResponse) -> {
+          filterRequest.setAttribute(DeepEtagInterceptor.ETAG_ATTRIBUTE, "\"deep\"");
+          ShallowEtagHeaderFilter.disableContentCaching(filterRequest);
+          ((HttpServletResponse) filterResponse).setStatus(status);
+          filterResponse.setContentType(MediaType.TEXT_PLAIN_VALUE);
+          FileCopyUtils.copy("Hello World".getBytes(), filterResponse.getOutputStream());
+        };
+
+    filter.doFilter(request, response, filterChain);
+
+    assertEquals(
+        status == HttpServletResponse.SC_OK ? "\"deep\"" : null, response.getHeader("Etag"));
+  }
 }
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.mvc.interceptor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hisp.dhis.setting.ThreadUserSettings;
+import org.hisp.dhis.user.CurrentUserUtil;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserDetails;
+import org.hisp.dhis.webapi.filter.DeepEtagResponseWrapper;
+import org.hisp.dhis.webapi.mvc.DeepEtagSource;
+import org.hisp.dhis.webapi.mvc.annotation.DeepEtag;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+class DeepEtagInterceptorTest {
+
+  private final DeepEtagInterceptor interceptor = new DeepEtagInterceptor();
+
+  private final Controller controller = new Controller();
+
+  @BeforeEach
+  void setUp() {
+    User user = new User();
+    user.setUid("kYt56BgfED2");
+    user.setUsername("etag");
+    CurrentUserUtil.injectUserInSecurityContext(UserDetails.fromUser(user));
+  }
+
+  @AfterEach
+  void tearDown() {
+    ThreadUserSettings.clear();
+    CurrentUserUtil.clearSecurityContext();
+  }
+
+  @Test
+  void testPreHandleStoresEtag() throws Exception {
+    MockHttpServletRequest request = newRequest();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    assertTrue(interceptor.preHandle(request, response, handler("deep")));
+    assertNotNull(request.getAttribute(DeepEtagInterceptor.ETAG_ATTRIBUTE));
+    assertNull(response.getHeader(HttpHeaders.ETAG));
+    assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+  }
+
+  @Test
+  void testPreHandleNotModified() throws Exception {
+    String etag = getEtag(newRequest());
+
+    MockHttpServletRequest request = newRequest();
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    assertFalse(interceptor.preHandle(request, response, handler("deep")));
+    assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+    assertEquals(etag, response.getHeader(HttpHeaders.ETAG));
+  }
+
+  @Test
+  void testPreHandleModified() throws Exception {
+    String etag = getEtag(newRequest());
+
+    controller.validator = "2";
+    MockHttpServletRequest request = newRequest();
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    assertTrue(interceptor.preHandle(request, response, handler("deep")));
+    assertNotEquals(etag, request.getAttribute(DeepEtagInterceptor.ETAG_ATTRIBUTE));
+  }
+
+  @Test
+  void testPreHandleDependsOnUrl() throws Exception {
+    MockHttpServletRequest request = newRequest();
+    request.setQueryString("fields=id,name");
+
+    assertNotEquals(getEtag(newRequest()), getEtag(request));
+  }
+
+  @Test
+  void testPreHandleWithoutValidator() throws Exception {
+    controller.validator = null;
+
+    assertNull(getEtag(newRequest()));
+  }
+
+  @Test
+  void testPreHandleWithoutAnnotation() throws Exception {
+    MockHttpServletRequest request = newRequest();
+
+    assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), handler("shallow")));
+    assertNull(request.getAttribute(DeepEtagInterceptor.ETAG_ATTRIBUTE));
+  }
+
+  @Test
+  void testResponseWrapperSetsEtagOnSuccess() throws Exception {
+    MockHttpServletRequest request = newRequest();
+    String etag = getEtag(request);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    new DeepEtagResponseWrapper(request, response).getWriter().write("{}");
+
+    assertEquals(etag, response.getHeader(HttpHeaders.ETAG));
+  }
+
+  @Test
+  void testResponseWrapperSkipsEtagOnError() throws Exception {
+    MockHttpServletRequest request = newRequest();
+    getEtag(request);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    HttpServletResponse wrapper = new DeepEtagResponseWrapper(request, response);
+    wrapper.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+    wrapper.getWriter().write("{}");
+
+    assertNull(response.getHeader(HttpHeaders.ETAG));
+  }
+
+  private String getEtag(MockHttpServletRequest request) throws Exception {
+    interceptor.preHandle(request, new MockHttpServletResponse(), handler("deep"));
+    return (String) request.getAttribute(DeepEtagInterceptor.ETAG_ATTRIBUTE);
+  }
+
+  private static MockHttpServletRequest newRequest() {
+    return new MockHttpServletRequest("GET", "/api/dataElements");
+  }
+
+  private HandlerMethod handler(String name) throws NoSuchMethodException {
+    return new HandlerMethod(controller, Controller.class.getMethod(name));
+  }
+
+  static class Controller implements DeepEtagSource {
+
+    String validator = "1";
+
+    @Override
+    public String getDeepEtag(HttpServletRequest request) {
+      return validator;
+    }
+
+    @DeepEtag
+    public void deep() {}
+
+    public void shallow() {}
+  }
+}
@@ -29,8 +29,13 @@ package org.hisp.dhis.webapi.utils;
 
 import static org.hisp.dhis.test.TestBase.getDate;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.util.Date;
+import java.util.Set;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.user.UserDetails;
 import org.junit.jupiter.api.Test;
@@ -46,6 +51,23 @@ class ContextUtilsTest {
         "7c9d6fd16b668638ca0e722aa2451054", ContextUtils.getEtag(date, UserDetails.fromUser(user)));
   }
 
+  @Test
+  void testGetEtagWithSharingContext() {
+    UserDetails user = mock(UserDetails.class);
+    when(user.getUid()).thenReturn("kYt56BgfED2");
+    when(user.getUserGroupIds()).thenReturn(Set.of("Kk12LkEWtXp", "NTC8Gjusz2n"));
+
+    String etag = ContextUtils.getEtag(user, "validator", getDate(2022, 03, 10));
+
+    assertEquals(etag, ContextUtils.getEtag(user, "validator", getDate(2022, 03, 10)));
+    assertNotEquals(etag, ContextUtils.getEtag(user, "validator", getDate(2022, 03, 11)));
+
+    when(user.getUserGroupIds()).thenReturn(Set.of("Kk12LkEWtXp"));
+
+    assertNotEquals(etag, ContextUtils.getEtag(user, "validator", getDate(2022, 03, 10)));
+    assertNull(ContextUtils.getEtag(null, "validator"));
+  }
+
   @Test
   void testQuote() {
     assertEquals("\"2022-03-10T00:00:00\"", ContextUtils.quote("2022-03-10T00:00:00"));